@@ -0,0 +1,183 @@
+package si.telekom.potresi.archive;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.ArchiveConfig;
+import si.telekom.potresi.dto.ArchiveStatisticsDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel statistics over archive ranges.
+ * The range is split into its monthly partitions and each partition into row chunks;
+ * chunks are scanned as fork-join leaf tasks and their partial results (count, histogram,
+ * top-K) are merged pairwise on the way back up.
+ */
+@Component
+public class ArchiveAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveAggregator.class);
+
+    static final double HISTOGRAM_MIN = -2.0;
+    static final double HISTOGRAM_BIN = 0.5;
+    static final int HISTOGRAM_BINS = 26; // [-2.0, 11.0)
+
+    private final EventArchive archive;
+    private final ForkJoinPool pool;
+    private final int chunkRows;
+
+    public ArchiveAggregator(EventArchive archive, ArchiveConfig config) {
+        this.archive = archive;
+        int parallelism = config.getParallelism() > 0 ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkRows = Math.max(1, config.getChunkRows());
+        log.info("Archive aggregation uses {} worker(s) with {}-row chunks.", parallelism, chunkRows);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Aggregates all archived events with origin time in {@code [from, to)}.
+     *
+     * @param topK number of strongest events to include
+     */
+    public ArchiveStatisticsDTO aggregate(Instant from, Instant to, int topK) {
+        long fromMs = from.toEpochMilli();
+        long toMs = to.toEpochMilli();
+
+        try (EventArchive.Pinned pinned = archive.pin(from, to)) {
+            List<Chunk> chunks = new ArrayList<>();
+            for (ArchivePartition partition : pinned.partitions()) {
+                int count = partition.count();
+                for (int start = 0; start < count; start += chunkRows) {
+                    chunks.add(new Chunk(partition, start, Math.min(count, start + chunkRows)));
+                }
+            }
+
+            Partial total = chunks.isEmpty()
+                    ? new Partial(topK)
+                    : pool.invoke(new AggregateTask(chunks, 0, chunks.size(), fromMs, toMs, topK));
+
+            log.debug("Aggregated {} chunk(s) between {} and {}: {} event(s).", chunks.size(), from, to, total.count);
+            return new ArchiveStatisticsDTO(from, to, total.count, total.rated,
+                    total.rated > 0 ? total.maxMagnitude : null,
+                    total.top.materialize(), total.histogramAsMap());
+        }
+    }
+
+    private record Chunk(ArchivePartition partition, int start, int end) {}
+
+    private static final class AggregateTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only ever run in the local pool and are never serialized
+        private final transient List<Chunk> chunks;
+        private final int from;
+        private final int to;
+        private final long fromMs;
+        private final long toMs;
+        private final int topK;
+
+        AggregateTask(List<Chunk> chunks, int from, int to, long fromMs, long toMs, int topK) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.fromMs = fromMs;
+            this.toMs = toMs;
+            this.topK = topK;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 1) {
+                return scan(chunks.get(from));
+            }
+
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(chunks, from, middle, fromMs, toMs, topK);
+            AggregateTask right = new AggregateTask(chunks, middle, to, fromMs, toMs, topK);
+            left.fork();
+            Partial result = right.compute();
+            return result.merge(left.join());
+        }
+
+        private Partial scan(Chunk chunk) {
+            Partial partial = new Partial(topK);
+            ArchivePartition partition = chunk.partition();
+
+            partition.lock().readLock().lock();
+            try {
+                for (int row = chunk.start(); row < chunk.end(); row++) {
+                    long time = partition.time(row);
+                    if (time < fromMs || time >= toMs) continue;
+                    partial.add(partition.magnitude(row), partition, row);
+                }
+            } finally {
+                partition.lock().readLock().unlock();
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * Mergeable aggregate of one or more chunks.
+     */
+    static final class Partial {
+        long count;
+        long rated;
+        double maxMagnitude = Double.NEGATIVE_INFINITY;
+        final long[] histogram = new long[HISTOGRAM_BINS];
+        final TopRows top;
+
+        Partial(int topK) {
+            top = new TopRows(topK);
+        }
+
+        void add(double magnitude, ArchivePartition partition, int row) {
+            count++;
+            if (Double.isNaN(magnitude)) return;
+
+            rated++;
+            maxMagnitude = Math.max(maxMagnitude, magnitude);
+            histogram[bin(magnitude)]++;
+            top.offer(magnitude, partition, row);
+        }
+
+        Partial merge(Partial other) {
+            count += other.count;
+            rated += other.rated;
+            maxMagnitude = Math.max(maxMagnitude, other.maxMagnitude);
+            for (int i = 0; i < HISTOGRAM_BINS; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            top.merge(other.top);
+            return this;
+        }
+
+        Map<String, Long> histogramAsMap() {
+            Map<String, Long> bins = new LinkedHashMap<>();
+            for (int i = 0; i < HISTOGRAM_BINS; i++) {
+                if (histogram[i] > 0) {
+                    bins.put(String.valueOf(HISTOGRAM_MIN + i * HISTOGRAM_BIN), histogram[i]);
+                }
+            }
+            return bins;
+        }
+
+        static int bin(double magnitude) {
+            int bin = (int) Math.floor((magnitude - HISTOGRAM_MIN) / HISTOGRAM_BIN);
+            return Math.clamp(bin, 0, HISTOGRAM_BINS - 1);
+        }
+    }
+}
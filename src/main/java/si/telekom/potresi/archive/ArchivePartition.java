@@ -0,0 +1,581 @@
+package si.telekom.potresi.archive;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * One calendar month of archived events, stored off-heap in two memory-mapped files.
+ * <p>
+ * The {@code .seg} file holds a 64-byte header followed by one fixed-width column per field
+ * (time, magnitude, depth, latitude, longitude, text reference), each {@code capacity} slots long,
+ * so scans read a single contiguous column. The {@code .txt} file is an append-only heap of
+ * {@code [int length][utf-8 id][int length][utf-8 place]} entries referenced from the text column.
+ * Missing magnitudes are stored as NaN. A row whose event moved to another month is tombstoned by setting its time
+ * to {@link #TOMBSTONE}, which lies outside every {@code [from, to)} range, so scans skip it without a check of their own.
+ * <p>
+ * A month that no longer changes is kept on disk as an {@link EventSegment} instead and opened as a read-only
+ * {@link #sealed sealed} partition. Its columns are decoded on first use, each on its own, so a magnitude scan
+ * never decodes coordinates or places; decoded columns are softly referenced and freed by the garbage collector.
+ */
+final class ArchivePartition implements AutoCloseable {
+
+    static final long MAGIC = 0x504F5452_41524331L; // "POTRARC1"
+    static final long HEADER_BYTES = 64;
+    static final int COLUMNS = 6;
+
+    private static final long CAPACITY_OFFSET = 8;
+    private static final long COUNT_OFFSET = 16;
+    private static final long TEXT_END_OFFSET = 24;
+    private static final long NO_TEXT = -1;
+
+    /** Time of a row whose event was moved to another partition. */
+    static final long TOMBSTONE = Long.MAX_VALUE;
+
+    private final YearMonth month;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Mapped partitions
+    private final Arena arena;
+    private final MemorySegment data;
+    private final MemorySegment text;
+    private final MemorySegment times;
+    private final MemorySegment magnitudes;
+    private final MemorySegment depths;
+    private final MemorySegment latitudes;
+    private final MemorySegment longitudes;
+    private final MemorySegment textRefs;
+
+    // Sealed partitions
+    private final EventSegment segment;
+    private final Decoded<MemorySegment> sealedTimes;
+    private final Decoded<MemorySegment> sealedMagnitudes;
+    private final Decoded<MemorySegment> sealedDepths;
+    private final Decoded<double[]> sealedLatitudes;
+    private final Decoded<double[]> sealedLongitudes;
+    private final Decoded<String[]> sealedIds;
+    private final Decoded<String[]> sealedPlaces;
+
+    private volatile int count;
+    private volatile long lastWrite;
+    private long textEnd;
+    /** Ids of the stored events, built on the first {@link #containsId} call; guarded by the write lock. */
+    private Set<String> ids;
+
+    // Guarded by this
+    private int pins;
+    private boolean retired;
+    private boolean closed;
+
+    private ArchivePartition(YearMonth month, int capacity, Arena arena, MemorySegment data, MemorySegment text) {
+        this.month = month;
+        this.capacity = capacity;
+        this.arena = arena;
+        this.data = data;
+        this.text = text;
+
+        long columnBytes = (long) capacity * Long.BYTES;
+        this.times = data.asSlice(HEADER_BYTES, columnBytes);
+        this.magnitudes = data.asSlice(HEADER_BYTES + columnBytes, columnBytes);
+        this.depths = data.asSlice(HEADER_BYTES + 2 * columnBytes, columnBytes);
+        this.latitudes = data.asSlice(HEADER_BYTES + 3 * columnBytes, columnBytes);
+        this.longitudes = data.asSlice(HEADER_BYTES + 4 * columnBytes, columnBytes);
+        this.textRefs = data.asSlice(HEADER_BYTES + 5 * columnBytes, columnBytes);
+
+        this.count = (int) data.get(ValueLayout.JAVA_LONG, COUNT_OFFSET);
+        this.textEnd = data.get(ValueLayout.JAVA_LONG, TEXT_END_OFFSET);
+
+        this.segment = null;
+        this.sealedTimes = null;
+        this.sealedMagnitudes = null;
+        this.sealedDepths = null;
+        this.sealedLatitudes = null;
+        this.sealedLongitudes = null;
+        this.sealedIds = null;
+        this.sealedPlaces = null;
+    }
+
+    private ArchivePartition(YearMonth month, EventSegment segment) {
+        this.month = month;
+        this.capacity = segment.count();
+        this.count = segment.count();
+        this.segment = segment;
+        this.sealedTimes = new Decoded<>(() -> offHeap(segment.times()));
+        this.sealedMagnitudes = new Decoded<>(() -> offHeap(segment.magnitudes()));
+        this.sealedDepths = new Decoded<>(() -> offHeap(segment.depths()));
+        this.sealedLatitudes = new Decoded<>(segment::latitudes);
+        this.sealedLongitudes = new Decoded<>(segment::longitudes);
+        this.sealedIds = new Decoded<>(segment::ids);
+        this.sealedPlaces = new Decoded<>(segment::places);
+
+        this.arena = null;
+        this.data = null;
+        this.text = null;
+        this.times = null;
+        this.magnitudes = null;
+        this.depths = null;
+        this.latitudes = null;
+        this.longitudes = null;
+        this.textRefs = null;
+    }
+
+    /**
+     * Opens the partition files of the given month, creating them if they do not exist.
+     * An existing partition keeps the capacity it was created with.
+     */
+    static ArchivePartition open(Path directory, YearMonth month, int capacity, int textBytesPerEvent) throws IOException {
+        return open(directory, month, capacity, (long) capacity * textBytesPerEvent);
+    }
+
+    /**
+     * Opens the partition files of the given month with a text heap of at least {@code textBytes}.
+     * An existing partition keeps the capacity and text heap it was created with.
+     */
+    static ArchivePartition open(Path directory, YearMonth month, int capacity, long textBytes) throws IOException {
+        Path dataPath = directory.resolve(month + ".seg");
+        Path textPath = directory.resolve(month + ".txt");
+        boolean exists = Files.exists(dataPath);
+
+        Arena arena = Arena.ofShared();
+        try {
+            if (exists) {
+                capacity = readCapacity(dataPath);
+                if (Files.exists(textPath)) {
+                    textBytes = Math.max(textBytes, Files.size(textPath));
+                }
+            }
+
+            MemorySegment data = map(dataPath, HEADER_BYTES + (long) COLUMNS * capacity * Long.BYTES, arena);
+            MemorySegment text = map(textPath, textBytes, arena);
+
+            if (!exists) {
+                data.set(ValueLayout.JAVA_LONG, 0, MAGIC);
+                data.set(ValueLayout.JAVA_INT, CAPACITY_OFFSET, capacity);
+                data.set(ValueLayout.JAVA_LONG, COUNT_OFFSET, 0);
+                data.set(ValueLayout.JAVA_LONG, TEXT_END_OFFSET, 0);
+            } else if (data.get(ValueLayout.JAVA_LONG, 0) != MAGIC) {
+                throw new IOException("Not an archive partition: " + dataPath);
+            }
+            return new ArchivePartition(month, capacity, arena, data, text);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a sealed month as a read-only partition; nothing is decoded until a column is read.
+     */
+    static ArchivePartition sealed(YearMonth month, EventSegment segment) {
+        return new ArchivePartition(month, segment);
+    }
+
+    /**
+     * Copies a decoded scan column off-heap, where the column kernels read it like a mapped one.
+     */
+    private static MemorySegment offHeap(long[] values) {
+        MemorySegment column = Arena.ofAuto().allocate((long) values.length * Long.BYTES, Long.BYTES);
+        MemorySegment.copy(values, 0, column, ValueLayout.JAVA_LONG, 0, values.length);
+        return column;
+    }
+
+    private static MemorySegment offHeap(double[] values) {
+        MemorySegment column = Arena.ofAuto().allocate((long) values.length * Double.BYTES, Double.BYTES);
+        MemorySegment.copy(values, 0, column, ValueLayout.JAVA_DOUBLE, 0, values.length);
+        return column;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static int readCapacity(Path dataPath) throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment header = map(dataPath, HEADER_BYTES, arena);
+            return header.get(ValueLayout.JAVA_INT, CAPACITY_OFFSET);
+        }
+    }
+
+    private static MemorySegment map(Path path, long size, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+        }
+    }
+
+    YearMonth month() {
+        return month;
+    }
+
+    /**
+     * Number of stored events. Rows {@code [0, count)} are valid.
+     */
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    /**
+     * Whether the text heap has room for the id and place of the event.
+     */
+    boolean hasTextRoom(EarthquakeRecordDTO record) {
+        return textEnd + textSize(record) <= text.byteSize();
+    }
+
+    /**
+     * Whether this is a read-only partition backed by an {@link EventSegment}.
+     */
+    boolean isSealed() {
+        return segment != null;
+    }
+
+    /**
+     * Time of the last append or update in epoch milliseconds, 0 if there was none since the partition was opened.
+     */
+    long lastWrite() {
+        return lastWrite;
+    }
+
+    ReadWriteLock lock() {
+        return lock;
+    }
+
+    /**
+     * Time column, of which the first {@link #count()} slots are valid.
+     */
+    MemorySegment times() {
+        return segment == null ? times : sealedTimes.get();
+    }
+
+    MemorySegment magnitudes() {
+        return segment == null ? magnitudes : sealedMagnitudes.get();
+    }
+
+    MemorySegment depths() {
+        return segment == null ? depths : sealedDepths.get();
+    }
+
+    long time(int row) {
+        return times().getAtIndex(ValueLayout.JAVA_LONG, row);
+    }
+
+    double magnitude(int row) {
+        return magnitudes().getAtIndex(ValueLayout.JAVA_DOUBLE, row);
+    }
+
+    double depth(int row) {
+        return depths().getAtIndex(ValueLayout.JAVA_DOUBLE, row);
+    }
+
+    /**
+     * Appends an event and returns its row.
+     */
+    int append(EarthquakeRecordDTO record) {
+        lock.writeLock().lock();
+        try {
+            if (segment != null) {
+                throw new IllegalStateException("Archive partition " + month + " is sealed");
+            }
+            if (isFull()) {
+                throw new IllegalStateException("Archive partition " + month + " is full");
+            }
+            if (!hasTextRoom(record)) {
+                throw new IllegalStateException("Text heap of archive partition " + month + " is full");
+            }
+            int row = count;
+            write(row, record, appendText(record.getId(), record.getNearestPlace()));
+            if (ids != null && record.getId() != null) {
+                ids.add(record.getId());
+            }
+            count = row + 1;
+            data.set(ValueLayout.JAVA_LONG, COUNT_OFFSET, count);
+            return row;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Overwrites an existing row with a revised version of the event. The row's text is reused if the id and place
+     * did not change; otherwise the new text is appended to the heap.
+     *
+     * @return false if the text heap had no room for a changed place, in which case the row keeps its previous text
+     */
+    boolean update(int row, EarthquakeRecordDTO record) {
+        lock.writeLock().lock();
+        try {
+            if (segment != null) {
+                throw new IllegalStateException("Archive partition " + month + " is sealed");
+            }
+            long ref = textRefs.getAtIndex(ValueLayout.JAVA_LONG, row);
+            boolean unchanged = ref != NO_TEXT
+                    && readString(ref).equals(orEmpty(record.getId()))
+                    && readString(placeOffset(ref)).equals(orEmpty(record.getNearestPlace()));
+            boolean fits = unchanged || hasTextRoom(record);
+            if (fits && !unchanged) {
+                ref = appendText(record.getId(), record.getNearestPlace());
+            }
+            write(row, record, ref);
+            return fits;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether an event with the given id is stored and not tombstoned. The first call indexes the ids of all rows,
+     * which are kept while the partition is open; only backfills into older months ask.
+     */
+    boolean containsId(String id) {
+        lock.writeLock().lock();
+        try {
+            if (ids == null) {
+                ids = new HashSet<>();
+                for (int row = 0; row < count; row++) {
+                    String rowId = id(row);
+                    if (rowId != null && !isTombstone(row)) {
+                        ids.add(rowId);
+                    }
+                }
+            }
+            return ids.contains(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks a row as removed; its event has been stored in another partition.
+     */
+    void tombstone(int row) {
+        lock.writeLock().lock();
+        try {
+            if (segment != null) {
+                throw new IllegalStateException("Archive partition " + month + " is sealed");
+            }
+            if (ids != null) {
+                ids.remove(id(row));
+            }
+            times.setAtIndex(ValueLayout.JAVA_LONG, row, TOMBSTONE);
+            lastWrite = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean isTombstone(int row) {
+        return time(row) == TOMBSTONE;
+    }
+
+    private void write(int row, EarthquakeRecordDTO record, long textRef) {
+        Double magnitude = record.getMagnitude();
+        times.setAtIndex(ValueLayout.JAVA_LONG, row, record.getTime().toEpochMilli());
+        magnitudes.setAtIndex(ValueLayout.JAVA_DOUBLE, row, magnitude != null ? magnitude : Double.NaN);
+        depths.setAtIndex(ValueLayout.JAVA_DOUBLE, row, record.getDepth());
+        latitudes.setAtIndex(ValueLayout.JAVA_DOUBLE, row, record.getLocation().getLatitude());
+        longitudes.setAtIndex(ValueLayout.JAVA_DOUBLE, row, record.getLocation().getLongitude());
+        textRefs.setAtIndex(ValueLayout.JAVA_LONG, row, textRef);
+        lastWrite = System.currentTimeMillis();
+    }
+
+    /**
+     * Bytes the id and place of the given record take up in a text heap.
+     */
+    static long textSize(EarthquakeRecordDTO record) {
+        return textSize(record.getId(), record.getNearestPlace());
+    }
+
+    private static long textSize(String id, String place) {
+        return 2L * Integer.BYTES + utf8Length(orEmpty(id)) + utf8Length(orEmpty(place));
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Appends an entry to the text heap, which the caller has checked has room for it.
+     */
+    private long appendText(String id, String place) {
+        byte[] idBytes = orEmpty(id).getBytes(StandardCharsets.UTF_8);
+        byte[] placeBytes = orEmpty(place).getBytes(StandardCharsets.UTF_8);
+        long size = 2L * Integer.BYTES + idBytes.length + placeBytes.length;
+
+        long offset = textEnd;
+        text.set(ValueLayout.JAVA_INT_UNALIGNED, offset, idBytes.length);
+        MemorySegment.copy(MemorySegment.ofArray(idBytes), 0, text, offset + Integer.BYTES, idBytes.length);
+        long placeOffset = offset + Integer.BYTES + idBytes.length;
+        text.set(ValueLayout.JAVA_INT_UNALIGNED, placeOffset, placeBytes.length);
+        MemorySegment.copy(MemorySegment.ofArray(placeBytes), 0, text, placeOffset + Integer.BYTES, placeBytes.length);
+
+        textEnd = offset + size;
+        data.set(ValueLayout.JAVA_LONG, TEXT_END_OFFSET, textEnd);
+        return offset;
+    }
+
+    /**
+     * Upstream id of the event in the given row, or null if the row has no text.
+     */
+    String id(int row) {
+        if (segment != null) return sealedIds.get()[row];
+        long ref = textRefs.getAtIndex(ValueLayout.JAVA_LONG, row);
+        return ref == NO_TEXT ? null : readString(ref);
+    }
+
+    /**
+     * Builds the DTO for one row; only called for rows that end up in a result.
+     */
+    EarthquakeRecordDTO materialize(int row) {
+        String id = null;
+        String place = "Unknown location";
+        GeoLocationDTO location;
+        if (segment != null) {
+            id = sealedIds.get()[row];
+            place = sealedPlaces.get()[row];
+            location = new GeoLocationDTO(sealedLatitudes.get()[row], sealedLongitudes.get()[row]);
+        } else {
+            long ref = textRefs.getAtIndex(ValueLayout.JAVA_LONG, row);
+            if (ref != NO_TEXT) {
+                id = readString(ref);
+                place = readString(placeOffset(ref));
+            }
+            location = new GeoLocationDTO(
+                    latitudes.getAtIndex(ValueLayout.JAVA_DOUBLE, row),
+                    longitudes.getAtIndex(ValueLayout.JAVA_DOUBLE, row));
+        }
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO(place, location, depth(row), Instant.now());
+        record.setId(id);
+        record.setTime(Instant.ofEpochMilli(time(row)));
+        double magnitude = magnitude(row);
+        record.setMagnitude(Double.isNaN(magnitude) ? null : magnitude);
+        return record;
+    }
+
+    private long placeOffset(long ref) {
+        return ref + Integer.BYTES + text.get(ValueLayout.JAVA_INT_UNALIGNED, ref);
+    }
+
+    private String readString(long offset) {
+        int length = text.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+        byte[] bytes = text.asSlice(offset + Integer.BYTES, length).toArray(ValueLayout.JAVA_BYTE);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * All events except tombstoned ones, oldest first; used to seal the partition.
+     */
+    List<EarthquakeRecordDTO> rows() {
+        lock.readLock().lock();
+        try {
+            List<EarthquakeRecordDTO> rows = new ArrayList<>(count);
+            for (int row = 0; row < count; row++) {
+                if (!isTombstone(row)) {
+                    rows.add(materialize(row));
+                }
+            }
+            rows.sort(Comparator.comparing(EarthquakeRecordDTO::getTime));
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes both mappings to disk; sealed partitions are not mapped.
+     */
+    void force() {
+        if (segment != null) return;
+        data.force();
+        text.force();
+    }
+
+    /**
+     * Keeps the partition open until {@link #unpin()}, for readers that release its lock between reads.
+     *
+     * @return false if the partition was retired and has been closed already
+     */
+    synchronized boolean pin() {
+        if (closed) return false;
+        pins++;
+        return true;
+    }
+
+    synchronized void unpin() {
+        if (--pins == 0 && retired) {
+            close();
+        }
+    }
+
+    /**
+     * Closes the partition once the readers that pinned it are done; it has been replaced and gets no new readers.
+     */
+    synchronized void retire() {
+        retired = true;
+        if (pins == 0) {
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed || segment != null) return; // sealed partitions are freed by the garbage collector
+        closed = true;
+        lock.writeLock().lock();
+        try {
+            force();
+            arena.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Column of a sealed partition, decoded on first use and kept until the garbage collector needs the memory.
+     */
+    private static final class Decoded<T> {
+
+        private final Supplier<T> decoder;
+        private volatile SoftReference<T> value = new SoftReference<>(null);
+
+        Decoded(Supplier<T> decoder) {
+            this.decoder = decoder;
+        }
+
+        T get() {
+            T decoded = value.get();
+            if (decoded != null) return decoded;
+            synchronized (this) {
+                decoded = value.get();
+                if (decoded == null) {
+                    decoded = decoder.get();
+                    value = new SoftReference<>(decoded);
+                }
+                return decoded;
+            }
+        }
+    }
+}
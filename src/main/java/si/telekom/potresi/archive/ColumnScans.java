@@ -0,0 +1,64 @@
+package si.telekom.potresi.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Hot filter kernels over the primitive columns of an {@link ArchivePartition}.
+ * Rows with a NaN magnitude never match a magnitude predicate; tombstoned rows have a time of
+ * {@link ArchivePartition#TOMBSTONE} and never fall in a range.
+ */
+interface ColumnScans {
+
+    /**
+     * Highest magnitude among rows with time in {@code [fromMs, toMs)}, or negative infinity if there is none.
+     */
+    double maxMagnitude(MemorySegment times, MemorySegment magnitudes, int count, long fromMs, long toMs);
+
+    /**
+     * Number of rows with time in {@code [fromMs, toMs)}.
+     */
+    int countInRange(MemorySegment times, int count, long fromMs, long toMs);
+
+    /**
+     * Collects rows with time in {@code [fromMs, toMs)}, magnitude at least {@code minMagnitude}
+     * and depth in {@code [minDepth, maxDepth]}. A {@code minMagnitude} of negative infinity
+     * disables the magnitude predicate, so unrated events match too; a NaN depth never matches.
+     *
+     * @param rows output buffer, at least {@code count} long
+     * @return number of rows written to {@code rows}, in ascending order
+     */
+    int select(MemorySegment times, MemorySegment magnitudes, MemorySegment depths, int count,
+               long fromMs, long toMs, double minMagnitude, double minDepth, double maxDepth, int[] rows);
+
+    /**
+     * Vectorized kernels when the {@code jdk.incubator.vector} module is resolved, scalar ones otherwise.
+     */
+    static ColumnScans best() {
+        return Holder.BEST;
+    }
+
+    final class Holder {
+        private static final Logger log = LoggerFactory.getLogger(ColumnScans.class);
+        private static final ColumnScans BEST = detect();
+
+        private Holder() {}
+
+        private static ColumnScans detect() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    ColumnScans vector = new VectorColumnScans();
+                    log.info("Archive scans use the Vector API ({} lanes).", VectorColumnScans.lanes());
+                    return vector;
+                } catch (LinkageError e) {
+                    log.warn("Vector API unavailable, using scalar archive scans: {}", e.getMessage());
+                }
+            } else {
+                log.info("Module jdk.incubator.vector not resolved, using scalar archive scans.");
+            }
+            return new ScalarColumnScans();
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package si.telekom.potresi.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.ArchiveConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.service.IngestionBatch;
+import si.telekom.potresi.service.IngestionListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Multi-year archive of ingested earthquakes, kept off-heap in memory-mapped monthly partitions.
+ * Queries scan the primitive columns of the partitions overlapping the requested range and only
+ * materialize {@link EarthquakeRecordDTO}s for the rows that make it into the result.
+ * <p>
+ * Months before the indexed ones are sealed once they have not been written for an hour: they are stored as a
+ * compressed {@link EventSegment} ({@code .cseg}) instead of the preallocated mapped files. Storing an event in a
+ * sealed month, e.g. during a backfill, turns it back into a mapped partition until it is sealed again.
+ */
+@Component
+public class EventArchive implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EventArchive.class);
+
+    /** Months whose rows stay indexed by id, so revisions of recent events update them in place. */
+    private static final int INDEXED_MONTHS = 2;
+
+    /** Low bits of an export sort key holding the row, see {@link #sortKeys}. */
+    private static final long ROW_MASK = Integer.MAX_VALUE;
+
+    /** Closed months are sealed once they have not been written for this long. */
+    private static final long SEAL_AFTER_IDLE_MS = 3_600_000;
+
+    private final ArchiveConfig config;
+    private final ColumnScans scans = ColumnScans.best();
+    private final NavigableMap<YearMonth, ArchivePartition> partitions = new ConcurrentSkipListMap<>();
+    private final Map<String, RowRef> recentRows = new HashMap<>();
+    /** Oldest month {@link #recentRows} was last trimmed to. */
+    private YearMonth indexedFrom;
+
+    public EventArchive(ArchiveConfig config) {
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!config.isEnabled()) {
+            log.info("Event archive is disabled.");
+            return;
+        }
+
+        Path directory = Path.of(config.getDirectory());
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".seg")).toList()) {
+                    String name = file.getFileName().toString();
+                    YearMonth month = YearMonth.parse(name.substring(0, name.length() - ".seg".length()));
+                    partitions.put(month, ArchivePartition.open(directory, month, config.getPartitionCapacity(), config.getTextBytesPerEvent()));
+                }
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".cseg")).toList()) {
+                    String name = file.getFileName().toString();
+                    YearMonth month = YearMonth.parse(name.substring(0, name.length() - ".cseg".length()));
+                    openSealed(month, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open event archive in " + directory, e);
+        }
+
+        indexRecentRows();
+        sealClosedMonths();
+        log.info("Event archive opened with {} partition(s) and {} event(s).", partitions.size(), count(Instant.MIN, Instant.MAX));
+    }
+
+    /**
+     * A month is sealed while its mapped files still exist if sealing was interrupted, or unsealed while its
+     * segment still exists if unsealing was; the variant with more rows is the complete one.
+     */
+    private void openSealed(YearMonth month, Path file) throws IOException {
+        EventSegment segment = EventSegment.of(Files.readAllBytes(file));
+        ArchivePartition mapped = partitions.get(month);
+        if (mapped != null && mapped.count() >= segment.count()) {
+            Files.delete(file);
+            return;
+        }
+        if (mapped != null) {
+            mapped.close();
+            deleteMappedFiles(month);
+        }
+        partitions.put(month, ArchivePartition.sealed(month, segment));
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        partitions.values().forEach(ArchivePartition::close);
+        partitions.clear();
+        recentRows.clear();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    @Override
+    public void onIngested(IngestionBatch batch) {
+        if (!config.isEnabled()) return;
+
+        batch.added().forEach(this::store);
+        batch.revised().forEach(this::store);
+        flush();
+        synchronized (this) {
+            trimRecentRows();
+        }
+        sealClosedMonths();
+    }
+
+    /**
+     * Writes stored events through to the partition files.
+     */
+    public void flush() {
+        partitions.values().forEach(ArchivePartition::force);
+    }
+
+    /**
+     * Stores an event, updating it in place if it was archived recently.
+     */
+    public synchronized void store(EarthquakeRecordDTO record) {
+        if (record.getTime() == null || record.getLocation() == null) return;
+
+        RowRef existing = record.getId() != null ? recentRows.get(record.getId()) : null;
+        if (existing != null) {
+            YearMonth month = monthOf(record.getTime().toEpochMilli());
+            if (existing.month().equals(month)) {
+                if (!partitions.get(month).update(existing.row(), record)) {
+                    log.warn("Text heap of archive partition {} is full, event {} keeps its previous place", month, record.getId());
+                }
+                return;
+            }
+            // Origin time moved to another month; the old row is tombstoned once the event is stored again
+            log.debug("Event {} moved from {} to {}", record.getId(), existing.month(), month);
+        }
+
+        YearMonth month = monthOf(record.getTime().toEpochMilli());
+        ArchivePartition partition = partition(month);
+        if (partition.isSealed()) {
+            partition = unseal(partition);
+        }
+        if (partition.isFull()) {
+            log.warn("Archive partition {} is full, dropping event {}", month, record.getId());
+            return;
+        }
+        if (!partition.hasTextRoom(record)) {
+            log.warn("Text heap of archive partition {} is full, dropping event {}", month, record.getId());
+            return;
+        }
+
+        int row = partition.append(record);
+        if (existing != null) {
+            recentRows.remove(record.getId());
+            partitions.get(existing.month()).tombstone(existing.row());
+        }
+        if (record.getId() != null && !month.isBefore(oldestIndexedMonth())) {
+            recentRows.put(record.getId(), new RowRef(month, row));
+        }
+    }
+
+    /**
+     * Stores an event unless its month already holds one with the same id, e.g. from an earlier backfill of an
+     * overlapping range. Events of the indexed months are looked up in the id index, older ones in their partition.
+     *
+     * @return whether the event was not archived before
+     */
+    public synchronized boolean storeIfAbsent(EarthquakeRecordDTO record) {
+        if (record.getTime() == null || record.getLocation() == null) return false;
+        if (record.getId() == null) {
+            store(record);
+            return true;
+        }
+
+        YearMonth month = monthOf(record.getTime().toEpochMilli());
+        boolean archived;
+        if (!month.isBefore(oldestIndexedMonth())) {
+            archived = recentRows.containsKey(record.getId());
+        } else {
+            ArchivePartition partition = partitions.get(month);
+            archived = partition != null && partition.containsId(record.getId());
+        }
+        if (!archived) {
+            store(record);
+        }
+        return !archived;
+    }
+
+    /**
+     * Seals the mapped partitions of months before the indexed ones that have not been written for an hour.
+     */
+    public synchronized void sealClosedMonths() {
+        if (!config.isEnabled() || !config.isSealClosedMonths()) return;
+
+        // Rows of sealed months must no longer be updated in place
+        trimRecentRows();
+        YearMonth oldest = oldestIndexedMonth();
+        long idleSince = System.currentTimeMillis() - SEAL_AFTER_IDLE_MS;
+        for (ArchivePartition partition : new ArrayList<>(partitions.headMap(oldest, false).values())) {
+            if (!partition.isSealed() && partition.lastWrite() <= idleSince) {
+                seal(partition);
+            }
+        }
+    }
+
+    /**
+     * Replaces a mapped partition with a sealed one written to {@code <month>.cseg}. The mapped one is retired and
+     * its mappings released once the queries that pinned it are done.
+     */
+    private void seal(ArchivePartition partition) {
+        YearMonth month = partition.month();
+        Path directory = Path.of(config.getDirectory());
+        try {
+            long mappedBytes = Files.size(directory.resolve(month + ".seg")) + Files.size(directory.resolve(month + ".txt"));
+            byte[] encoded = EventSegment.encode(partition.rows());
+            Path file = directory.resolve(month + ".cseg");
+            Path temporary = directory.resolve(month + ".cseg.tmp");
+            Files.write(temporary, encoded);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            partitions.put(month, ArchivePartition.sealed(month, EventSegment.of(encoded)));
+            partition.retire();
+            deleteMappedFiles(month);
+            log.info("Sealed archive partition {}: {} event(s) in {} bytes instead of {}.",
+                    month, partition.count(), encoded.length, mappedBytes);
+        } catch (IOException e) {
+            log.warn("Could not seal archive partition {}: {}", month, e.getMessage());
+        }
+    }
+
+    /**
+     * Turns a sealed month back into a mapped partition so events can be added to it.
+     */
+    private ArchivePartition unseal(ArchivePartition sealed) {
+        YearMonth month = sealed.month();
+        Path directory = Path.of(config.getDirectory());
+        try {
+            deleteMappedFiles(month);
+            // Leave a full partition's worth of room for the events that caused the unseal.
+            List<EarthquakeRecordDTO> rows = sealed.rows();
+            int capacity = rows.size() + config.getPartitionCapacity();
+            long textBytes = rows.stream().mapToLong(ArchivePartition::textSize).sum()
+                    + (long) config.getPartitionCapacity() * config.getTextBytesPerEvent();
+            ArchivePartition mapped = ArchivePartition.open(directory, month, capacity, textBytes);
+            try {
+                rows.forEach(mapped::append);
+                mapped.force();
+            } catch (RuntimeException e) {
+                // Keep the sealed file as the source of truth until every row made it across.
+                mapped.close();
+                deleteMappedFiles(month);
+                throw e;
+            }
+            partitions.put(month, mapped);
+            Files.deleteIfExists(directory.resolve(month + ".cseg"));
+            log.info("Unsealed archive partition {} with {} event(s).", month, sealed.count());
+            return mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not unseal archive partition " + month, e);
+        }
+    }
+
+    private void deleteMappedFiles(YearMonth month) throws IOException {
+        Path directory = Path.of(config.getDirectory());
+        Files.deleteIfExists(directory.resolve(month + ".seg"));
+        Files.deleteIfExists(directory.resolve(month + ".txt"));
+    }
+
+    /**
+     * Strongest archived events with origin time in {@code [from, to)}, strongest first.
+     */
+    public List<EarthquakeRecordDTO> strongest(Instant from, Instant to, int limit) {
+        if (limit <= 0) return List.of();
+
+        long fromMs = clampToEpochMilli(from);
+        long toMs = clampToEpochMilli(to);
+        TopRows top = new TopRows(limit);
+
+        try (Pinned pinned = pin(from, to)) {
+            for (ArchivePartition partition : pinned.partitions()) {
+                partition.lock().readLock().lock();
+                try {
+                    int count = partition.count();
+                    for (int row = 0; row < count; row++) {
+                        long time = partition.time(row);
+                        if (time < fromMs || time >= toMs) continue;
+                        double magnitude = partition.magnitude(row);
+                        if (!Double.isNaN(magnitude)) {
+                            top.offer(magnitude, partition, row);
+                        }
+                    }
+                } finally {
+                    partition.lock().readLock().unlock();
+                }
+            }
+            return top.materialize();
+        }
+    }
+
+    /**
+     * Archived events sharing the highest magnitude with origin time in {@code [from, to)}.
+     * Runs a max-magnitude pass and then a selection pass for ties, both as column kernels.
+     */
+    public List<EarthquakeRecordDTO> strongestWithTies(Instant from, Instant to) {
+        long fromMs = clampToEpochMilli(from);
+        long toMs = clampToEpochMilli(to);
+        try (Pinned pinned = pin(from, to)) {
+            List<ArchivePartition> candidates = pinned.partitions();
+
+            double max = Double.NEGATIVE_INFINITY;
+            for (ArchivePartition partition : candidates) {
+                partition.lock().readLock().lock();
+                try {
+                    max = Math.max(max, scans.maxMagnitude(partition.times(), partition.magnitudes(), partition.count(), fromMs, toMs));
+                } finally {
+                    partition.lock().readLock().unlock();
+                }
+            }
+            if (max == Double.NEGATIVE_INFINITY) return List.of();
+
+            List<EarthquakeRecordDTO> result = new ArrayList<>();
+            for (ArchivePartition partition : candidates) {
+                partition.lock().readLock().lock();
+                try {
+                    int[] rows = new int[partition.count()];
+                    int matches = scans.select(partition.times(), partition.magnitudes(), partition.depths(), partition.count(),
+                            fromMs, toMs, max, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, rows);
+                    for (int i = 0; i < matches; i++) {
+                        result.add(partition.materialize(rows[i]));
+                    }
+                } finally {
+                    partition.lock().readLock().unlock();
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Archived events with origin time in {@code [from, to)}, magnitude at least {@code minMagnitude}
+     * and depth in {@code [minDepth, maxDepth]}, newest first.
+     */
+    public List<EarthquakeRecordDTO> find(Instant from, Instant to, double minMagnitude,
+                                          double minDepth, double maxDepth, int limit) {
+        long fromMs = clampToEpochMilli(from);
+        long toMs = clampToEpochMilli(to);
+        List<EarthquakeRecordDTO> result = new ArrayList<>();
+
+        try (Pinned pinned = pin(from, to)) {
+            for (ArchivePartition partition : pinned.partitions().reversed()) {
+                if (result.size() >= limit) break;
+
+                partition.lock().readLock().lock();
+                try {
+                    int[] rows = new int[partition.count()];
+                    int matches = scans.select(partition.times(), partition.magnitudes(), partition.depths(), partition.count(),
+                            fromMs, toMs, minMagnitude, minDepth, maxDepth, rows);
+
+                    // Rows are in append order; order this partition's matches by time, newest first
+                    Integer[] ordered = new Integer[matches];
+                    for (int i = 0; i < matches; i++) {
+                        ordered[i] = rows[i];
+                    }
+                    Arrays.sort(ordered, Comparator.comparingLong((Integer row) -> partition.time(row)).reversed());
+
+                    for (int i = 0; i < matches && result.size() < limit; i++) {
+                        result.add(partition.materialize(ordered[i]));
+                    }
+                } finally {
+                    partition.lock().readLock().unlock();
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Number of archived events with origin time in {@code [from, to)}.
+     */
+    public long count(Instant from, Instant to) {
+        long fromMs = clampToEpochMilli(from);
+        long toMs = clampToEpochMilli(to);
+        long total = 0;
+
+        try (Pinned pinned = pin(from, to)) {
+            for (ArchivePartition partition : pinned.partitions()) {
+                partition.lock().readLock().lock();
+                try {
+                    total += scans.countInRange(partition.times(), partition.count(), fromMs, toMs);
+                } finally {
+                    partition.lock().readLock().unlock();
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Passes every archived event with origin time in {@code [from, to)} to the sink, oldest first.
+     * <p>
+     * Rows are materialized {@code chunkRows} at a time under the partition's read lock and handed to the sink after
+     * it is released, so a sink that blocks on a slow consumer holds up neither ingestion nor sealing, and memory
+     * stays bounded by one partition's sort keys plus one chunk whatever the range. Rows appended to a partition
+     * after the export reached it are not included.
+     */
+    public void export(Instant from, Instant to, int chunkRows, RowSink sink) throws IOException {
+        long fromMs = clampToEpochMilli(from);
+        long toMs = clampToEpochMilli(to);
+        List<EarthquakeRecordDTO> chunk = new ArrayList<>(chunkRows);
+
+        try (Pinned pinned = pin(from, to)) {
+            for (ArchivePartition partition : pinned.partitions()) {
+                long[] keys = sortKeys(partition, fromMs, toMs);
+                for (int start = 0; start < keys.length; start += chunkRows) {
+                    int end = Math.min(keys.length, start + chunkRows);
+                    partition.lock().readLock().lock();
+                    try {
+                        for (int i = start; i < end; i++) {
+                            chunk.add(partition.materialize((int) (keys[i] & ROW_MASK)));
+                        }
+                    } finally {
+                        partition.lock().readLock().unlock();
+                    }
+                    for (EarthquakeRecordDTO record : chunk) {
+                        sink.accept(record);
+                    }
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows of a partition in {@code [fromMs, toMs)} ordered by time, each as {@code offset << 31 | row} where offset
+     * is the time since the start of the partition's month. A month is shorter than 2<sup>32</sup> ms and a row is a
+     * non-negative int, so the key fits in 63 bits and stays positive for a signed sort.
+     */
+    private static long[] sortKeys(ArchivePartition partition, long fromMs, long toMs) {
+        long monthStart = partition.month().atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long[] keys;
+        int matches = 0;
+        partition.lock().readLock().lock();
+        try {
+            int count = partition.count();
+            keys = new long[count];
+            for (int row = 0; row < count; row++) {
+                long time = partition.time(row);
+                if (time >= fromMs && time < toMs) {
+                    keys[matches++] = (time - monthStart) << 31 | row;
+                }
+            }
+        } finally {
+            partition.lock().readLock().unlock();
+        }
+        Arrays.sort(keys, 0, matches);
+        return matches == keys.length ? keys : Arrays.copyOf(keys, matches);
+    }
+
+    /**
+     * Pins the partitions whose month overlaps {@code [from, to)}, oldest first, so sealing cannot close them while
+     * the caller reads them between lock acquisitions. A partition retired since it was listed is replaced by the
+     * partition now holding its month.
+     */
+    Pinned pin(Instant from, Instant to) {
+        List<ArchivePartition> pinned = new ArrayList<>();
+        for (ArchivePartition partition : partitionsBetween(from, to)) {
+            while (partition != null && !partition.pin()) {
+                partition = partitions.get(partition.month());
+            }
+            if (partition != null) {
+                pinned.add(partition);
+            }
+        }
+        return new Pinned(pinned);
+    }
+
+    /**
+     * Partitions whose month overlaps {@code [from, to)}, oldest first.
+     */
+    private List<ArchivePartition> partitionsBetween(Instant from, Instant to) {
+        if (partitions.isEmpty()) return List.of();
+        YearMonth first = from.equals(Instant.MIN) ? partitions.firstKey() : monthOf(clampToEpochMilli(from));
+        YearMonth last = to.equals(Instant.MAX) ? partitions.lastKey() : monthOf(clampToEpochMilli(to));
+        if (first.isAfter(last)) return List.of();
+        return new ArrayList<>(partitions.subMap(first, true, last, true).values());
+    }
+
+    private ArchivePartition partition(YearMonth month) {
+        return partitions.computeIfAbsent(month, m -> {
+            try {
+                return ArchivePartition.open(Path.of(config.getDirectory()), m, config.getPartitionCapacity(), config.getTextBytesPerEvent());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create archive partition " + m, e);
+            }
+        });
+    }
+
+    private void indexRecentRows() {
+        YearMonth oldest = oldestIndexedMonth();
+        indexedFrom = oldest;
+        for (ArchivePartition partition : partitions.tailMap(oldest, true).values()) {
+            for (int row = 0; row < partition.count(); row++) {
+                if (partition.isTombstone(row)) continue;
+                String id = partition.id(row);
+                if (id != null) {
+                    recentRows.put(id, new RowRef(partition.month(), row));
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the rows of months that are no longer indexed; only walks the index when the month has rolled over.
+     */
+    private void trimRecentRows() {
+        YearMonth oldest = oldestIndexedMonth();
+        if (oldest.equals(indexedFrom)) return;
+        recentRows.values().removeIf(ref -> ref.month().isBefore(oldest));
+        indexedFrom = oldest;
+    }
+
+    private static YearMonth oldestIndexedMonth() {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(INDEXED_MONTHS - 1);
+    }
+
+    static YearMonth monthOf(long epochMilli) {
+        return YearMonth.from(Instant.ofEpochMilli(epochMilli).atZone(ZoneOffset.UTC));
+    }
+
+    private static long clampToEpochMilli(Instant instant) {
+        if (instant.equals(Instant.MIN)) return Long.MIN_VALUE;
+        if (instant.equals(Instant.MAX)) return Long.MAX_VALUE;
+        return instant.toEpochMilli();
+    }
+
+    /**
+     * Receives exported events one at a time.
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void accept(EarthquakeRecordDTO record) throws IOException;
+    }
+
+    private record RowRef(YearMonth month, int row) {}
+
+    /**
+     * Partitions pinned for one query; unpins them on close.
+     */
+    record Pinned(List<ArchivePartition> partitions) implements AutoCloseable {
+        @Override
+        public void close() {
+            partitions.forEach(ArchivePartition::unpin);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package si.telekom.potresi.archive;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compressed, immutable columnar encoding of a set of events, used for archive months that no longer change.
+ * <p>
+ * A 16-byte header ({@code long magic, int count, int columns}) is followed by a directory of
+ * {@code [int offset][int length]} per column and the columns themselves, so each column can be decoded on its own:
+ * <ul>
+ *     <li>time: epoch milliseconds as zigzag varints, each a delta to the previous row</li>
+ *     <li>magnitude: fixed-width 16-bit hundredths, {@link Short#MIN_VALUE} when missing</li>
+ *     <li>depth: hundredths of a kilometre as zigzag varints</li>
+ *     <li>latitude, longitude: fixed-point 10<sup>-5</sup> degrees (about a metre) as zigzag varint deltas</li>
+ *     <li>id: front-coded, i.e. the length of the prefix shared with the previous id and the rest</li>
+ *     <li>place: a dictionary of the distinct strings followed by one varint code per row</li>
+ * </ul>
+ * Rows sorted by time keep the time deltas to one or two bytes. Magnitude and depth are rounded to 0.01,
+ * coordinates to 0.00001 degrees.
+ */
+final class EventSegment {
+
+    static final long MAGIC = 0x504F5452_53454731L; // "POTRSEG1"
+
+    static final int TIME = 0;
+    static final int MAGNITUDE = 1;
+    static final int DEPTH = 2;
+    static final int LATITUDE = 3;
+    static final int LONGITUDE = 4;
+    static final int ID = 5;
+    static final int PLACE = 6;
+    static final int COLUMNS = 7;
+
+    private static final int HEADER_BYTES = 16 + COLUMNS * 2 * Integer.BYTES;
+    private static final double VALUE_SCALE = 100;
+    private static final double COORDINATE_SCALE = 100_000;
+    private static final short NO_MAGNITUDE = Short.MIN_VALUE;
+
+    private final ByteBuffer data;
+    private final int count;
+
+    private EventSegment(ByteBuffer data) {
+        this.data = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.data.getLong(0) != MAGIC || this.data.getInt(12) != COLUMNS) {
+            throw new IllegalArgumentException("Not an event segment");
+        }
+        this.count = this.data.getInt(8);
+    }
+
+    static EventSegment of(byte[] bytes) {
+        return new EventSegment(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Encodes the events in the given order; events need a time and a location.
+     */
+    static byte[] encode(List<EarthquakeRecordDTO> records) {
+        int count = records.size();
+        byte[][] columns = new byte[COLUMNS][];
+
+        Output times = new Output(count * 2);
+        long previousTime = 0;
+        for (EarthquakeRecordDTO record : records) {
+            long time = record.getTime().toEpochMilli();
+            times.zigzag(time - previousTime);
+            previousTime = time;
+        }
+        columns[TIME] = times.toArray();
+
+        ByteBuffer magnitudes = ByteBuffer.allocate(count * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (EarthquakeRecordDTO record : records) {
+            Double magnitude = record.getMagnitude();
+            magnitudes.putShort(magnitude == null || magnitude.isNaN() ? NO_MAGNITUDE : (short) Math.round(magnitude * VALUE_SCALE));
+        }
+        columns[MAGNITUDE] = magnitudes.array();
+
+        Output depths = new Output(count * 2);
+        for (EarthquakeRecordDTO record : records) {
+            depths.zigzag(Math.round(record.getDepth() * VALUE_SCALE));
+        }
+        columns[DEPTH] = depths.toArray();
+
+        Output latitudes = new Output(count * 3);
+        Output longitudes = new Output(count * 3);
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (EarthquakeRecordDTO record : records) {
+            long latitude = Math.round(record.getLocation().getLatitude() * COORDINATE_SCALE);
+            long longitude = Math.round(record.getLocation().getLongitude() * COORDINATE_SCALE);
+            latitudes.zigzag(latitude - previousLatitude);
+            longitudes.zigzag(longitude - previousLongitude);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        columns[LATITUDE] = latitudes.toArray();
+        columns[LONGITUDE] = longitudes.toArray();
+
+        Output ids = new Output(count * 8);
+        byte[] previousId = new byte[0];
+        for (EarthquakeRecordDTO record : records) {
+            byte[] id = utf8(record.getId());
+            int mismatch = Arrays.mismatch(previousId, id);
+            int shared = mismatch < 0 ? id.length : mismatch;
+            ids.varint(shared);
+            ids.varint(id.length - shared);
+            ids.bytes(id, shared, id.length - shared);
+            previousId = id;
+        }
+        columns[ID] = ids.toArray();
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] codes = new int[count];
+        for (int row = 0; row < count; row++) {
+            String place = records.get(row).getNearestPlace() != null ? records.get(row).getNearestPlace() : "";
+            codes[row] = dictionary.computeIfAbsent(place, p -> {
+                entries.add(p);
+                return entries.size() - 1;
+            });
+        }
+        Output places = new Output(count + entries.size() * 16);
+        places.varint(entries.size());
+        for (String entry : entries) {
+            byte[] bytes = utf8(entry);
+            places.varint(bytes.length);
+            places.bytes(bytes, 0, bytes.length);
+        }
+        for (int code : codes) {
+            places.varint(code);
+        }
+        columns[PLACE] = places.toArray();
+
+        int size = HEADER_BYTES;
+        for (byte[] column : columns) size += column.length;
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(MAGIC).putInt(count).putInt(COLUMNS);
+        int offset = HEADER_BYTES;
+        for (byte[] column : columns) {
+            out.putInt(offset).putInt(column.length);
+            offset += column.length;
+        }
+        for (byte[] column : columns) {
+            out.put(column);
+        }
+        return out.array();
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Encoded size of one column in bytes.
+     */
+    int columnBytes(int column) {
+        return data.getInt(16 + column * 2 * Integer.BYTES + Integer.BYTES);
+    }
+
+    long[] times() {
+        Input in = column(TIME);
+        long[] times = new long[count];
+        long time = 0;
+        for (int row = 0; row < count; row++) {
+            time += in.zigzag();
+            times[row] = time;
+        }
+        return times;
+    }
+
+    /**
+     * Magnitudes, NaN where missing.
+     */
+    double[] magnitudes() {
+        int offset = data.getInt(16 + MAGNITUDE * 2 * Integer.BYTES);
+        double[] magnitudes = new double[count];
+        for (int row = 0; row < count; row++) {
+            short value = data.getShort(offset + row * Short.BYTES);
+            magnitudes[row] = value == NO_MAGNITUDE ? Double.NaN : value / VALUE_SCALE;
+        }
+        return magnitudes;
+    }
+
+    double[] depths() {
+        Input in = column(DEPTH);
+        double[] depths = new double[count];
+        for (int row = 0; row < count; row++) {
+            depths[row] = in.zigzag() / VALUE_SCALE;
+        }
+        return depths;
+    }
+
+    double[] latitudes() {
+        return coordinates(LATITUDE);
+    }
+
+    double[] longitudes() {
+        return coordinates(LONGITUDE);
+    }
+
+    String[] ids() {
+        Input in = column(ID);
+        String[] ids = new String[count];
+        byte[] previous = new byte[0];
+        for (int row = 0; row < count; row++) {
+            int shared = in.varint();
+            int rest = in.varint();
+            byte[] id = Arrays.copyOf(previous, shared + rest);
+            in.bytes(id, shared, rest);
+            ids[row] = new String(id, StandardCharsets.UTF_8);
+            previous = id;
+        }
+        return ids;
+    }
+
+    String[] places() {
+        Input in = column(PLACE);
+        String[] dictionary = new String[in.varint()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[in.varint()];
+            in.bytes(bytes, 0, bytes.length);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        String[] places = new String[count];
+        for (int row = 0; row < count; row++) {
+            places[row] = dictionary[in.varint()];
+        }
+        return places;
+    }
+
+    private double[] coordinates(int column) {
+        Input in = column(column);
+        double[] coordinates = new double[count];
+        long value = 0;
+        for (int row = 0; row < count; row++) {
+            value += in.zigzag();
+            coordinates[row] = value / COORDINATE_SCALE;
+        }
+        return coordinates;
+    }
+
+    private Input column(int column) {
+        int entry = 16 + column * 2 * Integer.BYTES;
+        return new Input(data, data.getInt(entry));
+    }
+
+    private static byte[] utf8(String value) {
+        return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable byte buffer with varint writers.
+     */
+    private static final class Output {
+
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void bytes(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Sequential varint reader over one column.
+     */
+    private static final class Input {
+
+        private final ByteBuffer data;
+        private int position;
+
+        Input(ByteBuffer data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long zigzag() {
+            long value = varlong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        void bytes(byte[] target, int offset, int length) {
+            data.get(position, target, offset, length);
+            position += length;
+        }
+
+        private long varlong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package si.telekom.potresi.archive;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Plain loop implementation of the column kernels; also handles the tails of the vectorized loops.
+ */
+final class ScalarColumnScans implements ColumnScans {
+
+    @Override
+    public double maxMagnitude(MemorySegment times, MemorySegment magnitudes, int count, long fromMs, long toMs) {
+        return maxMagnitude(times, magnitudes, 0, count, fromMs, toMs);
+    }
+
+    static double maxMagnitude(MemorySegment times, MemorySegment magnitudes, int start, int end, long fromMs, long toMs) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int row = start; row < end; row++) {
+            long time = times.getAtIndex(ValueLayout.JAVA_LONG, row);
+            if (time < fromMs || time >= toMs) continue;
+            double magnitude = magnitudes.getAtIndex(ValueLayout.JAVA_DOUBLE, row);
+            if (magnitude > max) max = magnitude;
+        }
+        return max;
+    }
+
+    @Override
+    public int countInRange(MemorySegment times, int count, long fromMs, long toMs) {
+        return countInRange(times, 0, count, fromMs, toMs);
+    }
+
+    static int countInRange(MemorySegment times, int start, int end, long fromMs, long toMs) {
+        int matches = 0;
+        for (int row = start; row < end; row++) {
+            long time = times.getAtIndex(ValueLayout.JAVA_LONG, row);
+            if (time >= fromMs && time < toMs) matches++;
+        }
+        return matches;
+    }
+
+    @Override
+    public int select(MemorySegment times, MemorySegment magnitudes, MemorySegment depths, int count,
+                      long fromMs, long toMs, double minMagnitude, double minDepth, double maxDepth, int[] rows) {
+        return select(times, magnitudes, depths, 0, count, fromMs, toMs, minMagnitude, minDepth, maxDepth, rows, 0);
+    }
+
+    static int select(MemorySegment times, MemorySegment magnitudes, MemorySegment depths, int start, int end,
+                      long fromMs, long toMs, double minMagnitude, double minDepth, double maxDepth,
+                      int[] rows, int matches) {
+        boolean anyMagnitude = minMagnitude == Double.NEGATIVE_INFINITY;
+        for (int row = start; row < end; row++) {
+            long time = times.getAtIndex(ValueLayout.JAVA_LONG, row);
+            if (time < fromMs || time >= toMs) continue;
+            if (!anyMagnitude && !(magnitudes.getAtIndex(ValueLayout.JAVA_DOUBLE, row) >= minMagnitude)) continue;
+            double depth = depths.getAtIndex(ValueLayout.JAVA_DOUBLE, row);
+            // Written so that a NaN depth fails, like the vector comparisons
+            if (!(depth >= minDepth && depth <= maxDepth)) continue;
+            rows[matches++] = row;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,61 @@
+package si.telekom.potresi.archive;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size selection of the strongest archive rows, kept sorted by magnitude (descending)
+ * without boxing per scanned row. Partial selections from parallel scans can be merged.
+ */
+final class TopRows {
+
+    private final double[] magnitudes;
+    private final ArchivePartition[] partitions;
+    private final int[] rows;
+    private int size;
+
+    TopRows(int limit) {
+        magnitudes = new double[limit];
+        partitions = new ArchivePartition[limit];
+        rows = new int[limit];
+    }
+
+    void offer(double magnitude, ArchivePartition partition, int row) {
+        if (magnitudes.length == 0) return;
+        if (size == magnitudes.length && magnitude <= magnitudes[size - 1]) return;
+
+        int i = size < magnitudes.length ? size++ : size - 1;
+        while (i > 0 && magnitudes[i - 1] < magnitude) {
+            magnitudes[i] = magnitudes[i - 1];
+            partitions[i] = partitions[i - 1];
+            rows[i] = rows[i - 1];
+            i--;
+        }
+        magnitudes[i] = magnitude;
+        partitions[i] = partition;
+        rows[i] = row;
+    }
+
+    /**
+     * Adds all rows selected by another partial result.
+     */
+    void merge(TopRows other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.magnitudes[i], other.partitions[i], other.rows[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<EarthquakeRecordDTO> materialize() {
+        List<EarthquakeRecordDTO> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(partitions[i].materialize(rows[i]));
+        }
+        return result;
+    }
+}
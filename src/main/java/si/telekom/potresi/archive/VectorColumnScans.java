@@ -0,0 +1,88 @@
+package si.telekom.potresi.archive;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+/**
+ * Column kernels on the incubating Vector API. Only loaded after {@link ColumnScans#best()}
+ * has checked that {@code jdk.incubator.vector} is resolved.
+ * Times and magnitudes are both 64-bit, so one time vector lines up with one magnitude vector.
+ */
+final class VectorColumnScans implements ColumnScans {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    static int lanes() {
+        return DOUBLES.length();
+    }
+
+    @Override
+    public double maxMagnitude(MemorySegment times, MemorySegment magnitudes, int count, long fromMs, long toMs) {
+        DoubleVector max = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int bound = DOUBLES.loopBound(count);
+
+        for (int row = 0; row < bound; row += DOUBLES.length()) {
+            long offset = (long) row * Long.BYTES;
+            VectorMask<Double> mask = timeMask(times, offset, fromMs, toMs);
+            DoubleVector magnitude = DoubleVector.fromMemorySegment(DOUBLES, magnitudes, offset, ORDER);
+            // NaN lanes would poison MAX, so they are masked out
+            mask = mask.andNot(magnitude.test(VectorOperators.IS_NAN));
+            max = max.lanewise(VectorOperators.MAX, magnitude, mask);
+        }
+
+        double result = max.reduceLanes(VectorOperators.MAX);
+        return Math.max(result, ScalarColumnScans.maxMagnitude(times, magnitudes, bound, count, fromMs, toMs));
+    }
+
+    @Override
+    public int countInRange(MemorySegment times, int count, long fromMs, long toMs) {
+        int matches = 0;
+        int bound = LONGS.loopBound(count);
+
+        for (int row = 0; row < bound; row += LONGS.length()) {
+            LongVector time = LongVector.fromMemorySegment(LONGS, times, (long) row * Long.BYTES, ORDER);
+            matches += time.compare(VectorOperators.GE, fromMs).and(time.compare(VectorOperators.LT, toMs)).trueCount();
+        }
+        return matches + ScalarColumnScans.countInRange(times, bound, count, fromMs, toMs);
+    }
+
+    @Override
+    public int select(MemorySegment times, MemorySegment magnitudes, MemorySegment depths, int count,
+                      long fromMs, long toMs, double minMagnitude, double minDepth, double maxDepth, int[] rows) {
+        boolean anyMagnitude = minMagnitude == Double.NEGATIVE_INFINITY;
+        int matches = 0;
+        int bound = DOUBLES.loopBound(count);
+
+        for (int row = 0; row < bound; row += DOUBLES.length()) {
+            long offset = (long) row * Long.BYTES;
+            VectorMask<Double> mask = timeMask(times, offset, fromMs, toMs);
+            if (!anyMagnitude) {
+                DoubleVector magnitude = DoubleVector.fromMemorySegment(DOUBLES, magnitudes, offset, ORDER);
+                mask = mask.and(magnitude.compare(VectorOperators.GE, minMagnitude));
+            }
+            DoubleVector depth = DoubleVector.fromMemorySegment(DOUBLES, depths, offset, ORDER);
+            mask = mask.and(depth.compare(VectorOperators.GE, minDepth)).and(depth.compare(VectorOperators.LE, maxDepth));
+
+            long bits = mask.toLong();
+            while (bits != 0) {
+                rows[matches++] = row + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return ScalarColumnScans.select(times, magnitudes, depths, bound, count,
+                fromMs, toMs, minMagnitude, minDepth, maxDepth, rows, matches);
+    }
+
+    private static VectorMask<Double> timeMask(MemorySegment times, long offset, long fromMs, long toMs) {
+        LongVector time = LongVector.fromMemorySegment(LONGS, times, offset, ORDER);
+        return time.compare(VectorOperators.GE, fromMs).and(time.compare(VectorOperators.LT, toMs)).cast(DOUBLES);
+    }
+}
@@ -0,0 +1,155 @@
+package si.telekom.potresi.backfill;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Time ranges of a backfill that are already stored. Saved as text after every completed chunk:
+ * <pre>
+ * range 2020-01-01T00:00:00Z 2024-01-01T00:00:00Z
+ * done 2020-01-01T00:00:00Z 2020-03-01T00:00:00Z
+ * </pre>
+ * Adjacent completed ranges are coalesced, so the file stays short however many chunks were fetched.
+ */
+final class BackfillCheckpoint {
+
+    private final Instant from;
+    private final Instant to;
+    /** Start to end of the completed ranges, disjoint and non-adjacent. */
+    private final NavigableMap<Instant, Instant> done = new TreeMap<>();
+
+    BackfillCheckpoint(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Backfill range is empty: " + from + " to " + to);
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    Instant from() {
+        return from;
+    }
+
+    Instant to() {
+        return to;
+    }
+
+    /**
+     * Records {@code [start, end)} as stored.
+     */
+    synchronized void markDone(Instant start, Instant end) {
+        Map.Entry<Instant, Instant> before = done.floorEntry(start);
+        if (before != null && !before.getValue().isBefore(start)) {
+            start = before.getKey();
+            end = before.getValue().isAfter(end) ? before.getValue() : end;
+            done.remove(before.getKey());
+        }
+        Map.Entry<Instant, Instant> after;
+        while ((after = done.ceilingEntry(start)) != null && !after.getKey().isAfter(end)) {
+            end = after.getValue().isAfter(end) ? after.getValue() : end;
+            done.remove(after.getKey());
+        }
+        done.put(start, end);
+    }
+
+    /**
+     * Ranges still to be fetched, cut into chunks of at most the given length, oldest first.
+     */
+    synchronized List<Chunk> remaining(Duration chunk) {
+        List<Chunk> chunks = new ArrayList<>();
+        Instant cursor = from;
+        for (Map.Entry<Instant, Instant> range : done.entrySet()) {
+            addChunks(chunks, cursor, range.getKey(), chunk);
+            if (range.getValue().isAfter(cursor)) cursor = range.getValue();
+        }
+        addChunks(chunks, cursor, to, chunk);
+        return chunks;
+    }
+
+    /**
+     * Share of the range that is stored, between 0 and 1.
+     */
+    synchronized double progress() {
+        long total = Duration.between(from, to).toMillis();
+        long completed = done.entrySet().stream()
+                .mapToLong(range -> Duration.between(range.getKey(), range.getValue()).toMillis())
+                .sum();
+        return (double) completed / total;
+    }
+
+    synchronized void save(Path file) throws IOException {
+        StringBuilder text = new StringBuilder("range ").append(from).append(' ').append(to).append('\n');
+        done.forEach((start, end) -> text.append("done ").append(start).append(' ').append(end).append('\n'));
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        Files.writeString(temporary, text, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a saved checkpoint.
+     *
+     * @return the checkpoint, or empty if the file does not exist
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    static Optional<BackfillCheckpoint> load(Path file) throws IOException {
+        if (!Files.exists(file)) return Optional.empty();
+
+        BackfillCheckpoint checkpoint = null;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            String[] fields = line.trim().split(" ");
+            try {
+                if (fields.length == 3 && fields[0].equals("range") && checkpoint == null) {
+                    checkpoint = new BackfillCheckpoint(Instant.parse(fields[1]), Instant.parse(fields[2]));
+                } else if (fields.length == 3 && fields[0].equals("done") && checkpoint != null) {
+                    checkpoint.markDone(Instant.parse(fields[1]), Instant.parse(fields[2]));
+                } else {
+                    throw new IOException("Unexpected line in backfill checkpoint " + file + ": " + line);
+                }
+            } catch (RuntimeException ex) {
+                throw new IOException("Unexpected line in backfill checkpoint " + file + ": " + line, ex);
+            }
+        }
+        if (checkpoint == null) {
+            throw new IOException("Backfill checkpoint " + file + " has no range");
+        }
+        return Optional.of(checkpoint);
+    }
+
+    private static void addChunks(List<Chunk> chunks, Instant start, Instant end, Duration chunk) {
+        while (start.isBefore(end)) {
+            Instant chunkEnd = start.plus(chunk).isBefore(end) ? start.plus(chunk) : end;
+            chunks.add(new Chunk(start, chunkEnd));
+            start = chunkEnd;
+        }
+    }
+
+    /**
+     * Time range {@code [start, end)} fetched with one query.
+     */
+    record Chunk(Instant start, Instant end) {
+
+        Duration length() {
+            return Duration.between(start, end);
+        }
+
+        List<Chunk> halves() {
+            Instant middle = start.plus(length().dividedBy(2));
+            return List.of(new Chunk(start, middle), new Chunk(middle, end));
+        }
+    }
+}
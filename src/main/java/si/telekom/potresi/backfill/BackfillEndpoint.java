@@ -0,0 +1,69 @@
+package si.telekom.potresi.backfill;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Actuator endpoint that controls the {@link BackfillJob}: {@code GET /actuator/backfill} reports its progress,
+ * {@code POST /actuator/backfill/start} with {@code {"from": ..., "to": ...}} backfills a range and
+ * {@code POST /actuator/backfill/resume} continues the range of the saved checkpoint.
+ */
+@Component
+@Endpoint(id = "backfill")
+public class BackfillEndpoint {
+
+    private final BackfillJob job;
+
+    public BackfillEndpoint(BackfillJob job) {
+        this.job = job;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return job.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> control(@Selector String action, @Nullable String from, @Nullable String to) {
+        try {
+            boolean started;
+            if (action.equals("start")) {
+                if (from == null || to == null) {
+                    return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Both 'from' and 'to' are required.");
+                }
+                Instant start = Instant.parse(from);
+                Instant end = Instant.parse(to);
+                if (!start.isBefore(end)) {
+                    return error(WebEndpointResponse.STATUS_BAD_REQUEST, "'from' must be before 'to'.");
+                }
+                started = job.start(start, end);
+            } else if (action.equals("resume")) {
+                started = job.resume();
+            } else {
+                return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Unknown action '" + action + "', use start or resume.");
+            }
+
+            if (!started) {
+                return error(409, "A backfill is already running.");
+            }
+            return new WebEndpointResponse<>(job.status());
+        } catch (DateTimeParseException ex) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Invalid time '" + ex.getParsedString() + "', use e.g. 2020-01-01T00:00:00Z.");
+        } catch (IllegalStateException ex) {
+            return error(409, ex.getMessage());
+        }
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> error(int status, String message) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
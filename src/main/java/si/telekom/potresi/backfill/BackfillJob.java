@@ -0,0 +1,278 @@
+package si.telekom.potresi.backfill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import si.telekom.potresi.archive.EventArchive;
+import si.telekom.potresi.config.BackfillConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.jfr.UpstreamCallInterceptor;
+import si.telekom.potresi.source.FdsnText;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a historical range from the USGS FDSN event service into the {@link EventArchive}, beyond the 30 days the
+ * summary feeds cover.
+ * <p>
+ * The range is cut into chunks that are fetched with bounded parallelism. A chunk returning as many events as the
+ * service's result limit may have been truncated; it is discarded and fetched again as two halves. Every chunk is
+ * streamed line by line and stored before it counts as done, so memory stays bounded by one chunk per worker.
+ * Completed ranges are saved in a {@link BackfillCheckpoint}; running the same range again only fetches what is
+ * missing. A chunk that fails stays missing and is fetched on the next run. Events already archived, e.g. by a run
+ * over an overlapping range, are skipped by id.
+ */
+@Component
+public class BackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillJob.class);
+
+    public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+
+    private final RestTemplate restTemplate;
+    private final BackfillConfig config;
+    private final EventArchive archive;
+
+    private final AtomicLong eventsStored = new AtomicLong();
+    private final AtomicLong chunksDone = new AtomicLong();
+    private final AtomicLong chunksSplit = new AtomicLong();
+    private final AtomicLong chunksFailed = new AtomicLong();
+    private volatile State state = State.IDLE;
+    private volatile BackfillCheckpoint checkpoint;
+
+    public BackfillJob(BackfillConfig config, EventArchive archive) {
+        this.config = config;
+        this.archive = archive;
+
+        // Not the shared RestTemplate: a chunk of thousands of events takes far longer than its timeouts
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+        factory.setConnectTimeout(config.getTimeout());
+        factory.setReadTimeout(config.getTimeout());
+        this.restTemplate = new RestTemplate(factory);
+        this.restTemplate.getInterceptors().add(new UpstreamCallInterceptor());
+    }
+
+    /**
+     * Starts backfilling {@code [from, to)} in the background, resuming the saved checkpoint if it is for the same range.
+     *
+     * @return false if a backfill is already running
+     * @throws IllegalStateException if the archive is disabled
+     */
+    public synchronized boolean start(Instant from, Instant to) {
+        if (!archive.isEnabled()) {
+            throw new IllegalStateException("The event archive is disabled.");
+        }
+        if (state == State.RUNNING) return false;
+
+        BackfillCheckpoint started = checkpointFor(from, to);
+        begin(started);
+        Thread.ofPlatform().name("backfill").daemon().start(() -> run(started));
+        return true;
+    }
+
+    /**
+     * Starts backfilling the range of the saved checkpoint in the background.
+     *
+     * @return false if a backfill is already running
+     * @throws IllegalStateException if the archive is disabled or there is no checkpoint
+     */
+    public synchronized boolean resume() {
+        BackfillCheckpoint saved = loadCheckpoint();
+        if (saved == null) {
+            throw new IllegalStateException("There is no backfill to resume.");
+        }
+        return start(saved.from(), saved.to());
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state.name());
+        BackfillCheckpoint current = checkpoint;
+        if (current != null) {
+            status.put("from", current.from().toString());
+            status.put("to", current.to().toString());
+            status.put("progress", current.progress());
+        }
+        status.put("chunksDone", chunksDone.get());
+        status.put("chunksSplit", chunksSplit.get());
+        status.put("chunksFailed", chunksFailed.get());
+        status.put("eventsStored", eventsStored.get());
+        return status;
+    }
+
+    /**
+     * Backfills {@code [from, to)} on the calling thread.
+     *
+     * @return COMPLETED, or FAILED if some chunks are still missing
+     */
+    synchronized State backfill(Instant from, Instant to) {
+        if (state == State.RUNNING) {
+            throw new IllegalStateException("A backfill is already running.");
+        }
+        BackfillCheckpoint started = checkpointFor(from, to);
+        begin(started);
+        return run(started);
+    }
+
+    private void begin(BackfillCheckpoint started) {
+        checkpoint = started;
+        state = State.RUNNING;
+        eventsStored.set(0);
+        chunksDone.set(0);
+        chunksSplit.set(0);
+        chunksFailed.set(0);
+    }
+
+    private State run(BackfillCheckpoint checkpoint) {
+        Path file = Path.of(config.getCheckpointFile());
+        List<BackfillCheckpoint.Chunk> chunks = checkpoint.remaining(config.getChunk());
+        log.info("Backfilling {} to {}: {} chunk(s) to fetch, {}% already stored.", checkpoint.from(), checkpoint.to(),
+                chunks.size(), Math.round(checkpoint.progress() * 100));
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(config.getParallelism(),
+                Thread.ofVirtual().name("backfill-", 0).factory())) {
+            CompletionService<ChunkResult> completion = new ExecutorCompletionService<>(workers);
+            int pending = 0;
+            for (BackfillCheckpoint.Chunk chunk : chunks) {
+                completion.submit(() -> fetch(chunk));
+                pending++;
+            }
+
+            // Chunks complete out of order; only this thread touches the checkpoint file
+            while (pending > 0) {
+                Future<ChunkResult> completed = completion.take();
+                pending--;
+                try {
+                    ChunkResult result = completed.get();
+                    if (result.truncated()) {
+                        chunksSplit.incrementAndGet();
+                        for (BackfillCheckpoint.Chunk half : result.chunk().halves()) {
+                            completion.submit(() -> fetch(half));
+                            pending++;
+                        }
+                        continue;
+                    }
+                    eventsStored.addAndGet(result.stored());
+                    chunksDone.incrementAndGet();
+                    checkpoint.markDone(result.chunk().start(), result.chunk().end());
+                    checkpoint.save(file);
+                } catch (ExecutionException ex) {
+                    chunksFailed.incrementAndGet();
+                    log.warn("Backfill chunk failed, it is fetched again on the next run: {}", ex.getCause().getMessage());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Could not save backfill checkpoint " + file, ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Backfill interrupted at {}%.", Math.round(checkpoint.progress() * 100));
+            state = State.FAILED;
+            return state;
+        } catch (RuntimeException ex) {
+            log.error("Backfill failed: {}", ex.getMessage(), ex);
+            state = State.FAILED;
+            return state;
+        }
+
+        state = chunksFailed.get() == 0 ? State.COMPLETED : State.FAILED;
+        log.info("Backfill of {} to {} finished: {} event(s) in {} chunk(s), {} split, {} failed.", checkpoint.from(),
+                checkpoint.to(), eventsStored.get(), chunksDone.get(), chunksSplit.get(), chunksFailed.get());
+        return state;
+    }
+
+    /**
+     * Fetches one chunk and stores its events that are not archived yet, unless the result limit was hit.
+     */
+    private ChunkResult fetch(BackfillCheckpoint.Chunk chunk) {
+        String url = queryUrl(chunk);
+        log.debug("Requesting backfill chunk: {}", url);
+
+        List<EarthquakeRecordDTO> records = restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            List<EarthquakeRecordDTO> read = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    EarthquakeRecordDTO record = FdsnText.parseLine(line, "");
+                    if (record != null) read.add(record);
+                }
+            }
+            return read;
+        });
+        if (records == null) records = List.of();
+
+        boolean truncated = records.size() >= config.getMaxResults();
+        if (truncated && chunk.length().compareTo(config.getMinChunk().multipliedBy(2)) >= 0) {
+            return new ChunkResult(chunk, 0, true);
+        }
+        if (truncated) {
+            log.warn("Backfill chunk {} to {} hit the result limit of {} events, some may be missing.",
+                    chunk.start(), chunk.end(), config.getMaxResults());
+        }
+
+        int stored = 0;
+        for (EarthquakeRecordDTO record : records) {
+            // The service's end time is inclusive; the next chunk has events at its start
+            if (record.getTime().isBefore(chunk.start()) || !record.getTime().isBefore(chunk.end())) continue;
+            if (archive.storeIfAbsent(record)) stored++;
+        }
+        archive.flush();
+        return new ChunkResult(chunk, stored, false);
+    }
+
+    private String queryUrl(BackfillCheckpoint.Chunk chunk) {
+        return UriComponentsBuilder.fromUriString(config.getBaseUrl())
+                .queryParam("format", "text")
+                .queryParam("starttime", formatTime(chunk.start()))
+                .queryParam("endtime", formatTime(chunk.end()))
+                .queryParam("orderby", "time-asc")
+                .queryParam("limit", config.getMaxResults())
+                .build()
+                .toUriString();
+    }
+
+    private BackfillCheckpoint checkpointFor(Instant from, Instant to) {
+        BackfillCheckpoint saved = loadCheckpoint();
+        if (saved != null && saved.from().equals(from) && saved.to().equals(to)) {
+            return saved;
+        }
+        return new BackfillCheckpoint(from, to);
+    }
+
+    private BackfillCheckpoint loadCheckpoint() {
+        try {
+            return BackfillCheckpoint.load(Path.of(config.getCheckpointFile())).orElse(null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String formatTime(Instant time) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.ofInstant(time, ZoneOffset.UTC));
+    }
+
+    private record ChunkResult(BackfillCheckpoint.Chunk chunk, int stored, boolean truncated) {}
+}
@@ -0,0 +1,154 @@
+package si.telekom.potresi.changes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.ChangeLogConfig;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.ChangeFeedDTO;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.EventChangeDTO;
+import si.telekom.potresi.service.IngestionBatch;
+import si.telekom.potresi.service.IngestionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sequence-numbered log of the changes made by ingestion, for clients that synchronise incrementally.
+ * <p>
+ * Every added, revised or deleted event is appended with the next sequence number. The log is compacted as it
+ * grows: a newer change of an event replaces the older one, events leaving the ingestion window are dropped, and
+ * deletions are kept for {@code tombstoneRetention}. A client whose cursor is older than the newest dropped
+ * deletion, or was issued before a restart, gets the whole log again with {@code reset} set.
+ * Reading the changes after a cursor costs O(log n + changes).
+ */
+@Component
+public class ChangeLog implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLog.class);
+
+    private final ChangeLogConfig config;
+    private final IngestionConfig ingestionConfig;
+    /** Distinguishes cursors of this process from those issued before a restart. */
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private final Map<String, Entry> latest = new HashMap<>();
+    private long lastSequence;
+    private long compactedThrough;
+
+    public ChangeLog(ChangeLogConfig config, IngestionConfig ingestionConfig) {
+        this.config = config;
+        this.ingestionConfig = ingestionConfig;
+    }
+
+    @Override
+    public synchronized void onIngested(IngestionBatch batch) {
+        long now = System.currentTimeMillis();
+        batch.added().forEach(r -> append("added", r.getId(), r, now));
+        batch.revised().forEach(r -> append("revised", r.getId(), r, now));
+        batch.deleted().forEach(id -> append("deleted", id, null, now));
+        compact(now);
+        log.debug("Change log epoch {}: {} entries, sequence {}.", batch.epoch(), entries.size(), lastSequence);
+    }
+
+    /**
+     * Returns the changes after the given cursor, oldest first.
+     *
+     * @param cursor cursor returned by an earlier call, or null to start from the beginning
+     * @param limit  maximum number of changes returned
+     * @throws IllegalArgumentException if the cursor is malformed or limit is out of range
+     */
+    public synchronized ChangeFeedDTO changesSince(String cursor, int limit) {
+        if (limit < 1 || limit > config.getMaxLimit()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + config.getMaxLimit() + ".");
+        }
+
+        long since = 0;
+        boolean reset = true;
+        if (cursor != null) {
+            long sequence = parseCursor(cursor);
+            if (sequence >= 0 && sequence >= compactedThrough && sequence <= lastSequence) {
+                since = sequence;
+                reset = false;
+            }
+        }
+
+        List<EventChangeDTO> changes = new ArrayList<>(Math.min(limit, entries.size()));
+        long next = since;
+        Iterator<Entry> pending = entries.tailMap(since, false).values().iterator();
+        while (changes.size() < limit && pending.hasNext()) {
+            Entry entry = pending.next();
+            changes.add(new EventChangeDTO(entry.type(), entry.id(), entry.record()));
+            next = entry.sequence();
+        }
+        return new ChangeFeedDTO(generation + "-" + next, reset, pending.hasNext(), changes);
+    }
+
+    /**
+     * Number of entries left after compaction.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void append(String type, String id, EarthquakeRecordDTO record, long now) {
+        if (id == null) return;
+        Entry entry = new Entry(++lastSequence, type, id, record, now);
+        entries.put(entry.sequence(), entry);
+        Entry previous = latest.put(id, entry);
+        if (previous != null) {
+            entries.remove(previous.sequence());
+        }
+    }
+
+    private void compact(long now) {
+        long windowStart = Instant.ofEpochMilli(now).minus(Duration.ofDays(ingestionConfig.getWindowDays())).toEpochMilli();
+        long tombstonesFrom = now - config.getTombstoneRetention().toMillis();
+
+        for (Iterator<Entry> it = latest.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            boolean expired;
+            if (entry.record() == null) {
+                expired = entry.loggedAt() <= tombstonesFrom;
+                // Clients that have not seen this deletion can no longer catch up incrementally
+                if (expired) compactedThrough = Math.max(compactedThrough, entry.sequence());
+            } else {
+                Instant time = entry.record().getTime();
+                expired = time != null && time.toEpochMilli() < windowStart;
+            }
+            if (expired) {
+                it.remove();
+                entries.remove(entry.sequence());
+            }
+        }
+    }
+
+    /**
+     * Sequence number of a cursor, or -1 if it was issued by another process.
+     */
+    private long parseCursor(String cursor) {
+        int separator = cursor.lastIndexOf('-');
+        try {
+            if (separator > 0) {
+                long sequence = Long.parseLong(cursor.substring(separator + 1));
+                if (sequence >= 0) {
+                    return cursor.substring(0, separator).equals(generation) ? sequence : -1;
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    private record Entry(long sequence, String type, String id, EarthquakeRecordDTO record, long loggedAt) {}
+}
@@ -8,12 +8,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import si.telekom.potresi.config.EarthquakeApiConfig;
+import si.telekom.potresi.deadline.Deadline;
 import si.telekom.potresi.dto.EarthquakeRecordDTO;
 import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.jfr.FallbackEvent;
+import si.telekom.potresi.jfr.FeedParseEvent;
+import si.telekom.potresi.jfr.UpstreamAttempt;
+import si.telekom.potresi.tracing.Span;
+import si.telekom.potresi.tracing.Tracer;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Component
 public class EarthquakeClient {
@@ -21,14 +32,23 @@ public class EarthquakeClient {
     private static final Logger log = LoggerFactory.getLogger(EarthquakeClient.class);
     private final RestTemplate restTemplate;
     private final EarthquakeApiConfig config;
+    private final FeedPlanner planner;
+    private final Tracer tracer;
+    private final HedgedRequests hedging;
 
-    public EarthquakeClient(RestTemplate restTemplate, EarthquakeApiConfig config) {
+    public EarthquakeClient(RestTemplate restTemplate, EarthquakeApiConfig config, Tracer tracer,
+                            HedgedRequests hedging) {
         this.restTemplate = restTemplate;
         this.config = config;
+        this.planner = new FeedPlanner(config.getFeed());
+        this.tracer = tracer;
+        this.hedging = hedging;
     }
 
     /**
      * Fetches the strongest earthquake(s) in the given period.
+     * Starts with the smallest magnitude-filtered feed that can answer the query
+     * and falls back to larger feeds only when a feed has no rated events.
      * Applies circuit breaker and retry mechanisms.
      *
      * @param days number of past days to search in
@@ -37,21 +57,52 @@ public class EarthquakeClient {
     @CircuitBreaker(name = "earthquakeApi")
     @Retry(name = "earthquakeApi", fallbackMethod = "fallbackWorst")
     public List<EarthquakeRecordDTO> getWorstEarthquakeInPeriod(int days) {
-        String feed = getFeedNameForDays(days);
-        String url = config.getBaseUrl() + feed;
+        try (Span span = tracer.startSpan("EarthquakeClient.getWorstEarthquakeInPeriod").tag("days", days)) {
+            for (FeedPlanner.Feed feed : planner.planStrongest(days)) {
+                String url = config.getBaseUrl() + feed.file();
 
-        log.info("Requesting earthquake data from: {}", url);
-        String response = this.restTemplate.getForObject(url, String.class);
+                log.info("Requesting earthquake data from: {}", url);
+                JSONArray features = fetchFeatures(feed.name(), url);
 
-        JSONObject json = new JSONObject(response);
-        JSONArray features = json.getJSONArray("features");
+                List<JSONObject> strongest = findStrongest(features);
+                if (!strongest.isEmpty()) {
+                    span.tag("feed", feed.name());
+                    return strongest.stream().map(this::mapToEarthquakeRecord).toList();
+                }
+
+                log.info("No rated earthquakes in feed {}, trying a larger feed.", feed.name());
+            }
 
-        if (features.length() == 0) {
             log.info("No earthquake data found in the response.");
             return List.of();
         }
+    }
 
-        double maxMag = Double.MIN_VALUE;
+    /**
+     * Downloads a feed and parses its features, tracing the transfer and the parsing separately.
+     * Downloads slower than usual for the feed are hedged.
+     */
+    private JSONArray fetchFeatures(String feed, String url) {
+        String response;
+        try (Span span = tracer.startSpan("earthquake.fetch").tag("feed", feed)) {
+            response = hedging.call(feed, () -> this.restTemplate.getForObject(url, String.class));
+            span.tag("chars", response == null ? 0 : response.length());
+        }
+
+        FeedParseEvent parseEvent = FeedParseEvent.start(feed);
+        try (Span span = tracer.startSpan("earthquake.parse").tag("feed", feed)) {
+            JSONArray features = new JSONObject(response).getJSONArray("features");
+            span.tag("features", features.length());
+            parseEvent.finish(features.length(), response.length());
+            return features;
+        }
+    }
+
+    /**
+     * Finds the features with the highest magnitude, ignoring features without one.
+     */
+    private List<JSONObject> findStrongest(JSONArray features) {
+        double maxMag = Double.NEGATIVE_INFINITY;
         List<JSONObject> strongest = new ArrayList<>();
 
         // Iterate through each feature and find the strongest earthquakes
@@ -72,57 +123,147 @@ public class EarthquakeClient {
             }
         }
 
-        log.info("Found {} strongest earthquake(s) with magnitude {}", strongest.size(), maxMag);
-        return strongest.stream().map(this::mapToEarthquakeRecord).toList();
+        if (!strongest.isEmpty()) {
+            log.info("Found {} strongest earthquake(s) with magnitude {}", strongest.size(), maxMag);
+        }
+        return strongest;
     }
 
     /**
      * Retrieves the most recent earthquake event available in the feeds.
-     * Tries multiple feeds until one with data is found.
+     * All candidate feeds are fetched concurrently; results are taken in the configured
+     * priority order (hourly before daily, ...) and the remaining fetches are cancelled as
+     * soon as the answer is known. Since the summary feeds are nested, a failed
+     * higher-priority feed can be answered by a lower-priority one.
      *
      * @return most recent EarthquakeRecordDTO or null if none found
      */
     @CircuitBreaker(name = "earthquakeApi")
     @Retry(name = "earthquakeApi", fallbackMethod = "fallbackMostRecent")
     public EarthquakeRecordDTO getMostRecentEarthquake() {
-        String[] feeds = config.getFeed().keySet().toArray(new String[0]);
+        List<String> feeds = getRecentFeedPriority();
+        int attempt = UpstreamAttempt.current();
+        Deadline deadline = Deadline.current();
 
-        for (String feed : feeds) {
-            String url = config.getBaseUrl() + config.getFeed().get(feed);
-            log.info("Attempting to fetch recent earthquakes from feed: {}", feed);
+        try (Span span = tracer.startSpan("EarthquakeClient.getMostRecentEarthquake");
+             ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<JSONObject>> fetches = feeds.stream()
+                    .map(feed -> scope.submit(() -> {
+                        try (Span feedSpan = tracer.startSpan(span, "earthquake.feed")) {
+                            feedSpan.tag("feed", feed);
+                            JSONObject mostRecent = UpstreamAttempt.callWith(attempt,
+                                    () -> Deadline.callWith(deadline, () -> fetchMostRecentFeature(feed)));
+                            feedSpan.tag("found", mostRecent != null);
+                            return mostRecent;
+                        }
+                    }))
+                    .toList();
 
-            String response = this.restTemplate.getForObject(url, String.class);
-            JSONObject json = new JSONObject(response);
-            JSONArray features = json.getJSONArray("features");
+            RuntimeException failure = null;
+            for (int i = 0; i < feeds.size(); i++) {
+                JSONObject mostRecent;
+                try {
+                    mostRecent = fetches.get(i).get();
+                } catch (ExecutionException e) {
+                    log.warn("Fetching feed {} failed: {}", feeds.get(i), e.getCause().getMessage());
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+                    }
+                    continue;
+                }
 
-            if (features.length() == 0) {
-                log.debug("No data found in feed: {}", feed);
-                continue;
-            }
+                if (mostRecent == null) {
+                    log.debug("No data found in feed: {}", feeds.get(i));
+                    continue;
+                }
 
-            // Find the most recent earthquake by comparing timestamps
-            JSONObject mostRecent = features.getJSONObject(0);
-            long latestTime = mostRecent.getJSONObject("properties").optLong("time", 0);
+                // Answer is known, slower feeds are no longer needed
+                fetches.forEach(f -> f.cancel(true));
 
-            for (int i = 1; i < features.length(); i++) {
-                JSONObject current = features.getJSONObject(i);
-                long currentTime = current.getJSONObject("properties").optLong("time", 0);
-                if (currentTime > latestTime) {
-                    mostRecent = current;
-                    latestTime = currentTime;
-                }
+                span.tag("feed", feeds.get(i));
+                EarthquakeRecordDTO record = mapToEarthquakeRecord(mostRecent);
+                record.setValidAt(Instant.now());
+                log.info("Most recent earthquake found in feed {}: {}", feeds.get(i), record);
+                return record;
             }
 
-            EarthquakeRecordDTO record = mapToEarthquakeRecord(mostRecent);
-            record.setValidAt(Instant.now());
-            log.info("Most recent earthquake found: {}", record);
-            return record;
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching recent earthquakes", e);
         }
 
         log.warn("No recent earthquakes found in any feed.");
         return null;
     }
 
+    /**
+     * Downloads one feed and returns its most recent feature, or null if the feed is empty.
+     */
+    private JSONObject fetchMostRecentFeature(String feed) {
+        String url = config.getBaseUrl() + config.getFeed().get(feed);
+        log.info("Attempting to fetch recent earthquakes from feed: {}", feed);
+
+        JSONArray features = fetchFeatures(feed, url);
+
+        if (features.length() == 0) {
+            return null;
+        }
+
+        // Find the most recent earthquake by comparing timestamps
+        JSONObject mostRecent = features.getJSONObject(0);
+        long latestTime = mostRecent.getJSONObject("properties").optLong("time", 0);
+
+        for (int i = 1; i < features.length(); i++) {
+            JSONObject current = features.getJSONObject(i);
+            long currentTime = current.getJSONObject("properties").optLong("time", 0);
+            if (currentTime > latestTime) {
+                mostRecent = current;
+                latestTime = currentTime;
+            }
+        }
+        return mostRecent;
+    }
+
+    /**
+     * Feeds used by the most-recent lookup, highest priority first.
+     * Uses the explicit configuration when present, otherwise the complete feeds from shortest to longest window.
+     */
+    private List<String> getRecentFeedPriority() {
+        List<String> configured = config.getRecentPriority();
+        if (configured != null && !configured.isEmpty()) {
+            return configured.stream().filter(config.getFeed()::containsKey).toList();
+        }
+        return planner.completeFeeds().stream().map(FeedPlanner.Feed::name).toList();
+    }
+
+    /**
+     * Fetches every earthquake in the complete feed covering the given period.
+     * Used by ingestion; applies circuit breaker and retry mechanisms.
+     *
+     * @param days number of past days to fetch
+     * @return all earthquakes of the feed, empty if none or if the feed is unavailable
+     */
+    @CircuitBreaker(name = "earthquakeApi")
+    @Retry(name = "earthquakeApi", fallbackMethod = "fallbackAll")
+    public List<EarthquakeRecordDTO> getAllEarthquakesInPeriod(int days) {
+        FeedPlanner.Feed feed = planner.completeFeedFor(days);
+        String url = config.getBaseUrl() + feed.file();
+
+        log.info("Requesting all earthquakes from: {}", url);
+        JSONArray features = fetchFeatures(feed.name(), url);
+
+        List<EarthquakeRecordDTO> records = new ArrayList<>(features.length());
+        for (int i = 0; i < features.length(); i++) {
+            records.add(mapToEarthquakeRecord(features.getJSONObject(i)));
+        }
+
+        log.info("Fetched {} earthquake(s) from feed {}", records.size(), feed.name());
+        return records;
+    }
+
     /**
      * Maps a JSONObject representing an earthquake to a DTO.
      */
@@ -138,24 +279,32 @@ public class EarthquakeClient {
         String place = properties.optString("place", "Unknown location");
 
         EarthquakeRecordDTO record = new EarthquakeRecordDTO(place, new GeoLocationDTO(latitude, longitude), depth, Instant.now());
+        record.setId(feature.optString("id", null));
+        if (properties.has("time") && !properties.isNull("time")) {
+            record.setTime(Instant.ofEpochMilli(properties.getLong("time")));
+        }
+        if (properties.has("mag") && !properties.isNull("mag")) {
+            record.setMagnitude(properties.getDouble("mag"));
+        }
         log.debug("Mapped EarthquakeRecordDTO: {}", record);
         return record;
     }
 
     /**
-     * Determines which feed to use based on the number of days.
+     * Fallback method when getWorstEarthquakeInPeriod fails.
      */
-    private String getFeedNameForDays(int days) {
-        if (days <= 1) return config.getFeed().get("daily");
-        if (days <= 7) return config.getFeed().get("weekly");
-        return config.getFeed().get("monthly");
+    public List<EarthquakeRecordDTO> fallbackWorst(int days, Throwable t) {
+        log.warn("Fallback for getWorstEarthquakeInPeriod triggered", t);
+        FallbackEvent.emit("EarthquakeClient.getWorstEarthquakeInPeriod", t);
+        return List.of();
     }
 
     /**
-     * Fallback method when getWorstEarthquakeInPeriod fails.
+     * Fallback method when getAllEarthquakesInPeriod fails.
      */
-    public List<EarthquakeRecordDTO> fallbackWorst(int days, Throwable t) {
-        log.warn("Fallback for getWorstEarthquakeInPeriod triggered", t);
+    public List<EarthquakeRecordDTO> fallbackAll(int days, Throwable t) {
+        log.warn("Fallback for getAllEarthquakesInPeriod triggered", t);
+        FallbackEvent.emit("EarthquakeClient.getAllEarthquakesInPeriod", t);
         return List.of();
     }
 
@@ -164,6 +313,7 @@ public class EarthquakeClient {
      */
     public EarthquakeRecordDTO fallbackMostRecent(Throwable t) {
         log.warn("Fallback for getMostRecentEarthquake triggered", t);
+        FallbackEvent.emit("EarthquakeClient.getMostRecentEarthquake", t);
         return null;
     }
 }
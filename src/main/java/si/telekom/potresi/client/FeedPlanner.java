@@ -0,0 +1,127 @@
+package si.telekom.potresi.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans which USGS summary feeds to download for a query.
+ * <p>
+ * Feeds are described by their file names ({@code <filter>_<window>.geojson}), so the catalog is
+ * simply the configured {@code earthquake.api.feed} map. A magnitude-filtered feed such as
+ * {@code 4.5_week} contains every event of at least that magnitude, so when it has any rated event
+ * its strongest event is also the strongest of the complete {@code all_week} feed.
+ * The {@code significant_*} feeds are selected by significance rather than magnitude and are never
+ * used to answer magnitude queries.
+ */
+class FeedPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedPlanner.class);
+
+    /** Minimum magnitude of the complete {@code all_*} feeds. */
+    static final double ALL_MAGNITUDES = Double.NEGATIVE_INFINITY;
+
+    /**
+     * One catalog entry.
+     *
+     * @param name         configuration key
+     * @param file         feed file relative to the base URL
+     * @param windowDays   time window covered by the feed
+     * @param minMagnitude lower magnitude bound, {@link #ALL_MAGNITUDES} for complete feeds, NaN if not magnitude-filtered
+     */
+    record Feed(String name, String file, double windowDays, double minMagnitude) {
+
+        boolean isComplete() {
+            return minMagnitude == ALL_MAGNITUDES;
+        }
+
+        boolean isMagnitudeFiltered() {
+            return !Double.isNaN(minMagnitude);
+        }
+    }
+
+    private final List<Feed> feeds;
+
+    FeedPlanner(Map<String, String> catalog) {
+        List<Feed> parsed = new ArrayList<>();
+        if (catalog != null) {
+            catalog.forEach((name, file) -> parsed.add(parse(name, file)));
+        }
+        this.feeds = List.copyOf(parsed);
+    }
+
+    /**
+     * Returns the feeds to try, in order, for finding the strongest earthquake in the last {@code days} days.
+     * All candidates cover the same window: the smallest one that still spans the requested period.
+     * The smallest (highest-threshold) feed comes first and the complete feed last.
+     */
+    List<Feed> planStrongest(int days) {
+        Feed complete = completeFeedFor(days);
+
+        List<Feed> plan = feeds.stream()
+                .filter(Feed::isMagnitudeFiltered)
+                .filter(f -> f.windowDays() == complete.windowDays())
+                .sorted(Comparator.comparingDouble(Feed::minMagnitude).reversed())
+                .toList();
+
+        log.debug("Planned feeds for {} day(s): {}", days, plan.stream().map(Feed::file).toList());
+        return plan;
+    }
+
+    /**
+     * Returns the complete feed with the smallest window that still spans the requested period,
+     * or the longest complete feed if none does.
+     */
+    Feed completeFeedFor(int days) {
+        return feeds.stream()
+                .filter(Feed::isComplete)
+                .filter(f -> f.windowDays() >= days)
+                .min(Comparator.comparingDouble(Feed::windowDays))
+                .or(() -> feeds.stream().filter(Feed::isComplete).max(Comparator.comparingDouble(Feed::windowDays)))
+                .orElseThrow(() -> new IllegalStateException("No complete earthquake feed configured"));
+    }
+
+    /**
+     * Returns the complete feeds ordered from the shortest window to the longest.
+     */
+    List<Feed> completeFeeds() {
+        return feeds.stream()
+                .filter(Feed::isComplete)
+                .sorted(Comparator.comparingDouble(Feed::windowDays))
+                .toList();
+    }
+
+    static Feed parse(String name, String file) {
+        String base = file.endsWith(".geojson") ? file.substring(0, file.length() - ".geojson".length()) : file;
+        int separator = base.lastIndexOf('_');
+        if (separator < 0) {
+            // Unknown naming scheme: treat as a complete feed of unknown length
+            return new Feed(name, file, Double.POSITIVE_INFINITY, ALL_MAGNITUDES);
+        }
+
+        String filter = base.substring(0, separator);
+        double windowDays = switch (base.substring(separator + 1)) {
+            case "hour" -> 1.0 / 24;
+            case "day" -> 1;
+            case "week" -> 7;
+            case "month" -> 30;
+            default -> Double.POSITIVE_INFINITY;
+        };
+
+        double minMagnitude;
+        if (filter.equals("all")) {
+            minMagnitude = ALL_MAGNITUDES;
+        } else {
+            try {
+                minMagnitude = Double.parseDouble(filter);
+            } catch (NumberFormatException e) {
+                minMagnitude = Double.NaN;
+            }
+        }
+        return new Feed(name, file, windowDays, minMagnitude);
+    }
+}
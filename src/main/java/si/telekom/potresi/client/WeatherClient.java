@@ -10,6 +10,10 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import si.telekom.potresi.config.WeatherApiConfig;
 import si.telekom.potresi.dto.WeatherInfoDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.jfr.FallbackEvent;
+import si.telekom.potresi.tracing.Span;
+import si.telekom.potresi.tracing.Tracer;
 
 @Component
 public class WeatherClient {
@@ -17,10 +21,14 @@ public class WeatherClient {
     private static final Logger log = LoggerFactory.getLogger(WeatherClient.class);
     private final RestTemplate restTemplate;
     private final WeatherApiConfig config;
+    private final Tracer tracer;
+    private final HedgedRequests hedging;
 
-    public WeatherClient(RestTemplate restTemplate, WeatherApiConfig config) {
+    public WeatherClient(RestTemplate restTemplate, WeatherApiConfig config, Tracer tracer, HedgedRequests hedging) {
         this.restTemplate = restTemplate;
         this.config = config;
+        this.tracer = tracer;
+        this.hedging = hedging;
     }
 
     /**
@@ -45,26 +53,34 @@ public class WeatherClient {
 
         log.info("Fetching weather data from URI: {}", uri);
 
-        // Call the API and parse the JSON response
-        String response = restTemplate.getForObject(uri, String.class);
-        JSONObject json = new JSONObject(response);
+        // Call the API (hedged if slower than usual) and parse the JSON response
+        String response;
+        try (Span span = tracer.startSpan("weather.fetch")) {
+            response = hedging.call("weather", () -> restTemplate.getForObject(uri, String.class));
+            span.tag("chars", response == null ? 0 : response.length());
+        }
 
-        log.debug("Received weather response: {}", json.toString());
+        try (Span span = tracer.startSpan("weather.parse")) {
+            JSONObject json = new JSONObject(response);
 
-        // Extract weather description
-        String description = json
-                .getJSONArray("weather")
-                .getJSONObject(0)
-                .getString("description");
+            log.debug("Received weather response: {}", json.toString());
 
-        // Extract temperature and humidity from "main" section
-        JSONObject main = json.getJSONObject("main");
-        double temp = main.getDouble("temp");
-        double humidity = main.getDouble("humidity");
+            // Extract weather description
+            String description = json
+                    .getJSONArray("weather")
+                    .getJSONObject(0)
+                    .getString("description");
 
-        log.info("Parsed weather info - Description: {}, Temp: {}, Humidity: {}", description, temp, humidity);
+            // Extract temperature and humidity from "main" section
+            JSONObject main = json.getJSONObject("main");
+            double temp = main.getDouble("temp");
+            double humidity = main.getDouble("humidity");
 
-        return new WeatherInfoDTO(description, temp, humidity);
+            log.info("Parsed weather info - Description: {}, Temp: {}, Humidity: {}", description, temp, humidity);
+            span.tag("description", description);
+
+            return new WeatherInfoDTO(description, temp, humidity);
+        }
     }
 
     /**
@@ -72,6 +88,7 @@ public class WeatherClient {
      */
     public WeatherInfoDTO weatherFallback(double latitude, double longitude, Throwable t) {
         log.warn("Weather fallback triggered for location ({}, {})", latitude, longitude, t);
+        FallbackEvent.emit("WeatherClient.getCurrentWeather", t);
         return new WeatherInfoDTO("Weather data unavailable", 0.0, 0.0, false);
     }
 }
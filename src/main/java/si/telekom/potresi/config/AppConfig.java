@@ -2,18 +2,36 @@ package si.telekom.potresi.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.deadline.DeadlineInterceptor;
+import si.telekom.potresi.deadline.DeadlineRequestFactory;
+import si.telekom.potresi.jfr.UpstreamCallInterceptor;
+import si.telekom.potresi.replay.RecordingInterceptor;
+import si.telekom.potresi.replay.ReplayMode;
+import si.telekom.potresi.replay.ReplayRequestFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
 
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(3000);
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(3000);
+
     @Bean
-    public RestTemplate restTemplate() {
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
-        factory.setConnectTimeout(3000);
-        factory.setReadTimeout(3000);
-        return new RestTemplate(factory);
+    public RestTemplate restTemplate(ReplayConfig replay) {
+        // Timeouts are shortened to the remaining request deadline, if any; replay applies them to recorded latencies
+        ClientHttpRequestFactory factory = replay.getMode() == ReplayMode.REPLAY
+                ? new ReplayRequestFactory(Path.of(replay.getDirectory()), replay.getSpeed(), replay.getIgnoredParameters(), READ_TIMEOUT)
+                : new DeadlineRequestFactory(CONNECT_TIMEOUT, READ_TIMEOUT);
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(new DeadlineInterceptor());
+        restTemplate.getInterceptors().add(new UpstreamCallInterceptor());
+        if (replay.getMode() == ReplayMode.RECORD) {
+            restTemplate.getInterceptors().add(new RecordingInterceptor(Path.of(replay.getDirectory()), replay.getIgnoredParameters()));
+        }
+        return restTemplate;
     }
 }
-
@@ -0,0 +1,86 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.archive")
+public class ArchiveConfig {
+
+    /** Whether ingested events are written to the off-heap archive. */
+    private boolean enabled = true;
+
+    /** Directory holding the memory-mapped partition files. */
+    private String directory = "data/archive";
+
+    /** Maximum number of events in one monthly partition. */
+    private int partitionCapacity = 262_144;
+
+    /** Bytes reserved per event for its id and place text. */
+    private int textBytesPerEvent = 128;
+
+    /** Whether months before the indexed ones are compressed into read-only segments once idle. */
+    private boolean sealClosedMonths = true;
+
+    /** Worker threads for parallel archive aggregation; 0 uses all available processors. */
+    private int parallelism = 0;
+
+    /** Rows scanned by one fork-join leaf task. */
+    private int chunkRows = 65_536;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getPartitionCapacity() {
+        return partitionCapacity;
+    }
+
+    public void setPartitionCapacity(int partitionCapacity) {
+        this.partitionCapacity = partitionCapacity;
+    }
+
+    public int getTextBytesPerEvent() {
+        return textBytesPerEvent;
+    }
+
+    public void setTextBytesPerEvent(int textBytesPerEvent) {
+        this.textBytesPerEvent = textBytesPerEvent;
+    }
+
+    public boolean isSealClosedMonths() {
+        return sealClosedMonths;
+    }
+
+    public void setSealClosedMonths(boolean sealClosedMonths) {
+        this.sealClosedMonths = sealClosedMonths;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public void setChunkRows(int chunkRows) {
+        this.chunkRows = chunkRows;
+    }
+}
@@ -0,0 +1,88 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.backfill")
+public class BackfillConfig {
+
+    /** USGS FDSN event service query endpoint. */
+    private String baseUrl = "https://earthquake.usgs.gov/fdsnws/event/1/query";
+
+    /** Time range requested at once; chunks that hit the result limit are split in half. */
+    private Duration chunk = Duration.ofDays(30);
+
+    /** Chunks are not split below this range, even if they hit the result limit. */
+    private Duration minChunk = Duration.ofHours(1);
+
+    /** Most events the service returns for one query (20000 for USGS). */
+    private int maxResults = 20_000;
+
+    /** Chunks fetched at the same time. */
+    private int parallelism = 4;
+
+    /** Connect and read timeout of backfill queries. */
+    private Duration timeout = Duration.ofMinutes(2);
+
+    /** File recording the completed time ranges, so an interrupted backfill resumes where it stopped. */
+    private String checkpointFile = "data/backfill/checkpoint.txt";
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Duration getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(Duration chunk) {
+        this.chunk = chunk;
+    }
+
+    public Duration getMinChunk() {
+        return minChunk;
+    }
+
+    public void setMinChunk(Duration minChunk) {
+        this.minChunk = minChunk;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(String checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+}
@@ -0,0 +1,33 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.changes")
+public class ChangeLogConfig {
+
+    /** How long deletions stay in the change log; clients polling less often than this must resynchronise. */
+    private Duration tombstoneRetention = Duration.ofDays(1);
+
+    /** Largest number of changes returned by one request. */
+    private int maxLimit = 1000;
+
+    public Duration getTombstoneRetention() {
+        return tombstoneRetention;
+    }
+
+    public void setTombstoneRetention(Duration tombstoneRetention) {
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
@@ -0,0 +1,68 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.deadline")
+public class DeadlineConfig {
+
+    /** Whether API requests get a deadline at all. */
+    private boolean enabled = true;
+
+    /** Budget of requests to endpoints without an entry in {@code endpoints}. */
+    private Duration defaultBudget = Duration.ofSeconds(3);
+
+    /** Budget per request path, e.g. {@code endpoints.[/potresi/zadnji]=2s}. */
+    private Map<String, Duration> endpoints = new HashMap<>();
+
+    /** Request header in which clients may send their own budget in milliseconds; empty to ignore clients. */
+    private String header = "X-Request-Timeout";
+
+    /** Largest budget a client may ask for through the header. */
+    private Duration maxBudget = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(Duration defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<String, Duration> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Duration> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public Duration getMaxBudget() {
+        return maxBudget;
+    }
+
+    public void setMaxBudget(Duration maxBudget) {
+        this.maxBudget = maxBudget;
+    }
+}
@@ -3,6 +3,8 @@ package si.telekom.potresi.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -12,6 +14,12 @@ public class EarthquakeApiConfig {
     private String baseUrl;
     private Map<String, String> feed;
 
+    /**
+     * Feed keys tried by the most-recent lookup, highest priority first.
+     * When empty, complete feeds are ordered from the shortest window to the longest.
+     */
+    private List<String> recentPriority = new ArrayList<>();
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -27,4 +35,12 @@ public class EarthquakeApiConfig {
     public void setFeed(Map<String, String> feed) {
         this.feed = feed;
     }
+
+    public List<String> getRecentPriority() {
+        return recentPriority;
+    }
+
+    public void setRecentPriority(List<String> recentPriority) {
+        this.recentPriority = recentPriority;
+    }
 }
@@ -0,0 +1,44 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.enrichment")
+public class EnrichmentConfig {
+
+    /** Maximum number of events waiting for weather enrichment; further events are dropped. */
+    private int queueCapacity = 100;
+
+    /** Ingested events below this magnitude are not queued for enrichment. */
+    private double minMagnitude = 4.5;
+
+    /** Ingested events older than this are not queued; current weather says little about them. */
+    private Duration maxAge = Duration.ofHours(24);
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public double getMinMagnitude() {
+        return minMagnitude;
+    }
+
+    public void setMinMagnitude(double minMagnitude) {
+        this.minMagnitude = minMagnitude;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
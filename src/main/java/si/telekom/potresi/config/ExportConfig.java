@@ -0,0 +1,42 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.export")
+public class ExportConfig {
+
+    /** Exports streamed at the same time; further requests are answered with 429. */
+    private int maxConcurrent = 2;
+
+    /** Rows read from the archive at once; the archive is not locked while they are written out. */
+    private int chunkRows = 1024;
+
+    /** Bytes buffered before they are written to the response. */
+    private int bufferBytes = 65_536;
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public void setChunkRows(int chunkRows) {
+        this.chunkRows = chunkRows;
+    }
+
+    public int getBufferBytes() {
+        return bufferBytes;
+    }
+
+    public void setBufferBytes(int bufferBytes) {
+        this.bufferBytes = bufferBytes;
+    }
+}
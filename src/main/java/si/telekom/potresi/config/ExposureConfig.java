@@ -0,0 +1,113 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.exposure")
+public class ExposureConfig {
+
+    /**
+     * Population raster: one little-endian float32 per cell, rows from north to south, e.g. a GeoTIFF converted with
+     * {@code gdal_translate -of ENVI -ot Float32}. Without it no exposure is estimated.
+     */
+    private String file = "data/population/population.bil";
+
+    /** Number of cells in a raster row. */
+    private int columns = 43_200;
+
+    /** Number of raster rows. */
+    private int rows = 21_600;
+
+    /** Longitude of the raster's western edge. */
+    private double west = -180;
+
+    /** Latitude of the raster's northern edge. */
+    private double north = 90;
+
+    /** Cell size in degrees; 30 arc seconds (about 1 km) by default. */
+    private double cellDegrees = 1.0 / 120;
+
+    /** Smaller events get no exposure estimate. */
+    private double minMagnitude = 4.5;
+
+    /** Modified Mercalli intensities whose radii are estimated. */
+    private List<Integer> intensities = List.of(5, 6, 7);
+
+    /** Radii are capped at this distance. */
+    private double maxRadiusKm = 500;
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public double getWest() {
+        return west;
+    }
+
+    public void setWest(double west) {
+        this.west = west;
+    }
+
+    public double getNorth() {
+        return north;
+    }
+
+    public void setNorth(double north) {
+        this.north = north;
+    }
+
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    public void setCellDegrees(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public double getMinMagnitude() {
+        return minMagnitude;
+    }
+
+    public void setMinMagnitude(double minMagnitude) {
+        this.minMagnitude = minMagnitude;
+    }
+
+    public List<Integer> getIntensities() {
+        return intensities;
+    }
+
+    public void setIntensities(List<Integer> intensities) {
+        this.intensities = intensities;
+    }
+
+    public double getMaxRadiusKm() {
+        return maxRadiusKm;
+    }
+
+    public void setMaxRadiusKm(double maxRadiusKm) {
+        this.maxRadiusKm = maxRadiusKm;
+    }
+}
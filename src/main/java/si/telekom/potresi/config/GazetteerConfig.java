@@ -0,0 +1,53 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.gazetteer")
+public class GazetteerConfig {
+
+    /** City list in the GeoNames tab-separated format (e.g. cities1000.txt); without it events are not enriched. */
+    private String file = "data/gazetteer/cities1000.txt";
+
+    /** Cities with fewer inhabitants are not loaded. */
+    private long minPopulation = 10_000;
+
+    /** Number of nearest cities attached to each event; 0 attaches none. */
+    private int nearest = 3;
+
+    /** Cities farther from the epicenter are not attached. */
+    private double maxDistanceKm = 300;
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public long getMinPopulation() {
+        return minPopulation;
+    }
+
+    public void setMinPopulation(long minPopulation) {
+        this.minPopulation = minPopulation;
+    }
+
+    public int getNearest() {
+        return nearest;
+    }
+
+    public void setNearest(int nearest) {
+        this.nearest = nearest;
+    }
+
+    public double getMaxDistanceKm() {
+        return maxDistanceKm;
+    }
+
+    public void setMaxDistanceKm(double maxDistanceKm) {
+        this.maxDistanceKm = maxDistanceKm;
+    }
+}
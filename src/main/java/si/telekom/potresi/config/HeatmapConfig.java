@@ -0,0 +1,31 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.heatmap")
+public class HeatmapConfig {
+
+    /** Deepest zoom level for which tiles are kept; tiles exist for every level from 0 to this one. */
+    private int maxZoom = 8;
+
+    /** Each tile is split into 2^binBits by 2^binBits cells. */
+    private int binBits = 5;
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    public void setMaxZoom(int maxZoom) {
+        this.maxZoom = maxZoom;
+    }
+
+    public int getBinBits() {
+        return binBits;
+    }
+
+    public void setBinBits(int binBits) {
+        this.binBits = binBits;
+    }
+}
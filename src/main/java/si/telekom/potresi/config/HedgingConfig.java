@@ -0,0 +1,64 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.hedging")
+public class HedgingConfig {
+
+    /** Whether slow upstream calls are hedged with a second identical request. */
+    private boolean enabled = true;
+
+    /** Latency percentile of an upstream after which a call still running is hedged. */
+    private double percentile = 0.95;
+
+    /** Recent successful calls per upstream the percentile is taken over. */
+    private int window = 200;
+
+    /** Calls an upstream must have answered before its calls are hedged. */
+    private int minSamples = 20;
+
+    /** Hedges allowed per call to an upstream; capped at 1, so hedging never more than doubles upstream load. */
+    private double budgetRatio = 0.1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(int window) {
+        this.window = window;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+}
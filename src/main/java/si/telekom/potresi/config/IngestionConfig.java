@@ -0,0 +1,53 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.ingestion")
+public class IngestionConfig {
+
+    /** Whether the scheduled ingestion runs at all. */
+    private boolean enabled = true;
+
+    /** Milliseconds between ingestion cycles. */
+    private long intervalMs = 5 * 60 * 1000;
+
+    /** Days kept in the in-memory window; also the period of the initial load. */
+    private int windowDays = 30;
+
+    /** Days fetched by each incremental cycle after the initial load. */
+    private int incrementalDays = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public void setWindowDays(int windowDays) {
+        this.windowDays = windowDays;
+    }
+
+    public int getIncrementalDays() {
+        return incrementalDays;
+    }
+
+    public void setIncrementalDays(int incrementalDays) {
+        this.incrementalDays = incrementalDays;
+    }
+}
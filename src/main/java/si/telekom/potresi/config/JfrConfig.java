@@ -0,0 +1,44 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.jfr")
+public class JfrConfig {
+
+    /** Directory recordings are dumped to. */
+    private String directory = "data/jfr";
+
+    /** Built-in JFR settings used for on-demand recordings: "default" (low overhead) or "profile". */
+    private String settings = "default";
+
+    /** How much history a running recording keeps. */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,99 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.overload")
+public class OverloadConfig {
+
+    /** Whether requests to the guarded paths pass through the concurrency limiter. */
+    private boolean enabled = true;
+
+    /** Request paths served by EarthquakeService that the limiter guards. */
+    private List<String> paths = List.of("/potresi/rekordi/tedenski", "/potresi/rekordi/mesecni", "/potresi/zadnji");
+
+    /** Concurrency limit before any latency has been observed. */
+    private int initialLimit = 20;
+
+    /** Lowest concurrency limit the gradient may shrink to. */
+    private int minLimit = 4;
+
+    /** Highest concurrency limit the gradient may grow to. */
+    private int maxLimit = 200;
+
+    /** Share of the limit above which new requests no longer queue weather enrichment. */
+    private double weatherThreshold = 0.75;
+
+    /** Extra concurrent requests, as a multiple of the limit, served from cache before requests are rejected. */
+    private double cacheHeadroom = 1.0;
+
+    /** How much slower than the long-term latency a request may be before the limit shrinks. */
+    private double tolerance = 1.5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getWeatherThreshold() {
+        return weatherThreshold;
+    }
+
+    public void setWeatherThreshold(double weatherThreshold) {
+        this.weatherThreshold = weatherThreshold;
+    }
+
+    public double getCacheHeadroom() {
+        return cacheHeadroom;
+    }
+
+    public void setCacheHeadroom(double cacheHeadroom) {
+        this.cacheHeadroom = cacheHeadroom;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+}
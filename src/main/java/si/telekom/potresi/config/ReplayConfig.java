@@ -0,0 +1,60 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import si.telekom.potresi.replay.ReplayMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.replay")
+public class ReplayConfig {
+
+    /** Whether upstream responses are recorded, replayed or neither. */
+    private ReplayMode mode = ReplayMode.OFF;
+
+    /** Directory the responses are recorded to and replayed from; record into an empty one. */
+    private String directory = "data/replay";
+
+    /** Replay speed relative to the recording: 1 keeps the original timing, 10 replays ten times faster. */
+    private double speed = 1.0;
+
+    /**
+     * Query parameters left out when matching a request to the recorded ones, and never written to the recording:
+     * API keys and times computed from the clock.
+     */
+    private List<String> ignoredParameters = new ArrayList<>(List.of("appid", "starttime", "endtime", "updatedafter"));
+
+    public ReplayMode getMode() {
+        return mode;
+    }
+
+    public void setMode(ReplayMode mode) {
+        this.mode = mode;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public List<String> getIgnoredParameters() {
+        return ignoredParameters;
+    }
+
+    public void setIgnoredParameters(List<String> ignoredParameters) {
+        this.ignoredParameters = ignoredParameters;
+    }
+}
@@ -0,0 +1,20 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.sequences")
+public class SequenceConfig {
+
+    /** Size in degrees of the grid cells by which sequences are indexed for clustering. */
+    private double cellDegrees = 1.0;
+
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    public void setCellDegrees(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+}
@@ -0,0 +1,100 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.sources")
+public class SourcesConfig {
+
+    /** Sources whose data wins when several report the same event, most trusted first. */
+    private List<String> priority = List.of("arso", "usgs", "emsc");
+
+    /** Largest difference in origin time between reports of the same event. */
+    private Duration matchTime = Duration.ofSeconds(30);
+
+    /** Largest distance in kilometres between the epicentres of reports of the same event. */
+    private double matchDistanceKm = 100;
+
+    /** Largest magnitude difference between reports of the same event, when both are rated. */
+    private double matchMagnitude = 1.0;
+
+    /** Whether events are also ingested from the EMSC FDSN event service. */
+    private boolean emscEnabled = true;
+
+    /** EMSC FDSN event service query endpoint. */
+    private String emscBaseUrl;
+
+    /** Whether events are also ingested from the ARSO FDSN event service. */
+    private boolean arsoEnabled;
+
+    /** ARSO FDSN event service query endpoint. */
+    private String arsoBaseUrl;
+
+    public List<String> getPriority() {
+        return priority;
+    }
+
+    public void setPriority(List<String> priority) {
+        this.priority = priority;
+    }
+
+    public Duration getMatchTime() {
+        return matchTime;
+    }
+
+    public void setMatchTime(Duration matchTime) {
+        this.matchTime = matchTime;
+    }
+
+    public double getMatchDistanceKm() {
+        return matchDistanceKm;
+    }
+
+    public void setMatchDistanceKm(double matchDistanceKm) {
+        this.matchDistanceKm = matchDistanceKm;
+    }
+
+    public double getMatchMagnitude() {
+        return matchMagnitude;
+    }
+
+    public void setMatchMagnitude(double matchMagnitude) {
+        this.matchMagnitude = matchMagnitude;
+    }
+
+    public boolean isEmscEnabled() {
+        return emscEnabled;
+    }
+
+    public void setEmscEnabled(boolean emscEnabled) {
+        this.emscEnabled = emscEnabled;
+    }
+
+    public String getEmscBaseUrl() {
+        return emscBaseUrl;
+    }
+
+    public void setEmscBaseUrl(String emscBaseUrl) {
+        this.emscBaseUrl = emscBaseUrl;
+    }
+
+    public boolean isArsoEnabled() {
+        return arsoEnabled;
+    }
+
+    public void setArsoEnabled(boolean arsoEnabled) {
+        this.arsoEnabled = arsoEnabled;
+    }
+
+    public String getArsoBaseUrl() {
+        return arsoBaseUrl;
+    }
+
+    public void setArsoBaseUrl(String arsoBaseUrl) {
+        this.arsoBaseUrl = arsoBaseUrl;
+    }
+}
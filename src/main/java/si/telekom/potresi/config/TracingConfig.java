@@ -0,0 +1,42 @@
+package si.telekom.potresi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "earthquake.tracing")
+public class TracingConfig {
+
+    /** Share of requests that are traced, between 0 (off) and 1 (every request). */
+    private double sampleRate = 0.1;
+
+    /** Number of finished traces kept in memory; rounded up to a power of two. */
+    private int bufferSize = 256;
+
+    /** Default number of slowest traces returned by /metrics/traces. */
+    private int slowest = 10;
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getSlowest() {
+        return slowest;
+    }
+
+    public void setSlowest(int slowest) {
+        this.slowest = slowest;
+    }
+}
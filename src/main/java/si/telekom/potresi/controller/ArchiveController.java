@@ -0,0 +1,147 @@
+package si.telekom.potresi.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.archive.ArchiveAggregator;
+import si.telekom.potresi.archive.EventArchive;
+import si.telekom.potresi.dto.ArchiveStatisticsDTO;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries over the multi-year event archive.
+ */
+@RestController
+@RequestMapping("/potresi/arhiv")
+public class ArchiveController {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveController.class);
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final EventArchive eventArchive;
+    private final ArchiveAggregator archiveAggregator;
+
+    public ArchiveController(EventArchive eventArchive, ArchiveAggregator archiveAggregator) {
+        this.eventArchive = eventArchive;
+        this.archiveAggregator = archiveAggregator;
+    }
+
+    /**
+     * Returns the strongest archived earthquakes with origin time in [from, to).
+     *
+     * @param from  start of the range (ISO-8601 instant)
+     * @param to    end of the range, exclusive (ISO-8601 instant)
+     * @param limit maximum number of events returned
+     * @return a list of EarthquakeRecordDTO or an error message
+     */
+    @GetMapping("/najmocnejsi")
+    public ResponseEntity<?> getStrongest(@RequestParam Instant from,
+                                          @RequestParam Instant to,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        log.info("Request received: GET /potresi/arhiv/najmocnejsi from={} to={} limit={}", from, to, limit);
+
+        if (!eventArchive.isEnabled()) {
+            return ResponseEntity.status(503).body(Map.of("error", "The event archive is disabled."));
+        }
+        if (!from.isBefore(to) || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range or limit."));
+        }
+
+        List<EarthquakeRecordDTO> records = eventArchive.strongest(from, to, limit);
+        log.info("Returning {} archived earthquake record(s).", records.size());
+        return ResponseEntity.ok(records);
+    }
+
+    /**
+     * Returns the archived earthquake(s) with the highest magnitude in [from, to), including ties.
+     */
+    @GetMapping("/rekord")
+    public ResponseEntity<?> getRecord(@RequestParam Instant from, @RequestParam Instant to) {
+        log.info("Request received: GET /potresi/arhiv/rekord from={} to={}", from, to);
+
+        if (!eventArchive.isEnabled()) {
+            return ResponseEntity.status(503).body(Map.of("error", "The event archive is disabled."));
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range."));
+        }
+
+        List<EarthquakeRecordDTO> records = eventArchive.strongestWithTies(from, to);
+        log.info("Returning {} archived record earthquake(s).", records.size());
+        return ResponseEntity.ok(records);
+    }
+
+    /**
+     * Returns archived earthquakes in [from, to) filtered by minimum magnitude and depth range, newest first.
+     */
+    @GetMapping("/dogodki")
+    public ResponseEntity<?> getEvents(@RequestParam Instant from,
+                                       @RequestParam Instant to,
+                                       @RequestParam(required = false) Double minMagnitude,
+                                       @RequestParam(required = false) Double minDepth,
+                                       @RequestParam(required = false) Double maxDepth,
+                                       @RequestParam(defaultValue = "100") int limit) {
+        log.info("Request received: GET /potresi/arhiv/dogodki from={} to={} minMagnitude={} depth=[{}, {}] limit={}",
+                from, to, minMagnitude, minDepth, maxDepth, limit);
+
+        if (!eventArchive.isEnabled()) {
+            return ResponseEntity.status(503).body(Map.of("error", "The event archive is disabled."));
+        }
+        if (!from.isBefore(to) || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range or limit."));
+        }
+
+        List<EarthquakeRecordDTO> records = eventArchive.find(from, to,
+                minMagnitude != null ? minMagnitude : Double.NEGATIVE_INFINITY,
+                minDepth != null ? minDepth : Double.NEGATIVE_INFINITY,
+                maxDepth != null ? maxDepth : Double.POSITIVE_INFINITY,
+                limit);
+        log.info("Returning {} archived earthquake record(s).", records.size());
+        return ResponseEntity.ok(records);
+    }
+
+    /**
+     * Returns statistics over [from, to): counts, maximum magnitude, the top-K strongest events
+     * and a magnitude histogram, computed in parallel over the archive partitions.
+     */
+    @GetMapping("/statistika")
+    public ResponseEntity<?> getStatistics(@RequestParam Instant from,
+                                           @RequestParam Instant to,
+                                           @RequestParam(defaultValue = "10") int top) {
+        log.info("Request received: GET /potresi/arhiv/statistika from={} to={} top={}", from, to, top);
+
+        if (!eventArchive.isEnabled()) {
+            return ResponseEntity.status(503).body(Map.of("error", "The event archive is disabled."));
+        }
+        if (!from.isBefore(to) || top < 0 || top > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range or limit."));
+        }
+
+        ArchiveStatisticsDTO statistics = archiveAggregator.aggregate(from, to, top);
+        log.info("Returning archive statistics: {}", statistics);
+        return ResponseEntity.ok(statistics);
+    }
+
+    /**
+     * Returns the number of archived earthquakes with origin time in [from, to).
+     */
+    @GetMapping("/stevilo")
+    public ResponseEntity<?> getCount(@RequestParam Instant from, @RequestParam Instant to) {
+        log.info("Request received: GET /potresi/arhiv/stevilo from={} to={}", from, to);
+
+        if (!eventArchive.isEnabled()) {
+            return ResponseEntity.status(503).body(Map.of("error", "The event archive is disabled."));
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range."));
+        }
+
+        return ResponseEntity.ok(Map.of("count", eventArchive.count(from, to)));
+    }
+}
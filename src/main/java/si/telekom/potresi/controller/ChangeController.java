@@ -0,0 +1,50 @@
+package si.telekom.potresi.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.changes.ChangeLog;
+import si.telekom.potresi.dto.ChangeFeedDTO;
+
+import java.util.Map;
+
+/**
+ * Feed of the events added, revised or deleted since a client's last poll.
+ */
+@RestController
+@RequestMapping("/potresi/spremembe")
+public class ChangeController {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeController.class);
+
+    private final ChangeLog changeLog;
+
+    public ChangeController(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Returns the changes after the given cursor and the cursor to continue from.
+     * Without a cursor, or when the cursor can no longer be served incrementally, the response has
+     * {@code reset} set and lists every event of the ingestion window.
+     *
+     * @return a ChangeFeedDTO or an error message
+     */
+    @GetMapping
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(defaultValue = "1000") int limit) {
+        log.info("Request received: GET /potresi/spremembe?since={}&limit={}", since, limit);
+
+        ChangeFeedDTO feed;
+        try {
+            feed = changeLog.changesSince(since, limit);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected change feed request: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+
+        log.info("Returning {} change(s), next cursor {}.", feed.getChanges().size(), feed.getCursor());
+        return ResponseEntity.ok(feed);
+    }
+}
@@ -0,0 +1,84 @@
+package si.telekom.potresi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import si.telekom.potresi.export.EventExport;
+import si.telekom.potresi.export.ExportFormat;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Bulk export of the event archive.
+ */
+@RestController
+@RequestMapping("/potresi/arhiv/izvoz")
+public class ExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+
+    private final EventExport eventExport;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(EventExport eventExport, ObjectMapper objectMapper) {
+        this.eventExport = eventExport;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams all archived earthquakes with origin time in [from, to), oldest first, as NDJSON or CSV.
+     * The body is gzip-compressed if the client accepts it.
+     *
+     * @param from   start of the range (ISO-8601 instant)
+     * @param to     end of the range, exclusive (ISO-8601 instant)
+     * @param format ndjson or csv
+     * @return the streamed events or an error message
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Instant from,
+                                                        @RequestParam Instant to,
+                                                        @RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                        String acceptEncoding) {
+        log.info("Request received: GET /potresi/arhiv/izvoz from={} to={} format={}", from, to, format);
+
+        if (!eventExport.isEnabled()) {
+            return error(ResponseEntity.status(503), "The event archive is disabled.");
+        }
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (!from.isBefore(to) || exportFormat == null) {
+            return error(ResponseEntity.badRequest(), "Invalid range or format, use ndjson or csv.");
+        }
+        if (!eventExport.tryAcquire()) {
+            log.warn("Rejected export: too many exports running.");
+            return error(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "10"),
+                    "Too many exports are running, please retry later.");
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> eventExport.write(from, to, exportFormat, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"potresi." + format.toLowerCase() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Error message in the JSON shape of the other endpoints; streaming responses cannot carry a map body.
+     */
+    private ResponseEntity<StreamingResponseBody> error(ResponseEntity.BodyBuilder response, String message) {
+        return response.contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+}
@@ -0,0 +1,52 @@
+package si.telekom.potresi.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.heatmap.HeatmapTile;
+import si.telekom.potresi.heatmap.HeatmapTiles;
+
+import java.util.Map;
+
+/**
+ * Serves precomputed heatmap tiles for the map front end.
+ */
+@RestController
+@RequestMapping("/potresi/heatmap")
+public class HeatmapController {
+
+    private static final Logger log = LoggerFactory.getLogger(HeatmapController.class);
+
+    private final HeatmapTiles heatmapTiles;
+
+    public HeatmapController(HeatmapTiles heatmapTiles) {
+        this.heatmapTiles = heatmapTiles;
+    }
+
+    /**
+     * Returns the event counts and maximum magnitudes of one slippy-map tile.
+     * The ETag is the version in which the tile last changed; Spring answers a matching If-None-Match with 304.
+     *
+     * @return the encoded tile or an error message
+     */
+    @GetMapping("/{z}/{x}/{y}")
+    public ResponseEntity<?> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        log.debug("Request received: GET /potresi/heatmap/{}/{}/{}", z, x, y);
+
+        HeatmapTile tile;
+        try {
+            tile = heatmapTiles.tile(z, x, y);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+
+        return ResponseEntity.ok()
+                .eTag(tile.etag())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tile.body());
+    }
+}
@@ -5,6 +5,8 @@ import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.config.TracingConfig;
+import si.telekom.potresi.tracing.Tracer;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -20,9 +22,13 @@ public class MetricsController {
     private static final Logger log = LoggerFactory.getLogger(MetricsController.class);
 
     private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final TracingConfig tracingConfig;
 
-    public MetricsController(MeterRegistry meterRegistry) {
+    public MetricsController(MeterRegistry meterRegistry, Tracer tracer, TracingConfig tracingConfig) {
         this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.tracingConfig = tracingConfig;
     }
 
     /**
@@ -75,4 +81,25 @@ public class MetricsController {
         log.info("Returning metrics summary with {} tracked URI(s).", summary.size());
         return summary;
     }
+
+    /**
+     * Returns the sampled request traces kept in memory: the most recent ones and the slowest ones.
+     *
+     * @param recent  number of most recent traces returned
+     * @param slowest number of slowest traces returned; defaults to earthquake.tracing.slowest
+     * @return sampling settings and the selected traces with all their spans
+     */
+    @GetMapping("/traces")
+    public Map<String, Object> getTraces(@RequestParam(defaultValue = "20") int recent,
+                                         @RequestParam(required = false) Integer slowest) {
+        log.info("Request received: GET /metrics/traces");
+
+        Map<String, Object> traces = new LinkedHashMap<>();
+        traces.put("sampleRate", tracer.getSampleRate());
+        traces.put("capacity", tracer.getCapacity());
+        traces.put("recorded", tracer.getRecorded());
+        traces.put("recent", tracer.recent(Math.max(0, recent)));
+        traces.put("slowest", tracer.slowest(Math.max(0, slowest != null ? slowest : tracingConfig.getSlowest())));
+        return traces;
+    }
 }
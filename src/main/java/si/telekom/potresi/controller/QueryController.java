@@ -0,0 +1,66 @@
+package si.telekom.potresi.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.dto.QueryResultDTO;
+import si.telekom.potresi.query.EventQuery;
+import si.telekom.potresi.query.QueryResultCache;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Composable search over the events of the ingestion window.
+ */
+@RestController
+@RequestMapping("/potresi/iskanje")
+public class QueryController {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryController.class);
+
+    private final QueryResultCache queryResultCache;
+
+    public QueryController(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    /**
+     * Returns events matching all given filters, newest first, together with the chosen query plan,
+     * the number of rows scanned and the time spent. Every filter is optional.
+     * Results are cached until the next ingestion epoch.
+     *
+     * @return a QueryResultDTO or an error message
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam(required = false) Instant from,
+                                    @RequestParam(required = false) Instant to,
+                                    @RequestParam(required = false) Double minMagnitude,
+                                    @RequestParam(required = false) Double maxMagnitude,
+                                    @RequestParam(required = false) Double minDepth,
+                                    @RequestParam(required = false) Double maxDepth,
+                                    @RequestParam(required = false) Double minLatitude,
+                                    @RequestParam(required = false) Double maxLatitude,
+                                    @RequestParam(required = false) Double minLongitude,
+                                    @RequestParam(required = false) Double maxLongitude,
+                                    @RequestParam(required = false) Double latitude,
+                                    @RequestParam(required = false) Double longitude,
+                                    @RequestParam(required = false) Double radiusKm,
+                                    @RequestParam(required = false) String place,
+                                    @RequestParam(defaultValue = "100") int limit) {
+        EventQuery query;
+        try {
+            query = new EventQuery(from, to, minMagnitude, maxMagnitude, minDepth, maxDepth,
+                    minLatitude, maxLatitude, minLongitude, maxLongitude, latitude, longitude, radiusKm, place, limit);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected search request: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+        log.info("Request received: GET /potresi/iskanje {}", query);
+
+        QueryResultDTO result = queryResultCache.search(query);
+        log.info("Returning search result: {}", result);
+        return ResponseEntity.ok(result);
+    }
+}
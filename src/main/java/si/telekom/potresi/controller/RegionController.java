@@ -0,0 +1,48 @@
+package si.telekom.potresi.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.dto.RegionStatisticsDTO;
+import si.telekom.potresi.place.RegionStatistics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-region statistics of the events in the ingestion window.
+ */
+@RestController
+@RequestMapping("/potresi/regije")
+public class RegionController {
+
+    private static final Logger log = LoggerFactory.getLogger(RegionController.class);
+
+    private final RegionStatistics regionStatistics;
+
+    public RegionController(RegionStatistics regionStatistics) {
+        this.regionStatistics = regionStatistics;
+    }
+
+    /**
+     * Returns the event count, strongest and latest event of each region, regions with the most events first.
+     *
+     * @return a list of RegionStatisticsDTO or an error message
+     */
+    @GetMapping
+    public ResponseEntity<?> getRegions(@RequestParam(defaultValue = "100") int limit) {
+        log.info("Request received: GET /potresi/regije?limit={}", limit);
+
+        List<RegionStatisticsDTO> regions;
+        try {
+            regions = regionStatistics.regions(limit);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected region request: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+
+        log.info("Returning statistics of {} region(s).", regions.size());
+        return ResponseEntity.ok(regions);
+    }
+}
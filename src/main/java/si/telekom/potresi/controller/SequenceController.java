@@ -0,0 +1,50 @@
+package si.telekom.potresi.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import si.telekom.potresi.dto.EarthquakeSequenceDTO;
+import si.telekom.potresi.sequence.AftershockSequences;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists earthquake sequences (mainshocks with their aftershocks) in the ingestion window.
+ */
+@RestController
+@RequestMapping("/potresi/sekvence")
+public class SequenceController {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceController.class);
+
+    private final AftershockSequences aftershockSequences;
+
+    public SequenceController(AftershockSequences aftershockSequences) {
+        this.aftershockSequences = aftershockSequences;
+    }
+
+    /**
+     * Returns sequences whose aftershock window is still open, largest mainshock first.
+     *
+     * @return a list of EarthquakeSequenceDTO or an error message
+     */
+    @GetMapping
+    public ResponseEntity<?> getActiveSequences(@RequestParam(required = false) Double minMagnitude,
+                                                @RequestParam(defaultValue = "2") int minEvents,
+                                                @RequestParam(defaultValue = "50") int limit) {
+        log.info("Request received: GET /potresi/sekvence?minMagnitude={}&minEvents={}&limit={}", minMagnitude, minEvents, limit);
+
+        List<EarthquakeSequenceDTO> sequences;
+        try {
+            sequences = aftershockSequences.active(minMagnitude, minEvents, limit);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected sequence request: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+
+        log.info("Returning {} active sequence(s).", sequences.size());
+        return ResponseEntity.ok(sequences);
+    }
+}
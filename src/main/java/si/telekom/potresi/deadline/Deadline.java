@@ -0,0 +1,87 @@
+package si.telekom.potresi.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Point in time by which the API request being served must be answered.
+ * Set for the request thread by {@link DeadlineFilter}; upstream calls made on that thread read it to cap their
+ * timeouts and retries. Threads forked while serving a request carry it over with {@link #callWith}.
+ */
+public final class Deadline {
+
+    /** Request attribute set to {@code true} by {@link DeadlineFilter} when a request was answered past its deadline. */
+    public static final String EXPIRED_ATTRIBUTE = Deadline.class.getName() + ".EXPIRED";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * A deadline the given budget from now.
+     */
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Deadline of the request served by the current thread, or null outside of a request.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Whether the current thread serves a request whose deadline has passed.
+     */
+    public static boolean isExhausted() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    /**
+     * Runs a task under the given deadline, e.g. on a thread a request forked to.
+     */
+    public static <T> T callWith(Deadline deadline, Callable<T> task) throws Exception {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) CURRENT.remove(); else CURRENT.set(previous);
+        }
+    }
+
+    static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * The given timeout, shortened to the remaining budget.
+     */
+    public Duration limit(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining().toMillis() + "ms}";
+    }
+}
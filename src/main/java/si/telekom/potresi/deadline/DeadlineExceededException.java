@@ -0,0 +1,18 @@
+package si.telekom.potresi.deadline;
+
+/**
+ * Thrown instead of starting or finishing an upstream call once the request deadline has passed.
+ * Not retried and not counted as an upstream failure by the circuit breakers.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
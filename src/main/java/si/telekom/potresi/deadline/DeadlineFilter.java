@@ -0,0 +1,71 @@
+package si.telekom.potresi.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import si.telekom.potresi.config.DeadlineConfig;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives every API request a {@link Deadline}: the budget configured for its path, or the one the client sent in
+ * the deadline header, capped at the configured maximum. A request answered past it is marked with
+ * {@link Deadline#EXPIRED_ATTRIBUTE}.
+ */
+class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    private final DeadlineConfig config;
+
+    DeadlineFilter(DeadlineConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled() || !pathOf(request).startsWith("/potresi");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Deadline deadline = Deadline.after(budgetFor(request));
+        Deadline.set(deadline);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+            if (deadline.isExpired()) {
+                request.setAttribute(Deadline.EXPIRED_ATTRIBUTE, Boolean.TRUE);
+            }
+        }
+    }
+
+    Duration budgetFor(HttpServletRequest request) {
+        String header = config.getHeader();
+        String requested = header == null || header.isBlank() ? null : request.getHeader(header);
+        if (requested != null) {
+            try {
+                long millis = Long.parseLong(requested.trim());
+                if (millis > 0) {
+                    Duration budget = Duration.ofMillis(millis);
+                    return budget.compareTo(config.getMaxBudget()) < 0 ? budget : config.getMaxBudget();
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to the configured budget
+            }
+            log.debug("Ignoring invalid {} header: {}", header, requested);
+        }
+        return config.getEndpoints().getOrDefault(pathOf(request), config.getDefaultBudget());
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
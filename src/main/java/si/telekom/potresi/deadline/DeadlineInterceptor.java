@@ -0,0 +1,36 @@
+package si.telekom.potresi.deadline;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Refuses upstream calls once the current {@link Deadline} has passed, and reports a call that failed because its
+ * shortened timeout ran out as {@link DeadlineExceededException} rather than as an upstream failure.
+ */
+public class DeadlineInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return execution.execute(request, body);
+        }
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException("Request deadline passed before calling " + request.getURI().getHost());
+        }
+
+        try {
+            return execution.execute(request, body);
+        } catch (IOException e) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("Request deadline passed while calling " + request.getURI().getHost(), e);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package si.telekom.potresi.deadline;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+
+/**
+ * Request factory whose connect, connection-pool and read timeouts are shortened to the remaining budget of the
+ * current {@link Deadline}. Without a deadline the configured timeouts apply unchanged.
+ */
+public class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    public DeadlineRequestFactory(Duration connectTimeout, Duration readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        setConnectTimeout(connectTimeout);
+        setReadTimeout(readTimeout);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // per-request connect timeout is still honoured by HttpClient 5
+    protected RequestConfig createRequestConfig(Object client) {
+        RequestConfig config = super.createRequestConfig(client);
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return config;
+        }
+
+        Timeout connect = timeout(deadline.limit(connectTimeout));
+        RequestConfig.Builder builder = config == null ? RequestConfig.custom() : RequestConfig.copy(config);
+        return builder.setConnectTimeout(connect)
+                .setConnectionRequestTimeout(connect)
+                .setResponseTimeout(timeout(deadline.limit(readTimeout)))
+                .build();
+    }
+
+    /**
+     * HttpClient treats a zero timeout as infinite, so an exhausted budget becomes the shortest positive one.
+     */
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(Math.max(1, duration.toMillis()));
+    }
+}
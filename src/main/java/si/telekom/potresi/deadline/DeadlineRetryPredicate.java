@@ -0,0 +1,26 @@
+package si.telekom.potresi.deadline;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Retry predicate that allows another attempt only if it can start before the current {@link Deadline}, i.e.
+ * the remaining budget is longer than the wait before the attempt. Calls without a deadline retry as configured.
+ */
+public class DeadlineRetryPredicate implements Predicate<Throwable> {
+
+    private final Duration wait;
+
+    public DeadlineRetryPredicate(Duration wait) {
+        this.wait = wait;
+    }
+
+    @Override
+    public boolean test(Throwable failure) {
+        if (failure instanceof DeadlineExceededException) {
+            return false;
+        }
+        Deadline deadline = Deadline.current();
+        return deadline == null || deadline.remaining().compareTo(wait) > 0;
+    }
+}
@@ -0,0 +1,50 @@
+package si.telekom.potresi.deadline;
+
+import io.github.resilience4j.common.retry.configuration.CommonRetryConfigurationProperties;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.springboot3.retry.autoconfigure.RetryProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import si.telekom.potresi.config.DeadlineConfig;
+
+import java.time.Duration;
+
+/**
+ * Request deadlines: the filter that sets them and the retry customizers that stop retrying once they run out.
+ * Timeouts are capped by the {@link DeadlineRequestFactory} of the shared RestTemplate.
+ */
+@Configuration
+public class DeadlineWebConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineConfig config) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(new DeadlineFilter(config));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    public RetryConfigCustomizer earthquakeApiDeadline(RetryProperties properties) {
+        return deadlineAware("earthquakeApi", properties);
+    }
+
+    @Bean
+    public RetryConfigCustomizer weatherApiDeadline(RetryProperties properties) {
+        return deadlineAware("weatherApi", properties);
+    }
+
+    private static RetryConfigCustomizer deadlineAware(String name, RetryProperties properties) {
+        CommonRetryConfigurationProperties.InstanceProperties instance = properties.getInstances().get(name);
+        Duration wait = instance != null && instance.getWaitDuration() != null
+                ? instance.getWaitDuration()
+                : Duration.ofMillis(RetryConfig.DEFAULT_WAIT_DURATION);
+        return RetryConfigCustomizer.of(name, builder -> stopAtDeadline(builder, wait));
+    }
+
+    private static void stopAtDeadline(RetryConfig.Builder<?> builder, Duration wait) {
+        builder.retryOnException(new DeadlineRetryPredicate(wait));
+    }
+}
@@ -0,0 +1,108 @@
+package si.telekom.potresi.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class ArchiveStatisticsDTO {
+
+    /** Start of the aggregated range (inclusive). */
+    private Instant from;
+
+    /** End of the aggregated range (exclusive). */
+    private Instant to;
+
+    /** Number of events in the range. */
+    private long count;
+
+    /** Number of events in the range that have a magnitude. */
+    private long ratedCount;
+
+    /** Highest magnitude in the range, or null if no event is rated. */
+    private Double maxMagnitude;
+
+    /** Strongest events in the range, strongest first. */
+    private List<EarthquakeRecordDTO> strongest;
+
+    /** Event counts per magnitude bin, keyed by the lower edge of the bin. */
+    private Map<String, Long> magnitudeHistogram;
+
+    public ArchiveStatisticsDTO() {}
+
+    public ArchiveStatisticsDTO(Instant from, Instant to, long count, long ratedCount, Double maxMagnitude,
+                                List<EarthquakeRecordDTO> strongest, Map<String, Long> magnitudeHistogram) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+        this.ratedCount = ratedCount;
+        this.maxMagnitude = maxMagnitude;
+        this.strongest = strongest;
+        this.magnitudeHistogram = magnitudeHistogram;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getRatedCount() {
+        return ratedCount;
+    }
+
+    public void setRatedCount(long ratedCount) {
+        this.ratedCount = ratedCount;
+    }
+
+    public Double getMaxMagnitude() {
+        return maxMagnitude;
+    }
+
+    public void setMaxMagnitude(Double maxMagnitude) {
+        this.maxMagnitude = maxMagnitude;
+    }
+
+    public List<EarthquakeRecordDTO> getStrongest() {
+        return strongest;
+    }
+
+    public void setStrongest(List<EarthquakeRecordDTO> strongest) {
+        this.strongest = strongest;
+    }
+
+    public Map<String, Long> getMagnitudeHistogram() {
+        return magnitudeHistogram;
+    }
+
+    public void setMagnitudeHistogram(Map<String, Long> magnitudeHistogram) {
+        this.magnitudeHistogram = magnitudeHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveStatistics{" +
+                "from=" + from +
+                ", to=" + to +
+                ", count=" + count +
+                ", maxMagnitude=" + maxMagnitude +
+                '}';
+    }
+}
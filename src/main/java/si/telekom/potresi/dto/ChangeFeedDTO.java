@@ -0,0 +1,69 @@
+package si.telekom.potresi.dto;
+
+import java.util.List;
+
+public class ChangeFeedDTO {
+
+    /** Cursor to pass as {@code since} on the next request. */
+    private String cursor;
+
+    /** Whether the client must drop its copy first: the changes then start from the beginning of the log. */
+    private boolean reset;
+
+    /** Whether more changes are available right away with the returned cursor. */
+    private boolean hasMore;
+
+    /** Changes after the requested cursor, oldest first; only the latest change of each event is kept. */
+    private List<EventChangeDTO> changes;
+
+    public ChangeFeedDTO() {}
+
+    public ChangeFeedDTO(String cursor, boolean reset, boolean hasMore, List<EventChangeDTO> changes) {
+        this.cursor = cursor;
+        this.reset = reset;
+        this.hasMore = hasMore;
+        this.changes = changes;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<EventChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<EventChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeFeed{" +
+                "cursor='" + cursor + '\'' +
+                ", reset=" + reset +
+                ", hasMore=" + hasMore +
+                ", changes=" + (changes == null ? 0 : changes.size()) +
+                '}';
+    }
+}
@@ -1,13 +1,28 @@
 package si.telekom.potresi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import si.telekom.potresi.place.PlaceNames;
 
 import java.time.Instant;
+import java.util.List;
 
 public class EarthquakeRecordDTO {
 
-    /** Nearest known place to the earthquake's epicenter. */
-    private String nearestPlace;
+    /** Upstream event identifier (e.g. USGS feature id), used to recognise the same event across fetches. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String id;
+
+    /** Origin time of the earthquake. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant time;
+
+    /** Magnitude of the earthquake, if rated. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double magnitude;
+
+    /** Nearest known place to the earthquake's epicenter, as a {@link PlaceNames} code. */
+    private long place = PlaceNames.NONE;
 
     /** Geographic coordinates of the earthquake (latitude, longitude). */
     private GeoLocationDTO location;
@@ -15,7 +30,18 @@ public class EarthquakeRecordDTO {
     /** Depth of the earthquake in kilometers. */
     private double depth;
 
-    /** Timestamp when this record was considered valid. */
+    /** Nearest significant cities to the epicenter, closest first. */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<NearbyCityDTO> nearbyCities;
+
+    /** Estimated number of people within the radius of each shaking intensity, weakest intensity first. */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<PopulationExposureDTO> exposure;
+
+    /**
+     * Timestamp when this record was considered valid. Weekly and monthly records fetched again unchanged keep the
+     * time they were first fetched.
+     */
     private Instant validAt;
 
     /**
@@ -25,43 +51,104 @@ public class EarthquakeRecordDTO {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private WeatherInfoDTO weather;
 
+    /** Agencies that reported the event (e.g. usgs, emsc, arso), the one whose data is shown first. */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> sources;
+
     public EarthquakeRecordDTO() {}
 
     public EarthquakeRecordDTO(String nearestPlace, GeoLocationDTO location, double depth) {
-        this.nearestPlace = nearestPlace;
+        this.place = PlaceNames.encode(nearestPlace);
         this.location = location;
         this.depth = depth;
         this.weather = null;
     }
 
     public EarthquakeRecordDTO(String nearestPlace, GeoLocationDTO location, double depth, Instant validAt) {
-        this.nearestPlace = nearestPlace;
+        this.place = PlaceNames.encode(nearestPlace);
         this.location = location;
         this.depth = depth;
         this.validAt = validAt;
     }
 
     public EarthquakeRecordDTO(String nearestPlace, GeoLocationDTO location, double depth, WeatherInfoDTO weather) {
-        this.nearestPlace = nearestPlace;
+        this.place = PlaceNames.encode(nearestPlace);
         this.location = location;
         this.depth = depth;
         this.weather = weather;
     }
 
     public EarthquakeRecordDTO(String nearestPlace, GeoLocationDTO location, double depth, WeatherInfoDTO weather, Instant validAt) {
-        this.nearestPlace = nearestPlace;
+        this.place = PlaceNames.encode(nearestPlace);
         this.location = location;
         this.depth = depth;
         this.weather = weather;
         this.validAt = validAt;
     }
 
+    /**
+     * Shallow copy, used when a record that may already be served is enriched further.
+     */
+    public EarthquakeRecordDTO(EarthquakeRecordDTO other) {
+        this.id = other.id;
+        this.time = other.time;
+        this.magnitude = other.magnitude;
+        this.place = other.place;
+        this.location = other.location;
+        this.depth = other.depth;
+        this.nearbyCities = other.nearbyCities;
+        this.exposure = other.exposure;
+        this.validAt = other.validAt;
+        this.weather = other.weather;
+        this.sources = other.sources;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    public void setTime(Instant time) {
+        this.time = time;
+    }
+
+    public Double getMagnitude() {
+        return magnitude;
+    }
+
+    public void setMagnitude(Double magnitude) {
+        this.magnitude = magnitude;
+    }
+
     public String getNearestPlace() {
-        return nearestPlace;
+        return PlaceNames.decode(place);
     }
 
     public void setNearestPlace(String nearestPlace) {
-        this.nearestPlace = nearestPlace;
+        this.place = PlaceNames.encode(nearestPlace);
+    }
+
+    /**
+     * Place code; records with the same nearest place have the same code.
+     */
+    @JsonIgnore
+    public long getPlaceCode() {
+        return place;
+    }
+
+    /**
+     * Code of the region named at the end of the nearest place, or -1 without a place.
+     */
+    @JsonIgnore
+    public int getRegionCode() {
+        return PlaceNames.region(place);
     }
 
     public GeoLocationDTO getLocation() {
@@ -80,6 +167,22 @@ public class EarthquakeRecordDTO {
         this.depth = depth;
     }
 
+    public List<NearbyCityDTO> getNearbyCities() {
+        return nearbyCities;
+    }
+
+    public void setNearbyCities(List<NearbyCityDTO> nearbyCities) {
+        this.nearbyCities = nearbyCities;
+    }
+
+    public List<PopulationExposureDTO> getExposure() {
+        return exposure;
+    }
+
+    public void setExposure(List<PopulationExposureDTO> exposure) {
+        this.exposure = exposure;
+    }
+
     public WeatherInfoDTO getWeather() {
         return weather;
     }
@@ -88,6 +191,14 @@ public class EarthquakeRecordDTO {
         this.weather = weather;
     }
 
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<String> sources) {
+        this.sources = sources;
+    }
+
     public Instant getValidAt() {
         return validAt;
     }
@@ -99,7 +210,7 @@ public class EarthquakeRecordDTO {
     @Override
     public String toString() {
         return "BasicEarthquakeDTO{" +
-                "nearestPlace='" + nearestPlace + '\'' +
+                "nearestPlace='" + getNearestPlace() + '\'' +
                 ", location=" + location +
                 ", depth=" + depth +
                 '}';
@@ -0,0 +1,108 @@
+package si.telekom.potresi.dto;
+
+import java.time.Instant;
+
+public class EarthquakeSequenceDTO {
+
+    /** Identifier of the sequence; changes when the sequence is re-clustered. */
+    private long id;
+
+    /** Largest event of the sequence. */
+    private EarthquakeRecordDTO mainshock;
+
+    /** Number of events in the sequence, including the mainshock. */
+    private int eventCount;
+
+    /** Time of the first event in the sequence. */
+    private Instant start;
+
+    /** Time of the latest event in the sequence. */
+    private Instant end;
+
+    /** End of the mainshock's aftershock time window. */
+    private Instant activeUntil;
+
+    /** Radius of the mainshock's aftershock window in kilometres. */
+    private double radiusKm;
+
+    public EarthquakeSequenceDTO() {}
+
+    public EarthquakeSequenceDTO(long id, EarthquakeRecordDTO mainshock, int eventCount, Instant start, Instant end,
+                                 Instant activeUntil, double radiusKm) {
+        this.id = id;
+        this.mainshock = mainshock;
+        this.eventCount = eventCount;
+        this.start = start;
+        this.end = end;
+        this.activeUntil = activeUntil;
+        this.radiusKm = radiusKm;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public EarthquakeRecordDTO getMainshock() {
+        return mainshock;
+    }
+
+    public void setMainshock(EarthquakeRecordDTO mainshock) {
+        this.mainshock = mainshock;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public void setEnd(Instant end) {
+        this.end = end;
+    }
+
+    public Instant getActiveUntil() {
+        return activeUntil;
+    }
+
+    public void setActiveUntil(Instant activeUntil) {
+        this.activeUntil = activeUntil;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    @Override
+    public String toString() {
+        return "EarthquakeSequence{" +
+                "id=" + id +
+                ", mainshock=" + (mainshock == null ? null : mainshock.getId()) +
+                ", eventCount=" + eventCount +
+                ", start=" + start +
+                ", end=" + end +
+                ", activeUntil=" + activeUntil +
+                '}';
+    }
+}
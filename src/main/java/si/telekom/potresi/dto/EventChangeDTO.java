@@ -0,0 +1,53 @@
+package si.telekom.potresi.dto;
+
+public class EventChangeDTO {
+
+    /** Kind of change: {@code added}, {@code revised} or {@code deleted}. */
+    private String type;
+
+    /** Identifier of the changed event. */
+    private String id;
+
+    /** The event as it is now; null for deleted events. */
+    private EarthquakeRecordDTO event;
+
+    public EventChangeDTO() {}
+
+    public EventChangeDTO(String type, String id, EarthquakeRecordDTO event) {
+        this.type = type;
+        this.id = id;
+        this.event = event;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public EarthquakeRecordDTO getEvent() {
+        return event;
+    }
+
+    public void setEvent(EarthquakeRecordDTO event) {
+        this.event = event;
+    }
+
+    @Override
+    public String toString() {
+        return "EventChange{" +
+                "type='" + type + '\'' +
+                ", id='" + id + '\'' +
+                '}';
+    }
+}
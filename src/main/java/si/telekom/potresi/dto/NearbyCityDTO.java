@@ -0,0 +1,78 @@
+package si.telekom.potresi.dto;
+
+public class NearbyCityDTO {
+
+    /** Name of the city, e.g. "Ljubljana". */
+    private String name;
+
+    /** ISO 3166 country code of the city, e.g. "SI". */
+    private String country;
+
+    /** Number of inhabitants according to the gazetteer. */
+    private long population;
+
+    /** Great-circle distance from the city to the epicenter in kilometers. */
+    private double distanceKm;
+
+    /** Compass direction of the epicenter as seen from the city (e.g. "NE"). */
+    private String direction;
+
+    public NearbyCityDTO() {}
+
+    public NearbyCityDTO(String name, String country, long population, double distanceKm, String direction) {
+        this.name = name;
+        this.country = country;
+        this.population = population;
+        this.distanceKm = distanceKm;
+        this.direction = direction;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public long getPopulation() {
+        return population;
+    }
+
+    public void setPopulation(long population) {
+        this.population = population;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    @Override
+    public String toString() {
+        return "NearbyCity{" +
+                "name='" + name + '\'' +
+                ", distanceKm=" + distanceKm +
+                ", direction='" + direction + '\'' +
+                '}';
+    }
+}
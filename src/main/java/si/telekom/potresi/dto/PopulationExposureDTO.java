@@ -0,0 +1,54 @@
+package si.telekom.potresi.dto;
+
+public class PopulationExposureDTO {
+
+    /** Modified Mercalli intensity, e.g. 6 for "strong" shaking. */
+    private int intensity;
+
+    /** Distance from the epicenter up to which at least this intensity is expected, in kilometers. */
+    private double radiusKm;
+
+    /** Estimated number of people living within the radius. */
+    private long population;
+
+    public PopulationExposureDTO() {}
+
+    public PopulationExposureDTO(int intensity, double radiusKm, long population) {
+        this.intensity = intensity;
+        this.radiusKm = radiusKm;
+        this.population = population;
+    }
+
+    public int getIntensity() {
+        return intensity;
+    }
+
+    public void setIntensity(int intensity) {
+        this.intensity = intensity;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public long getPopulation() {
+        return population;
+    }
+
+    public void setPopulation(long population) {
+        this.population = population;
+    }
+
+    @Override
+    public String toString() {
+        return "PopulationExposure{" +
+                "intensity=" + intensity +
+                ", radiusKm=" + radiusKm +
+                ", population=" + population +
+                '}';
+    }
+}
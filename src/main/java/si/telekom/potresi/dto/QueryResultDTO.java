@@ -0,0 +1,109 @@
+package si.telekom.potresi.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class QueryResultDTO {
+
+    /** Access path the planner chose. */
+    private String plan;
+
+    /** Estimated rows read per considered access path. */
+    private Map<String, Integer> estimatedRows;
+
+    /** Rows actually read by the chosen access path. */
+    private int rowsScanned;
+
+    /** Time spent planning and executing the query, in microseconds. */
+    private long elapsedMicros;
+
+    /** Ingestion epoch of the data the query ran against. */
+    private long epoch;
+
+    /** Whether the result was served from the query cache; plan and scan statistics are then those of the original run. */
+    private boolean cached;
+
+    /** Matching events, newest first. */
+    private List<EarthquakeRecordDTO> events;
+
+    public QueryResultDTO() {}
+
+    public QueryResultDTO(String plan, Map<String, Integer> estimatedRows, int rowsScanned, long elapsedMicros,
+                          long epoch, List<EarthquakeRecordDTO> events) {
+        this.plan = plan;
+        this.estimatedRows = estimatedRows;
+        this.rowsScanned = rowsScanned;
+        this.elapsedMicros = elapsedMicros;
+        this.epoch = epoch;
+        this.events = events;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public Map<String, Integer> getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public void setEstimatedRows(Map<String, Integer> estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+
+    public int getRowsScanned() {
+        return rowsScanned;
+    }
+
+    public void setRowsScanned(int rowsScanned) {
+        this.rowsScanned = rowsScanned;
+    }
+
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+
+    public void setElapsedMicros(long elapsedMicros) {
+        this.elapsedMicros = elapsedMicros;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public List<EarthquakeRecordDTO> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<EarthquakeRecordDTO> events) {
+        this.events = events;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResult{" +
+                "plan='" + plan + '\'' +
+                ", estimatedRows=" + estimatedRows +
+                ", rowsScanned=" + rowsScanned +
+                ", elapsedMicros=" + elapsedMicros +
+                ", epoch=" + epoch +
+                ", cached=" + cached +
+                ", events=" + (events == null ? 0 : events.size()) +
+                '}';
+    }
+}
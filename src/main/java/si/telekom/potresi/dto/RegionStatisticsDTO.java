@@ -0,0 +1,67 @@
+package si.telekom.potresi.dto;
+
+public class RegionStatisticsDTO {
+
+    /** Region named at the end of the events' nearest place, e.g. "CA" or "Slovenia". */
+    private String region;
+
+    /** Number of events in the region in the ingestion window. */
+    private int eventCount;
+
+    /** Event with the highest magnitude, if any is rated. */
+    private EarthquakeRecordDTO strongest;
+
+    /** Event with the latest origin time. */
+    private EarthquakeRecordDTO latest;
+
+    public RegionStatisticsDTO() {}
+
+    public RegionStatisticsDTO(String region, int eventCount, EarthquakeRecordDTO strongest, EarthquakeRecordDTO latest) {
+        this.region = region;
+        this.eventCount = eventCount;
+        this.strongest = strongest;
+        this.latest = latest;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public EarthquakeRecordDTO getStrongest() {
+        return strongest;
+    }
+
+    public void setStrongest(EarthquakeRecordDTO strongest) {
+        this.strongest = strongest;
+    }
+
+    public EarthquakeRecordDTO getLatest() {
+        return latest;
+    }
+
+    public void setLatest(EarthquakeRecordDTO latest) {
+        this.latest = latest;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionStatistics{" +
+                "region='" + region + '\'' +
+                ", eventCount=" + eventCount +
+                ", strongest=" + (strongest == null ? null : strongest.getId()) +
+                ", latest=" + (latest == null ? null : latest.getId()) +
+                '}';
+    }
+}
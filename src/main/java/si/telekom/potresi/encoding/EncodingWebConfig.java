@@ -0,0 +1,81 @@
+package si.telekom.potresi.encoding;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Binary response formats, chosen by the {@code Accept} header next to JSON: CBOR ({@code application/cbor}),
+ * Smile ({@code application/x-jackson-smile}) and, for events and event lists, protobuf
+ * ({@code application/x-protobuf}, see {@link EventProtobuf}). CBOR and Smile carry the same fields as the JSON.
+ */
+@Configuration
+public class EncodingWebConfig implements WebMvcConfigurer {
+
+    /** Snapshots kept encoded; a few per endpoint and format. */
+    private static final int SNAPSHOT_CAPACITY = 32;
+
+    private final ObjectMapper objectMapper;
+    private final SnapshotEncodings encodings = new SnapshotEncodings(SNAPSHOT_CAPACITY);
+
+    public EncodingWebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of the default Jackson converters, JSON stays the default for clients without a preference
+        ObjectMapper cbor = objectMapper.copyWith(new CBORFactory());
+        ObjectMapper smile = objectMapper.copyWith(new SmileFactory());
+        int json = indexOfJson(converters);
+        converters.add(json + 1, new SnapshotHttpMessageConverter(new MediaType("application", "cbor"),
+                type -> true, jackson(cbor), encodings));
+        converters.add(json + 2, new SnapshotHttpMessageConverter(new MediaType("application", "x-jackson-smile"),
+                type -> true, jackson(smile), encodings));
+        converters.add(json + 3, new SnapshotHttpMessageConverter(EventProtobuf.MEDIA_TYPE,
+                type -> EarthquakeRecordDTO.class.isAssignableFrom(type) || List.class.isAssignableFrom(type),
+                EncodingWebConfig::protobuf, encodings));
+    }
+
+    private static int indexOfJson(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getSupportedMediaTypes().contains(MediaType.APPLICATION_JSON)) return i;
+        }
+        return converters.size() - 1;
+    }
+
+    private static Function<Object, byte[]> jackson(ObjectMapper mapper) {
+        return body -> {
+            try {
+                return mapper.writeValueAsBytes(body);
+            } catch (JsonProcessingException e) {
+                throw new HttpMessageNotWritableException("Could not encode response: " + e.getOriginalMessage(), e);
+            }
+        };
+    }
+
+    private static byte[] protobuf(Object body) {
+        if (body instanceof EarthquakeRecordDTO record) {
+            return EventProtobuf.encode(List.of(record));
+        }
+        List<?> list = (List<?>) body;
+        for (Object element : list) {
+            if (!(element instanceof EarthquakeRecordDTO)) {
+                throw new HttpMessageNotWritableException("Only events can be encoded as protobuf");
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<EarthquakeRecordDTO> records = (List<EarthquakeRecordDTO>) list;
+        return EventProtobuf.encode(records);
+    }
+}
@@ -0,0 +1,218 @@
+package si.telekom.potresi.encoding;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.http.MediaType;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.NearbyCityDTO;
+import si.telekom.potresi.dto.PopulationExposureDTO;
+import si.telekom.potresi.dto.WeatherInfoDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protobuf encoding of event lists, following the {@code EventList} message of {@code proto/events.proto}.
+ * <p>
+ * Written by hand on the protobuf wire primitives instead of generated classes, so the DTOs are encoded directly
+ * without building an intermediate message tree. Latitude and longitude are rounded to 10<sup>-5</sup> degrees,
+ * depth to metres and magnitude to hundredths.
+ */
+public final class EventProtobuf {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-protobuf");
+
+    private static final double COORDINATE_SCALE = 100_000;
+    private static final double MAGNITUDE_SCALE = 100;
+    private static final double DEPTH_SCALE = 1000;
+
+    private EventProtobuf() {
+    }
+
+    /**
+     * Encodes events as an {@code EventList} message.
+     */
+    public static byte[] encode(List<EarthquakeRecordDTO> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.size() * 64 + 16);
+        try {
+            CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            for (EarthquakeRecordDTO record : records) {
+                out.writeByteArray(1, event(record));
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an {@code EventList} message; unknown fields are skipped.
+     *
+     * @throws IOException if the bytes are not a valid message
+     */
+    public static List<EarthquakeRecordDTO> decode(byte[] message) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(message);
+        List<EarthquakeRecordDTO> records = new ArrayList<>();
+        for (int tag; (tag = in.readTag()) != 0; ) {
+            if (WireFormat.getTagFieldNumber(tag) == 1) {
+                int limit = in.pushLimit(in.readRawVarint32());
+                records.add(readEvent(in));
+                in.popLimit(limit);
+            } else {
+                in.skipField(tag);
+            }
+        }
+        return records;
+    }
+
+    private static byte[] event(EarthquakeRecordDTO record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, 128);
+        if (record.getId() != null) out.writeString(1, record.getId());
+        if (record.getTime() != null) out.writeInt64(2, record.getTime().toEpochMilli());
+        if (record.getMagnitude() != null) out.writeSInt32(3, (int) Math.round(record.getMagnitude() * MAGNITUDE_SCALE));
+        if (record.getNearestPlace() != null) out.writeString(4, record.getNearestPlace());
+        if (record.getLocation() != null) {
+            out.writeSInt32(5, (int) Math.round(record.getLocation().getLatitude() * COORDINATE_SCALE));
+            out.writeSInt32(6, (int) Math.round(record.getLocation().getLongitude() * COORDINATE_SCALE));
+        }
+        out.writeSInt32(7, (int) Math.round(record.getDepth() * DEPTH_SCALE));
+        if (record.getValidAt() != null) out.writeInt64(8, record.getValidAt().toEpochMilli());
+        if (record.getWeather() != null) out.writeByteArray(9, weather(record.getWeather()));
+        if (record.getSources() != null) {
+            for (String source : record.getSources()) out.writeString(10, source);
+        }
+        if (record.getNearbyCities() != null) {
+            for (NearbyCityDTO city : record.getNearbyCities()) out.writeByteArray(11, city(city));
+        }
+        if (record.getExposure() != null) {
+            for (PopulationExposureDTO exposure : record.getExposure()) out.writeByteArray(12, exposure(exposure));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] weather(WeatherInfoDTO weather) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, 64);
+        if (weather.getDescription() != null) out.writeString(1, weather.getDescription());
+        out.writeDouble(2, weather.getTemperature());
+        out.writeDouble(3, weather.getHumidity());
+        out.writeBool(4, weather.isWeatherAvailable());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] city(NearbyCityDTO city) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, 64);
+        if (city.getName() != null) out.writeString(1, city.getName());
+        if (city.getCountry() != null) out.writeString(2, city.getCountry());
+        out.writeInt64(3, city.getPopulation());
+        out.writeDouble(4, city.getDistanceKm());
+        if (city.getDirection() != null) out.writeString(5, city.getDirection());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] exposure(PopulationExposureDTO exposure) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24);
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, 32);
+        out.writeInt32(1, exposure.getIntensity());
+        out.writeDouble(2, exposure.getRadiusKm());
+        out.writeInt64(3, exposure.getPopulation());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static EarthquakeRecordDTO readEvent(CodedInputStream in) throws IOException {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO();
+        GeoLocationDTO location = new GeoLocationDTO();
+        List<String> sources = new ArrayList<>();
+        List<NearbyCityDTO> cities = new ArrayList<>();
+        List<PopulationExposureDTO> exposure = new ArrayList<>();
+        for (int tag; (tag = in.readTag()) != 0; ) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> record.setId(in.readString());
+                case 2 -> record.setTime(Instant.ofEpochMilli(in.readInt64()));
+                case 3 -> record.setMagnitude(in.readSInt32() / MAGNITUDE_SCALE);
+                case 4 -> record.setNearestPlace(in.readString());
+                case 5 -> location.setLatitude(in.readSInt32() / COORDINATE_SCALE);
+                case 6 -> location.setLongitude(in.readSInt32() / COORDINATE_SCALE);
+                case 7 -> record.setDepth(in.readSInt32() / DEPTH_SCALE);
+                case 8 -> record.setValidAt(Instant.ofEpochMilli(in.readInt64()));
+                case 9 -> record.setWeather(readNested(in, EventProtobuf::readWeather));
+                case 10 -> sources.add(in.readString());
+                case 11 -> cities.add(readNested(in, EventProtobuf::readCity));
+                case 12 -> exposure.add(readNested(in, EventProtobuf::readExposure));
+                default -> in.skipField(tag);
+            }
+        }
+        record.setLocation(location);
+        if (!sources.isEmpty()) record.setSources(sources);
+        if (!cities.isEmpty()) record.setNearbyCities(cities);
+        if (!exposure.isEmpty()) record.setExposure(exposure);
+        return record;
+    }
+
+    private static WeatherInfoDTO readWeather(CodedInputStream in) throws IOException {
+        WeatherInfoDTO weather = new WeatherInfoDTO();
+        weather.setWeatherAvailable(false);
+        for (int tag; (tag = in.readTag()) != 0; ) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> weather.setDescription(in.readString());
+                case 2 -> weather.setTemperature(in.readDouble());
+                case 3 -> weather.setHumidity(in.readDouble());
+                case 4 -> weather.setWeatherAvailable(in.readBool());
+                default -> in.skipField(tag);
+            }
+        }
+        return weather;
+    }
+
+    private static NearbyCityDTO readCity(CodedInputStream in) throws IOException {
+        NearbyCityDTO city = new NearbyCityDTO();
+        for (int tag; (tag = in.readTag()) != 0; ) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> city.setName(in.readString());
+                case 2 -> city.setCountry(in.readString());
+                case 3 -> city.setPopulation(in.readInt64());
+                case 4 -> city.setDistanceKm(in.readDouble());
+                case 5 -> city.setDirection(in.readString());
+                default -> in.skipField(tag);
+            }
+        }
+        return city;
+    }
+
+    private static PopulationExposureDTO readExposure(CodedInputStream in) throws IOException {
+        PopulationExposureDTO exposure = new PopulationExposureDTO();
+        for (int tag; (tag = in.readTag()) != 0; ) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> exposure.setIntensity(in.readInt32());
+                case 2 -> exposure.setRadiusKm(in.readDouble());
+                case 3 -> exposure.setPopulation(in.readInt64());
+                default -> in.skipField(tag);
+            }
+        }
+        return exposure;
+    }
+
+    private static <T> T readNested(CodedInputStream in, MessageReader<T> reader) throws IOException {
+        int limit = in.pushLimit(in.readRawVarint32());
+        T message = reader.read(in);
+        in.popLimit(limit);
+        return message;
+    }
+
+    private interface MessageReader<T> {
+        T read(CodedInputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,64 @@
+package si.telekom.potresi.encoding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encoded bytes of recently served snapshots, per format.
+ * <p>
+ * A snapshot is a response body that is never modified once served, such as the cached event lists of
+ * {@code EarthquakeService}; it is identified by reference, so no hashing or comparison of its content is needed.
+ * Each snapshot is encoded once per format and the bytes are reused for every further response until it is replaced.
+ */
+final class SnapshotEncodings {
+
+    private final int capacity;
+    private final Map<Key, byte[]> encodings;
+
+    SnapshotEncodings(int capacity) {
+        this.capacity = capacity;
+        this.encodings = new LinkedHashMap<>(capacity * 2, 0.75f, true);
+    }
+
+    /**
+     * The encoding of a snapshot in a format, computed on first use.
+     */
+    byte[] encode(Object snapshot, String format, Function<Object, byte[]> encoder) {
+        Key key = new Key(snapshot, format);
+        synchronized (this) {
+            byte[] cached = encodings.get(key);
+            if (cached != null) return cached;
+        }
+
+        // Encoded outside the lock; two threads may encode the same snapshot once each, with the same result
+        byte[] encoded = encoder.apply(snapshot);
+        synchronized (this) {
+            encodings.put(key, encoded);
+            if (encodings.size() > capacity) {
+                encodings.remove(encodings.keySet().iterator().next());
+            }
+        }
+        return encoded;
+    }
+
+    synchronized int size() {
+        return encodings.size();
+    }
+
+    /**
+     * Identity of a snapshot in one format; holds the snapshot so its identity cannot be reused while cached.
+     */
+    private record Key(Object snapshot, String format) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.snapshot == snapshot && key.format.equals(format);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(snapshot) + format.hashCode();
+        }
+    }
+}
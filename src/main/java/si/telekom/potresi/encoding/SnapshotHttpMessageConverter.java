@@ -0,0 +1,68 @@
+package si.telekom.potresi.encoding;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Writes response bodies in one binary format. Events and event lists are snapshots, see {@link SnapshotEncodings};
+ * other bodies are encoded once per response and sent without a precomputed length.
+ */
+final class SnapshotHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final String format;
+    private final Predicate<Class<?>> writable;
+    private final Function<Object, byte[]> encoder;
+    private final SnapshotEncodings encodings;
+
+    SnapshotHttpMessageConverter(MediaType mediaType, Predicate<Class<?>> writable, Function<Object, byte[]> encoder,
+                                 SnapshotEncodings encodings) {
+        super(mediaType);
+        this.format = mediaType.toString();
+        this.writable = writable;
+        this.encoder = encoder;
+        this.encodings = encodings;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return writable.test(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading " + format + " is not supported", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Object body, MediaType contentType) {
+        // Only a snapshot's encoding is kept, so only its length is known without encoding twice
+        return isSnapshot(body) ? (long) encode(body).length : null;
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(encode(body));
+    }
+
+    private byte[] encode(Object body) {
+        return isSnapshot(body) ? encodings.encode(body, format, encoder) : encoder.apply(body);
+    }
+
+    private static boolean isSnapshot(Object body) {
+        return body instanceof EarthquakeRecordDTO || body instanceof List<?>;
+    }
+}
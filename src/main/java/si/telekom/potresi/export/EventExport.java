@@ -0,0 +1,82 @@
+package si.telekom.potresi.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.archive.EventArchive;
+import si.telekom.potresi.config.ExportConfig;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of archived events as NDJSON or CSV.
+ * <p>
+ * Rows go from the archive through a fixed-size buffer straight to the response stream as they are read, so memory
+ * use does not grow with the range. Writes block while the client does not keep up, which in turn stops reading
+ * from the archive; that is the backpressure. The number of concurrent exports is limited by
+ * {@link ExportConfig#getMaxConcurrent()}: a caller takes a permit with {@link #tryAcquire()} before it starts
+ * and {@link #write} returns it when done.
+ */
+@Component
+public class EventExport {
+
+    private static final Logger log = LoggerFactory.getLogger(EventExport.class);
+
+    private final EventArchive eventArchive;
+    private final ExportConfig config;
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+
+    public EventExport(EventArchive eventArchive, ExportConfig config, ObjectMapper objectMapper) {
+        this.eventArchive = eventArchive;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(config.getMaxConcurrent());
+    }
+
+    public boolean isEnabled() {
+        return eventArchive.isEnabled();
+    }
+
+    /**
+     * Takes a permit for one export, or returns false if the maximum number of exports is running.
+     */
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    /**
+     * Writes the events with origin time in {@code [from, to)}, oldest first, and closes {@code out}.
+     * Returns the permit taken with {@link #tryAcquire()}, also if writing fails.
+     *
+     * @return the number of events written
+     */
+    public long write(Instant from, Instant to, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long[] rows = {0};
+        try (ExportFormat.RowWriter writer = format.open(new BufferedWriter(new OutputStreamWriter(
+                gzip ? new GZIPOutputStream(out, config.getBufferBytes()) : out, StandardCharsets.UTF_8),
+                config.getBufferBytes()), objectMapper.getFactory())) {
+            eventArchive.export(from, to, config.getChunkRows(), record -> {
+                writer.write(record);
+                rows[0]++;
+            });
+        } catch (IOException e) {
+            log.info("Export of [{}, {}) stopped after {} row(s): {}", from, to, rows[0], e.getMessage());
+            throw e;
+        } finally {
+            permits.release();
+        }
+        log.info("Exported {} row(s) of [{}, {}) as {} in {} ms.", rows[0], from, to, format,
+                (System.nanoTime() - started) / 1_000_000);
+        return rows[0];
+    }
+}
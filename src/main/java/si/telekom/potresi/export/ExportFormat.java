@@ -0,0 +1,126 @@
+package si.telekom.potresi.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.MediaType;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Row formats of an export. Both write one line per event with the fields id, time, magnitude, place, latitude,
+ * longitude and depth; NDJSON leaves out a missing id or magnitude, CSV leaves the cell empty.
+ */
+public enum ExportFormat {
+
+    NDJSON(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8)) {
+        @Override
+        RowWriter open(Writer out, JsonFactory jsonFactory) throws IOException {
+            JsonGenerator json = jsonFactory.createGenerator(out);
+            json.setRootValueSeparator(null);
+            return new RowWriter() {
+                @Override
+                public void write(EarthquakeRecordDTO record) throws IOException {
+                    json.writeStartObject();
+                    if (record.getId() != null) json.writeStringField("id", record.getId());
+                    json.writeStringField("time", record.getTime().toString());
+                    if (record.getMagnitude() != null) json.writeNumberField("magnitude", record.getMagnitude());
+                    json.writeStringField("place", record.getNearestPlace());
+                    json.writeNumberField("latitude", record.getLocation().getLatitude());
+                    json.writeNumberField("longitude", record.getLocation().getLongitude());
+                    json.writeNumberField("depth", record.getDepth());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    json.close();
+                }
+            };
+        }
+    },
+
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)) {
+        @Override
+        RowWriter open(Writer out, JsonFactory jsonFactory) throws IOException {
+            out.write("id,time,magnitude,place,latitude,longitude,depth\r\n");
+            return new RowWriter() {
+                @Override
+                public void write(EarthquakeRecordDTO record) throws IOException {
+                    quoted(out, record.getId());
+                    out.write(',');
+                    out.write(record.getTime().toString());
+                    out.write(',');
+                    if (record.getMagnitude() != null) out.write(Double.toString(record.getMagnitude()));
+                    out.write(',');
+                    quoted(out, record.getNearestPlace());
+                    out.write(',');
+                    out.write(Double.toString(record.getLocation().getLatitude()));
+                    out.write(',');
+                    out.write(Double.toString(record.getLocation().getLongitude()));
+                    out.write(',');
+                    out.write(Double.toString(record.getDepth()));
+                    out.write("\r\n");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.close();
+                }
+            };
+        }
+    };
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Format by its name, ignoring case, or null if there is no such format.
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) return format;
+        }
+        return null;
+    }
+
+    /**
+     * Starts writing rows to {@code out}; closing the row writer closes {@code out}.
+     */
+    abstract RowWriter open(Writer out, JsonFactory jsonFactory) throws IOException;
+
+    /**
+     * Writes a CSV cell, quoted per RFC 4180 if it contains a separator, quote or line break.
+     */
+    private static void quoted(Writer out, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    interface RowWriter extends Closeable {
+        void write(EarthquakeRecordDTO record) throws IOException;
+    }
+}
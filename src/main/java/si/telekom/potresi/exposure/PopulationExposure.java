@@ -0,0 +1,95 @@
+package si.telekom.potresi.exposure;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.ExposureConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.PopulationExposureDTO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rough number of people exposed to each configured shaking intensity, from a local population raster.
+ * <p>
+ * The radius of an intensity follows the generic attenuation {@code I = 2.5 + 1.5 M - 3 log10(R)}, R being the
+ * hypocentral distance in km; it is a global average and ignores local site conditions, so the counts are an order
+ * of magnitude estimate. The people within each radius are summed from the memory-mapped {@link PopulationGrid}.
+ */
+@Component
+public class PopulationExposure {
+
+    private static final Logger log = LoggerFactory.getLogger(PopulationExposure.class);
+
+    private final ExposureConfig config;
+    private volatile PopulationGrid grid;
+
+    public PopulationExposure(ExposureConfig config) {
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void open() {
+        Path file = Path.of(config.getFile());
+        if (!Files.isRegularFile(file)) {
+            log.warn("Population raster {} not found, no population exposure will be estimated.", file);
+            return;
+        }
+
+        try {
+            grid = PopulationGrid.open(file, config.getColumns(), config.getRows(), config.getWest(), config.getNorth(),
+                    config.getCellDegrees());
+            log.info("Population raster {} mapped ({}x{} cells).", file, config.getColumns(), config.getRows());
+        } catch (IOException e) {
+            log.error("Could not map population raster {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        PopulationGrid current = grid;
+        grid = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * Estimates the exposure of an event, weakest intensity first; empty without a raster, a magnitude below the
+     * configured minimum, or a location.
+     */
+    public List<PopulationExposureDTO> estimate(EarthquakeRecordDTO record) {
+        PopulationGrid current = grid;
+        if (current == null || record.getLocation() == null || record.getMagnitude() == null
+                || record.getMagnitude() < config.getMinMagnitude()) {
+            return List.of();
+        }
+
+        List<PopulationExposureDTO> exposure = new ArrayList<>();
+        for (int intensity : config.getIntensities().stream().sorted().toList()) {
+            double radius = radiusKm(record.getMagnitude(), record.getDepth(), intensity);
+            if (radius <= 0) break;
+
+            double population = current.sum(record.getLocation().getLatitude(), record.getLocation().getLongitude(), radius);
+            exposure.add(new PopulationExposureDTO(intensity, Math.round(radius * 10) / 10.0, Math.round(population)));
+        }
+        return exposure;
+    }
+
+    /**
+     * Epicentral distance up to which at least the given intensity is expected, capped at the configured maximum;
+     * 0 if the intensity is not reached even above the hypocenter.
+     */
+    double radiusKm(double magnitude, double depthKm, int intensity) {
+        double hypocentral = Math.pow(10, (2.5 + 1.5 * magnitude - intensity) / 3);
+        double depth = Math.max(0, depthKm);
+        if (hypocentral <= depth) return 0;
+        return Math.min(config.getMaxRadiusKm(), Math.sqrt(hypocentral * hypocentral - depth * depth));
+    }
+}
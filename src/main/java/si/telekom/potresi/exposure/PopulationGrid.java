@@ -0,0 +1,116 @@
+package si.telekom.potresi.exposure;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped population raster: {@code rows} rows of {@code columns} little-endian float32 cells,
+ * from north to south and west to east. Only the pages a sum touches are read, the raster never enters the heap.
+ * Cells that are negative or NaN (no-data) count as empty.
+ */
+final class PopulationGrid implements AutoCloseable {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final ValueLayout.OfFloat CELL = ValueLayout.JAVA_FLOAT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment cells;
+    private final int columns;
+    private final int rows;
+    private final double west;
+    private final double north;
+    private final double cellDegrees;
+    /** Whether the rows span the whole globe, so discs wrap around the antimeridian. */
+    private final boolean global;
+
+    private PopulationGrid(Arena arena, MemorySegment cells, int columns, int rows, double west, double north, double cellDegrees) {
+        this.arena = arena;
+        this.cells = cells;
+        this.columns = columns;
+        this.rows = rows;
+        this.west = west;
+        this.north = north;
+        this.cellDegrees = cellDegrees;
+        this.global = Math.abs(columns * cellDegrees - 360) < cellDegrees / 2;
+    }
+
+    static PopulationGrid open(Path file, int columns, int rows, double west, double north, double cellDegrees) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long expected = (long) columns * rows * Float.BYTES;
+            if (channel.size() != expected) {
+                throw new IOException("Population raster " + file + " has " + channel.size() + " bytes, expected "
+                        + expected + " for " + columns + "x" + rows + " cells");
+            }
+            return new PopulationGrid(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, expected, arena),
+                    columns, rows, west, north, cellDegrees);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sum of the cells whose centres lie within a great-circle distance of a location.
+     * <p>
+     * Visits only the rows the disc crosses; in each row the covered cells form one contiguous range (two where it
+     * wraps around the antimeridian), which is summed sequentially.
+     */
+    double sum(double latitude, double longitude, double radiusKm) {
+        if (radiusKm <= 0) return 0;
+
+        double delta = radiusKm / EARTH_RADIUS_KM;
+        double phi0 = Math.toRadians(latitude);
+        double radiusDegrees = Math.toDegrees(delta);
+        int firstRow = Math.max(0, (int) Math.floor((north - latitude - radiusDegrees) / cellDegrees));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((north - latitude + radiusDegrees) / cellDegrees));
+
+        double total = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            double phi = Math.toRadians(north - (row + 0.5) * cellDegrees);
+            // Spherical law of cosines solved for the longitude difference at which the row leaves the disc
+            double cosSpan = (Math.cos(delta) - Math.sin(phi0) * Math.sin(phi)) / (Math.cos(phi0) * Math.cos(phi));
+            if (cosSpan >= 1 || Double.isNaN(cosSpan)) continue;
+
+            if (cosSpan <= -1) {
+                total += sumRange(row, 0, columns);
+                continue;
+            }
+            double span = Math.toDegrees(Math.acos(cosSpan));
+            int first = (int) Math.ceil((longitude - span - west) / cellDegrees - 0.5);
+            int last = (int) Math.floor((longitude + span - west) / cellDegrees - 0.5);
+            if (last - first + 1 >= columns && global) {
+                total += sumRange(row, 0, columns);
+            } else if (global) {
+                int start = Math.floorMod(first, columns);
+                int end = start + (last - first + 1);
+                total += sumRange(row, start, Math.min(end, columns));
+                if (end > columns) total += sumRange(row, 0, end - columns);
+            } else {
+                total += sumRange(row, Math.max(0, first), Math.min(columns, last + 1));
+            }
+        }
+        return total;
+    }
+
+    private double sumRange(int row, int from, int to) {
+        double sum = 0;
+        long offset = ((long) row * columns + from) * Float.BYTES;
+        for (int column = from; column < to; column++, offset += Float.BYTES) {
+            float value = cells.get(CELL, offset);
+            if (value > 0) sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,7 @@
+package si.telekom.potresi.gazetteer;
+
+/**
+ * A gazetteer entry.
+ */
+record City(String name, String country, double latitude, double longitude, long population) {
+}
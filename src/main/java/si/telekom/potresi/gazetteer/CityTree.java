@@ -0,0 +1,193 @@
+package si.telekom.potresi.gazetteer;
+
+import java.util.List;
+
+/**
+ * Static k-d tree over cities for k-nearest-neighbour lookups by great-circle distance.
+ * <p>
+ * Cities are stored as points on the unit sphere in three dimensions. The straight-line (chord) distance between two
+ * such points grows monotonically with their great-circle distance, so an ordinary Euclidean k-d tree returns the
+ * nearest cities on the globe, without special cases at the antimeridian or the poles. The tree is implicit: the
+ * points are reordered so that the median of every range is its node, and stored in flat coordinate arrays.
+ */
+final class CityTree {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final City[] cities;
+    private final double[][] coordinates = new double[3][];
+    /** Splitting axis of the node at each position. */
+    private final byte[] axes;
+
+    CityTree(List<City> list) {
+        int size = list.size();
+        City[] unordered = list.toArray(new City[0]);
+        double[][] points = new double[3][size];
+        for (int i = 0; i < size; i++) {
+            double[] point = point(unordered[i].latitude(), unordered[i].longitude());
+            for (int axis = 0; axis < 3; axis++) points[axis][i] = point[axis];
+        }
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        axes = new byte[size];
+        build(order, points, 0, size);
+
+        cities = new City[size];
+        for (int axis = 0; axis < 3; axis++) coordinates[axis] = new double[size];
+        for (int i = 0; i < size; i++) {
+            cities[i] = unordered[order[i]];
+            for (int axis = 0; axis < 3; axis++) coordinates[axis][i] = points[axis][order[i]];
+        }
+    }
+
+    int size() {
+        return cities.length;
+    }
+
+    City city(int node) {
+        return cities[node];
+    }
+
+    /**
+     * Finds up to {@code nodes.length} cities nearest to a location, closest first.
+     *
+     * @param nodes       receives the nodes of the found cities, see {@link #city(int)}
+     * @param distancesKm receives their great-circle distances
+     * @return the number of cities found
+     */
+    int nearest(double latitude, double longitude, double maxDistanceKm, int[] nodes, double[] distancesKm) {
+        if (nodes.length == 0) return 0;
+
+        double[] query = point(latitude, longitude);
+        double maxChord = 2 * Math.sin(Math.min(maxDistanceKm / EARTH_RADIUS_KM, Math.PI) / 2);
+        Best best = new Best(nodes, distancesKm, maxChord * maxChord);
+        search(0, cities.length, query[0], query[1], query[2], best);
+
+        for (int i = 0; i < best.count; i++) {
+            double chord = Math.sqrt(distancesKm[i]);
+            distancesKm[i] = 2 * Math.asin(Math.min(1, chord / 2)) * EARTH_RADIUS_KM;
+        }
+        return best.count;
+    }
+
+    private void search(int lo, int hi, double x, double y, double z, Best best) {
+        if (lo >= hi) return;
+
+        int node = (lo + hi) >>> 1;
+        double dx = coordinates[0][node] - x;
+        double dy = coordinates[1][node] - y;
+        double dz = coordinates[2][node] - z;
+        best.offer(node, dx * dx + dy * dy + dz * dz);
+
+        int axis = axes[node];
+        double offset = (axis == 0 ? x : axis == 1 ? y : z) - coordinates[axis][node];
+        if (offset < 0) {
+            search(lo, node, x, y, z, best);
+            if (offset * offset < best.bound()) search(node + 1, hi, x, y, z, best);
+        } else {
+            search(node + 1, hi, x, y, z, best);
+            if (offset * offset < best.bound()) search(lo, node, x, y, z, best);
+        }
+    }
+
+    /**
+     * Places the median of {@code order[lo, hi)} along the widest axis at the middle, recursively.
+     */
+    private void build(int[] order, double[][] points, int lo, int hi) {
+        if (lo >= hi) return;
+
+        int axis = widestAxis(order, points, lo, hi);
+        int middle = (lo + hi) >>> 1;
+        select(order, points[axis], lo, hi - 1, middle);
+        axes[middle] = (byte) axis;
+        build(order, points, lo, middle);
+        build(order, points, middle + 1, hi);
+    }
+
+    private static int widestAxis(int[] order, double[][] points, int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double value = points[axis][order[i]];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Quickselect: reorders {@code order[lo, hi]} so the element at {@code k} is where sorting would put it.
+     */
+    private static void select(int[] order, double[] values, int lo, int hi, int k) {
+        while (lo < hi) {
+            double pivot = values[order[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[order[i]] < pivot) i++;
+                while (values[order[j]] > pivot) j--;
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double[] point(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        return new double[]{Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    /**
+     * The k best candidates so far, sorted by squared chord length.
+     */
+    private static final class Best {
+
+        private final int[] nodes;
+        private final double[] distances;
+        private final double limit;
+        private int count;
+
+        Best(int[] nodes, double[] distances, double limit) {
+            this.nodes = nodes;
+            this.distances = distances;
+            this.limit = limit;
+        }
+
+        double bound() {
+            return count > 0 && count == nodes.length ? distances[count - 1] : limit;
+        }
+
+        void offer(int node, double distance) {
+            if (nodes.length == 0 || distance > bound()) return;
+
+            int i = count < nodes.length ? count++ : count - 1;
+            while (i > 0 && distances[i - 1] > distance) {
+                nodes[i] = nodes[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+    }
+}
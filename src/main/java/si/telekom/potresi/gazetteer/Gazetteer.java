@@ -0,0 +1,116 @@
+package si.telekom.potresi.gazetteer;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.GazetteerConfig;
+import si.telekom.potresi.dto.NearbyCityDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline lookup of the cities nearest to an epicenter, from a local city list in the GeoNames format
+ * (e.g. {@code cities1000.txt} from download.geonames.org). Only cities with at least the configured population
+ * are loaded. Without the file no cities are found; no geocoding service is ever called.
+ */
+@Component
+public class Gazetteer {
+
+    private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+    private static final String[] DIRECTIONS = {
+            "N", "NNE", "NE", "ENE", "E", "ESE", "SE", "SSE", "S", "SSW", "SW", "WSW", "W", "WNW", "NW", "NNW"};
+
+    private final GazetteerConfig config;
+    private volatile CityTree tree = new CityTree(List.of());
+
+    public Gazetteer(GazetteerConfig config) {
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void load() {
+        Path file = Path.of(config.getFile());
+        if (!Files.isRegularFile(file)) {
+            log.warn("Gazetteer file {} not found, events will not be enriched with nearby cities.", file);
+            return;
+        }
+
+        try {
+            long started = System.nanoTime();
+            List<City> cities = read(file, config.getMinPopulation());
+            tree = new CityTree(cities);
+            log.info("Gazetteer loaded {} cities from {} in {} ms.", cities.size(), file, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Could not read gazetteer file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Number of loaded cities.
+     */
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * The nearest cities within the configured distance, closest first.
+     */
+    public List<NearbyCityDTO> nearest(double latitude, double longitude) {
+        CityTree current = tree;
+        int[] nodes = new int[Math.clamp(config.getNearest(), 0, current.size())];
+        double[] distances = new double[nodes.length];
+        int found = current.nearest(latitude, longitude, config.getMaxDistanceKm(), nodes, distances);
+
+        List<NearbyCityDTO> nearby = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            City city = current.city(nodes[i]);
+            nearby.add(new NearbyCityDTO(city.name(), city.country(), city.population(),
+                    Math.round(distances[i] * 10) / 10.0, direction(city, latitude, longitude)));
+        }
+        return nearby;
+    }
+
+    /**
+     * Reads the cities of a GeoNames file: tab-separated, with the name in column 2, latitude and longitude in
+     * columns 5 and 6, the country code in column 9 and the population in column 15. Malformed lines are skipped.
+     */
+    static List<City> read(Path file, long minPopulation) throws IOException {
+        List<City> cities = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", 16);
+                if (columns.length < 15 || columns[14].isEmpty()) continue;
+                try {
+                    long population = Long.parseLong(columns[14]);
+                    if (population < minPopulation) continue;
+                    cities.add(new City(columns[1], columns[8], Double.parseDouble(columns[4]),
+                            Double.parseDouble(columns[5]), population));
+                } catch (NumberFormatException ignored) {
+                    // Not a city line
+                }
+            }
+        }
+        return cities;
+    }
+
+    /**
+     * Compass direction of a location as seen from a city, from the initial great-circle bearing.
+     */
+    private static String direction(City city, double latitude, double longitude) {
+        double phi1 = Math.toRadians(city.latitude());
+        double phi2 = Math.toRadians(latitude);
+        double deltaLambda = Math.toRadians(longitude - city.longitude());
+        double bearing = Math.toDegrees(Math.atan2(Math.sin(deltaLambda) * Math.cos(phi2),
+                Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(deltaLambda)));
+        return DIRECTIONS[(int) Math.round((bearing + 360) / 22.5) % DIRECTIONS.length];
+    }
+}
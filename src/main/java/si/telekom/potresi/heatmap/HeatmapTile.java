@@ -0,0 +1,21 @@
+package si.telekom.potresi.heatmap;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An encoded, immutable heatmap tile as served to clients.
+ *
+ * @param version ingestion epoch in which the tile last changed; 0 for a tile that never had events
+ * @param body    JSON body: {@code {"version":v,"size":n,"cells":[[column,row,count,maxMagnitude],...]}},
+ *                listing only non-empty cells; rows grow southwards as in slippy-map tiles
+ */
+public record HeatmapTile(long version, byte[] body) {
+
+    static HeatmapTile empty(int size) {
+        return new HeatmapTile(0, ("{\"version\":0,\"size\":" + size + ",\"cells\":[]}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,245 @@
+package si.telekom.potresi.heatmap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.HeatmapConfig;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.service.IngestionBatch;
+import si.telekom.potresi.service.IngestionListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tile pyramid of event counts and maximum magnitudes over the ingestion window, in Web Mercator
+ * slippy-map tiles (z/x/y) from zoom 0 to {@code earthquake.heatmap.max-zoom}.
+ * <p>
+ * Every tile is a grid of {@code 2^binBits} cells, so the cells of zoom z form the global grid of level
+ * {@code z + binBits} and each cell has four children one zoom deeper. Events are kept in the cells of the
+ * deepest level. Adding an event updates one cell per zoom level; removing one (revision or leaving the
+ * window) recomputes its leaf cell from the events in it and every ancestor from its four children.
+ * <p>
+ * The grids are owned by the ingestion thread. After each batch the changed tiles are encoded once and
+ * published, so serving a tile is a single map lookup.
+ */
+@Component
+public class HeatmapTiles implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HeatmapTiles.class);
+
+    private final IngestionConfig ingestionConfig;
+    private final int maxZoom;
+    private final int binBits;
+    private final int size;
+    private final int mask;
+    private final HeatmapTile emptyTile;
+
+    private final Map<Long, Grid> grids = new HashMap<>();
+    private final Map<Long, List<Contribution>> leaves = new HashMap<>();
+    private final Map<String, Contribution> events = new HashMap<>();
+    private final Map<Long, HeatmapTile> published = new ConcurrentHashMap<>();
+
+    public HeatmapTiles(HeatmapConfig config, IngestionConfig ingestionConfig) {
+        if (config.getMaxZoom() < 0 || config.getBinBits() < 1 || config.getMaxZoom() + config.getBinBits() > 28) {
+            throw new IllegalArgumentException("Unsupported heatmap zoom/bin configuration.");
+        }
+        this.ingestionConfig = ingestionConfig;
+        this.maxZoom = config.getMaxZoom();
+        this.binBits = config.getBinBits();
+        this.size = 1 << binBits;
+        this.mask = size - 1;
+        this.emptyTile = HeatmapTile.empty(size);
+    }
+
+    @Override
+    public synchronized void onIngested(IngestionBatch batch) {
+        Set<Long> dirty = new HashSet<>();
+
+        for (List<EarthquakeRecordDTO> records : List.of(batch.added(), batch.revised())) {
+            for (EarthquakeRecordDTO record : records) {
+                Contribution previous = events.remove(record.getId());
+                if (previous != null) remove(previous, dirty);
+
+                Contribution contribution = contributionOf(record);
+                if (contribution != null) {
+                    events.put(record.getId(), contribution);
+                    add(contribution, dirty);
+                }
+            }
+        }
+        for (String id : batch.deleted()) {
+            Contribution previous = events.remove(id);
+            if (previous != null) remove(previous, dirty);
+        }
+
+        long cutoff = Instant.now().minus(Duration.ofDays(ingestionConfig.getWindowDays())).toEpochMilli();
+        for (Iterator<Contribution> it = events.values().iterator(); it.hasNext(); ) {
+            Contribution contribution = it.next();
+            if (contribution.time < cutoff) {
+                it.remove();
+                remove(contribution, dirty);
+            }
+        }
+
+        for (long key : dirty) {
+            published.put(key, grids.get(key).encode(batch.epoch()));
+        }
+        log.debug("Heatmap epoch {}: re-encoded {} tile(s).", batch.epoch(), dirty.size());
+    }
+
+    /**
+     * Returns the tile at the given coordinates; tiles without events are returned empty with version 0.
+     *
+     * @throws IllegalArgumentException if the coordinates are outside the pyramid
+     */
+    public HeatmapTile tile(int z, int x, int y) {
+        if (z < 0 || z > maxZoom || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is outside the heatmap pyramid.");
+        }
+        return published.getOrDefault(tileKey(z, x, y), emptyTile);
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    private Contribution contributionOf(EarthquakeRecordDTO record) {
+        if (record.getLocation() == null || record.getTime() == null) return null;
+        int level = maxZoom + binBits;
+        int column = TileMath.column(record.getLocation().getLongitude(), level);
+        int row = TileMath.row(record.getLocation().getLatitude(), level);
+        float magnitude = record.getMagnitude() == null ? Float.NEGATIVE_INFINITY : record.getMagnitude().floatValue();
+        return new Contribution(column, row, magnitude, record.getTime().toEpochMilli());
+    }
+
+    private void add(Contribution contribution, Set<Long> dirty) {
+        leaves.computeIfAbsent(cellKey(contribution.column, contribution.row), k -> new ArrayList<>(2)).add(contribution);
+
+        for (int z = maxZoom; z >= 0; z--) {
+            int shift = maxZoom - z;
+            int column = contribution.column >>> shift;
+            int row = contribution.row >>> shift;
+            long key = tileKey(z, column >>> binBits, row >>> binBits);
+            Grid grid = grids.computeIfAbsent(key, k -> new Grid(size));
+            int cell = (row & mask) * size + (column & mask);
+            grid.counts[cell]++;
+            grid.max[cell] = Math.max(grid.max[cell], contribution.magnitude);
+            dirty.add(key);
+        }
+    }
+
+    private void remove(Contribution contribution, Set<Long> dirty) {
+        long leafKey = cellKey(contribution.column, contribution.row);
+        List<Contribution> leaf = leaves.get(leafKey);
+        leaf.remove(contribution);
+        if (leaf.isEmpty()) leaves.remove(leafKey);
+
+        // Leaf cell from its events
+        int column = contribution.column;
+        int row = contribution.row;
+        long key = tileKey(maxZoom, column >>> binBits, row >>> binBits);
+        Grid grid = grids.get(key);
+        int cell = (row & mask) * size + (column & mask);
+        grid.counts[cell] = leaf.size();
+        grid.max[cell] = Float.NEGATIVE_INFINITY;
+        for (Contribution c : leaf) grid.max[cell] = Math.max(grid.max[cell], c.magnitude);
+        dirty.add(key);
+
+        // Ancestors from their four children
+        for (int z = maxZoom - 1; z >= 0; z--) {
+            Grid children = grid;
+            int childColumn = column & ~1;
+            int childRow = row & ~1;
+            column >>>= 1;
+            row >>>= 1;
+            key = tileKey(z, column >>> binBits, row >>> binBits);
+            grid = grids.get(key);
+            cell = (row & mask) * size + (column & mask);
+
+            int count = 0;
+            float max = Float.NEGATIVE_INFINITY;
+            for (int dy = 0; dy < 2; dy++) {
+                for (int dx = 0; dx < 2; dx++) {
+                    int child = ((childRow + dy) & mask) * size + ((childColumn + dx) & mask);
+                    count += children.counts[child];
+                    max = Math.max(max, children.max[child]);
+                }
+            }
+            grid.counts[cell] = count;
+            grid.max[cell] = max;
+            dirty.add(key);
+        }
+    }
+
+    static long tileKey(int z, int x, int y) {
+        return ((long) z << 58) | ((long) x << 29) | y;
+    }
+
+    private static long cellKey(int column, int row) {
+        return ((long) column << 32) | (row & 0xffffffffL);
+    }
+
+    /**
+     * An event's position in the leaf grid and its magnitude ({@code -Infinity} if unrated).
+     * Compared by identity, so two identical events in the same cell are removed one at a time.
+     */
+    private static final class Contribution {
+
+        final int column;
+        final int row;
+        final float magnitude;
+        final long time;
+
+        Contribution(int column, int row, float magnitude, long time) {
+            this.column = column;
+            this.row = row;
+            this.magnitude = magnitude;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Mutable cell values of one tile.
+     */
+    private static final class Grid {
+
+        final int size;
+        final int[] counts;
+        final float[] max;
+
+        Grid(int size) {
+            this.size = size;
+            counts = new int[size * size];
+            max = new float[size * size];
+            Arrays.fill(max, Float.NEGATIVE_INFINITY);
+        }
+
+        HeatmapTile encode(long version) {
+            StringBuilder json = new StringBuilder(64);
+            json.append("{\"version\":").append(version).append(",\"size\":").append(size).append(",\"cells\":[");
+            boolean first = true;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) continue;
+                if (!first) json.append(',');
+                first = false;
+                json.append('[').append(i % size).append(',').append(i / size).append(',').append(counts[i]).append(',');
+                if (max[i] == Float.NEGATIVE_INFINITY) json.append("null"); else json.append(max[i]);
+                json.append(']');
+            }
+            json.append("]}");
+            return new HeatmapTile(version, json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package si.telekom.potresi.heatmap;
+
+/**
+ * Web Mercator (EPSG:3857) cell coordinates as used by slippy-map tiles: column 0 at 180°W,
+ * row 0 at the northern edge of the projection (about 85.05°N).
+ */
+final class TileMath {
+
+    static final double MAX_LATITUDE = 85.05112878;
+
+    private TileMath() {}
+
+    static int column(double longitude, int level) {
+        long cells = 1L << level;
+        long column = (long) Math.floor((longitude + 180.0) / 360.0 * cells);
+        return (int) Math.clamp(column, 0, cells - 1);
+    }
+
+    static int row(double latitude, int level) {
+        long cells = 1L << level;
+        double phi = Math.toRadians(Math.clamp(latitude, -MAX_LATITUDE, MAX_LATITUDE));
+        double y = (1.0 - Math.log(Math.tan(phi) + 1.0 / Math.cos(phi)) / Math.PI) / 2.0;
+        return (int) Math.clamp((long) Math.floor(y * cells), 0, cells - 1);
+    }
+}
@@ -0,0 +1,27 @@
+package si.telekom.potresi.hedge;
+
+/**
+ * Token bucket limiting the hedges sent to one upstream: every call earns {@code ratio} of a token and every hedge
+ * spends one, so hedges never exceed {@code ratio} times the calls. Unused tokens are kept up to a small burst.
+ */
+class HedgeBudget {
+
+    private static final double BURST = 10;
+
+    private final double ratio;
+    private double tokens;
+
+    HedgeBudget(double ratio) {
+        this.ratio = Math.clamp(ratio, 0.0, 1.0);
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(Math.max(1, BURST * ratio), tokens + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+}
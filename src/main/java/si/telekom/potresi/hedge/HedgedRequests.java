@@ -0,0 +1,206 @@
+package si.telekom.potresi.hedge;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.HedgingConfig;
+import si.telekom.potresi.deadline.Deadline;
+import si.telekom.potresi.jfr.UpstreamAttempt;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedged upstream calls: a call still running after the observed latency percentile of its upstream is sent a
+ * second time and whichever answer arrives first is used.
+ * <p>
+ * Until an upstream has answered {@code minSamples} calls they run directly on the caller's thread. After that
+ * calls run on virtual threads carrying the caller's deadline and retry attempt. A hedge is only sent while the
+ * upstream's {@link HedgeBudget} allows it. Once an answer arrives, or the caller is interrupted (e.g. because a
+ * faster feed already answered), calls still running are cancelled; their virtual threads are interrupted, which
+ * aborts blocking socket I/O. A primary call cut off by a winning hedge counts towards the percentile with the time
+ * it had run, so the hedge does not hide the slow tail.
+ */
+@Component
+public class HedgedRequests {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgedRequests.class);
+
+    private final HedgingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Upstream> upstreams = new ConcurrentHashMap<>();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("hedge-", 0).factory());
+
+    public HedgedRequests(HedgingConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Calls the upstream, hedging the request if it is slower than usual.
+     *
+     * @param upstream name the latency and metrics of the upstream are kept under, e.g. the feed
+     * @param request  the call; must be safe to send twice
+     * @return the first successful answer
+     */
+    public <T> T call(String upstream, Supplier<T> request) {
+        if (!config.isEnabled()) {
+            return request.get();
+        }
+
+        Upstream target = upstreams.computeIfAbsent(upstream, this::register);
+        target.requests.increment();
+        target.budget.deposit();
+
+        long delay = target.latencies.percentileNanos(config.getPercentile());
+        if (delay < 0) {
+            return target.timed(request);
+        }
+
+        Callable<T> task = inheritContext(() -> target.timed(request));
+        CompletionService<T> calls = new ExecutorCompletionService<>(executor);
+        long started = System.nanoTime();
+        Future<T> primary = calls.submit(task);
+        Future<T> hedge = null;
+        try {
+            Future<T> first = calls.poll(delay, TimeUnit.NANOSECONDS);
+
+            if (first == null && !Deadline.isExhausted() && target.budget.tryAcquire()) {
+                log.debug("Hedging call to {} after {} ms", upstream, TimeUnit.NANOSECONDS.toMillis(delay));
+                target.hedged.increment();
+                hedge = calls.submit(task);
+            }
+            if (first == null) {
+                first = calls.take();
+            }
+
+            try {
+                return target.answer(first, hedge);
+            } catch (ExecutionException e) {
+                if (hedge == null) throw unwrap(e);
+                // One of the two failed; the other may still answer
+                try {
+                    return target.answer(calls.take(), hedge);
+                } catch (ExecutionException ignored) {
+                    throw unwrap(first == primary ? e : ignored);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + upstream, e);
+        } finally {
+            if (hedge != null && hedge.isDone() && !primary.isDone()) {
+                target.latencies.record(System.nanoTime() - started);
+            }
+            primary.cancel(true);
+            if (hedge != null) hedge.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Latency percentile after which calls to the upstream are hedged, -1 while not yet known.
+     */
+    public long getHedgeDelayNanos(String upstream) {
+        Upstream target = upstreams.get(upstream);
+        return target == null ? -1 : target.latencies.percentileNanos(config.getPercentile());
+    }
+
+    private Upstream register(String upstream) {
+        Upstream target = new Upstream(new LatencyWindow(config.getWindow(), config.getMinSamples()),
+                new HedgeBudget(config.getBudgetRatio()));
+        FunctionCounter.builder("earthquake.hedge.requests", target.requests, LongAdder::sum)
+                .description("Upstream calls eligible for hedging")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        FunctionCounter.builder("earthquake.hedge.sent", target.hedged, LongAdder::sum)
+                .description("Hedge requests sent")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        FunctionCounter.builder("earthquake.hedge.wins", target.wins, LongAdder::sum)
+                .description("Hedge requests that answered before the original call")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("earthquake.hedge.rate", target, t -> ratio(t.hedged, t.requests))
+                .description("Share of calls that were hedged")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("earthquake.hedge.win.rate", target, t -> ratio(t.wins, t.hedged))
+                .description("Share of hedges that answered first")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("earthquake.hedge.delay", target,
+                        t -> Math.max(0, t.latencies.percentileNanos(config.getPercentile())) / 1e6)
+                .description("Latency percentile in milliseconds after which calls are hedged, 0 while unknown")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        return target;
+    }
+
+    private static double ratio(LongAdder part, LongAdder whole) {
+        long total = whole.sum();
+        return total == 0 ? 0 : (double) part.sum() / total;
+    }
+
+    /**
+     * Carries the caller's deadline and retry attempt over to the thread the call runs on.
+     */
+    private static <T> Callable<T> inheritContext(Callable<T> task) {
+        int attempt = UpstreamAttempt.current();
+        Deadline deadline = Deadline.current();
+        return () -> UpstreamAttempt.callWith(attempt, () -> Deadline.callWith(deadline, task));
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error error) throw error;
+        return new IllegalStateException(cause);
+    }
+
+    private static final class Upstream {
+
+        private final LatencyWindow latencies;
+        private final HedgeBudget budget;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder hedged = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+
+        private Upstream(LatencyWindow latencies, HedgeBudget budget) {
+            this.latencies = latencies;
+            this.budget = budget;
+        }
+
+        private <T> T timed(Supplier<T> request) {
+            long start = System.nanoTime();
+            T result = request.get();
+            latencies.record(System.nanoTime() - start);
+            return result;
+        }
+
+        private <T> T answer(Future<T> done, Future<T> hedge) throws ExecutionException, InterruptedException {
+            T result = done.get();
+            if (done == hedge) wins.increment();
+            return result;
+        }
+    }
+}
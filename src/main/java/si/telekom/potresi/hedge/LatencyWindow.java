@@ -0,0 +1,45 @@
+package si.telekom.potresi.hedge;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent successful calls to one upstream, for percentile lookups.
+ * The percentile is recomputed at most once every {@value #RECOMPUTE_EVERY} samples.
+ */
+class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 8;
+
+    private final long[] samples;
+    private final int minSamples;
+    private long recorded;
+    private long computedAt = -1;
+    private double computedFor = Double.NaN;
+    private long cached = -1;
+
+    LatencyWindow(int size, int minSamples) {
+        this.samples = new long[Math.max(1, size)];
+        this.minSamples = Math.clamp(minSamples, 1, samples.length);
+    }
+
+    synchronized void record(long nanos) {
+        samples[(int) (recorded++ % samples.length)] = nanos;
+    }
+
+    /**
+     * Latency in nanoseconds below which the given share of recent calls finished, or -1 until enough calls have.
+     */
+    synchronized long percentileNanos(double percentile) {
+        if (recorded < minSamples) return -1;
+        if (cached >= 0 && percentile == computedFor && recorded - computedAt < RECOMPUTE_EVERY) return cached;
+
+        int count = (int) Math.min(recorded, samples.length);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(Math.clamp(percentile, 0.0, 1.0) * count);
+        cached = sorted[Math.clamp(rank - 1, 0, count - 1)];
+        computedAt = recorded;
+        computedFor = percentile;
+        return cached;
+    }
+}
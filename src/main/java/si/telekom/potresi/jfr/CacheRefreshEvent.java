@@ -0,0 +1,41 @@
+package si.telekom.potresi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One scheduled refresh of the cached earthquake data.
+ */
+@Name("si.telekom.potresi.CacheRefresh")
+@Label("Cache Refresh")
+@Category({"Potresi", "Cache"})
+@StackTrace(false)
+public class CacheRefreshEvent extends Event {
+
+    @Label("Weekly Records")
+    int weeklyRecords;
+
+    @Label("Monthly Records")
+    int monthlyRecords;
+
+    @Label("Most Recent Found")
+    boolean mostRecentFound;
+
+    public static CacheRefreshEvent start() {
+        CacheRefreshEvent event = new CacheRefreshEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(int weeklyRecords, int monthlyRecords, boolean mostRecentFound) {
+        if (shouldCommit()) {
+            this.weeklyRecords = weeklyRecords;
+            this.monthlyRecords = monthlyRecords;
+            this.mostRecentFound = mostRecentFound;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package si.telekom.potresi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A fallback was used instead of live data: a client fallback method or a service answering from its cache.
+ */
+@Name("si.telekom.potresi.Fallback")
+@Label("Fallback Activation")
+@Category({"Potresi", "Resilience"})
+public class FallbackEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Cause")
+    @Description("Exception that triggered the fallback, if any")
+    String cause;
+
+    public static void emit(String operation, Throwable cause) {
+        FallbackEvent event = new FallbackEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.cause = cause == null ? null : cause.toString();
+            event.commit();
+        }
+    }
+}
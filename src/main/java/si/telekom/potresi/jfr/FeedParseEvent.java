@@ -0,0 +1,47 @@
+package si.telekom.potresi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of a downloaded earthquake feed into JSON features.
+ */
+@Name("si.telekom.potresi.FeedParse")
+@Label("Feed Parse")
+@Category({"Potresi", "Upstream"})
+@StackTrace(false)
+public class FeedParseEvent extends Event {
+
+    @Label("Feed")
+    String feed;
+
+    @Label("Feature Count")
+    int featureCount;
+
+    @Label("Characters")
+    @Description("Length of the parsed document")
+    int characters;
+
+    /**
+     * Starts timing a parse. When no recording is active the event is never committed and,
+     * once the JIT has inlined it, not even allocated.
+     */
+    public static FeedParseEvent start(String feed) {
+        FeedParseEvent event = new FeedParseEvent();
+        event.begin();
+        event.feed = feed;
+        return event;
+    }
+
+    public void finish(int featureCount, int characters) {
+        if (shouldCommit()) {
+            this.featureCount = featureCount;
+            this.characters = characters;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package si.telekom.potresi.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.JfrConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint that controls an on-demand Flight Recorder recording:
+ * {@code GET /actuator/jfr} reports its state and {@code POST /actuator/jfr/{start|dump|stop}} starts it,
+ * writes its current contents to a file, or stops it and writes the final file.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final JfrConfig config;
+    private Recording recording;
+
+    public JfrRecordingEndpoint(JfrConfig config) {
+        this.config = config;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("settings", config.getSettings());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxAge", recording.getMaxAge());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> control(@Selector String action) {
+        try {
+            return switch (action) {
+                case "start" -> start();
+                case "dump" -> dump(false);
+                case "stop" -> dump(true);
+                default -> error(WebEndpointResponse.STATUS_BAD_REQUEST, "Unknown action '" + action + "', use start, dump or stop.");
+            };
+        } catch (IOException | ParseException ex) {
+            log.error("JFR {} failed: {}", action, ex.getMessage(), ex);
+            return error(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR, "JFR " + action + " failed: " + ex.getMessage());
+        }
+    }
+
+    private WebEndpointResponse<Map<String, Object>> start() throws IOException, ParseException {
+        if (isRunning()) {
+            return error(409, "A recording is already running.");
+        }
+
+        Recording started = new Recording(Configuration.getConfiguration(config.getSettings()));
+        started.setName("potresi");
+        started.setToDisk(true);
+        started.setMaxAge(config.getMaxAge());
+        started.enable(UpstreamCallEvent.class);
+        started.enable(FeedParseEvent.class);
+        started.enable(CacheRefreshEvent.class);
+        started.enable(FallbackEvent.class);
+        started.start();
+
+        if (recording != null) recording.close();
+        recording = started;
+        log.info("Started JFR recording with '{}' settings.", config.getSettings());
+        return new WebEndpointResponse<>(status());
+    }
+
+    private WebEndpointResponse<Map<String, Object>> dump(boolean stop) throws IOException {
+        if (!isRunning()) {
+            return error(409, "No recording is running.");
+        }
+
+        Path directory = Path.of(config.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("potresi-" + FILE_TIME.format(Instant.now()) + ".jfr").toAbsolutePath();
+
+        if (stop) {
+            recording.stop();
+        }
+        recording.dump(file);
+        if (stop) {
+            recording.close();
+            recording = null;
+        }
+        log.info("Wrote JFR recording to {}.", file);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toString());
+        result.put("bytes", Files.size(file));
+        result.put("state", stop ? "CLOSED" : RecordingState.RUNNING.name());
+        return new WebEndpointResponse<>(result);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> error(int status, String message) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
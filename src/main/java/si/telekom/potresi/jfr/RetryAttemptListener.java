@@ -0,0 +1,27 @@
+package si.telekom.potresi.jfr;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the retry attempt of the calling thread so {@link UpstreamCallEvent}s can report it.
+ * Retry events are published on the thread that runs the retried call, right before it waits
+ * for the next attempt.
+ */
+@Component
+public class RetryAttemptListener {
+
+    public RetryAttemptListener(RetryRegistry retryRegistry) {
+        retryRegistry.getAllRetries().forEach(RetryAttemptListener::register);
+        retryRegistry.getEventPublisher().onEntryAdded(event -> register(event.getAddedEntry()));
+    }
+
+    private static void register(Retry retry) {
+        retry.getEventPublisher()
+                .onRetry(event -> UpstreamAttempt.set(event.getNumberOfRetryAttempts() + 1))
+                .onSuccess(event -> UpstreamAttempt.clear())
+                .onError(event -> UpstreamAttempt.clear())
+                .onIgnoredError(event -> UpstreamAttempt.clear());
+    }
+}
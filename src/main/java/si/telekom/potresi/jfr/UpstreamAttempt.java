@@ -0,0 +1,42 @@
+package si.telekom.potresi.jfr;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Retry attempt of the upstream call running on the current thread, maintained by {@link RetryAttemptListener}.
+ */
+public final class UpstreamAttempt {
+
+    private static final ThreadLocal<Integer> ATTEMPT = new ThreadLocal<>();
+
+    private UpstreamAttempt() {}
+
+    /**
+     * Current attempt number, 1 outside of a retry.
+     */
+    public static int current() {
+        Integer attempt = ATTEMPT.get();
+        return attempt == null ? 1 : attempt;
+    }
+
+    /**
+     * Runs a task with the given attempt number, e.g. on a thread the retried call forked to.
+     */
+    public static <T> T callWith(int attempt, Callable<T> task) throws Exception {
+        Integer previous = ATTEMPT.get();
+        ATTEMPT.set(attempt);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) ATTEMPT.remove(); else ATTEMPT.set(previous);
+        }
+    }
+
+    static void set(int attempt) {
+        ATTEMPT.set(attempt);
+    }
+
+    static void clear() {
+        ATTEMPT.remove();
+    }
+}
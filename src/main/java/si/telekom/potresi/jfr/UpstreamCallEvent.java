@@ -0,0 +1,40 @@
+package si.telekom.potresi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP call to an upstream API, from sending the request until the response body is closed.
+ * Emitted by {@link UpstreamCallInterceptor}.
+ */
+@Name("si.telekom.potresi.UpstreamCall")
+@Label("Upstream HTTP Call")
+@Category({"Potresi", "Upstream"})
+@Description("HTTP call to the earthquake or weather API")
+@StackTrace(false)
+public class UpstreamCallEvent extends Event {
+
+    @Label("Feed")
+    @Description("Feed file for earthquake feeds, host name otherwise")
+    String feed;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Status")
+    @Description("HTTP status code, 0 if no response was received")
+    int status;
+
+    @Label("Attempt")
+    @Description("Retry attempt the call belongs to, starting at 1")
+    int attempt;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,140 @@
+package si.telekom.potresi.jfr;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Emits an {@link UpstreamCallEvent} for every call made through the shared RestTemplate.
+ * The event ends when the response is closed, so it covers reading the body; bytes are counted
+ * as the body is read. Does nothing beyond one enabled-check when no recording is active.
+ */
+public class UpstreamCallInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        if (!event.isEnabled()) {
+            return execution.execute(request, body);
+        }
+
+        event.begin();
+        event.feed = feedOf(request.getURI());
+        event.attempt = UpstreamAttempt.current();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            event.status = response.getStatusCode().value();
+            return new RecordedResponse(response, event);
+        } catch (IOException | RuntimeException ex) {
+            event.error = ex.toString();
+            event.commit();
+            throw ex;
+        }
+    }
+
+    /**
+     * Feed file for earthquake feeds, otherwise the host; query strings (which may hold API keys) are never recorded.
+     */
+    static String feedOf(URI uri) {
+        String path = uri.getPath();
+        if (path != null && path.endsWith(".geojson")) {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+        return uri.getHost();
+    }
+
+    private static final class RecordedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final UpstreamCallEvent event;
+        private CountingInputStream body;
+        private boolean closed;
+
+        RecordedResponse(ClientHttpResponse delegate, UpstreamCallEvent event) {
+            this.delegate = delegate;
+            this.event = event;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+            if (closed) return;
+            closed = true;
+            if (event.shouldCommit()) {
+                event.bytes = body == null ? 0 : body.count;
+                event.commit();
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        /**
+         * Re-reading after {@code reset()} would count bytes twice; without mark support callers
+         * that peek at the body (as RestTemplate does) fall back to a pushback stream on top of this one.
+         */
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
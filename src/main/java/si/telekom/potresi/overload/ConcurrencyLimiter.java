@@ -0,0 +1,153 @@
+package si.telekom.potresi.overload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.OverloadConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit in front of EarthquakeService, and the {@link DegradationLevel} each request gets.
+ * <p>
+ * The limit follows the gradient between long-term and current latency: while requests are no slower than
+ * {@code tolerance} times the long-term average it grows by about its square root, and it shrinks in proportion
+ * once they get slower; it is only raised while at least half of it is in use. A failed request (one that threw or
+ * ran past its deadline) cuts it by a tenth. Below {@code weatherThreshold} of the limit requests get full service;
+ * up to the limit they no longer queue weather enrichment; the next {@code cacheHeadroom} times the limit are
+ * answered from cache, and any request beyond that is rejected.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private static final double LONG_TERM_SMOOTHING = 0.01;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    private final OverloadConfig config;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<DegradationLevel, Counter> admissions = new EnumMap<>(DegradationLevel.class);
+
+    private volatile double limit;
+    private double longTermNanos;
+    private long samples;
+
+    public ConcurrencyLimiter(OverloadConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.limit = Math.clamp(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+
+        Gauge.builder("earthquake.overload.limit", this, ConcurrencyLimiter::getLimit)
+                .description("Adaptive concurrency limit of live requests")
+                .register(meterRegistry);
+        Gauge.builder("earthquake.overload.inflight", inflight, AtomicInteger::get)
+                .description("Guarded requests being served")
+                .register(meterRegistry);
+        Gauge.builder("earthquake.overload.level", this, l -> l.getLevel().ordinal())
+                .description("Degradation level the next request would get: 0 normal, 1 no weather, 2 cache only, 3 reject")
+                .register(meterRegistry);
+        for (DegradationLevel level : DegradationLevel.values()) {
+            admissions.put(level, Counter.builder("earthquake.overload.requests")
+                    .description("Guarded requests by the degradation level they were served at")
+                    .tag("level", level.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Admits a request at the level the current load allows. Every permit must be released, including rejected ones.
+     */
+    public Permit acquire() {
+        int concurrent = inflight.incrementAndGet();
+        DegradationLevel level = levelFor(concurrent);
+        admissions.get(level).increment();
+        if (level == DegradationLevel.REJECT) {
+            inflight.decrementAndGet();
+        }
+        return new Permit(level, concurrent);
+    }
+
+    /**
+     * Level the next request would be admitted at.
+     */
+    public DegradationLevel getLevel() {
+        return levelFor(inflight.get() + 1);
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    DegradationLevel levelFor(int concurrent) {
+        double current = limit;
+        if (concurrent <= current * config.getWeatherThreshold()) return DegradationLevel.NORMAL;
+        if (concurrent <= current) return DegradationLevel.NO_WEATHER;
+        if (concurrent <= current * (1 + config.getCacheHeadroom())) return DegradationLevel.CACHE_ONLY;
+        return DegradationLevel.REJECT;
+    }
+
+    synchronized void onSample(long latencyNanos, int concurrent, boolean failed) {
+        if (failed) {
+            limit = Math.max(config.getMinLimit(), limit * BACKOFF);
+            return;
+        }
+
+        double latency = Math.max(1, latencyNanos);
+        longTermNanos = samples++ == 0 ? latency : longTermNanos + (latency - longTermNanos) * LONG_TERM_SMOOTHING;
+        // Let the long-term average recover quickly after a slow period has ended
+        if (longTermNanos / latency > 2) {
+            longTermNanos *= 0.95;
+        }
+
+        // Requests were not limited by concurrency, so latency says nothing about a higher limit
+        if (concurrent < limit / 2) {
+            return;
+        }
+
+        double current = limit;
+        double gradient = Math.clamp(config.getTolerance() * longTermNanos / latency, 0.5, 1.0);
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.clamp(current * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING,
+                config.getMinLimit(), config.getMaxLimit());
+    }
+
+    /**
+     * Admission of one request.
+     */
+    public final class Permit {
+
+        private final DegradationLevel level;
+        private final int concurrent;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(DegradationLevel level, int concurrent) {
+            this.level = level;
+            this.concurrent = concurrent;
+        }
+
+        public DegradationLevel level() {
+            return level;
+        }
+
+        /**
+         * Ends the request; live requests feed their latency (or failure) into the limit.
+         */
+        public void release(boolean failed) {
+            if (level == DegradationLevel.REJECT || !released.compareAndSet(false, true)) {
+                return;
+            }
+            inflight.decrementAndGet();
+            if (level.callsUpstream()) {
+                onSample(System.nanoTime() - startNanos, concurrent, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package si.telekom.potresi.overload;
+
+import java.util.concurrent.Callable;
+
+/**
+ * How much of its normal work a request may do, from full service to rejection.
+ * The level of the request served by the current thread is set by {@link OverloadFilter}.
+ */
+public enum DegradationLevel {
+
+    /** Live upstream calls and weather enrichment. */
+    NORMAL,
+    /** Live upstream calls; new events are not queued for weather enrichment. */
+    NO_WEATHER,
+    /** Answered from cached snapshots without upstream calls. */
+    CACHE_ONLY,
+    /** Rejected with 429. */
+    REJECT;
+
+    private static final ThreadLocal<DegradationLevel> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Level of the request served by the current thread; NORMAL outside of a guarded request.
+     */
+    public static DegradationLevel current() {
+        DegradationLevel level = CURRENT.get();
+        return level == null ? NORMAL : level;
+    }
+
+    /**
+     * Runs a task at the given level, e.g. on a thread a degraded request forked to.
+     */
+    public static <T> T callWith(DegradationLevel level, Callable<T> task) throws Exception {
+        DegradationLevel previous = CURRENT.get();
+        CURRENT.set(level);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) CURRENT.remove(); else CURRENT.set(previous);
+        }
+    }
+
+    public boolean enrichesWeather() {
+        return this == NORMAL;
+    }
+
+    public boolean callsUpstream() {
+        return this == NORMAL || this == NO_WEATHER;
+    }
+
+    static void set(DegradationLevel level) {
+        CURRENT.set(level);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
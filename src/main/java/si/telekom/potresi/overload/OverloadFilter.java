@@ -0,0 +1,64 @@
+package si.telekom.potresi.overload;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import si.telekom.potresi.config.OverloadConfig;
+import si.telekom.potresi.deadline.Deadline;
+
+import java.io.IOException;
+
+/**
+ * Admits requests to the guarded paths through the {@link ConcurrencyLimiter}: rejected ones get 429, the others
+ * are served at their {@link DegradationLevel}. A request counts as failed if it threw or ran past its
+ * {@link Deadline}; the controllers' own 503s for missing data are answers, not overload.
+ */
+class OverloadFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(OverloadFilter.class);
+
+    private final ConcurrencyLimiter limiter;
+    private final OverloadConfig config;
+
+    OverloadFilter(ConcurrencyLimiter limiter, OverloadConfig config) {
+        this.limiter = limiter;
+        this.config = config;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !config.isEnabled() || !config.getPaths().contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        if (permit.level() == DegradationLevel.REJECT) {
+            log.debug("Rejecting {} {}: concurrency limit {} exhausted.", request.getMethod(), request.getRequestURI(),
+                    (int) limiter.getLimit());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"The service is overloaded, please retry later.\"}");
+            return;
+        }
+
+        boolean failed = true;
+        DegradationLevel.set(permit.level());
+        try {
+            chain.doFilter(request, response);
+            failed = Boolean.TRUE.equals(request.getAttribute(Deadline.EXPIRED_ATTRIBUTE));
+        } finally {
+            DegradationLevel.clear();
+            permit.release(failed);
+        }
+    }
+}
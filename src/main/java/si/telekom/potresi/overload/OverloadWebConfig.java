@@ -0,0 +1,36 @@
+package si.telekom.potresi.overload;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import si.telekom.potresi.config.OverloadConfig;
+
+/**
+ * Load shedding: the admission filter and the {@code overload} health contributor.
+ */
+@Configuration
+public class OverloadWebConfig {
+
+    @Bean
+    public FilterRegistrationBean<OverloadFilter> overloadFilter(ConcurrencyLimiter limiter, OverloadConfig config) {
+        FilterRegistrationBean<OverloadFilter> registration = new FilterRegistrationBean<>(new OverloadFilter(limiter, config));
+        // Before tracing and deadlines, so that rejected requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    /**
+     * Reports the degradation level with the current limit. The service stays UP while degraded.
+     */
+    @Bean
+    public HealthIndicator overloadHealthIndicator(ConcurrencyLimiter limiter) {
+        return () -> Health.up()
+                .withDetail("level", limiter.getLevel())
+                .withDetail("limit", (int) limiter.getLimit())
+                .withDetail("inflight", limiter.getInflight())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package si.telekom.potresi.place;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Process-wide dictionary of place names, so a record stores its place as one {@code long} instead of a string.
+ * <p>
+ * USGS places have the form {@code "10 km NE of Town, Region"}. The distance and compass direction are packed
+ * into the code directly; {@code "Town, Region"} is interned as a locality code, and its region (the part after
+ * the last comma, or the whole locality if there is none) as a region code. Places of any other form are interned
+ * whole. {@link #decode} rebuilds the original string exactly.
+ * <p>
+ * Code layout: bits 0-31 locality code, bits 32-47 distance in km plus one (0 if there is none),
+ * bits 48-52 direction index plus one. {@link #NONE} stands for a missing place.
+ */
+public final class PlaceNames {
+
+    /** Code of a missing place. */
+    public static final long NONE = -1;
+
+    private static final Pattern OFFSET = Pattern.compile("(0|[1-9]\\d{0,4}) km ([NSEW]{1,3}) of (.+)");
+    private static final List<String> DIRECTIONS = List.of(
+            "N", "NNE", "NE", "ENE", "E", "ESE", "SE", "SSE", "S", "SSW", "SW", "WSW", "W", "WNW", "NW", "NNW");
+    private static final int MAX_DISTANCE = 0xFFFE;
+
+    private static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    /** Name and region code of each locality code; regions are localities themselves. */
+    private static volatile String[] names = new String[256];
+    private static volatile int[] regions = new int[256];
+    private static int size;
+
+    private PlaceNames() {
+    }
+
+    /**
+     * Code of a place string, interning its locality and region.
+     */
+    public static long encode(String place) {
+        if (place == null) return NONE;
+
+        Matcher matcher = OFFSET.matcher(place);
+        if (matcher.matches()) {
+            int distance = Integer.parseInt(matcher.group(1));
+            int direction = DIRECTIONS.indexOf(matcher.group(2));
+            if (distance <= MAX_DISTANCE && direction >= 0) {
+                return (long) (direction + 1) << 48 | (long) (distance + 1) << 32 | intern(matcher.group(3));
+            }
+        }
+        return intern(place);
+    }
+
+    /**
+     * Place string of a code.
+     */
+    public static String decode(long code) {
+        if (code == NONE) return null;
+
+        String locality = names[locality(code)];
+        int distance = (int) (code >>> 32 & 0xFFFF);
+        if (distance == 0) return locality;
+        return (distance - 1) + " km " + DIRECTIONS.get((int) (code >>> 48 & 0x1F) - 1) + " of " + locality;
+    }
+
+    /**
+     * Region code of a place code, or -1 for a missing place. Equal regions have equal codes.
+     */
+    public static int region(long code) {
+        return code == NONE ? -1 : regions[locality(code)];
+    }
+
+    /**
+     * Name of a region code.
+     */
+    public static String regionName(int region) {
+        return names[region];
+    }
+
+    /**
+     * Number of interned localities and regions.
+     */
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static int locality(long code) {
+        return (int) code;
+    }
+
+    private static int intern(String locality) {
+        Integer code = codes.get(locality);
+        return code != null ? code : add(locality);
+    }
+
+    private static synchronized int add(String locality) {
+        Integer existing = codes.get(locality);
+        if (existing != null) return existing;
+
+        int comma = locality.lastIndexOf(", ");
+        String regionName = comma >= 0 ? locality.substring(comma + 2) : locality;
+        int region = regionName.equals(locality) ? size : intern(regionName);
+
+        int code = size;
+        if (code == names.length) {
+            // Readers see either the old or the grown arrays, both hold every code published so far
+            regions = Arrays.copyOf(regions, code * 2);
+            names = Arrays.copyOf(names, code * 2);
+        }
+        regions[code] = region;
+        names[code] = locality;
+        size = code + 1;
+        codes.put(locality, code);
+        return code;
+    }
+}
@@ -0,0 +1,156 @@
+package si.telekom.potresi.place;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.RegionStatisticsDTO;
+import si.telekom.potresi.query.EventQuery;
+import si.telekom.potresi.service.IngestionBatch;
+import si.telekom.potresi.service.IngestionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Event count, strongest and latest event per region of the ingestion window.
+ * <p>
+ * Events are grouped by their {@link EarthquakeRecordDTO#getRegionCode() region code}, so grouping is an integer
+ * lookup. Each batch only updates the regions it touches; a region whose strongest or latest event was revised
+ * or removed is recomputed from its own events. The sorted result is prepared after every batch, so a request
+ * costs O(regions) at most.
+ */
+@Component
+public class RegionStatistics implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RegionStatistics.class);
+
+    private static final Comparator<RegionStatisticsDTO> LARGEST_FIRST = Comparator
+            .comparingInt((RegionStatisticsDTO r) -> -r.getEventCount())
+            .thenComparing(RegionStatisticsDTO::getRegion);
+
+    private final IngestionConfig ingestionConfig;
+    private final Map<String, EarthquakeRecordDTO> events = new HashMap<>();
+    private final Map<Integer, Region> regions = new HashMap<>();
+    private volatile List<RegionStatisticsDTO> published = List.of();
+
+    public RegionStatistics(IngestionConfig ingestionConfig) {
+        this.ingestionConfig = ingestionConfig;
+    }
+
+    @Override
+    public synchronized void onIngested(IngestionBatch batch) {
+        Set<Region> touched = new HashSet<>();
+        long cutoff = Instant.now().minus(Duration.ofDays(ingestionConfig.getWindowDays())).toEpochMilli();
+
+        for (List<EarthquakeRecordDTO> records : List.of(batch.added(), batch.revised())) {
+            for (EarthquakeRecordDTO record : records) {
+                remove(record.getId(), touched);
+                if (record.getId() != null && record.getRegionCode() >= 0 && record.getTime() != null
+                        && record.getTime().toEpochMilli() >= cutoff) {
+                    events.put(record.getId(), record);
+                    regions.computeIfAbsent(record.getRegionCode(), Region::new).add(record);
+                    touched.add(regions.get(record.getRegionCode()));
+                }
+            }
+        }
+        for (String id : batch.deleted()) {
+            remove(id, touched);
+        }
+
+        List<String> evicted = new ArrayList<>();
+        for (Iterator<EarthquakeRecordDTO> it = events.values().iterator(); it.hasNext(); ) {
+            EarthquakeRecordDTO record = it.next();
+            if (record.getTime().toEpochMilli() < cutoff) evicted.add(record.getId());
+        }
+        evicted.forEach(id -> remove(id, touched));
+
+        if (touched.isEmpty()) return;
+        for (Region region : touched) {
+            if (region.members.isEmpty()) {
+                regions.remove(region.code);
+            } else {
+                region.publish();
+            }
+        }
+        List<RegionStatisticsDTO> sorted = new ArrayList<>(regions.size());
+        regions.values().forEach(region -> sorted.add(region.published));
+        sorted.sort(LARGEST_FIRST);
+        published = List.copyOf(sorted);
+        log.debug("Region statistics epoch {}: {} region(s) changed, {} region(s) in total.",
+                batch.epoch(), touched.size(), sorted.size());
+    }
+
+    /**
+     * Regions with the most events first.
+     *
+     * @param limit maximum number of regions returned
+     * @throws IllegalArgumentException if limit is out of range
+     */
+    public List<RegionStatisticsDTO> regions(int limit) {
+        if (limit < 1 || limit > EventQuery.MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + EventQuery.MAX_LIMIT + ".");
+        }
+        List<RegionStatisticsDTO> current = published;
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    private void remove(String id, Set<Region> touched) {
+        EarthquakeRecordDTO previous = id != null ? events.remove(id) : null;
+        if (previous == null) return;
+
+        Region region = regions.get(previous.getRegionCode());
+        region.remove(previous);
+        touched.add(region);
+    }
+
+    private static final class Region {
+
+        private final int code;
+        private final Map<String, EarthquakeRecordDTO> members = new HashMap<>();
+        private EarthquakeRecordDTO strongest;
+        private EarthquakeRecordDTO latest;
+        private boolean stale;
+        private RegionStatisticsDTO published;
+
+        Region(int code) {
+            this.code = code;
+        }
+
+        void add(EarthquakeRecordDTO record) {
+            members.put(record.getId(), record);
+            if (record.getMagnitude() != null && (strongest == null || record.getMagnitude() > strongest.getMagnitude())) {
+                strongest = record;
+            }
+            if (latest == null || record.getTime().isAfter(latest.getTime())) {
+                latest = record;
+            }
+        }
+
+        void remove(EarthquakeRecordDTO record) {
+            members.remove(record.getId());
+            if (record == strongest || record == latest) stale = true;
+        }
+
+        void publish() {
+            if (stale) {
+                strongest = null;
+                latest = null;
+                stale = false;
+                List<EarthquakeRecordDTO> all = new ArrayList<>(members.values());
+                members.clear();
+                all.forEach(this::add);
+            }
+            published = new RegionStatisticsDTO(PlaceNames.regionName(code), members.size(), strongest, latest);
+        }
+    }
+}
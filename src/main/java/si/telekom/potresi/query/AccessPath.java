@@ -0,0 +1,15 @@
+package si.telekom.potresi.query;
+
+/**
+ * Ways the query executor can produce candidate rows from an {@link IndexSnapshot}.
+ */
+public enum AccessPath {
+    /** Every event, newest first. */
+    FULL_SCAN,
+    /** Binary-searched range of the time-sorted order, newest first. */
+    TIME_INDEX,
+    /** Grid cells overlapping the spatial filter. */
+    SPATIAL_INDEX,
+    /** Binary-searched range of the magnitude-sorted order. */
+    MAGNITUDE_INDEX
+}
@@ -0,0 +1,59 @@
+package si.telekom.potresi.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.service.IngestionBatch;
+import si.telekom.potresi.service.IngestionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the events of the ingestion window indexed for {@link EventQueryService}.
+ * Every ingestion batch produces a new {@link IndexSnapshot}; queries read the current one without locking.
+ */
+@Component
+public class EventIndex implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EventIndex.class);
+
+    private final IngestionConfig ingestionConfig;
+    private final Map<String, EarthquakeRecordDTO> events = new HashMap<>();
+
+    private volatile IndexSnapshot snapshot = IndexSnapshot.EMPTY;
+
+    public EventIndex(IngestionConfig ingestionConfig) {
+        this.ingestionConfig = ingestionConfig;
+    }
+
+    @Override
+    public synchronized void onIngested(IngestionBatch batch) {
+        batch.added().forEach(r -> events.put(r.getId(), r));
+        batch.revised().forEach(r -> events.put(r.getId(), r));
+        batch.deleted().forEach(events::remove);
+
+        Instant cutoff = Instant.now().minus(Duration.ofDays(ingestionConfig.getWindowDays()));
+        events.values().removeIf(r -> r.getTime() != null && r.getTime().isBefore(cutoff));
+
+        long start = System.nanoTime();
+        snapshot = IndexSnapshot.build(batch.epoch(), events.values());
+        log.info("Indexed {} event(s) for epoch {} in {} ms.", snapshot.size(), batch.epoch(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    IndexSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Ingestion epoch of the indexed data.
+     */
+    public long getEpoch() {
+        return snapshot.epoch();
+    }
+}
@@ -0,0 +1,170 @@
+package si.telekom.potresi.query;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * A conjunction of optional event predicates. Null fields are not constrained.
+ * A spatial filter is either a bounding box or a radius around a point, not both.
+ * A bounding box with {@code minLongitude > maxLongitude} crosses the antimeridian.
+ *
+ * @param from         earliest origin time (inclusive)
+ * @param to           latest origin time (exclusive)
+ * @param minMagnitude lowest magnitude (inclusive); unrated events never match a magnitude filter
+ * @param maxMagnitude highest magnitude (inclusive)
+ * @param minDepth     smallest depth in km (inclusive)
+ * @param maxDepth     largest depth in km (inclusive)
+ * @param minLatitude  southern edge of the bounding box
+ * @param maxLatitude  northern edge of the bounding box
+ * @param minLongitude western edge of the bounding box
+ * @param maxLongitude eastern edge of the bounding box
+ * @param latitude     centre of the radius filter
+ * @param longitude    centre of the radius filter
+ * @param radiusKm     radius around the centre in km
+ * @param place        case-insensitive text the place description must contain
+ * @param limit        maximum number of events returned
+ */
+public record EventQuery(Instant from, Instant to,
+                         Double minMagnitude, Double maxMagnitude,
+                         Double minDepth, Double maxDepth,
+                         Double minLatitude, Double maxLatitude, Double minLongitude, Double maxLongitude,
+                         Double latitude, Double longitude, Double radiusKm,
+                         String place, int limit) {
+
+    public static final int MAX_LIMIT = 1000;
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    public EventQuery {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+        if (minMagnitude != null && maxMagnitude != null && minMagnitude > maxMagnitude) {
+            throw new IllegalArgumentException("Invalid magnitude range.");
+        }
+        if (minDepth != null && maxDepth != null && minDepth > maxDepth) {
+            throw new IllegalArgumentException("Invalid depth range.");
+        }
+
+        boolean anyBox = minLatitude != null || maxLatitude != null || minLongitude != null || maxLongitude != null;
+        boolean fullBox = minLatitude != null && maxLatitude != null && minLongitude != null && maxLongitude != null;
+        boolean anyRadius = latitude != null || longitude != null || radiusKm != null;
+        boolean fullRadius = latitude != null && longitude != null && radiusKm != null;
+        if ((anyBox && !fullBox) || (anyRadius && !fullRadius) || (fullBox && fullRadius)) {
+            throw new IllegalArgumentException("Use either a complete bounding box or a complete radius filter.");
+        }
+        if (fullBox && (!isLatitude(minLatitude) || !isLatitude(maxLatitude) || minLatitude > maxLatitude
+                || !isLongitude(minLongitude) || !isLongitude(maxLongitude))) {
+            throw new IllegalArgumentException("Invalid bounding box.");
+        }
+        if (fullRadius && (!isLatitude(latitude) || !isLongitude(longitude) || !(radiusKm > 0))) {
+            throw new IllegalArgumentException("Invalid radius filter.");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Invalid limit.");
+        }
+
+        place = place == null || place.isBlank() ? null : place.strip().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean hasTimeFilter() {
+        return from != null || to != null;
+    }
+
+    public boolean hasMagnitudeFilter() {
+        return minMagnitude != null || maxMagnitude != null;
+    }
+
+    public boolean hasSpatialFilter() {
+        return minLatitude != null || radiusKm != null;
+    }
+
+    /**
+     * Bounding box that contains every point the spatial filter can match, as
+     * {@code {minLat, maxLat, minLon, maxLon}}; longitudes wrap when {@code minLon > maxLon}.
+     */
+    double[] boundingBox() {
+        if (minLatitude != null) {
+            return new double[]{minLatitude, maxLatitude, minLongitude, maxLongitude};
+        }
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double south = latitude - dLat;
+        double north = latitude + dLat;
+        if (south <= -90 || north >= 90) {
+            return new double[]{Math.max(south, -90), Math.min(north, 90), -180, 180};
+        }
+        double dLon = dLat / Math.cos(Math.toRadians(Math.max(Math.abs(south), Math.abs(north))));
+        if (dLon >= 180) {
+            return new double[]{south, north, -180, 180};
+        }
+        return new double[]{south, north, wrapLongitude(longitude - dLon), wrapLongitude(longitude + dLon)};
+    }
+
+    /**
+     * Evaluates every predicate against a record.
+     */
+    public boolean matches(EarthquakeRecordDTO record) {
+        if (hasTimeFilter()) {
+            Instant time = record.getTime();
+            if (time == null) return false;
+            if (from != null && time.isBefore(from)) return false;
+            if (to != null && !time.isBefore(to)) return false;
+        }
+        if (hasMagnitudeFilter()) {
+            Double magnitude = record.getMagnitude();
+            if (magnitude == null) return false;
+            if (minMagnitude != null && magnitude < minMagnitude) return false;
+            if (maxMagnitude != null && magnitude > maxMagnitude) return false;
+        }
+        if (minDepth != null && record.getDepth() < minDepth) return false;
+        if (maxDepth != null && record.getDepth() > maxDepth) return false;
+
+        if (hasSpatialFilter()) {
+            if (record.getLocation() == null) return false;
+            double lat = record.getLocation().getLatitude();
+            double lon = record.getLocation().getLongitude();
+            if (minLatitude != null) {
+                if (lat < minLatitude || lat > maxLatitude) return false;
+                boolean inLongitude = minLongitude <= maxLongitude
+                        ? lon >= minLongitude && lon <= maxLongitude
+                        : lon >= minLongitude || lon <= maxLongitude;
+                if (!inLongitude) return false;
+            } else if (distanceKm(latitude, longitude, lat, lon) > radiusKm) {
+                return false;
+            }
+        }
+        if (place != null) {
+            String nearestPlace = record.getNearestPlace();
+            if (nearestPlace == null || !nearestPlace.toLowerCase(Locale.ROOT).contains(place)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Great-circle distance between two points using the haversine formula.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double wrapLongitude(double lon) {
+        if (lon < -180) return lon + 360;
+        if (lon > 180) return lon - 360;
+        return lon;
+    }
+
+    private static boolean isLatitude(double value) {
+        return value >= -90 && value <= 90;
+    }
+
+    private static boolean isLongitude(double value) {
+        return value >= -180 && value <= 180;
+    }
+}
@@ -0,0 +1,81 @@
+package si.telekom.potresi.query;
+
+import org.springframework.stereotype.Service;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.QueryResultDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * Plans and executes {@link EventQuery}s against the current {@link IndexSnapshot}.
+ * The chosen access path produces candidate rows; all predicates are then checked on each candidate.
+ */
+@Service
+public class EventQueryService {
+
+    private static final Comparator<EarthquakeRecordDTO> NEWEST_FIRST =
+            Comparator.comparing(EarthquakeRecordDTO::getTime, Comparator.nullsFirst(Comparator.<Instant>naturalOrder())).reversed();
+
+    private final EventIndex eventIndex;
+
+    public EventQueryService(EventIndex eventIndex) {
+        this.eventIndex = eventIndex;
+    }
+
+    /**
+     * Runs the query and returns matching events, newest first, with the plan and execution statistics.
+     */
+    public QueryResultDTO search(EventQuery query) {
+        return search(query, eventIndex.snapshot());
+    }
+
+    QueryResultDTO search(EventQuery query, IndexSnapshot snapshot) {
+        long start = System.nanoTime();
+        QueryPlan plan = QueryPlanner.plan(query, snapshot);
+
+        List<EarthquakeRecordDTO> matches = new ArrayList<>();
+        int scanned = 0;
+
+        if (QueryPlanner.isTimeOrdered(plan.accessPath())) {
+            int[] range = plan.accessPath() == AccessPath.TIME_INDEX
+                    ? snapshot.timeRange(query.from(), query.to())
+                    : new int[]{0, snapshot.size()};
+            for (int position = range[1] - 1; position >= range[0] && matches.size() < query.limit(); position--) {
+                scanned++;
+                EarthquakeRecordDTO record = snapshot.event(snapshot.timeOrder(position));
+                if (query.matches(record)) matches.add(record);
+            }
+        } else {
+            PrimitiveIterator.OfInt rows = plan.accessPath() == AccessPath.SPATIAL_INDEX
+                    ? snapshot.spatialCandidates(query.boundingBox()).iterator()
+                    : magnitudeCandidates(snapshot, query);
+            while (rows.hasNext()) {
+                scanned++;
+                EarthquakeRecordDTO record = snapshot.event(rows.nextInt());
+                if (query.matches(record)) matches.add(record);
+            }
+            matches.sort(NEWEST_FIRST);
+            if (matches.size() > query.limit()) {
+                matches = new ArrayList<>(matches.subList(0, query.limit()));
+            }
+        }
+
+        Map<String, Integer> estimates = new LinkedHashMap<>();
+        plan.estimates().forEach((path, rows) -> estimates.put(path.name(), rows));
+
+        return new QueryResultDTO(plan.accessPath().name(), estimates, scanned,
+                (System.nanoTime() - start) / 1_000, snapshot.epoch(), List.copyOf(matches));
+    }
+
+    private static PrimitiveIterator.OfInt magnitudeCandidates(IndexSnapshot snapshot, EventQuery query) {
+        int[] range = snapshot.magnitudeRange(query.minMagnitude(), query.maxMagnitude());
+        return IntStream.range(range[0], range[1]).map(snapshot::magnitudeOrder).iterator();
+    }
+}
@@ -0,0 +1,223 @@
+package si.telekom.potresi.query;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable set of events with three secondary indexes: rows sorted by origin time,
+ * rated rows sorted by magnitude, and a one-degree latitude/longitude grid.
+ * Built once per ingestion epoch and shared by all concurrent queries.
+ */
+final class IndexSnapshot {
+
+    static final IndexSnapshot EMPTY = build(0, List.of());
+
+    private static final int LAT_CELLS = 180;
+    private static final int LON_CELLS = 360;
+
+    private final long epoch;
+    private final EarthquakeRecordDTO[] events;
+
+    private final int[] byTime;
+    private final long[] sortedTimes;
+
+    private final int[] byMagnitude;
+    private final double[] sortedMagnitudes;
+
+    private final int[] cellOffsets;
+    private final int[] cellRows;
+
+    private IndexSnapshot(long epoch, EarthquakeRecordDTO[] events, int[] byTime, long[] sortedTimes,
+                          int[] byMagnitude, double[] sortedMagnitudes, int[] cellOffsets, int[] cellRows) {
+        this.epoch = epoch;
+        this.events = events;
+        this.byTime = byTime;
+        this.sortedTimes = sortedTimes;
+        this.byMagnitude = byMagnitude;
+        this.sortedMagnitudes = sortedMagnitudes;
+        this.cellOffsets = cellOffsets;
+        this.cellRows = cellRows;
+    }
+
+    static IndexSnapshot build(long epoch, Collection<EarthquakeRecordDTO> records) {
+        EarthquakeRecordDTO[] events = records.toArray(EarthquakeRecordDTO[]::new);
+        int n = events.length;
+
+        long[] times = new long[n];
+        for (int i = 0; i < n; i++) {
+            Instant time = events[i].getTime();
+            times[i] = time == null ? Long.MIN_VALUE : time.toEpochMilli();
+        }
+        int[] byTime = sortedBy(n, Comparator.comparingLong(i -> times[i]));
+        long[] sortedTimes = new long[n];
+        for (int i = 0; i < n; i++) {
+            sortedTimes[i] = times[byTime[i]];
+        }
+
+        int[] byMagnitude = sortedBy(n, Comparator.comparingDouble(i -> events[i].getMagnitude()),
+                i -> events[i].getMagnitude() != null);
+        double[] sortedMagnitudes = new double[byMagnitude.length];
+        for (int i = 0; i < byMagnitude.length; i++) {
+            sortedMagnitudes[i] = events[byMagnitude[i]].getMagnitude();
+        }
+
+        // Counting sort of rows into grid cells (CSR layout); rows without a location are left out
+        int[] cellOf = new int[n];
+        int[] cellOffsets = new int[LAT_CELLS * LON_CELLS + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = events[i].getLocation() == null ? -1
+                    : cell(latRow(events[i].getLocation().getLatitude()), lonColumn(events[i].getLocation().getLongitude()));
+            if (cellOf[i] >= 0) cellOffsets[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < LAT_CELLS * LON_CELLS; c++) {
+            cellOffsets[c + 1] += cellOffsets[c];
+        }
+        int[] cellRows = new int[cellOffsets[LAT_CELLS * LON_CELLS]];
+        int[] fill = Arrays.copyOf(cellOffsets, cellOffsets.length - 1);
+        for (int i = 0; i < n; i++) {
+            if (cellOf[i] >= 0) cellRows[fill[cellOf[i]]++] = i;
+        }
+
+        return new IndexSnapshot(epoch, events, byTime, sortedTimes, byMagnitude, sortedMagnitudes, cellOffsets, cellRows);
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    int size() {
+        return events.length;
+    }
+
+    EarthquakeRecordDTO event(int row) {
+        return events[row];
+    }
+
+    /**
+     * Positions {@code [start, end)} in {@link #timeOrder(int)} of events with origin time in [from, to).
+     */
+    int[] timeRange(Instant from, Instant to) {
+        int start = from == null ? lowerBound(sortedTimes, Long.MIN_VALUE + 1) : lowerBound(sortedTimes, from.toEpochMilli());
+        int end = to == null ? sortedTimes.length : lowerBound(sortedTimes, to.toEpochMilli());
+        return new int[]{start, Math.max(start, end)};
+    }
+
+    /**
+     * Row at the given position of the oldest-first time order.
+     */
+    int timeOrder(int position) {
+        return byTime[position];
+    }
+
+    /**
+     * Positions {@code [start, end)} in {@link #magnitudeOrder(int)} of events with magnitude in [min, max].
+     */
+    int[] magnitudeRange(Double min, Double max) {
+        int start = min == null ? 0 : lowerBound(sortedMagnitudes, min);
+        int end = max == null ? sortedMagnitudes.length : upperBound(sortedMagnitudes, max);
+        return new int[]{start, Math.max(start, end)};
+    }
+
+    int magnitudeOrder(int position) {
+        return byMagnitude[position];
+    }
+
+    /**
+     * Number of rows in the grid cells that overlap the box; an upper bound of the rows inside it.
+     */
+    int spatialEstimate(double[] box) {
+        int total = 0;
+        for (int[] span : cellSpans(box)) {
+            for (int latRow = span[0]; latRow <= span[1]; latRow++) {
+                total += cellOffsets[cell(latRow, span[3]) + 1] - cellOffsets[cell(latRow, span[2])];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Rows in the grid cells that overlap the box.
+     */
+    IntStream spatialCandidates(double[] box) {
+        IntStream.Builder rows = IntStream.builder();
+        for (int[] span : cellSpans(box)) {
+            for (int latRow = span[0]; latRow <= span[1]; latRow++) {
+                int from = cellOffsets[cell(latRow, span[2])];
+                int to = cellOffsets[cell(latRow, span[3]) + 1];
+                for (int i = from; i < to; i++) {
+                    rows.add(cellRows[i]);
+                }
+            }
+        }
+        return rows.build();
+    }
+
+    /**
+     * Splits the box into {@code {latRowFrom, latRowTo, lonColFrom, lonColTo}} spans; a box crossing the
+     * antimeridian becomes two spans. Cells within one latitude row are contiguous in the CSR layout.
+     */
+    private static int[][] cellSpans(double[] box) {
+        int south = latRow(box[0]);
+        int north = latRow(box[1]);
+        int west = lonColumn(box[2]);
+        int east = lonColumn(box[3]);
+        if (box[2] <= box[3]) {
+            return new int[][]{{south, north, west, east}};
+        }
+        return new int[][]{{south, north, west, LON_CELLS - 1}, {south, north, 0, east}};
+    }
+
+    private static int cell(int latRow, int lonColumn) {
+        return latRow * LON_CELLS + lonColumn;
+    }
+
+    private static int latRow(double latitude) {
+        return Math.clamp((long) Math.floor(latitude + 90), 0, LAT_CELLS - 1);
+    }
+
+    private static int lonColumn(double longitude) {
+        return Math.clamp((long) Math.floor(longitude + 180), 0, LON_CELLS - 1);
+    }
+
+    private static int[] sortedBy(int n, Comparator<Integer> order) {
+        return sortedBy(n, order, i -> true);
+    }
+
+    private static int[] sortedBy(int n, Comparator<Integer> order, IntPredicate include) {
+        return IntStream.range(0, n).filter(include).boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int lowerBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
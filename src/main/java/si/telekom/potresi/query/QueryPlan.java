@@ -0,0 +1,16 @@
+package si.telekom.potresi.query;
+
+import java.util.Map;
+
+/**
+ * The access path chosen for a query and the candidate row estimates it was chosen from.
+ *
+ * @param accessPath the cheapest access path
+ * @param estimates  estimated candidate rows per considered access path
+ */
+public record QueryPlan(AccessPath accessPath, Map<AccessPath, Integer> estimates) {
+
+    public int estimatedRows() {
+        return estimates.get(accessPath);
+    }
+}
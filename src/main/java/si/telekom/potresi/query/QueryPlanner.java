@@ -0,0 +1,63 @@
+package si.telekom.potresi.query;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Picks the cheapest access path for a query from index statistics.
+ * <p>
+ * Each indexed predicate is turned into a candidate count by the index itself (binary search on
+ * the sorted orders, cell counts on the grid). The cost of a path is the number of rows it is expected
+ * to read. Paths that produce rows newest first (time index, full scan) stop after {@code limit}
+ * matches, so their cost is capped at {@code limit} divided by the combined selectivity of the
+ * remaining predicates, assuming the predicates are independent.
+ */
+final class QueryPlanner {
+
+    private QueryPlanner() {}
+
+    static QueryPlan plan(EventQuery query, IndexSnapshot snapshot) {
+        int n = snapshot.size();
+
+        Map<AccessPath, Integer> candidates = new EnumMap<>(AccessPath.class);
+        candidates.put(AccessPath.FULL_SCAN, n);
+        if (query.hasTimeFilter()) {
+            int[] range = snapshot.timeRange(query.from(), query.to());
+            candidates.put(AccessPath.TIME_INDEX, range[1] - range[0]);
+        }
+        if (query.hasSpatialFilter()) {
+            candidates.put(AccessPath.SPATIAL_INDEX, snapshot.spatialEstimate(query.boundingBox()));
+        }
+        if (query.hasMagnitudeFilter()) {
+            int[] range = snapshot.magnitudeRange(query.minMagnitude(), query.maxMagnitude());
+            candidates.put(AccessPath.MAGNITUDE_INDEX, range[1] - range[0]);
+        }
+
+        Map<AccessPath, Integer> costs = new EnumMap<>(AccessPath.class);
+        AccessPath best = AccessPath.FULL_SCAN;
+        for (Map.Entry<AccessPath, Integer> entry : candidates.entrySet()) {
+            AccessPath path = entry.getKey();
+            int cost = entry.getValue();
+            if (isTimeOrdered(path) && n > 0) {
+                double residualSelectivity = 1.0;
+                for (Map.Entry<AccessPath, Integer> other : candidates.entrySet()) {
+                    if (other.getKey() != path && other.getKey() != AccessPath.FULL_SCAN) {
+                        residualSelectivity *= (double) other.getValue() / n;
+                    }
+                }
+                if (residualSelectivity > 0) {
+                    cost = (int) Math.min(cost, Math.ceil(query.limit() / residualSelectivity));
+                }
+            }
+            costs.put(path, cost);
+            if (cost < costs.get(best)) {
+                best = path;
+            }
+        }
+        return new QueryPlan(best, costs);
+    }
+
+    static boolean isTimeOrdered(AccessPath path) {
+        return path == AccessPath.FULL_SCAN || path == AccessPath.TIME_INDEX;
+    }
+}
@@ -0,0 +1,225 @@
+package si.telekom.potresi.query;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.QueryCacheConfig;
+import si.telekom.potresi.dto.QueryResultDTO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches search results in front of {@link EventQueryService}.
+ * <p>
+ * Keys are a normalized form of the query: time and magnitude bounds are replaced by the positions they
+ * resolve to in the snapshot's sorted indexes, so e.g. "last 7 days" asked a second later hits the same
+ * entry unless an event crossed the boundary. Positions are only meaningful within one snapshot, and
+ * results only change when new data is ingested, so the whole cache is dropped when the ingestion epoch
+ * advances instead of expiring entries on a timer.
+ * <p>
+ * Capacity is bounded by the estimated retained size of the entries, evicting least recently used first.
+ * Hits and misses are counted per query shape (the set of predicates used).
+ */
+@Component
+public class QueryResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryResultCache.class);
+
+    /** Rough size of the entry, DTO, estimates map and map node, excluding the key and events. */
+    static final long ENTRY_OVERHEAD_BYTES = 512;
+    /** Records are shared with the index snapshot; an entry only holds a reference and a list slot per event. */
+    static final long BYTES_PER_EVENT = 16;
+
+    private final EventQueryService eventQueryService;
+    private final EventIndex eventIndex;
+    private final QueryCacheConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private long epoch = -1;
+    private long usedBytes;
+
+    public QueryResultCache(EventQueryService eventQueryService, EventIndex eventIndex,
+                            QueryCacheConfig config, MeterRegistry meterRegistry) {
+        this.eventQueryService = eventQueryService;
+        this.eventIndex = eventIndex;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("earthquake.query.cache.bytes", this, QueryResultCache::getUsedBytes)
+                .description("Estimated memory held by cached search results")
+                .register(meterRegistry);
+        Gauge.builder("earthquake.query.cache.entries", this, QueryResultCache::size)
+                .description("Cached search results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result for an equivalent query on the current data, or runs the query and caches it.
+     */
+    public QueryResultDTO search(EventQuery query) {
+        if (!config.isEnabled()) {
+            return eventQueryService.search(query);
+        }
+
+        long start = System.nanoTime();
+        IndexSnapshot snapshot = eventIndex.snapshot();
+        String key = normalize(query, snapshot);
+        ShapeStats stats = shapes.computeIfAbsent(shapeOf(query), ShapeStats::new);
+
+        Entry entry;
+        synchronized (this) {
+            advanceTo(snapshot.epoch());
+            entry = snapshot.epoch() == epoch ? entries.get(key) : null;
+        }
+
+        if (entry != null) {
+            stats.hit();
+            QueryResultDTO cached = entry.result;
+            QueryResultDTO result = new QueryResultDTO(cached.getPlan(), cached.getEstimatedRows(), cached.getRowsScanned(),
+                    (System.nanoTime() - start) / 1_000, cached.getEpoch(), cached.getEvents());
+            result.setCached(true);
+            return result;
+        }
+
+        stats.miss();
+        QueryResultDTO result = eventQueryService.search(query, snapshot);
+        put(key, snapshot.epoch(), new Entry(result, estimateBytes(key, result)));
+        return result;
+    }
+
+    private synchronized void put(String key, long resultEpoch, Entry entry) {
+        if (resultEpoch != epoch || entry.bytes > config.getMaxBytes()) return;
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) usedBytes -= previous.bytes;
+        usedBytes += entry.bytes;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > config.getMaxBytes() && eldest.hasNext()) {
+            usedBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private void advanceTo(long snapshotEpoch) {
+        if (snapshotEpoch > epoch) {
+            if (!entries.isEmpty()) {
+                log.debug("Ingestion epoch advanced to {}, dropping {} cached result(s).", snapshotEpoch, entries.size());
+            }
+            entries.clear();
+            usedBytes = 0;
+            epoch = snapshotEpoch;
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Hit ratio of a query shape, or NaN if the shape was never seen.
+     */
+    public double getHitRatio(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        return stats == null ? Double.NaN : stats.ratio();
+    }
+
+    /**
+     * Canonical key of the query within the given snapshot.
+     */
+    static String normalize(EventQuery query, IndexSnapshot snapshot) {
+        StringBuilder key = new StringBuilder(64);
+        if (query.hasTimeFilter()) {
+            int[] range = snapshot.timeRange(query.from(), query.to());
+            key.append("t").append(range[0]).append(':').append(range[1]);
+        }
+        if (query.hasMagnitudeFilter()) {
+            int[] range = snapshot.magnitudeRange(query.minMagnitude(), query.maxMagnitude());
+            key.append("|m").append(range[0]).append(':').append(range[1]);
+        }
+        if (query.minDepth() != null || query.maxDepth() != null) {
+            key.append("|d").append(query.minDepth()).append(':').append(query.maxDepth());
+        }
+        if (query.minLatitude() != null) {
+            key.append("|b").append(query.minLatitude()).append(':').append(query.maxLatitude())
+                    .append(':').append(query.minLongitude()).append(':').append(query.maxLongitude());
+        }
+        if (query.radiusKm() != null) {
+            key.append("|r").append(query.latitude()).append(':').append(query.longitude()).append(':').append(query.radiusKm());
+        }
+        if (query.place() != null) {
+            key.append("|p").append(query.place());
+        }
+        return key.append("|l").append(query.limit()).toString();
+    }
+
+    /**
+     * Predicates used by the query, e.g. {@code time+magnitude+box}; {@code all} if unfiltered.
+     */
+    static String shapeOf(EventQuery query) {
+        List<String> parts = new ArrayList<>(6);
+        if (query.hasTimeFilter()) parts.add("time");
+        if (query.hasMagnitudeFilter()) parts.add("magnitude");
+        if (query.minDepth() != null || query.maxDepth() != null) parts.add("depth");
+        if (query.minLatitude() != null) parts.add("box");
+        if (query.radiusKm() != null) parts.add("radius");
+        if (query.place() != null) parts.add("place");
+        return parts.isEmpty() ? "all" : String.join("+", parts);
+    }
+
+    static long estimateBytes(String key, QueryResultDTO result) {
+        return ENTRY_OVERHEAD_BYTES + 2L * key.length() + BYTES_PER_EVENT * result.getEvents().size();
+    }
+
+    private record Entry(QueryResultDTO result, long bytes) {}
+
+    private final class ShapeStats {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final Counter hitCounter;
+        private final Counter missCounter;
+
+        ShapeStats(String shape) {
+            this.hitCounter = Counter.builder("earthquake.query.cache.requests")
+                    .tag("shape", shape).tag("result", "hit").register(meterRegistry);
+            this.missCounter = Counter.builder("earthquake.query.cache.requests")
+                    .tag("shape", shape).tag("result", "miss").register(meterRegistry);
+            Gauge.builder("earthquake.query.cache.hit.ratio", this, ShapeStats::ratio)
+                    .description("Share of searches of this shape answered from the cache")
+                    .tag("shape", shape)
+                    .register(meterRegistry);
+        }
+
+        void hit() {
+            hits.increment();
+            hitCounter.increment();
+        }
+
+        void miss() {
+            misses.increment();
+            missCounter.increment();
+        }
+
+        double ratio() {
+            long h = hits.sum();
+            long total = h + misses.sum();
+            return total == 0 ? Double.NaN : (double) h / total;
+        }
+    }
+}
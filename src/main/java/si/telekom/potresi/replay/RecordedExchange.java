@@ -0,0 +1,139 @@
+package si.telekom.potresi.replay;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One recorded upstream response, stored as a file laid out like an HTTP message:
+ * <pre>
+ * GET https://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/all_hour.geojson
+ * Recorded-At: 2024-05-01T10:00:00.123Z
+ * Latency: PT0.143S
+ * HTTP/1.1 200 OK
+ * Content-Type: application/json
+ *
+ * {"type":"FeatureCollection",...
+ * </pre>
+ * The first line is the request as matched during replay, see {@link #request}. Latency runs from sending the
+ * request to reading the last byte of the body. The body is stored as received after content decoding; headers
+ * that describe the transfer rather than the content are not recorded.
+ */
+record RecordedExchange(Path file, String request, Instant recordedAt, Duration latency,
+                        int status, String statusText, HttpHeaders headers, long bodyOffset) {
+
+    private static final Set<String> UNRECORDED_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "keep-alive", "set-cookie");
+
+    /**
+     * Request line a call is recorded and matched under: method and URI without the ignored query parameters.
+     */
+    static String request(HttpMethod method, URI uri, Collection<String> ignoredParameters) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUri(uri);
+        for (String parameter : ignoredParameters) {
+            builder.replaceQueryParam(parameter);
+        }
+        return method.name() + " " + builder.build(true).toUriString();
+    }
+
+    /**
+     * Writes a recording; the file appears complete or not at all.
+     */
+    static void write(Path file, String request, Instant recordedAt, Duration latency, int status, String statusText,
+                      HttpHeaders headers, byte[] body) throws IOException {
+        StringBuilder head = new StringBuilder()
+                .append(request).append('\n')
+                .append("Recorded-At: ").append(recordedAt).append('\n')
+                .append("Latency: ").append(latency).append('\n')
+                .append("HTTP/1.1 ").append(status).append(' ').append(statusText).append('\n');
+        for (Map.Entry<String, List<String>> header : headers.headerSet()) {
+            if (UNRECORDED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) continue;
+            for (String value : header.getValue()) {
+                head.append(header.getKey()).append(": ").append(value).append('\n');
+            }
+        }
+        head.append('\n');
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(body);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads everything but the body of a recording.
+     */
+    static RecordedExchange read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            long[] offset = {0};
+            String request = readLine(in, offset);
+            Instant recordedAt = Instant.parse(value(readLine(in, offset), "Recorded-At", file));
+            Duration latency = Duration.parse(value(readLine(in, offset), "Latency", file));
+
+            String statusLine = readLine(in, offset);
+            String[] status = statusLine.split(" ", 3);
+            if (status.length < 2 || !status[0].startsWith("HTTP/")) {
+                throw new IOException("Invalid status line in " + file + ": " + statusLine);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            for (String line; !(line = readLine(in, offset)).isEmpty(); ) {
+                int colon = line.indexOf(": ");
+                if (colon <= 0) throw new IOException("Invalid header in " + file + ": " + line);
+                headers.add(line.substring(0, colon), line.substring(colon + 2));
+            }
+            return new RecordedExchange(file, request, recordedAt, latency, Integer.parseInt(status[1]),
+                    status.length > 2 ? status[2] : "", HttpHeaders.readOnlyHttpHeaders(headers), offset[0]);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid recording " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    long bodyLength() throws IOException {
+        return Files.size(file) - bodyOffset;
+    }
+
+    InputStream openBody() throws IOException {
+        InputStream in = Files.newInputStream(file);
+        in.skipNBytes(bodyOffset);
+        return in;
+    }
+
+    private static String value(String line, String name, Path file) throws IOException {
+        if (!line.startsWith(name + ": ")) {
+            throw new IOException("Expected " + name + " in " + file + ", found: " + line);
+        }
+        return line.substring(name.length() + 2);
+    }
+
+    private static String readLine(InputStream in, long[] offset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        for (int b; (b = in.read()) != '\n'; ) {
+            if (b < 0) throw new EOFException("Recording ends inside its head");
+            line.write(b);
+        }
+        offset[0] += line.size() + 1;
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package si.telekom.potresi.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Saves every upstream response to the replay directory as a {@link RecordedExchange}, numbered in the order the
+ * responses completed. Added last to the shared RestTemplate, so it sees the call as it went over the wire.
+ * The body is read in full before it is handed on, which is what RestTemplate does with these responses anyway.
+ * Calls that fail without a response are not recorded.
+ */
+public class RecordingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordingInterceptor.class);
+
+    private final Path directory;
+    private final List<String> ignoredParameters;
+    private final AtomicLong sequence;
+
+    public RecordingInterceptor(Path directory, List<String> ignoredParameters) {
+        this.directory = directory;
+        this.ignoredParameters = List.copyOf(ignoredParameters);
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                this.sequence = new AtomicLong(files.filter(f -> f.getFileName().toString().endsWith(".http")).count());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open replay directory " + directory, e);
+        }
+        log.info("Recording upstream responses to {}.", directory);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Instant recordedAt = Instant.now();
+        long started = System.nanoTime();
+        byte[] content;
+        HttpStatusCode status;
+        String statusText;
+        HttpHeaders headers;
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+            status = response.getStatusCode();
+            statusText = response.getStatusText();
+            headers = response.getHeaders();
+            try (InputStream in = response.getBody()) {
+                content = in.readAllBytes();
+            }
+        }
+        Duration latency = Duration.ofNanos(System.nanoTime() - started);
+
+        String line = RecordedExchange.request(request.getMethod(), request.getURI(), ignoredParameters);
+        Path file = directory.resolve(String.format("%06d-%s.http", sequence.incrementAndGet(), request.getURI().getHost()));
+        try {
+            RecordedExchange.write(file, line, recordedAt, latency, status.value(), statusText, headers, content);
+            log.debug("Recorded {} ({} bytes, {} ms) to {}", line, content.length, latency.toMillis(), file.getFileName());
+        } catch (IOException e) {
+            // The call itself succeeded; a full disk must not turn it into a failure
+            log.warn("Could not record {}: {}", line, e.getMessage());
+        }
+        return new BufferedResponse(status, statusText, headers, content);
+    }
+
+    private record BufferedResponse(HttpStatusCode status, String statusText, HttpHeaders headers, byte[] content)
+            implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusText;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
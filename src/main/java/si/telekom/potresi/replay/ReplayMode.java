@@ -0,0 +1,16 @@
+package si.telekom.potresi.replay;
+
+/**
+ * What the shared RestTemplate does with upstream calls.
+ */
+public enum ReplayMode {
+
+    /** Calls go to the upstream APIs. */
+    OFF,
+
+    /** Calls go to the upstream APIs and every response is saved to the replay directory. */
+    RECORD,
+
+    /** Calls are answered from the replay directory; nothing goes over the network. */
+    REPLAY
+}
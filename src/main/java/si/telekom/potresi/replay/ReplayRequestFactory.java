@@ -0,0 +1,207 @@
+package si.telekom.potresi.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import si.telekom.potresi.deadline.Deadline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Answers the shared RestTemplate's calls from a directory written by {@link RecordingInterceptor}, in place of
+ * the HTTP client; the interceptors, error handling and everything above the RestTemplate run as in production.
+ * <p>
+ * Timing follows the recording, scaled by the replay speed. The replay clock starts with the first call: a call
+ * made {@code t} after it gets the latest response recorded for its request no later than {@code t * speed} after
+ * the first recorded response, or the earliest one before that. It is answered after the recorded latency divided
+ * by the speed. A latency beyond the read timeout or the current {@link Deadline} ends in a
+ * {@link SocketTimeoutException} once that has passed, as a slow upstream would. Calls without a recording fail
+ * with an {@link IOException}.
+ */
+public class ReplayRequestFactory implements ClientHttpRequestFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayRequestFactory.class);
+
+    private final Map<String, List<RecordedExchange>> recordings = new HashMap<>();
+    private final List<String> ignoredParameters;
+    private final double speed;
+    private final Duration readTimeout;
+    private final Instant recordingStart;
+    private final AtomicLong replayStart = new AtomicLong();
+
+    public ReplayRequestFactory(Path directory, double speed, List<String> ignoredParameters, Duration readTimeout) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive, was " + speed);
+        }
+        this.speed = speed;
+        this.ignoredParameters = List.copyOf(ignoredParameters);
+        this.readTimeout = readTimeout;
+
+        Instant earliest = null;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".http")).toList()) {
+                RecordedExchange exchange = RecordedExchange.read(file);
+                recordings.computeIfAbsent(exchange.request(), r -> new ArrayList<>()).add(exchange);
+                if (earliest == null || exchange.recordedAt().isBefore(earliest)) {
+                    earliest = exchange.recordedAt();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read replay directory " + directory, e);
+        }
+        recordings.values().forEach(list -> list.sort(Comparator.comparing(RecordedExchange::recordedAt)));
+        this.recordingStart = earliest;
+
+        log.info("Replaying {} recorded response(s) to {} request(s) from {} at {}x speed.",
+                recordings.values().stream().mapToInt(List::size).sum(), recordings.size(), directory, speed);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new ReplayRequest(uri, httpMethod);
+    }
+
+    /**
+     * The recording that answers a request made now, or null if the request was never recorded.
+     */
+    RecordedExchange select(String request) {
+        List<RecordedExchange> exchanges = recordings.get(request);
+        if (exchanges == null) return null;
+
+        replayStart.compareAndSet(0, System.nanoTime());
+        long elapsedNanos = (long) ((System.nanoTime() - replayStart.get()) * speed);
+        Instant now = recordingStart.plusNanos(elapsedNanos);
+        RecordedExchange selected = exchanges.getFirst();
+        for (RecordedExchange exchange : exchanges) {
+            if (exchange.recordedAt().isAfter(now)) break;
+            selected = exchange;
+        }
+        return selected;
+    }
+
+    private ClientHttpResponse respond(HttpMethod method, URI uri) throws IOException {
+        String request = RecordedExchange.request(method, uri, ignoredParameters);
+        RecordedExchange exchange = select(request);
+        if (exchange == null) {
+            throw new IOException("No recorded response to " + request);
+        }
+
+        Duration latency = Duration.ofNanos((long) (exchange.latency().toNanos() / speed));
+        Deadline deadline = Deadline.current();
+        Duration timeout = deadline != null ? deadline.limit(readTimeout) : readTimeout;
+        try {
+            if (latency.compareTo(timeout) > 0) {
+                Thread.sleep(timeout);
+                throw new SocketTimeoutException("Read timed out");
+            }
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while replaying " + request);
+        }
+        return new ReplayResponse(exchange);
+    }
+
+    private final class ReplayRequest extends AbstractClientHttpRequest {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        ReplayRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            return respond(method, uri);
+        }
+    }
+
+    private static final class ReplayResponse implements ClientHttpResponse {
+
+        private final RecordedExchange exchange;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        ReplayResponse(RecordedExchange exchange) throws IOException {
+            this.exchange = exchange;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(exchange.headers());
+            this.headers.setContentLength(exchange.bodyLength());
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(exchange.status());
+        }
+
+        @Override
+        public String getStatusText() {
+            return exchange.statusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = exchange.openBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (body == null) return;
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package si.telekom.potresi.sequence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.config.SequenceConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.EarthquakeSequenceDTO;
+import si.telekom.potresi.query.EventQuery;
+import si.telekom.potresi.service.IngestionBatch;
+import si.telekom.potresi.service.IngestionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Groups the events of the ingestion window into earthquake sequences: a mainshock, the largest event,
+ * together with the events inside its {@link SequenceWindows Gardner-Knopoff} space and time window.
+ * <p>
+ * Sequences are indexed in a grid of {@code earthquake.sequences.cell-degrees} cells by the position of their
+ * mainshock, so placing a new event only looks at sequences within the largest possible window radius instead
+ * of comparing it with every other event. An event joins every sequence whose mainshock window contains it, and
+ * if it is larger than a mainshock that lies inside its own window, that sequence becomes its foreshocks;
+ * all matching sequences are merged and the largest event becomes the mainshock.
+ * <p>
+ * Clustering is incremental: each batch only inserts its new events, in time order. A revised or evicted event
+ * is taken out of its sequence; if it was the mainshock, the rest of that sequence is clustered again.
+ * Unrated events and events without a time or location are not clustered.
+ */
+@Component
+public class AftershockSequences implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AftershockSequences.class);
+
+    private static final double KM_PER_DEGREE = Math.PI * 6371.0 / 180.0;
+    private static final Comparator<Member> BY_TIME = Comparator.comparingLong((Member m) -> m.time)
+            .thenComparing(m -> m.record.getId());
+    private static final Comparator<Sequence> LARGEST_FIRST = Comparator
+            .comparingDouble((Sequence s) -> -s.mainshock.magnitude)
+            .thenComparingLong(s -> s.mainshock.time)
+            .thenComparingLong(s -> s.id);
+
+    private final IngestionConfig ingestionConfig;
+    private final double cellDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+
+    private final Map<String, Member> events = new HashMap<>();
+    private final Map<Integer, List<Sequence>> cells = new HashMap<>();
+    private final Map<Long, EarthquakeSequenceDTO> published = new ConcurrentHashMap<>();
+
+    private long nextId = 1;
+    private double largestMainshock = Double.NEGATIVE_INFINITY;
+
+    public AftershockSequences(SequenceConfig config, IngestionConfig ingestionConfig) {
+        if (!(config.getCellDegrees() > 0 && config.getCellDegrees() <= 90)) {
+            throw new IllegalArgumentException("Sequence grid cells must be between 0 and 90 degrees.");
+        }
+        this.ingestionConfig = ingestionConfig;
+        this.cellDegrees = config.getCellDegrees();
+        this.latitudeCells = (int) Math.ceil(180 / cellDegrees);
+        this.longitudeCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    @Override
+    public synchronized void onIngested(IngestionBatch batch) {
+        Set<Sequence> touched = new HashSet<>();
+
+        List<Member> inserted = new ArrayList<>(batch.added().size() + batch.revised().size());
+        for (List<EarthquakeRecordDTO> records : List.of(batch.added(), batch.revised())) {
+            for (EarthquakeRecordDTO record : records) {
+                Member previous = events.remove(record.getId());
+                if (previous != null) remove(previous, touched);
+
+                Member member = memberOf(record);
+                if (member != null) inserted.add(member);
+            }
+        }
+        for (String id : batch.deleted()) {
+            Member previous = events.remove(id);
+            if (previous != null) remove(previous, touched);
+        }
+
+        long cutoff = Instant.now().minus(Duration.ofDays(ingestionConfig.getWindowDays())).toEpochMilli();
+        List<Member> evicted = new ArrayList<>();
+        for (Iterator<Member> it = events.values().iterator(); it.hasNext(); ) {
+            Member member = it.next();
+            if (member.time < cutoff) {
+                it.remove();
+                evicted.add(member);
+            }
+        }
+        evicted.forEach(member -> remove(member, touched));
+
+        inserted.removeIf(member -> member.time < cutoff);
+        inserted.sort(BY_TIME);
+        for (Member member : inserted) {
+            events.put(member.record.getId(), member);
+            insert(member, touched);
+        }
+
+        for (Sequence sequence : touched) {
+            if (sequence.members.isEmpty()) {
+                published.remove(sequence.id);
+            } else {
+                published.put(sequence.id, sequence.toDTO());
+            }
+        }
+        log.debug("Sequences epoch {}: clustered {} event(s), {} sequence(s) changed.",
+                batch.epoch(), inserted.size(), touched.size());
+    }
+
+    /**
+     * Returns the sequences whose aftershock window is still open, largest mainshock first.
+     *
+     * @param minMagnitude smallest mainshock magnitude, or null for any
+     * @param minEvents    smallest number of events in a sequence
+     * @param limit        maximum number of sequences returned
+     * @throws IllegalArgumentException if minEvents or limit is out of range
+     */
+    public List<EarthquakeSequenceDTO> active(Double minMagnitude, int minEvents, int limit) {
+        if (minEvents < 1) throw new IllegalArgumentException("minEvents must be at least 1.");
+        if (limit < 1 || limit > EventQuery.MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + EventQuery.MAX_LIMIT + ".");
+        }
+        Instant now = Instant.now();
+        return published.values().stream()
+                .filter(s -> s.getActiveUntil().isAfter(now))
+                .filter(s -> s.getEventCount() >= minEvents)
+                .filter(s -> minMagnitude == null || s.getMainshock().getMagnitude() >= minMagnitude)
+                .sorted(Comparator.comparing((EarthquakeSequenceDTO s) -> s.getMainshock().getMagnitude()).reversed()
+                        .thenComparing(s -> s.getMainshock().getTime()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Number of clustered events.
+     */
+    public synchronized int size() {
+        return events.size();
+    }
+
+    private Member memberOf(EarthquakeRecordDTO record) {
+        if (record.getId() == null || record.getTime() == null || record.getLocation() == null
+                || record.getMagnitude() == null) {
+            return null;
+        }
+        return new Member(record);
+    }
+
+    private void insert(Member event, Set<Sequence> touched) {
+        double radius = SequenceWindows.radiusKm(Math.max(event.magnitude, largestMainshock));
+        List<Sequence> matches = new ArrayList<>();
+        for (int cell : cellsWithin(event.latitude, event.longitude, radius)) {
+            List<Sequence> sequences = cells.get(cell);
+            if (sequences == null) continue;
+            for (Sequence sequence : sequences) {
+                Member mainshock = sequence.mainshock;
+                if (inWindow(mainshock, event) || (event.magnitude > mainshock.magnitude && inWindow(event, mainshock))) {
+                    matches.add(sequence);
+                }
+            }
+        }
+
+        Sequence target;
+        if (matches.isEmpty()) {
+            target = new Sequence(nextId++, event);
+            register(target);
+        } else {
+            target = matches.getFirst();
+            for (Sequence sequence : matches) {
+                if (LARGEST_FIRST.compare(sequence, target) < 0) target = sequence;
+            }
+            for (Sequence sequence : matches) {
+                if (sequence == target) continue;
+                unregister(sequence);
+                for (Member member : sequence.members) {
+                    member.sequence = target;
+                    target.members.add(member);
+                }
+                sequence.members.clear();
+                touched.add(sequence);
+            }
+            if (event.magnitude > target.mainshock.magnitude) {
+                unregister(target);
+                target.mainshock = event;
+                register(target);
+            }
+        }
+        event.sequence = target;
+        target.members.add(event);
+        touched.add(target);
+    }
+
+    private void remove(Member event, Set<Sequence> touched) {
+        Sequence sequence = event.sequence;
+        sequence.members.remove(event);
+        touched.add(sequence);
+        if (sequence.mainshock != event) return;
+
+        unregister(sequence);
+        List<Member> rest = new ArrayList<>(sequence.members);
+        sequence.members.clear();
+        rest.sort(BY_TIME);
+        for (Member member : rest) {
+            // Members evicted in the same batch are dropped instead of clustered again
+            if (events.get(member.record.getId()) == member) insert(member, touched);
+        }
+    }
+
+    private static boolean inWindow(Member mainshock, Member event) {
+        return Math.abs(event.time - mainshock.time) <= SequenceWindows.durationMillis(mainshock.magnitude)
+                && EventQuery.distanceKm(mainshock.latitude, mainshock.longitude, event.latitude, event.longitude)
+                <= SequenceWindows.radiusKm(mainshock.magnitude);
+    }
+
+    private void register(Sequence sequence) {
+        sequence.cell = cellOf(sequence.mainshock.latitude, sequence.mainshock.longitude);
+        cells.computeIfAbsent(sequence.cell, k -> new ArrayList<>(2)).add(sequence);
+        largestMainshock = Math.max(largestMainshock, sequence.mainshock.magnitude);
+    }
+
+    private void unregister(Sequence sequence) {
+        List<Sequence> sequences = cells.get(sequence.cell);
+        sequences.remove(sequence);
+        if (sequences.isEmpty()) cells.remove(sequence.cell);
+    }
+
+    private int cellOf(double latitude, double longitude) {
+        return latitudeCell(latitude) * longitudeCells + longitudeCell(longitude);
+    }
+
+    private int latitudeCell(double latitude) {
+        return Math.clamp((int) Math.floor((latitude + 90) / cellDegrees), 0, latitudeCells - 1);
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), longitudeCells);
+    }
+
+    /**
+     * Grid cells that may hold a mainshock within the given distance of a point.
+     */
+    private List<Integer> cellsWithin(double latitude, double longitude, double radiusKm) {
+        double latitudeRadius = radiusKm / KM_PER_DEGREE;
+        int fromRow = latitudeCell(latitude - latitudeRadius);
+        int toRow = latitudeCell(latitude + latitudeRadius);
+
+        // Widest longitude span of a spherical cap: asin(sin(radius) / cos(latitude))
+        double sine = Math.sin(Math.toRadians(latitudeRadius)) / Math.cos(Math.toRadians(latitude));
+        int columnReach = sine >= 1 ? longitudeCells
+                : (int) Math.ceil(Math.toDegrees(Math.asin(sine)) / cellDegrees) + 1;
+
+        int center = longitudeCell(longitude);
+        List<Integer> result = new ArrayList<>();
+        for (int row = fromRow; row <= toRow; row++) {
+            if (2 * columnReach + 1 >= longitudeCells) {
+                for (int column = 0; column < longitudeCells; column++) result.add(row * longitudeCells + column);
+            } else {
+                for (int dx = -columnReach; dx <= columnReach; dx++) {
+                    result.add(row * longitudeCells + Math.floorMod(center + dx, longitudeCells));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A clustered event. Compared by identity.
+     */
+    private static final class Member {
+
+        final EarthquakeRecordDTO record;
+        final double latitude;
+        final double longitude;
+        final double magnitude;
+        final long time;
+        Sequence sequence;
+
+        Member(EarthquakeRecordDTO record) {
+            this.record = record;
+            this.latitude = record.getLocation().getLatitude();
+            this.longitude = record.getLocation().getLongitude();
+            this.magnitude = record.getMagnitude();
+            this.time = record.getTime().toEpochMilli();
+        }
+    }
+
+    /**
+     * A mainshock and the events attributed to it. Compared by identity.
+     */
+    private static final class Sequence {
+
+        final long id;
+        final Set<Member> members = new HashSet<>();
+        Member mainshock;
+        int cell;
+
+        Sequence(long id, Member mainshock) {
+            this.id = id;
+            this.mainshock = mainshock;
+        }
+
+        EarthquakeSequenceDTO toDTO() {
+            long start = Long.MAX_VALUE;
+            long end = Long.MIN_VALUE;
+            for (Member member : members) {
+                start = Math.min(start, member.time);
+                end = Math.max(end, member.time);
+            }
+            return new EarthquakeSequenceDTO(id, mainshock.record, members.size(),
+                    Instant.ofEpochMilli(start), Instant.ofEpochMilli(end),
+                    Instant.ofEpochMilli(mainshock.time + SequenceWindows.durationMillis(mainshock.magnitude)),
+                    SequenceWindows.radiusKm(mainshock.magnitude));
+        }
+    }
+}
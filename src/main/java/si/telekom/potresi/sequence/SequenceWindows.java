@@ -0,0 +1,29 @@
+package si.telekom.potresi.sequence;
+
+/**
+ * Magnitude-dependent space and time windows of Gardner and Knopoff (1974), the usual choice for
+ * separating aftershocks from background seismicity.
+ */
+final class SequenceWindows {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private SequenceWindows() {}
+
+    /**
+     * Distance from the mainshock within which aftershocks are attributed to it.
+     */
+    static double radiusKm(double magnitude) {
+        return Math.pow(10, 0.1238 * magnitude + 0.983);
+    }
+
+    /**
+     * Time from the mainshock within which aftershocks are attributed to it.
+     */
+    static long durationMillis(double magnitude) {
+        double days = magnitude >= 6.5
+                ? Math.pow(10, 0.032 * magnitude + 2.7389)
+                : Math.pow(10, 0.5409 * magnitude - 0.547);
+        return (long) (days * MILLIS_PER_DAY);
+    }
+}
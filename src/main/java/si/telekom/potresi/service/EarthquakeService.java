@@ -5,15 +5,22 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import si.telekom.potresi.client.EarthquakeClient;
-import si.telekom.potresi.client.WeatherClient;
+import si.telekom.potresi.deadline.Deadline;
 import si.telekom.potresi.dto.EarthquakeRecordDTO;
-import si.telekom.potresi.dto.WeatherInfoDTO;
+import si.telekom.potresi.jfr.CacheRefreshEvent;
+import si.telekom.potresi.jfr.FallbackEvent;
+import si.telekom.potresi.overload.DegradationLevel;
+import si.telekom.potresi.tracing.Span;
+import si.telekom.potresi.tracing.Tracer;
 
 import java.util.List;
 
 /**
  * Service layer for managing earthquake-related operations.
- * Retrieves data via clients, includes weather info, and has simple in-memory caching.
+ * Retrieves data via clients, serves weather info produced by the background
+ * enrichment pipeline, and has simple in-memory caching.
+ * Once the request {@link Deadline} is exhausted, or under overload (see {@link DegradationLevel}), requests are
+ * answered from the cache without calling upstream.
  */
 @Service
 public class EarthquakeService {
@@ -21,16 +28,19 @@ public class EarthquakeService {
     private static final Logger log = LoggerFactory.getLogger(EarthquakeService.class);
 
     private final EarthquakeClient earthquakeClient;
-    private final WeatherClient weatherClient;
+    private final WeatherEnrichmentPipeline enrichmentPipeline;
+    private final Tracer tracer;
 
     // Cached values for fallback or performance
     private List<EarthquakeRecordDTO> cachedWeeklyWorst;
     private List<EarthquakeRecordDTO> cachedMonthlyWorst;
-    private EarthquakeRecordDTO cachedLastEarthquake;
+    private volatile EarthquakeRecordDTO cachedLastEarthquake;
 
-    public EarthquakeService(EarthquakeClient earthquakeClient, WeatherClient weatherClient) {
+    public EarthquakeService(EarthquakeClient earthquakeClient, WeatherEnrichmentPipeline enrichmentPipeline, Tracer tracer) {
         this.earthquakeClient = earthquakeClient;
-        this.weatherClient = weatherClient;
+        this.enrichmentPipeline = enrichmentPipeline;
+        this.tracer = tracer;
+        this.enrichmentPipeline.onEnriched(this::publishEnriched);
     }
 
     /**
@@ -38,15 +48,19 @@ public class EarthquakeService {
      */
     public List<EarthquakeRecordDTO> getWorstEarthquakeLastWeek() {
         log.info("Fetching worst earthquake(s) from the past week.");
-        List<EarthquakeRecordDTO> live = earthquakeClient.getWorstEarthquakeInPeriod(7);
+        try (Span span = tracer.startSpan("EarthquakeService.getWorstEarthquakeLastWeek")) {
+            List<EarthquakeRecordDTO> live = cacheOnly() ? null : earthquakeClient.getWorstEarthquakeInPeriod(7);
 
-        if (live != null && !live.isEmpty()) {
-            cachedWeeklyWorst = live;
-            return live;
-        }
+            if (live != null && !live.isEmpty()) {
+                cachedWeeklyWorst = snapshot(cachedWeeklyWorst, live);
+                return cachedWeeklyWorst;
+            }
 
-        log.warn("Falling back to cached weekly earthquake data.");
-        return cachedWeeklyWorst != null ? cachedWeeklyWorst : List.of();
+            log.warn("Falling back to cached weekly earthquake data.");
+            FallbackEvent.emit("EarthquakeService.getWorstEarthquakeLastWeek", null);
+            span.tag("cached", true);
+            return cachedWeeklyWorst != null ? cachedWeeklyWorst : List.of();
+        }
     }
 
     /**
@@ -54,81 +68,146 @@ public class EarthquakeService {
      */
     public List<EarthquakeRecordDTO> getWorstEarthquakeLastMonth() {
         log.info("Fetching worst earthquake(s) from the past month.");
-        List<EarthquakeRecordDTO> live = earthquakeClient.getWorstEarthquakeInPeriod(30);
+        try (Span span = tracer.startSpan("EarthquakeService.getWorstEarthquakeLastMonth")) {
+            List<EarthquakeRecordDTO> live = cacheOnly() ? null : earthquakeClient.getWorstEarthquakeInPeriod(30);
 
-        if (live != null && !live.isEmpty()) {
-            cachedMonthlyWorst = live;
-            return live;
-        }
+            if (live != null && !live.isEmpty()) {
+                cachedMonthlyWorst = snapshot(cachedMonthlyWorst, live);
+                return cachedMonthlyWorst;
+            }
 
-        log.warn("Falling back to cached monthly earthquake data.");
-        return cachedMonthlyWorst != null ? cachedMonthlyWorst : List.of();
+            log.warn("Falling back to cached monthly earthquake data.");
+            FallbackEvent.emit("EarthquakeService.getWorstEarthquakeLastMonth", null);
+            span.tag("cached", true);
+            return cachedMonthlyWorst != null ? cachedMonthlyWorst : List.of();
+        }
     }
 
     /**
-     * Retrieves the most recent earthquake and includes weather data.
+     * Retrieves the most recent earthquake with the weather data already produced
+     * by the enrichment pipeline. Never calls the weather API itself: an event that
+     * has not been enriched yet is queued and returned without weather.
      * Falls back to a cached version if live fetch fails.
      */
     public EarthquakeRecordDTO getLastEarthquakeWithWeather() {
         log.info("Fetching most recent earthquake with weather data.");
-        EarthquakeRecordDTO live = earthquakeClient.getMostRecentEarthquake();
-
-        if (live == null) {
-            log.warn("Falling back to cached most recent earthquake.");
-            return cachedLastEarthquake;
-        }
+        try (Span span = tracer.startSpan("EarthquakeService.getLastEarthquakeWithWeather")) {
+            EarthquakeRecordDTO live = cacheOnly() ? null : earthquakeClient.getMostRecentEarthquake();
+
+            if (live == null) {
+                log.warn("Falling back to cached most recent earthquake.");
+                FallbackEvent.emit("EarthquakeService.getLastEarthquakeWithWeather", null);
+                span.tag("cached", true);
+                return cachedLastEarthquake;
+            }
 
-        try {
-            double lat = live.getLocation().getLatitude();
-            double lon = live.getLocation().getLongitude();
-            WeatherInfoDTO weather = weatherClient.getCurrentWeather(lat, lon);
-            live.setWeather(weather);
-            log.debug("Enriched earthquake with weather info: {}", weather);
-        } catch (Exception ex) {
-            log.error("Failed to fetch weather info for earthquake: {}", ex.getMessage());
+            EarthquakeRecordDTO served = ingestLastEarthquake(live, false);
+            span.tag("weather", served.getWeather() != null);
+            return served;
         }
-
-        cachedLastEarthquake = live;
-        return live;
     }
 
     /**
      * Scheduled task that refreshes all earthquake data and updates internal caches.
+     * The most recent earthquake is (re-)queued for weather enrichment.
      * Runs every 30 minutes.
      */
     @Scheduled(fixedRate = 30 * 60 * 1000)
     public void refreshCache() {
-        log.info("Scheduled cache refresh started.");
+        CacheRefreshEvent refreshEvent = CacheRefreshEvent.start();
+        try (Span span = tracer.startTrace("EarthquakeService.refreshCache")) {
+            log.info("Scheduled cache refresh started.");
+
+            // Refresh weekly worst earthquakes
+            List<EarthquakeRecordDTO> weekly = earthquakeClient.getWorstEarthquakeInPeriod(7);
+            if (weekly != null && !weekly.isEmpty()) {
+                cachedWeeklyWorst = snapshot(cachedWeeklyWorst, weekly);
+                span.tag("weekly", weekly.size());
+                log.info("Weekly cache refreshed with {} records.", weekly.size());
+            }
 
-        // Refresh weekly worst earthquakes
-        List<EarthquakeRecordDTO> weekly = earthquakeClient.getWorstEarthquakeInPeriod(7);
-        if (weekly != null && !weekly.isEmpty()) {
-            cachedWeeklyWorst = weekly;
-            log.info("Weekly cache refreshed with {} records.", weekly.size());
-        }
+            // Refresh monthly worst earthquakes
+            List<EarthquakeRecordDTO> monthly = earthquakeClient.getWorstEarthquakeInPeriod(30);
+            if (monthly != null && !monthly.isEmpty()) {
+                cachedMonthlyWorst = snapshot(cachedMonthlyWorst, monthly);
+                span.tag("monthly", monthly.size());
+                log.info("Monthly cache refreshed with {} records.", monthly.size());
+            }
 
-        // Refresh monthly worst earthquakes
-        List<EarthquakeRecordDTO> monthly = earthquakeClient.getWorstEarthquakeInPeriod(30);
-        if (monthly != null && !monthly.isEmpty()) {
-            cachedMonthlyWorst = monthly;
-            log.info("Monthly cache refreshed with {} records.", monthly.size());
+            // Refresh most recent earthquake; weather is refreshed in the background
+            EarthquakeRecordDTO last = earthquakeClient.getMostRecentEarthquake();
+            if (last != null) {
+                ingestLastEarthquake(last, true);
+            }
+
+            refreshEvent.finish(weekly == null ? 0 : weekly.size(), monthly == null ? 0 : monthly.size(), last != null);
+            log.info("Scheduled cache refresh completed.");
         }
+    }
 
-        // Refresh most recent earthquake with weather
-        EarthquakeRecordDTO last = earthquakeClient.getMostRecentEarthquake();
-        if (last != null) {
-            try {
-                WeatherInfoDTO weather = weatherClient.getCurrentWeather(
-                        last.getLocation().getLatitude(),
-                        last.getLocation().getLongitude());
-                last.setWeather(weather);
-                log.debug("Updated cached earthquake with new weather info.");
-            } catch (Exception e) {
-                log.error("Weather fetch failed during scheduled refresh: {}", e.getMessage());
+    /**
+     * Makes the given event the served most recent earthquake. Available weather already known
+     * for the same event is carried over; otherwise, or if {@code refreshWeather} is set, the
+     * event is queued for enrichment unless the request is degraded.
+     */
+    private synchronized EarthquakeRecordDTO ingestLastEarthquake(EarthquakeRecordDTO live, boolean refreshWeather) {
+        EarthquakeRecordDTO cached = cachedLastEarthquake;
+
+        boolean carriedOver = cached != null && cached.getWeather() != null
+                && cached.getWeather().isWeatherAvailable() && isSameEvent(cached, live);
+        if (carriedOver) {
+            live.setWeather(cached.getWeather());
+            live.setExposure(cached.getExposure());
+        }
+        if (!carriedOver || refreshWeather) {
+            if (DegradationLevel.current().enrichesWeather()) {
+                enrichmentPipeline.submit(live);
+            } else {
+                log.debug("Overloaded, not queueing weather enrichment for {}", live);
             }
-            cachedLastEarthquake = last;
         }
 
-        log.info("Scheduled cache refresh completed.");
+        cachedLastEarthquake = live;
+        return live;
+    }
+
+    /**
+     * Writes an enriched record (weather and population exposure) back into the served snapshot, unless a newer event has replaced it meanwhile.
+     */
+    private synchronized void publishEnriched(EarthquakeRecordDTO enriched) {
+        EarthquakeRecordDTO cached = cachedLastEarthquake;
+        if (cached != null && !isSameEvent(cached, enriched)) {
+            log.debug("Discarding enrichment for superseded earthquake {}", enriched);
+            return;
+        }
+
+        EarthquakeRecordDTO updated = new EarthquakeRecordDTO(cached != null ? cached : enriched);
+        updated.setWeather(enriched.getWeather());
+        updated.setExposure(enriched.getExposure());
+        cachedLastEarthquake = updated;
+        log.debug("Updated cached earthquake with new weather info.");
+    }
+
+    /**
+     * Keeps serving the cached list while a fresh fetch returns the same events, so the list stays the same snapshot
+     * and its binary encodings are computed only once.
+     */
+    private static List<EarthquakeRecordDTO> snapshot(List<EarthquakeRecordDTO> cached, List<EarthquakeRecordDTO> live) {
+        if (cached == null || cached.size() != live.size()) return live;
+        for (int i = 0; i < live.size(); i++) {
+            if (!EventIngestionService.hasSameContent(cached.get(i), live.get(i))) return live;
+        }
+        return cached;
+    }
+
+    /**
+     * Whether the current request must be answered from the cache.
+     */
+    private static boolean cacheOnly() {
+        return Deadline.isExhausted() || !DegradationLevel.current().callsUpstream();
+    }
+
+    private static boolean isSameEvent(EarthquakeRecordDTO a, EarthquakeRecordDTO b) {
+        return WeatherEnrichmentPipeline.eventKey(a).equals(WeatherEnrichmentPipeline.eventKey(b));
     }
 }
@@ -0,0 +1,180 @@
+package si.telekom.potresi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.exposure.PopulationExposure;
+import si.telekom.potresi.gazetteer.Gazetteer;
+import si.telekom.potresi.source.EventSources;
+import si.telekom.potresi.source.SourcedEvents;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Periodically pulls the events of all sources and publishes what changed to all {@link IngestionListener}s.
+ * The first cycle loads the whole window; later cycles only fetch the incremental period.
+ * Keeps the events of the window in memory to tell new events from revised ones, and to notice events
+ * the upstream has deleted: those missing from a fetch although they are no older than its oldest event and
+ * every source that reported them answered.
+ * New and revised events are enriched with their nearest cities from the {@link Gazetteer} and, if significant, their
+ * {@link PopulationExposure} before they are published.
+ */
+@Service
+public class EventIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventIngestionService.class);
+
+    private final EventSources eventSources;
+    private final IngestionConfig config;
+    private final Gazetteer gazetteer;
+    private final PopulationExposure populationExposure;
+    private final List<IngestionListener> listeners;
+
+    private final Map<String, EarthquakeRecordDTO> window = new HashMap<>();
+    private volatile long epoch;
+    private boolean initialLoadDone;
+
+    public EventIngestionService(EventSources eventSources, IngestionConfig config, Gazetteer gazetteer,
+                                 PopulationExposure populationExposure, List<IngestionListener> listeners) {
+        this.eventSources = eventSources;
+        this.config = config;
+        this.gazetteer = gazetteer;
+        this.populationExposure = populationExposure;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Scheduled ingestion cycle.
+     */
+    @Scheduled(fixedRateString = "${earthquake.ingestion.interval-ms:300000}")
+    public void scheduledIngest() {
+        if (config.isEnabled()) {
+            ingest();
+        }
+    }
+
+    /**
+     * Runs one ingestion cycle and notifies listeners if anything changed.
+     *
+     * @return the published batch (possibly empty)
+     */
+    public synchronized IngestionBatch ingest() {
+        int days = initialLoadDone ? config.getIncrementalDays() : config.getWindowDays();
+        SourcedEvents sourced = eventSources.fetch(days);
+        List<EarthquakeRecordDTO> fetched = sourced.events();
+
+        List<EarthquakeRecordDTO> added = new ArrayList<>();
+        List<EarthquakeRecordDTO> revised = new ArrayList<>();
+
+        for (EarthquakeRecordDTO record : fetched) {
+            if (record.getId() == null) continue;
+
+            EarthquakeRecordDTO previous = window.put(record.getId(), record);
+            if (previous != null && hasSameContent(previous, record)) {
+                record.setNearbyCities(previous.getNearbyCities());
+                record.setExposure(previous.getExposure());
+                continue;
+            }
+
+            record.setNearbyCities(gazetteer.nearest(record.getLocation().getLatitude(), record.getLocation().getLongitude()));
+            record.setExposure(populationExposure.estimate(record));
+            if (previous == null) {
+                added.add(record);
+            } else {
+                revised.add(record);
+            }
+        }
+
+        List<String> deleted = findDeleted(sourced);
+        deleted.forEach(window::remove);
+
+        Instant cutoff = Instant.now().minus(Duration.ofDays(config.getWindowDays()));
+        window.values().removeIf(r -> r.getTime() != null && r.getTime().isBefore(cutoff));
+
+        if (!fetched.isEmpty()) {
+            initialLoadDone = true;
+        }
+
+        IngestionBatch batch = new IngestionBatch(epoch, List.copyOf(added), List.copyOf(revised), List.copyOf(deleted));
+        if (batch.isEmpty()) {
+            log.debug("Ingestion cycle found no changes.");
+            return batch;
+        }
+
+        epoch++;
+        batch = new IngestionBatch(epoch, batch.added(), batch.revised(), batch.deleted());
+        log.info("Ingestion epoch {}: {} new, {} revised and {} deleted event(s).",
+                epoch, added.size(), revised.size(), deleted.size());
+
+        for (IngestionListener listener : listeners) {
+            try {
+                listener.onIngested(batch);
+            } catch (Exception ex) {
+                log.error("Ingestion listener {} failed: {}", listener.getClass().getSimpleName(), ex.getMessage(), ex);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Current ingestion epoch; advances whenever a cycle changes the data.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Events currently held in the ingestion window.
+     */
+    public synchronized List<EarthquakeRecordDTO> getWindowEvents() {
+        return List.copyOf(window.values());
+    }
+
+    /**
+     * Window events within the period covered by the fetch that it no longer lists although their sources answered.
+     * An empty fetch (e.g. a failed one) covers no period.
+     */
+    private List<String> findDeleted(SourcedEvents sourced) {
+        Instant oldest = null;
+        Set<String> fetchedIds = new HashSet<>();
+        for (EarthquakeRecordDTO record : sourced.events()) {
+            if (record.getId() == null || record.getTime() == null) continue;
+            fetchedIds.add(record.getId());
+            if (oldest == null || record.getTime().isBefore(oldest)) oldest = record.getTime();
+        }
+        if (oldest == null) return List.of();
+
+        List<String> deleted = new ArrayList<>();
+        for (EarthquakeRecordDTO record : window.values()) {
+            if (record.getTime() != null && !record.getTime().isBefore(oldest) && !fetchedIds.contains(record.getId())
+                    && (record.getSources() == null || sourced.answered().containsAll(record.getSources()))) {
+                deleted.add(record.getId());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Whether two versions of an event agree on everything the upstream reports.
+     */
+    static boolean hasSameContent(EarthquakeRecordDTO a, EarthquakeRecordDTO b) {
+        return Objects.equals(a.getMagnitude(), b.getMagnitude())
+                && Objects.equals(a.getTime(), b.getTime())
+                && a.getPlaceCode() == b.getPlaceCode()
+                && Objects.equals(a.getSources(), b.getSources())
+                && a.getDepth() == b.getDepth()
+                && a.getLocation().getLatitude() == b.getLocation().getLatitude()
+                && a.getLocation().getLongitude() == b.getLocation().getLongitude();
+    }
+}
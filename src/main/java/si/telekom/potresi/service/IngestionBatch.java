@@ -0,0 +1,25 @@
+package si.telekom.potresi.service;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.List;
+
+/**
+ * Changes found by one ingestion cycle.
+ *
+ * @param epoch   ingestion epoch after this batch; increases by one for every non-empty batch
+ * @param added   events seen for the first time
+ * @param revised events whose upstream data changed since they were last ingested
+ * @param deleted ids of events the upstream no longer lists
+ */
+public record IngestionBatch(long epoch, List<EarthquakeRecordDTO> added, List<EarthquakeRecordDTO> revised,
+                             List<String> deleted) {
+
+    public IngestionBatch(long epoch, List<EarthquakeRecordDTO> added, List<EarthquakeRecordDTO> revised) {
+        this(epoch, added, revised, List.of());
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && revised.isEmpty() && deleted.isEmpty();
+    }
+}
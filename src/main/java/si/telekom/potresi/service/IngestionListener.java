@@ -0,0 +1,10 @@
+package si.telekom.potresi.service;
+
+/**
+ * Receives the changes produced by each ingestion cycle.
+ * Listeners are called on the ingestion thread, one batch at a time.
+ */
+public interface IngestionListener {
+
+    void onIngested(IngestionBatch batch);
+}
@@ -0,0 +1,226 @@
+package si.telekom.potresi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.client.WeatherClient;
+import si.telekom.potresi.config.EnrichmentConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.WeatherInfoDTO;
+import si.telekom.potresi.exposure.PopulationExposure;
+import si.telekom.potresi.tracing.Span;
+import si.telekom.potresi.tracing.Tracer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Background stage that enriches ingested earthquakes with weather data and their {@link PopulationExposure}.
+ * Events are queued by the ingestion side and enriched on a dedicated worker thread,
+ * so upstream weather latency and retries never reach the request path.
+ * The served most recent earthquake is queued by {@link EarthquakeService}; of each ingestion batch,
+ * the new and revised events that are strong and recent enough are queued as well.
+ * Enriched copies are handed to the registered listeners, which write them back into the served snapshot.
+ */
+@Component
+public class WeatherEnrichmentPipeline implements IngestionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherEnrichmentPipeline.class);
+
+    private final WeatherClient weatherClient;
+    private final PopulationExposure populationExposure;
+    private final EnrichmentConfig config;
+    private final Tracer tracer;
+    private final BlockingQueue<Job> queue;
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<EarthquakeRecordDTO>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Timer enrichmentLag;
+    private final Counter enrichedCounter;
+    private final Counter droppedCounter;
+
+    private volatile Thread worker;
+
+    public WeatherEnrichmentPipeline(WeatherClient weatherClient, PopulationExposure populationExposure,
+                                     EnrichmentConfig config, MeterRegistry meterRegistry, Tracer tracer) {
+        this.weatherClient = weatherClient;
+        this.populationExposure = populationExposure;
+        this.config = config;
+        this.tracer = tracer;
+        this.queue = new LinkedBlockingQueue<>(config.getQueueCapacity());
+
+        Gauge.builder("earthquake.enrichment.queue.depth", queue, BlockingQueue::size)
+                .description("Events waiting for weather enrichment")
+                .register(meterRegistry);
+        this.enrichmentLag = Timer.builder("earthquake.enrichment.lag")
+                .description("Time from enqueueing an event until its enriched copy is published")
+                .register(meterRegistry);
+        this.enrichedCounter = Counter.builder("earthquake.enrichment.completed").register(meterRegistry);
+        this.droppedCounter = Counter.builder("earthquake.enrichment.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Registers a consumer that receives every enriched record.
+     */
+    public void onEnriched(Consumer<EarthquakeRecordDTO> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queues an event for enrichment. Never blocks; if the event is already queued
+     * or the queue is full, the call is a no-op.
+     *
+     * @return true if the event was queued
+     */
+    public boolean submit(EarthquakeRecordDTO record) {
+        if (record == null || record.getLocation() == null) return false;
+
+        String key = eventKey(record);
+        if (!pendingKeys.add(key)) {
+            log.debug("Event {} is already waiting for enrichment.", key);
+            return false;
+        }
+
+        if (!queue.offer(new Job(key, new EarthquakeRecordDTO(record), System.nanoTime()))) {
+            pendingKeys.remove(key);
+            droppedCounter.increment();
+            log.warn("Enrichment queue is full, dropping event {}.", key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Queues the significant new and revised events of the batch, newest first,
+     * so the queue fills up with the events most likely to be requested.
+     */
+    @Override
+    public void onIngested(IngestionBatch batch) {
+        Instant cutoff = Instant.now().minus(config.getMaxAge());
+        Stream.concat(batch.added().stream(), batch.revised().stream())
+                .filter(record -> isSignificant(record, cutoff))
+                .sorted(Comparator.comparing(EarthquakeRecordDTO::getTime).reversed())
+                .forEach(this::submit);
+    }
+
+    private boolean isSignificant(EarthquakeRecordDTO record, Instant cutoff) {
+        return record.getMagnitude() != null && record.getMagnitude() >= config.getMinMagnitude()
+                && record.getTime() != null && !record.getTime().isBefore(cutoff);
+    }
+
+    /**
+     * Current number of queued events.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = Thread.ofVirtual().name("weather-enrichment").start(this::runWorker);
+        log.info("Weather enrichment pipeline started.");
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Processes everything currently queued on the calling thread,
+     * so tests can complete enrichment deterministically.
+     *
+     * @return number of processed events
+     */
+    int drain() {
+        int processed = 0;
+        Job job;
+        while ((job = queue.poll()) != null) {
+            process(job);
+            processed++;
+        }
+        return processed;
+    }
+
+    private void runWorker() {
+        while (worker != null) {
+            try {
+                process(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the only worker alive, or the queue would fill up with nothing draining it
+                log.error("Enrichment job failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void process(Job job) {
+        try (Span span = tracer.startTrace("weather.enrichment")) {
+            span.tag("event", job.key());
+            enrich(job);
+            span.tag("weather", job.record().getWeather() != null);
+        }
+    }
+
+    private void enrich(Job job) {
+        EarthquakeRecordDTO record = job.record();
+        try {
+            record.setExposure(populationExposure.estimate(record));
+        } catch (RuntimeException ex) {
+            log.error("Failed to estimate population exposure for earthquake {}: {}", job.key(), ex.getMessage());
+        }
+        try {
+            WeatherInfoDTO weather = weatherClient.getCurrentWeather(
+                    record.getLocation().getLatitude(),
+                    record.getLocation().getLongitude());
+            record.setWeather(weather);
+            log.debug("Enriched earthquake {} with weather info: {}", job.key(), weather);
+        } catch (Exception ex) {
+            log.error("Failed to fetch weather info for earthquake {}: {}", job.key(), ex.getMessage());
+        } finally {
+            pendingKeys.remove(job.key());
+        }
+
+        for (Consumer<EarthquakeRecordDTO> listener : listeners) {
+            try {
+                listener.accept(record);
+            } catch (Exception ex) {
+                log.error("Enrichment listener failed for event {}: {}", job.key(), ex.getMessage());
+            }
+        }
+
+        enrichedCounter.increment();
+        enrichmentLag.record(Duration.ofNanos(System.nanoTime() - job.enqueuedAt()));
+    }
+
+    /**
+     * Key identifying an event; falls back to place and location when no upstream id is known.
+     */
+    static String eventKey(EarthquakeRecordDTO record) {
+        if (record.getId() != null) return record.getId();
+        return record.getNearestPlace() + "@" + record.getLocation().getLatitude() + "," + record.getLocation().getLongitude();
+    }
+
+    private record Job(String key, EarthquakeRecordDTO record, long enqueuedAt) {}
+}
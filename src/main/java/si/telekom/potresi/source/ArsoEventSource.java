@@ -0,0 +1,58 @@
+package si.telekom.potresi.source;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.config.SourcesConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.jfr.FallbackEvent;
+
+import java.util.List;
+
+/**
+ * Catalogue of the Slovenian Environment Agency (ARSO), read from an FDSN event service publishing it.
+ */
+@Component
+public class ArsoEventSource extends FdsnEventSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ArsoEventSource.class);
+    private final SourcesConfig config;
+
+    public ArsoEventSource(RestTemplate restTemplate, SourcesConfig config, HedgedRequests hedging) {
+        super(restTemplate, hedging);
+        this.config = config;
+    }
+
+    @Override
+    public String name() {
+        return "arso";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return config.isArsoEnabled() && config.getArsoBaseUrl() != null && !config.getArsoBaseUrl().isBlank();
+    }
+
+    /**
+     * Fetches every ARSO event of the past days. Applies circuit breaker and retry mechanisms.
+     */
+    @Override
+    @CircuitBreaker(name = "arsoApi")
+    @Retry(name = "arsoApi", fallbackMethod = "fallbackEvents")
+    public List<EarthquakeRecordDTO> fetchEvents(int days) {
+        return query(config.getArsoBaseUrl(), days);
+    }
+
+    /**
+     * Fallback method when fetchEvents fails.
+     */
+    public List<EarthquakeRecordDTO> fallbackEvents(int days, Throwable t) {
+        log.warn("Fallback for ArsoEventSource.fetchEvents triggered", t);
+        FallbackEvent.emit("ArsoEventSource.fetchEvents", t);
+        return List.of();
+    }
+}
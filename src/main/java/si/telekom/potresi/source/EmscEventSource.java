@@ -0,0 +1,58 @@
+package si.telekom.potresi.source;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.config.SourcesConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.jfr.FallbackEvent;
+
+import java.util.List;
+
+/**
+ * Catalogue of the European-Mediterranean Seismological Centre, read from its FDSN event service.
+ */
+@Component
+public class EmscEventSource extends FdsnEventSource {
+
+    private static final Logger log = LoggerFactory.getLogger(EmscEventSource.class);
+    private final SourcesConfig config;
+
+    public EmscEventSource(RestTemplate restTemplate, SourcesConfig config, HedgedRequests hedging) {
+        super(restTemplate, hedging);
+        this.config = config;
+    }
+
+    @Override
+    public String name() {
+        return "emsc";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return config.isEmscEnabled() && config.getEmscBaseUrl() != null && !config.getEmscBaseUrl().isBlank();
+    }
+
+    /**
+     * Fetches every EMSC event of the past days. Applies circuit breaker and retry mechanisms.
+     */
+    @Override
+    @CircuitBreaker(name = "emscApi")
+    @Retry(name = "emscApi", fallbackMethod = "fallbackEvents")
+    public List<EarthquakeRecordDTO> fetchEvents(int days) {
+        return query(config.getEmscBaseUrl(), days);
+    }
+
+    /**
+     * Fallback method when fetchEvents fails.
+     */
+    public List<EarthquakeRecordDTO> fallbackEvents(int days, Throwable t) {
+        log.warn("Fallback for EmscEventSource.fetchEvents triggered", t);
+        FallbackEvent.emit("EmscEventSource.fetchEvents", t);
+        return List.of();
+    }
+}
@@ -0,0 +1,195 @@
+package si.telekom.potresi.source;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.query.EventQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the reports of several sources into one record per physical event.
+ * <p>
+ * Reports are hashed into buckets of {@code matchTime} by {@code matchDistanceKm}, so a report only has to be
+ * compared with the events in the neighbouring buckets instead of with every other report. Sources are merged
+ * in priority order: the first report of an event becomes its anchor and supplies the merged record, and
+ * later reports join the closest anchor within the time, distance and magnitude limits that no report of
+ * their own source has joined yet. Reports without time or location are passed through as they are.
+ */
+public class EventMerger {
+
+    private static final double KM_PER_DEGREE = 111.195;
+    private static final int CELL_BITS = 17;
+
+    private final List<String> priority;
+    private final long matchMillis;
+    private final double matchKm;
+    private final double matchMagnitude;
+    private final double cellDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+
+    /**
+     * @throws IllegalArgumentException if the limits are too small to be bucketed
+     */
+    public EventMerger(List<String> priority, long matchMillis, double matchKm, double matchMagnitude) {
+        if (matchMillis < 1 || matchKm < 1) {
+            throw new IllegalArgumentException("Match time and distance must be at least 1 ms and 1 km.");
+        }
+        this.priority = List.copyOf(priority);
+        this.matchMillis = matchMillis;
+        this.matchKm = matchKm;
+        this.matchMagnitude = matchMagnitude;
+        this.cellDegrees = Math.min(180, matchKm / KM_PER_DEGREE);
+        this.latitudeCells = (int) Math.ceil(180 / cellDegrees) + 1;
+        this.longitudeCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * @param reports events by source name
+     * @return one record per event, with the sources that reported it
+     */
+    public List<EarthquakeRecordDTO> merge(Map<String, List<EarthquakeRecordDTO>> reports) {
+        List<String> sources = new ArrayList<>(reports.keySet());
+        sources.sort(Comparator.comparingInt(this::rank).thenComparing(Comparator.naturalOrder()));
+
+        Map<Long, List<Merged>> buckets = new HashMap<>();
+        List<Merged> merged = new ArrayList<>();
+        List<EarthquakeRecordDTO> unplaced = new ArrayList<>();
+
+        for (String source : sources) {
+            for (EarthquakeRecordDTO report : reports.get(source)) {
+                if (report.getTime() == null || report.getLocation() == null) {
+                    EarthquakeRecordDTO record = new EarthquakeRecordDTO(report);
+                    record.setSources(List.of(source));
+                    unplaced.add(record);
+                    continue;
+                }
+
+                Merged match = closestMatch(buckets, source, report);
+                if (match != null) {
+                    match.join(source, report);
+                } else {
+                    Merged event = new Merged(source, report);
+                    merged.add(event);
+                    buckets.computeIfAbsent(key(timeBucket(report), latitudeCell(report), longitudeCell(report)),
+                            k -> new ArrayList<>(1)).add(event);
+                }
+            }
+        }
+
+        List<EarthquakeRecordDTO> records = new ArrayList<>(merged.size() + unplaced.size());
+        merged.forEach(event -> records.add(event.toRecord()));
+        records.addAll(unplaced);
+        return records;
+    }
+
+    private Merged closestMatch(Map<Long, List<Merged>> buckets, String source, EarthquakeRecordDTO report) {
+        long time = report.getTime().toEpochMilli();
+        double latitude = report.getLocation().getLatitude();
+        double longitude = report.getLocation().getLongitude();
+        long timeBucket = timeBucket(report);
+        int latitudeCell = latitudeCell(report);
+
+        // Longitude degrees shrink towards the poles: widen the search to every column within matchKm of a point
+        // at the farthest latitude a candidate row reaches, i.e. |dλ| <= 2 asin(sin(d / 2R) / cos φ)
+        double farthestLatitude = Math.min(90, Math.abs(latitude) + 2 * cellDegrees);
+        double sine = Math.sin(Math.toRadians(matchKm / KM_PER_DEGREE) / 2) / Math.cos(Math.toRadians(farthestLatitude));
+        int columns = longitudeCells;
+        if (sine < 1) {
+            double longitudeReach = Math.toDegrees(2 * Math.asin(sine));
+            columns = (int) Math.min(longitudeCells, 2 * Math.ceil(longitudeReach / cellDegrees) + 1);
+        }
+        int firstColumn = columns == longitudeCells ? 0 : longitudeCell(longitude) - columns / 2;
+
+        Merged best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (long t = timeBucket - 1; t <= timeBucket + 1; t++) {
+            for (int lat = Math.max(0, latitudeCell - 1); lat <= Math.min(latitudeCells - 1, latitudeCell + 1); lat++) {
+                for (int column = 0; column < columns; column++) {
+                    List<Merged> bucket = buckets.get(key(t, lat, Math.floorMod(firstColumn + column, longitudeCells)));
+                    if (bucket == null) continue;
+
+                    for (Merged candidate : bucket) {
+                        if (candidate.sources.contains(source)) continue;
+
+                        long dt = Math.abs(candidate.time - time);
+                        if (dt > matchMillis) continue;
+                        if (report.getMagnitude() != null && candidate.anchor.getMagnitude() != null
+                                && Math.abs(report.getMagnitude() - candidate.anchor.getMagnitude()) > matchMagnitude) continue;
+                        double distance = EventQuery.distanceKm(latitude, longitude, candidate.latitude, candidate.longitude);
+                        if (distance > matchKm) continue;
+
+                        double score = (double) dt / matchMillis + distance / matchKm;
+                        if (score < bestScore) {
+                            best = candidate;
+                            bestScore = score;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int rank(String source) {
+        int rank = priority.indexOf(source);
+        return rank < 0 ? priority.size() : rank;
+    }
+
+    private long timeBucket(EarthquakeRecordDTO report) {
+        return Math.floorDiv(report.getTime().toEpochMilli(), matchMillis);
+    }
+
+    private int latitudeCell(EarthquakeRecordDTO report) {
+        return (int) Math.floor((report.getLocation().getLatitude() + 90) / cellDegrees);
+    }
+
+    private int longitudeCell(EarthquakeRecordDTO report) {
+        return longitudeCell(report.getLocation().getLongitude());
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), longitudeCells);
+    }
+
+    private static long key(long timeBucket, int latitudeCell, int longitudeCell) {
+        return (timeBucket << (2 * CELL_BITS)) ^ ((long) latitudeCell << CELL_BITS) ^ longitudeCell;
+    }
+
+    /**
+     * One physical event: the anchor report and the sources that reported it.
+     */
+    private static final class Merged {
+
+        private final EarthquakeRecordDTO anchor;
+        private final long time;
+        private final double latitude;
+        private final double longitude;
+        private final List<String> sources = new ArrayList<>(3);
+        private Double magnitude;
+
+        private Merged(String source, EarthquakeRecordDTO anchor) {
+            this.anchor = anchor;
+            this.time = anchor.getTime().toEpochMilli();
+            this.latitude = anchor.getLocation().getLatitude();
+            this.longitude = anchor.getLocation().getLongitude();
+            this.magnitude = anchor.getMagnitude();
+            sources.add(source);
+        }
+
+        private void join(String source, EarthquakeRecordDTO report) {
+            sources.add(source);
+            if (magnitude == null) magnitude = report.getMagnitude();
+        }
+
+        private EarthquakeRecordDTO toRecord() {
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO(anchor);
+            record.setMagnitude(magnitude);
+            record.setSources(List.copyOf(sources));
+            return record;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package si.telekom.potresi.source;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.List;
+
+/**
+ * An agency whose earthquake catalogue is ingested, e.g. USGS or EMSC.
+ * Implementations are Spring beans; {@link EventSources} fetches all enabled ones in parallel.
+ */
+public interface EventSource {
+
+    /**
+     * Short lower-case name of the source, also used as prefix of its event ids where needed.
+     */
+    String name();
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Fetches every event of the past days.
+     *
+     * @return the events, empty if there are none or the source is unavailable
+     */
+    List<EarthquakeRecordDTO> fetchEvents(int days);
+}
@@ -0,0 +1,73 @@
+package si.telekom.potresi.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.SourcesConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fetches all enabled {@link EventSource}s in parallel and merges their reports of the same events.
+ */
+@Component
+public class EventSources {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSources.class);
+
+    private final List<EventSource> sources;
+    private final EventMerger merger;
+
+    public EventSources(List<EventSource> sources, SourcesConfig config) {
+        this.sources = sources;
+        this.merger = new EventMerger(config.getPriority(), config.getMatchTime().toMillis(),
+                config.getMatchDistanceKm(), config.getMatchMagnitude());
+    }
+
+    /**
+     * Fetches the events of the past days from every enabled source.
+     *
+     * @param days number of past days to fetch
+     * @return merged events and the sources that answered
+     */
+    public SourcedEvents fetch(int days) {
+        Map<String, Future<List<EarthquakeRecordDTO>>> fetches = new LinkedHashMap<>();
+        Map<String, List<EarthquakeRecordDTO>> reports = new LinkedHashMap<>();
+        Set<String> answered = new HashSet<>();
+
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (EventSource source : sources) {
+                if (source.isEnabled()) {
+                    fetches.put(source.name(), scope.submit(() -> source.fetchEvents(days)));
+                }
+            }
+
+            for (Map.Entry<String, Future<List<EarthquakeRecordDTO>>> fetch : fetches.entrySet()) {
+                try {
+                    List<EarthquakeRecordDTO> events = fetch.getValue().get();
+                    reports.put(fetch.getKey(), events);
+                    if (!events.isEmpty()) answered.add(fetch.getKey());
+                } catch (ExecutionException e) {
+                    log.warn("Fetching events from {} failed: {}", fetch.getKey(), e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching event sources", e);
+        }
+
+        List<EarthquakeRecordDTO> merged = merger.merge(reports);
+        log.info("Fetched {} report(s) from {}, {} event(s) after merging duplicates.",
+                reports.values().stream().mapToInt(List::size).sum(), answered, merged.size());
+        return new SourcedEvents(merged, Set.copyOf(answered));
+    }
+}
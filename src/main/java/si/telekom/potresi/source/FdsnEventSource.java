@@ -0,0 +1,57 @@
+package si.telekom.potresi.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Agency publishing its catalogue through an FDSN event web service, read in the service's {@link FdsnText text format}.
+ * Event ids are prefixed with the source name.
+ */
+abstract class FdsnEventSource implements EventSource {
+
+    private static final Logger log = LoggerFactory.getLogger(FdsnEventSource.class);
+
+    private final RestTemplate restTemplate;
+    private final HedgedRequests hedging;
+
+    FdsnEventSource(RestTemplate restTemplate, HedgedRequests hedging) {
+        this.restTemplate = restTemplate;
+        this.hedging = hedging;
+    }
+
+    /**
+     * Queries the service for the events of the past days. A service with no events answers 204, i.e. no body.
+     */
+    List<EarthquakeRecordDTO> query(String baseUrl, int days) {
+        String url = queryUrl(baseUrl, Instant.now().minus(Duration.ofDays(days)));
+        log.info("Requesting earthquakes from {}: {}", name(), url);
+
+        String response = hedging.call(name(), () -> restTemplate.getForObject(url, String.class));
+        List<EarthquakeRecordDTO> records = FdsnText.parse(response, name() + ":");
+
+        log.info("Fetched {} earthquake(s) from {}", records.size(), name());
+        return records;
+    }
+
+    static String queryUrl(String baseUrl, Instant start) {
+        LocalDateTime startTime = LocalDateTime.ofInstant(start.truncatedTo(ChronoUnit.SECONDS), ZoneOffset.UTC);
+        return UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("format", "text")
+                .queryParam("starttime", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(startTime))
+                .queryParam("orderby", "time")
+                .build()
+                .toUriString();
+    }
+}
@@ -0,0 +1,82 @@
+package si.telekom.potresi.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader of the FDSN event service {@code format=text}: one event per line, {@code EventID|Time|Latitude|Longitude|
+ * Depth/km|Author|Catalog|Contributor|ContributorID|MagType|Magnitude|MagAuthor|EventLocationName}.
+ */
+public final class FdsnText {
+
+    private static final Logger log = LoggerFactory.getLogger(FdsnText.class);
+
+    private FdsnText() {
+    }
+
+    /**
+     * Parses a whole response, skipping the header and lines without id, time or location.
+     *
+     * @param idPrefix prepended to the event ids
+     */
+    public static List<EarthquakeRecordDTO> parse(String response, String idPrefix) {
+        if (response == null || response.isBlank()) return List.of();
+
+        List<EarthquakeRecordDTO> records = new ArrayList<>();
+        for (String line : response.split("\\R")) {
+            EarthquakeRecordDTO record = parseLine(line, idPrefix);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Parses one line of a response.
+     *
+     * @param idPrefix prepended to the event id
+     * @return the event, or null for blank, header and malformed lines
+     */
+    public static EarthquakeRecordDTO parseLine(String line, String idPrefix) {
+        if (line.isBlank() || line.startsWith("#")) return null;
+
+        String[] fields = line.split("\\|", -1);
+        if (fields.length < 13 || fields[0].isBlank()) {
+            log.debug("Skipping malformed FDSN line: {}", line);
+            return null;
+        }
+        try {
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO(
+                    fields[12].isBlank() ? "Unknown location" : fields[12].trim(),
+                    new GeoLocationDTO(Double.parseDouble(fields[2].trim()), Double.parseDouble(fields[3].trim())),
+                    fields[4].isBlank() ? 0.0 : Double.parseDouble(fields[4].trim()),
+                    Instant.now());
+            record.setId(idPrefix + fields[0].trim());
+            record.setTime(parseTime(fields[1].trim()));
+            if (!fields[10].isBlank()) {
+                record.setMagnitude(Double.parseDouble(fields[10].trim()));
+            }
+            return record;
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            log.debug("Skipping malformed FDSN line: {} ({})", line, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * FDSN times are UTC, with or without the zone designator.
+     */
+    private static Instant parseTime(String time) {
+        return time.endsWith("Z") ? Instant.parse(time) : LocalDateTime.parse(time).toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,15 @@
+package si.telekom.potresi.source;
+
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merged events of one fetch from all sources.
+ *
+ * @param events   one record per event, each with the sources that reported it
+ * @param answered sources that returned events; a source that failed or had nothing to report is missing
+ */
+public record SourcedEvents(List<EarthquakeRecordDTO> events, Set<String> answered) {
+}
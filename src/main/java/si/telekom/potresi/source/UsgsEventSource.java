@@ -0,0 +1,30 @@
+package si.telekom.potresi.source;
+
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.client.EarthquakeClient;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.List;
+
+/**
+ * USGS summary feeds, read through {@link EarthquakeClient}. USGS event ids are used as they are.
+ */
+@Component
+public class UsgsEventSource implements EventSource {
+
+    private final EarthquakeClient earthquakeClient;
+
+    public UsgsEventSource(EarthquakeClient earthquakeClient) {
+        this.earthquakeClient = earthquakeClient;
+    }
+
+    @Override
+    public String name() {
+        return "usgs";
+    }
+
+    @Override
+    public List<EarthquakeRecordDTO> fetchEvents(int days) {
+        return earthquakeClient.getAllEarthquakesInPeriod(days);
+    }
+}
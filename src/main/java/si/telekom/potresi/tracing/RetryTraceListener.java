@@ -0,0 +1,30 @@
+package si.telekom.potresi.tracing;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Adds the wait before every retry attempt to the current trace, so retry back-off shows up
+ * as its own span instead of an unexplained gap between two upstream calls.
+ */
+@Component
+public class RetryTraceListener {
+
+    private final Tracer tracer;
+
+    public RetryTraceListener(RetryRegistry retryRegistry, Tracer tracer) {
+        this.tracer = tracer;
+        retryRegistry.getAllRetries().forEach(this::register);
+        retryRegistry.getEventPublisher().onEntryAdded(event -> register(event.getAddedEntry()));
+    }
+
+    private void register(Retry retry) {
+        retry.getEventPublisher().onRetry(event -> tracer.event("retry.wait", event.getWaitInterval(), Map.of(
+                "retry", event.getName(),
+                "attempt", String.valueOf(event.getNumberOfRetryAttempts()),
+                "error", String.valueOf(event.getLastThrowable()))));
+    }
+}
@@ -0,0 +1,61 @@
+package si.telekom.potresi.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed section of a traced request. Spans are opened by {@link Tracer} and closed with
+ * try-with-resources; closing restores the previously current span of the thread.
+ * When a request is not sampled, {@link #NOOP} is handed out and every operation does nothing.
+ */
+public final class Span implements AutoCloseable {
+
+    /** Span of requests that are not sampled. */
+    public static final Span NOOP = new Span(null, null, 0, null, null);
+
+    final Trace trace;
+    final Span previous;
+    final int id;
+    final Integer parentId;
+    final String name;
+    final long startNanos = System.nanoTime();
+    final String thread = Thread.currentThread().getName();
+    private Map<String, String> tags;
+
+    Span(Trace trace, Span previous, int id, Integer parentId, String name) {
+        this.trace = trace;
+        this.previous = previous;
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+    }
+
+    /**
+     * Whether this span belongs to a sampled trace.
+     */
+    public boolean isSampled() {
+        return trace != null;
+    }
+
+    /**
+     * Attaches a detail to the span. Only the thread that owns the span may tag it.
+     */
+    public Span tag(String key, Object value) {
+        if (trace != null) {
+            if (tags == null) tags = new LinkedHashMap<>(4);
+            tags.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    Map<String, String> tags() {
+        return tags == null ? Map.of() : Map.copyOf(tags);
+    }
+
+    @Override
+    public void close() {
+        if (trace != null) {
+            trace.tracer.end(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package si.telekom.potresi.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span.
+ *
+ * @param id             span id, unique within its trace
+ * @param parentId       id of the enclosing span, null for the root
+ * @param name           what the span measured
+ * @param offsetMicros   start relative to the start of the trace
+ * @param durationMicros time between start and end of the span
+ * @param thread         thread the span was started on
+ * @param tags           additional details, e.g. feed name or attempt number
+ */
+public record SpanRecord(int id, Integer parentId, String name, long offsetMicros, long durationMicros,
+                         String thread, Map<String, String> tags) {
+}
@@ -0,0 +1,87 @@
+package si.telekom.potresi.tracing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spans of one sampled request while it is in flight. Spans may be opened and closed on several threads.
+ */
+final class Trace {
+
+    final Tracer tracer;
+    final long id;
+    final Instant start = Instant.now();
+    final long startNanos = System.nanoTime();
+
+    private final AtomicInteger nextSpanId = new AtomicInteger();
+    private final Set<Span> open = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<SpanRecord> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    Trace(Tracer tracer, long id) {
+        this.tracer = tracer;
+        this.id = id;
+    }
+
+    Span open(Span previous, Span parent, String name) {
+        Span span = new Span(this, previous, nextSpanId.getAndIncrement(), parent == null ? null : parent.id, name);
+        open.add(span);
+        return span;
+    }
+
+    /**
+     * Records a finished span; returns false if the trace has already been completed.
+     */
+    boolean finish(Span span, long endNanos) {
+        if (!open.remove(span) || done.get()) return false;
+        finished.add(record(span.id, span.parentId, span.name, span.startNanos, endNanos, span.thread, span.tags()));
+        return true;
+    }
+
+    /**
+     * Records a span of known duration starting now, e.g. a planned retry wait.
+     */
+    void event(Span parent, String name, Duration duration, Map<String, String> tags) {
+        if (done.get()) return;
+        long now = System.nanoTime();
+        finished.add(record(nextSpanId.getAndIncrement(), parent.id, name, now, now + duration.toNanos(),
+                Thread.currentThread().getName(), tags));
+    }
+
+    /**
+     * Completes the trace when its root span ends. Spans still open, such as fetches that were
+     * cancelled but have not returned yet, are cut off at the end of the root.
+     */
+    TraceRecord complete(Span root, long endNanos) {
+        for (Span span : open) {
+            if (span != root) {
+                Map<String, String> tags = new HashMap<>(span.tags());
+                tags.put("unfinished", "true");
+                finished.add(record(span.id, span.parentId, span.name, span.startNanos, endNanos, span.thread, tags));
+            }
+        }
+        open.clear();
+        finished.add(record(root.id, root.parentId, root.name, root.startNanos, endNanos, root.thread, root.tags()));
+        done.set(true);
+
+        List<SpanRecord> spans = new ArrayList<>(finished);
+        spans.sort(Comparator.comparingLong(SpanRecord::offsetMicros).thenComparingInt(SpanRecord::id));
+        return new TraceRecord(id, root.name, start, (endNanos - root.startNanos) / 1_000, List.copyOf(spans));
+    }
+
+    private SpanRecord record(int spanId, Integer parentId, String name, long startNanos, long endNanos,
+                              String thread, Map<String, String> tags) {
+        return new SpanRecord(spanId, parentId, name, (startNanos - this.startNanos) / 1_000,
+                (endNanos - startNanos) / 1_000, thread, tags);
+    }
+}
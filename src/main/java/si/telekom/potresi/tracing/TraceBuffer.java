@@ -0,0 +1,54 @@
+package si.telekom.potresi.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of finished traces. Writers claim a slot with a single atomic increment and
+ * overwrite whatever was there; readers copy the slots without blocking writers. A reader racing with
+ * a writer may see a slot that has just been overwritten by a newer trace, which is acceptable here.
+ */
+final class TraceBuffer {
+
+    private final AtomicReferenceArray<TraceRecord> slots;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+
+    TraceBuffer(int requestedCapacity) {
+        int capacity = requestedCapacity <= 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void add(TraceRecord trace) {
+        long sequence = written.getAndIncrement();
+        slots.set((int) (sequence & mask), trace);
+    }
+
+    /**
+     * Retained traces, newest first.
+     */
+    List<TraceRecord> snapshot() {
+        List<TraceRecord> traces = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            TraceRecord trace = slots.get(i);
+            if (trace != null) traces.add(trace);
+        }
+        traces.sort(Comparator.comparingLong(TraceRecord::id).reversed());
+        return traces;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Number of traces ever added, including the ones that have since been overwritten.
+     */
+    long written() {
+        return written.get();
+    }
+}
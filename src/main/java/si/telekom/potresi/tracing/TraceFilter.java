@@ -0,0 +1,36 @@
+package si.telekom.potresi.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts a (sampled) trace around every API request. Actuator and metrics endpoints are not traced.
+ */
+class TraceFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    TraceFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator") || path.startsWith("/metrics");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (Span root = tracer.startTrace(request.getMethod() + " " + request.getRequestURI())) {
+            chain.doFilter(request, response);
+            root.tag("status", response.getStatus());
+        }
+    }
+}
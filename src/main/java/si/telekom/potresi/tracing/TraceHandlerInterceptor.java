@@ -0,0 +1,44 @@
+package si.telekom.potresi.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Opens a span for the controller method of a traced request. The span is ended by
+ * {@link TraceResponseAdvice} when the body is about to be written, or here once the request completes.
+ */
+class TraceHandlerInterceptor implements HandlerInterceptor {
+
+    static final String HANDLER_SPAN = TraceHandlerInterceptor.class.getName() + ".handler";
+    static final String SERIALIZE_SPAN = TraceHandlerInterceptor.class.getName() + ".serialize";
+
+    private final Tracer tracer;
+
+    TraceHandlerInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && tracer.currentSpan().isSampled()) {
+            request.setAttribute(HANDLER_SPAN,
+                    tracer.startSpan(method.getBeanType().getSimpleName() + "." + method.getMethod().getName()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        closeSpan(request, SERIALIZE_SPAN);
+        closeSpan(request, HANDLER_SPAN);
+    }
+
+    static void closeSpan(HttpServletRequest request, String attribute) {
+        if (request.getAttribute(attribute) instanceof Span span) {
+            request.removeAttribute(attribute);
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package si.telekom.potresi.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A finished trace: the root span and everything recorded beneath it, ordered by start time.
+ *
+ * @param id             trace id, increasing in the order traces were started
+ * @param name           name of the root span, e.g. {@code GET /potresi/zadnji}
+ * @param start          wall-clock start of the trace
+ * @param durationMicros duration of the root span
+ * @param spans          all spans of the trace including the root
+ */
+public record TraceRecord(long id, String name, Instant start, long durationMicros, List<SpanRecord> spans) {
+}
@@ -0,0 +1,47 @@
+package si.telekom.potresi.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Splits a traced request into handler time and serialization time: the handler span ends and a
+ * serialization span starts right before the message converter writes the body.
+ * Only acts on requests whose handler span was opened by {@link TraceHandlerInterceptor}.
+ */
+@ControllerAdvice
+class TraceResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectProvider<Tracer> tracer;
+
+    TraceResponseAdvice(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            if (httpRequest.getAttribute(TraceHandlerInterceptor.HANDLER_SPAN) != null) {
+                TraceHandlerInterceptor.closeSpan(httpRequest, TraceHandlerInterceptor.HANDLER_SPAN);
+                httpRequest.setAttribute(TraceHandlerInterceptor.SERIALIZE_SPAN,
+                        tracer.getObject().startSpan("serialize").tag("contentType", contentType));
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,131 @@
+package si.telekom.potresi.tracing;
+
+import org.springframework.stereotype.Component;
+import si.telekom.potresi.config.TracingConfig;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process request tracing. A trace is started per request with probability
+ * {@code earthquake.tracing.sample-rate}; code on the request path opens child spans with
+ * {@link #startSpan(String)}. The current span is kept in a thread local, so unsampled requests
+ * cost one thread-local read per span. Finished traces go to a fixed-size ring buffer.
+ */
+@Component
+public class Tracer {
+
+    private final TracingConfig config;
+    private final TraceBuffer buffer;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final AtomicLong nextTraceId = new AtomicLong();
+
+    public Tracer(TracingConfig config) {
+        this.config = config;
+        this.buffer = new TraceBuffer(config.getBufferSize());
+    }
+
+    /**
+     * Starts a new trace if the request is sampled. If the thread is already inside a trace,
+     * a child span is opened instead.
+     */
+    public Span startTrace(String name) {
+        if (current.get() != null) {
+            return startSpan(name);
+        }
+        double rate = config.getSampleRate();
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return Span.NOOP;
+        }
+        Span root = new Trace(this, nextTraceId.incrementAndGet()).open(null, null, name);
+        current.set(root);
+        return root;
+    }
+
+    /**
+     * Opens a child of the current span of this thread; a no-op outside a sampled trace.
+     */
+    public Span startSpan(String name) {
+        Span parent = current.get();
+        return parent == null ? Span.NOOP : open(parent, name);
+    }
+
+    /**
+     * Opens a child of a span captured on another thread, e.g. in a task submitted to an executor.
+     */
+    public Span startSpan(Span parent, String name) {
+        return parent.isSampled() ? open(parent, name) : Span.NOOP;
+    }
+
+    /**
+     * The innermost open span of this thread, or {@link Span#NOOP}.
+     */
+    public Span currentSpan() {
+        Span span = current.get();
+        return span == null ? Span.NOOP : span;
+    }
+
+    /**
+     * Records a span of known duration under the current span, e.g. a wait that is about to happen.
+     */
+    public void event(String name, Duration duration, Map<String, String> tags) {
+        Span parent = current.get();
+        if (parent != null) {
+            parent.trace.event(parent, name, duration, tags);
+        }
+    }
+
+    private Span open(Span parent, String name) {
+        Span span = parent.trace.open(current.get(), parent, name);
+        current.set(span);
+        return span;
+    }
+
+    void end(Span span) {
+        long endNanos = System.nanoTime();
+        if (current.get() == span) {
+            if (span.previous != null) current.set(span.previous); else current.remove();
+        }
+        if (span.parentId == null) {
+            buffer.add(span.trace.complete(span, endNanos));
+        } else {
+            span.trace.finish(span, endNanos);
+        }
+    }
+
+    /**
+     * Most recent finished traces, newest first.
+     */
+    public List<TraceRecord> recent(int limit) {
+        return buffer.snapshot().stream().limit(limit).toList();
+    }
+
+    /**
+     * Slowest of the retained traces, slowest first.
+     */
+    public List<TraceRecord> slowest(int limit) {
+        return buffer.snapshot().stream()
+                .sorted(Comparator.comparingLong(TraceRecord::durationMicros).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public double getSampleRate() {
+        return config.getSampleRate();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Number of traces recorded since startup, including those no longer retained.
+     */
+    public long getRecorded() {
+        return buffer.written();
+    }
+}
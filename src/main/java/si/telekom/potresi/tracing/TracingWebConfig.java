@@ -0,0 +1,27 @@
+package si.telekom.potresi.tracing;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+/**
+ * Web hooks of the tracer: the per-request trace filter and the handler span interceptor.
+ * The serialization span is opened by {@link TraceResponseAdvice}.
+ */
+@Configuration
+public class TracingWebConfig {
+
+    @Bean
+    public FilterRegistrationBean<TraceFilter> traceFilter(Tracer tracer) {
+        FilterRegistrationBean<TraceFilter> registration = new FilterRegistrationBean<>(new TraceFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MappedInterceptor traceHandlerInterceptor(Tracer tracer) {
+        return new MappedInterceptor(null, new TraceHandlerInterceptor(tracer));
+    }
+}
@@ -0,0 +1,87 @@
+package si.telekom.potresi.archive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import si.telekom.potresi.config.ArchiveConfig;
+import si.telekom.potresi.dto.ArchiveStatisticsDTO;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveAggregatorTest {
+
+    private static final Instant START = Instant.parse("2023-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private EventArchive archive;
+    private ArchiveAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        ArchiveConfig config = new ArchiveConfig();
+        config.setDirectory(directory.toString());
+        config.setPartitionCapacity(4096);
+        config.setParallelism(4);
+        config.setChunkRows(7); // many small leaf tasks per partition
+        archive = new EventArchive(config);
+        archive.open();
+        aggregator = new ArchiveAggregator(archive, config);
+
+        // One event every 12 hours over a year, magnitudes cycling 0.0 .. 6.9, every 50th unrated
+        for (int i = 0; i < 730; i++) {
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO("P" + i, new GeoLocationDTO(0, 0), 5);
+            record.setId("e" + i);
+            record.setTime(START.plus(12L * i, ChronoUnit.HOURS));
+            record.setMagnitude(i % 50 == 0 ? null : (i % 70) / 10.0);
+            archive.store(record);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.shutdown();
+        archive.close();
+    }
+
+    @Test
+    void testAggregate_WholeYear() {
+        ArchiveStatisticsDTO stats = aggregator.aggregate(START, START.plus(365, ChronoUnit.DAYS), 3);
+
+        assertEquals(730, stats.getCount());
+        assertEquals(730 - 15, stats.getRatedCount());
+        assertEquals(6.9, stats.getMaxMagnitude());
+        assertEquals(3, stats.getStrongest().size());
+        assertTrue(stats.getStrongest().stream().allMatch(r -> r.getMagnitude() == 6.9));
+        assertEquals(stats.getRatedCount(), stats.getMagnitudeHistogram().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void testAggregate_MatchesSequentialScanAcrossPartitions() {
+        Instant from = Instant.parse("2023-02-15T00:00:00Z");
+        Instant to = Instant.parse("2023-05-10T00:00:00Z");
+
+        ArchiveStatisticsDTO stats = aggregator.aggregate(from, to, 5);
+
+        assertEquals(archive.count(from, to), stats.getCount());
+        assertEquals(archive.strongest(from, to, 5).stream().map(EarthquakeRecordDTO::getMagnitude).toList(),
+                stats.getStrongest().stream().map(EarthquakeRecordDTO::getMagnitude).toList());
+    }
+
+    @Test
+    void testAggregate_EmptyRange() {
+        ArchiveStatisticsDTO stats = aggregator.aggregate(Instant.parse("2030-01-01T00:00:00Z"), Instant.parse("2030-02-01T00:00:00Z"), 5);
+
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getMaxMagnitude());
+        assertTrue(stats.getStrongest().isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package si.telekom.potresi.archive;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs. Vector API archive column kernels.
+ * Run through {@link #main(String[])} on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ColumnScansBenchmark {
+
+    @Param({"100000", "10000000"})
+    private int rows;
+
+    @Param({"scalar", "vector"})
+    private String kernel;
+
+    private Arena arena;
+    private MemorySegment times;
+    private MemorySegment magnitudes;
+    private MemorySegment depths;
+    private int[] selected;
+    private ColumnScans scans;
+
+    @Setup
+    public void setUp() {
+        scans = kernel.equals("vector") ? new VectorColumnScans() : new ScalarColumnScans();
+        arena = Arena.ofShared();
+        times = arena.allocate((long) rows * Long.BYTES, 64);
+        magnitudes = arena.allocate((long) rows * Double.BYTES, 64);
+        depths = arena.allocate((long) rows * Double.BYTES, 64);
+        selected = new int[rows];
+
+        Random random = new Random(7);
+        for (int row = 0; row < rows; row++) {
+            times.setAtIndex(ValueLayout.JAVA_LONG, row, random.nextLong(1_000_000_000L));
+            magnitudes.setAtIndex(ValueLayout.JAVA_DOUBLE, row, random.nextInt(800) / 100.0);
+            depths.setAtIndex(ValueLayout.JAVA_DOUBLE, row, random.nextDouble(700));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public double maxMagnitude() {
+        return scans.maxMagnitude(times, magnitudes, rows, 100_000_000L, 900_000_000L);
+    }
+
+    @Benchmark
+    public int magnitudeAtLeastInRange() {
+        return scans.select(times, magnitudes, depths, rows, 100_000_000L, 900_000_000L,
+                6.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, selected);
+    }
+
+    @Benchmark
+    public int depthRange() {
+        return scans.select(times, magnitudes, depths, rows, Long.MIN_VALUE, Long.MAX_VALUE,
+                Double.NEGATIVE_INFINITY, 70, 300, selected);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ColumnScansBenchmark.class.getSimpleName()).build()).run();
+    }
+}
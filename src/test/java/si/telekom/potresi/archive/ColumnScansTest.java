@@ -0,0 +1,107 @@
+package si.telekom.potresi.archive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnScansTest {
+
+    // Not a multiple of any vector length, so the scalar tails are exercised too
+    private static final int ROWS = 10_007;
+
+    private final ColumnScans scalar = new ScalarColumnScans();
+    private final ColumnScans best = ColumnScans.best();
+
+    private Arena arena;
+    private MemorySegment times;
+    private MemorySegment magnitudes;
+    private MemorySegment depths;
+
+    @BeforeEach
+    void setUp() {
+        arena = Arena.ofConfined();
+        times = arena.allocate((long) ROWS * Long.BYTES, Long.BYTES);
+        magnitudes = arena.allocate((long) ROWS * Double.BYTES, Double.BYTES);
+        depths = arena.allocate((long) ROWS * Double.BYTES, Double.BYTES);
+
+        Random random = new Random(42);
+        for (int row = 0; row < ROWS; row++) {
+            times.setAtIndex(ValueLayout.JAVA_LONG, row, random.nextLong(1_000_000));
+            magnitudes.setAtIndex(ValueLayout.JAVA_DOUBLE, row, row % 97 == 0 ? Double.NaN : random.nextInt(800) / 100.0);
+            depths.setAtIndex(ValueLayout.JAVA_DOUBLE, row, random.nextDouble(700));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        arena.close();
+    }
+
+    @Test
+    void testUsesVectorScansWhenModuleResolved() {
+        boolean resolved = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(resolved, best instanceof VectorColumnScans);
+    }
+
+    @Test
+    void testMaxMagnitude_MatchesScalar() {
+        assertEquals(scalar.maxMagnitude(times, magnitudes, ROWS, 250_000, 750_000),
+                best.maxMagnitude(times, magnitudes, ROWS, 250_000, 750_000));
+        assertEquals(Double.NEGATIVE_INFINITY, best.maxMagnitude(times, magnitudes, ROWS, 2_000_000, 3_000_000));
+    }
+
+    @Test
+    void testCountInRange_MatchesScalar() {
+        assertEquals(scalar.countInRange(times, ROWS, 100_000, 400_000),
+                best.countInRange(times, ROWS, 100_000, 400_000));
+    }
+
+    @Test
+    void testSelect_MatchesScalar() {
+        int[] expected = new int[ROWS];
+        int[] actual = new int[ROWS];
+
+        int expectedCount = scalar.select(times, magnitudes, depths, ROWS, 0, 900_000, 4.5, 10, 300, expected);
+        int actualCount = best.select(times, magnitudes, depths, ROWS, 0, 900_000, 4.5, 10, 300, actual);
+
+        assertTrue(expectedCount > 0);
+        assertArrayEquals(Arrays.copyOf(expected, expectedCount), Arrays.copyOf(actual, actualCount));
+    }
+
+    @Test
+    void testSelect_RejectsNaNDepthInBothImplementations() {
+        for (int row = 0; row < ROWS; row += 13) {
+            depths.setAtIndex(ValueLayout.JAVA_DOUBLE, row, Double.NaN);
+        }
+
+        for (ColumnScans scans : List.of(scalar, best)) {
+            int[] rows = new int[ROWS];
+            int matches = scans.select(times, magnitudes, depths, ROWS, Long.MIN_VALUE, Long.MAX_VALUE,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, rows);
+
+            assertEquals(ROWS - (ROWS + 12) / 13, matches, scans.getClass().getSimpleName());
+            for (int i = 0; i < matches; i++) {
+                assertFalse(Double.isNaN(depths.getAtIndex(ValueLayout.JAVA_DOUBLE, rows[i])));
+            }
+        }
+    }
+
+    @Test
+    void testSelect_WithoutMagnitudePredicate_IncludesUnrated() {
+        int[] rows = new int[ROWS];
+
+        int matches = best.select(times, magnitudes, depths, ROWS, Long.MIN_VALUE, Long.MAX_VALUE,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, rows);
+
+        assertEquals(ROWS, matches);
+    }
+}
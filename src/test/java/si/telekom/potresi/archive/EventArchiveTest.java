@@ -0,0 +1,285 @@
+package si.telekom.potresi.archive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import si.telekom.potresi.config.ArchiveConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private ArchiveConfig config;
+    private EventArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        config = new ArchiveConfig();
+        config.setDirectory(directory.toString());
+        config.setPartitionCapacity(1024);
+        archive = new EventArchive(config);
+        archive.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.close();
+    }
+
+    @Test
+    void testStrongest_ReturnsTopEventsInRange() {
+        archive.store(event("a", "2024-01-10T00:00:00Z", 4.0));
+        archive.store(event("b", "2024-01-20T00:00:00Z", 6.5));
+        archive.store(event("c", "2024-02-05T00:00:00Z", 5.0));
+        archive.store(event("d", "2024-03-01T00:00:00Z", 7.0));
+
+        List<EarthquakeRecordDTO> result = archive.strongest(
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-03-01T00:00:00Z"), 2);
+
+        assertEquals(2, result.size());
+        assertEquals("b", result.get(0).getId());
+        assertEquals(6.5, result.get(0).getMagnitude());
+        assertEquals("Place b", result.get(0).getNearestPlace());
+        assertEquals("c", result.get(1).getId());
+    }
+
+    @Test
+    void testStrongest_IgnoresMissingMagnitude() {
+        archive.store(event("rated", "2024-01-10T00:00:00Z", 2.0));
+        archive.store(event("unrated", "2024-01-11T00:00:00Z", null));
+
+        List<EarthquakeRecordDTO> result = archive.strongest(Instant.MIN, Instant.MAX, 10);
+
+        assertEquals(1, result.size());
+        assertEquals("rated", result.getFirst().getId());
+    }
+
+    @Test
+    void testStrongestWithTies_ReturnsAllTiedEvents() {
+        archive.store(event("a", "2024-01-10T00:00:00Z", 5.2));
+        archive.store(event("b", "2024-02-10T00:00:00Z", 6.0));
+        archive.store(event("c", "2024-03-10T00:00:00Z", 6.0));
+        archive.store(event("d", "2024-03-11T00:00:00Z", null));
+
+        List<EarthquakeRecordDTO> result = archive.strongestWithTies(Instant.MIN, Instant.MAX);
+
+        assertEquals(List.of("b", "c"), result.stream().map(EarthquakeRecordDTO::getId).toList());
+    }
+
+    @Test
+    void testFind_FiltersMagnitudeAndDepth_NewestFirst() {
+        archive.store(event("shallow", "2024-01-10T00:00:00Z", 5.0));
+        archive.store(event("old", "2024-01-05T00:00:00Z", 5.0, 50.0));
+        archive.store(event("new", "2024-02-05T00:00:00Z", 5.0, 60.0));
+        archive.store(event("weak", "2024-02-06T00:00:00Z", 3.0, 60.0));
+
+        List<EarthquakeRecordDTO> result = archive.find(Instant.MIN, Instant.MAX, 4.5, 30.0, 100.0, 10);
+
+        assertEquals(List.of("new", "old"), result.stream().map(EarthquakeRecordDTO::getId).toList());
+    }
+
+    @Test
+    void testCount_CountsOnlyRange() {
+        archive.store(event("a", "2023-12-31T23:59:59Z", 3.0));
+        archive.store(event("b", "2024-01-01T00:00:00Z", 3.0));
+        archive.store(event("c", "2024-01-31T23:00:00Z", 3.0));
+
+        assertEquals(2, archive.count(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z")));
+        assertEquals(3, archive.count(Instant.MIN, Instant.MAX));
+    }
+
+    @Test
+    void testOnIngested_RevisionUpdatesRowInPlace() {
+        EarthquakeRecordDTO original = event("rev", recentTime(), 4.1);
+        archive.onIngested(new IngestionBatch(1, List.of(original), List.of()));
+
+        EarthquakeRecordDTO revised = event("rev", recentTime(), 4.6);
+        archive.onIngested(new IngestionBatch(2, List.of(), List.of(revised)));
+
+        List<EarthquakeRecordDTO> result = archive.strongest(Instant.MIN, Instant.MAX, 10);
+        assertEquals(1, result.size());
+        assertEquals(4.6, result.getFirst().getMagnitude());
+    }
+
+    @Test
+    void testOnIngested_RevisionMovingMonthTombstonesOldRow() {
+        String lastMonth = YearMonth.now(ZoneOffset.UTC).minusMonths(1).atDay(15).atStartOfDay(ZoneOffset.UTC).toInstant().toString();
+        archive.onIngested(new IngestionBatch(1, List.of(event("moved", recentTime(), 4.1)), List.of()));
+        archive.onIngested(new IngestionBatch(2, List.of(), List.of(event("moved", lastMonth, 4.3))));
+
+        assertEquals(1, archive.count(Instant.MIN, Instant.MAX));
+        assertEquals(List.of(4.3), archive.strongest(Instant.MIN, Instant.MAX, 10).stream().map(EarthquakeRecordDTO::getMagnitude).toList());
+        assertEquals(1, archive.strongestWithTies(Instant.MIN, Instant.MAX).size());
+        assertEquals(1, archive.find(Instant.MIN, Instant.MAX, Double.NEGATIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 10).size());
+        List<Instant> exported = new ArrayList<>();
+        assertDoesNotThrow(() -> archive.export(Instant.MIN, Instant.MAX, 10, record -> exported.add(record.getTime())));
+        assertEquals(List.of(Instant.parse(lastMonth)), exported);
+
+        // The index is rebuilt without the tombstoned row, so a further revision still updates in place
+        archive.close();
+        archive = new EventArchive(config);
+        archive.open();
+        archive.onIngested(new IngestionBatch(3, List.of(), List.of(event("moved", lastMonth, 4.5))));
+        assertEquals(1, archive.count(Instant.MIN, Instant.MAX));
+        assertEquals(4.5, archive.strongest(Instant.MIN, Instant.MAX, 1).getFirst().getMagnitude());
+    }
+
+    @Test
+    void testTextHeap_RevisionsReuseTextAndFullHeapDropsEvents() {
+        archive.close();
+        config.setPartitionCapacity(4);
+        config.setTextBytesPerEvent(16); // 64 bytes, room for three 20-byte entries
+        archive = new EventArchive(config);
+        archive.open();
+
+        archive.onIngested(new IngestionBatch(1, List.of(event("rev", recentTime(), 4.1)), List.of()));
+        for (int i = 0; i < 5; i++) {
+            archive.onIngested(new IngestionBatch(2 + i, List.of(), List.of(event("rev", recentTime(), 4.2 + i / 10.0))));
+        }
+        EarthquakeRecordDTO revised = archive.strongest(Instant.MIN, Instant.MAX, 1).getFirst();
+        assertEquals("rev", revised.getId());
+        assertEquals("Place rev", revised.getNearestPlace());
+
+        archive.store(event("aaa", "2024-01-10T00:00:00Z", 3.0));
+        archive.store(event("bbb", "2024-01-11T00:00:00Z", 3.0));
+        archive.store(event("ccc", "2024-01-12T00:00:00Z", 3.0));
+        archive.store(event("ddd", "2024-01-13T00:00:00Z", 3.0));
+
+        assertEquals(3, archive.count(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z")));
+        assertEquals(List.of("ccc", "bbb", "aaa"), archive.find(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z"),
+                0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 10).stream().map(EarthquakeRecordDTO::getId).toList());
+    }
+
+    @Test
+    void testReopen_KeepsEvents() {
+        archive.store(event("persisted", "2024-05-05T05:05:05Z", 5.5));
+        archive.close();
+
+        archive = new EventArchive(config);
+        archive.open();
+
+        List<EarthquakeRecordDTO> result = archive.strongest(Instant.MIN, Instant.MAX, 10);
+        assertEquals(1, result.size());
+        assertEquals("persisted", result.getFirst().getId());
+        assertEquals(Instant.parse("2024-05-05T05:05:05Z"), result.getFirst().getTime());
+    }
+
+    @Test
+    void testClosedMonthIsSealedAndUnsealedOnStore() {
+        archive.store(event("a", "2024-05-05T05:05:05Z", 5.5));
+        archive.store(event("b", "2024-05-06T05:05:05Z", 3.2));
+        archive.store(event("recent", recentTime(), 2.0));
+        archive.close();
+
+        archive = new EventArchive(config);
+        archive.open();
+
+        assertTrue(Files.exists(directory.resolve("2024-05.cseg")));
+        assertFalse(Files.exists(directory.resolve("2024-05.seg")));
+        assertFalse(Files.exists(directory.resolve("2024-05.txt")));
+        assertEquals(3, archive.count(Instant.MIN, Instant.MAX));
+        assertEquals(List.of("a", "b"), archive.find(Instant.parse("2024-05-01T00:00:00Z"), Instant.parse("2024-06-01T00:00:00Z"),
+                0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 10).stream().map(EarthquakeRecordDTO::getId).sorted().toList());
+
+        archive.store(event("c", "2024-05-07T05:05:05Z", 6.1));
+
+        assertFalse(Files.exists(directory.resolve("2024-05.cseg")));
+        assertEquals("c", archive.strongest(Instant.MIN, Instant.MAX, 1).getFirst().getId());
+        archive.close();
+
+        archive = new EventArchive(config);
+        archive.open();
+        assertTrue(Files.exists(directory.resolve("2024-05.cseg")));
+        assertEquals(3, archive.count(Instant.parse("2024-05-01T00:00:00Z"), Instant.parse("2024-06-01T00:00:00Z")));
+    }
+
+    @Test
+    void testUnsealingFullMonth_LeavesRoomForNewEvents() {
+        archive.close();
+        config.setPartitionCapacity(2);
+        config.setTextBytesPerEvent(16); // 32 bytes, exactly two 16-byte entries
+        archive = new EventArchive(config);
+        archive.open();
+
+        archive.store(event("a", "2024-05-05T05:05:05Z", 5.5));
+        archive.store(event("b", "2024-05-06T05:05:05Z", 3.2));
+        archive.close();
+
+        archive = new EventArchive(config);
+        archive.open();
+        assertTrue(Files.exists(directory.resolve("2024-05.cseg")));
+
+        archive.store(event("c", "2024-05-07T05:05:05Z", 6.1));
+        archive.store(event("d", "2024-05-08T05:05:05Z", 4.0));
+
+        assertFalse(Files.exists(directory.resolve("2024-05.cseg")));
+        assertEquals(List.of("a", "b", "c", "d"), archive.find(Instant.parse("2024-05-01T00:00:00Z"), Instant.parse("2024-06-01T00:00:00Z"),
+                0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 10).stream().map(EarthquakeRecordDTO::getId).sorted().toList());
+        assertEquals("Place d", archive.find(Instant.parse("2024-05-08T00:00:00Z"), Instant.parse("2024-05-09T00:00:00Z"),
+                0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1).getFirst().getNearestPlace());
+    }
+
+    @Test
+    void testRetiredPartitionClosesWhenLastReaderUnpins() throws Exception {
+        Path retiring = Files.createDirectory(directory.resolve("retiring"));
+        ArchivePartition partition = ArchivePartition.open(retiring, YearMonth.of(2024, 5), 16, 64);
+        partition.append(event("a", "2024-05-05T05:05:05Z", 5.5));
+
+        assertTrue(partition.pin());
+        partition.retire();
+        assertEquals("a", partition.materialize(0).getId());
+
+        partition.unpin();
+        assertFalse(partition.pin());
+        assertThrows(IllegalStateException.class, () -> partition.time(0));
+    }
+
+    @Test
+    void testExport_StreamsRangeOldestFirstInChunks() throws Exception {
+        archive.store(event("end-jan", "2024-01-28T00:00:00Z", 2.0));
+        archive.store(event("late-jan", "2024-01-25T00:00:00Z", 3.0));
+        archive.store(event("early-jan", "2024-01-02T00:00:00Z", null));
+        archive.store(event("mid-jan", "2024-01-15T00:00:00Z", 4.0));
+        archive.store(event("feb", "2024-02-03T00:00:00Z", 5.0));
+        archive.store(event("mar", "2024-03-01T00:00:00Z", 6.0));
+
+        List<String> ids = new ArrayList<>();
+        archive.export(Instant.parse("2024-01-10T00:00:00Z"), Instant.parse("2024-03-01T00:00:00Z"), 1,
+                record -> ids.add(record.getId()));
+
+        // end-jan lies more than 2^31 ms into its month
+        assertEquals(List.of("mid-jan", "late-jan", "end-jan", "feb"), ids);
+    }
+
+    private static String recentTime() {
+        return Instant.now().minusSeconds(3600).toString();
+    }
+
+    private static EarthquakeRecordDTO event(String id, String time, Double magnitude) {
+        return event(id, time, magnitude, 10.0);
+    }
+
+    private static EarthquakeRecordDTO event(String id, String time, Double magnitude, double depth) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO("Place " + id, new GeoLocationDTO(46.0, 14.5), depth);
+        record.setId(id);
+        record.setTime(Instant.parse(time));
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
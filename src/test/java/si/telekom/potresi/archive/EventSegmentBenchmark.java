@@ -0,0 +1,190 @@
+package si.telekom.potresi.archive;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Magnitude scan and full decode of a monthly feed: parsing the USGS GeoJSON vs. decoding an {@link EventSegment}.
+ * <p>
+ * The feed is synthetic but shaped like {@code all_month.geojson}: the same feature properties, about 10,000 events
+ * with network-prefixed ids and "N km DIR of Town, Region" places. Sizes are printed during setup.
+ * Run through {@link #main(String[])} on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSegmentBenchmark {
+
+    @Param({"10000"})
+    private int events;
+
+    private String feed;
+    private byte[] segment;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        feed = monthlyFeed(events, new Random(11));
+        List<EarthquakeRecordDTO> records = parse(feed);
+        records.sort(Comparator.comparing(EarthquakeRecordDTO::getTime));
+        segment = EventSegment.encode(records);
+
+        int geoJson = feed.getBytes(StandardCharsets.UTF_8).length;
+        EventSegment decoded = EventSegment.of(segment);
+        StringBuilder columns = new StringBuilder();
+        String[] names = {"time", "magnitude", "depth", "latitude", "longitude", "id", "place"};
+        for (int column = 0; column < EventSegment.COLUMNS; column++) {
+            columns.append(String.format(Locale.ROOT, " %s=%d", names[column], decoded.columnBytes(column)));
+        }
+        System.out.printf(Locale.ROOT, "%nGeoJSON %d bytes (%d gzipped), segment %d bytes: %.1fx smaller (%.1fx vs. gzip);%s%n",
+                geoJson, gzip(feed).length, segment.length, (double) geoJson / segment.length,
+                (double) gzip(feed).length / segment.length, columns);
+    }
+
+    @Benchmark
+    public double geoJsonMaxMagnitude() throws JSONException {
+        JSONArray features = new JSONObject(feed).getJSONArray("features");
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < features.length(); i++) {
+            JSONObject properties = features.getJSONObject(i).getJSONObject("properties");
+            if (!properties.isNull("mag")) {
+                max = Math.max(max, properties.getDouble("mag"));
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public double segmentMaxMagnitude() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double magnitude : EventSegment.of(segment).magnitudes()) {
+            if (!Double.isNaN(magnitude)) max = Math.max(max, magnitude);
+        }
+        return max;
+    }
+
+    @Benchmark
+    public List<EarthquakeRecordDTO> geoJsonDecodeAll() throws JSONException {
+        return parse(feed);
+    }
+
+    @Benchmark
+    public Object[] segmentDecodeAll() {
+        EventSegment decoded = EventSegment.of(segment);
+        return new Object[]{decoded.times(), decoded.magnitudes(), decoded.depths(), decoded.latitudes(),
+                decoded.longitudes(), decoded.ids(), decoded.places()};
+    }
+
+    /**
+     * Maps features the way {@code EarthquakeClient} does.
+     */
+    private static List<EarthquakeRecordDTO> parse(String feed) throws JSONException {
+        JSONArray features = new JSONObject(feed).getJSONArray("features");
+        List<EarthquakeRecordDTO> records = new ArrayList<>(features.length());
+        for (int i = 0; i < features.length(); i++) {
+            JSONObject feature = features.getJSONObject(i);
+            JSONObject properties = feature.getJSONObject("properties");
+            JSONArray coordinates = feature.getJSONObject("geometry").getJSONArray("coordinates");
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO(properties.getString("place"),
+                    new GeoLocationDTO(coordinates.getDouble(1), coordinates.getDouble(0)), coordinates.getDouble(2));
+            record.setId(feature.getString("id"));
+            record.setTime(Instant.ofEpochMilli(properties.getLong("time")));
+            record.setMagnitude(properties.isNull("mag") ? null : properties.getDouble("mag"));
+            records.add(record);
+        }
+        return records;
+    }
+
+    static String monthlyFeed(int events, Random random) {
+        String[] networks = {"ak", "ci", "nc", "us", "nn", "hv", "uw", "pr", "tx", "nm", "ok", "mb"};
+        String[] regions = {"CA", "Alaska", "Nevada", "Hawaii", "Puerto Rico", "Texas", "Washington", "Montana",
+                "Japan", "Indonesia", "Chile", "Peru", "Tonga", "Philippines", "Turkey", "Greece", "Italy", "Mexico"};
+        String[] directions = {"N", "NNE", "NE", "ENE", "E", "ESE", "SE", "SSE", "S", "SSW", "SW", "WSW", "W", "WNW", "NW", "NNW"};
+        String[] syllables = {"an", "ber", "ca", "del", "go", "ha", "is", "ka", "lo", "mar", "no", "pa", "ri", "san", "to", "vil"};
+
+        String[] towns = new String[1500];
+        double[][] centres = new double[towns.length][];
+        for (int i = 0; i < towns.length; i++) {
+            StringBuilder town = new StringBuilder();
+            for (int s = 0, n = 2 + random.nextInt(3); s < n; s++) town.append(syllables[random.nextInt(syllables.length)]);
+            town.setCharAt(0, Character.toUpperCase(town.charAt(0)));
+            towns[i] = town + ", " + regions[random.nextInt(regions.length)];
+            centres[i] = new double[]{random.nextDouble() * 140 - 60, random.nextDouble() * 360 - 180};
+        }
+
+        long end = Instant.parse("2024-02-01T00:00:00Z").toEpochMilli();
+        long span = 30L * 24 * 3600 * 1000;
+        StringBuilder out = new StringBuilder(events * 1100);
+        out.append("{\"type\":\"FeatureCollection\",\"metadata\":{\"generated\":").append(end)
+                .append(",\"url\":\"https://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/all_month.geojson\",")
+                .append("\"title\":\"USGS All Earthquakes, Past Month\",\"status\":200,\"api\":\"1.10.3\",\"count\":")
+                .append(events).append("},\"features\":[");
+        for (int i = 0; i < events; i++) {
+            // Activity concentrates on few towns, as real feeds do
+            int town = (int) Math.min(towns.length - 1, Math.abs(random.nextGaussian()) * 200);
+            String network = networks[Math.min(networks.length - 1, (int) Math.abs(random.nextGaussian() * 4))];
+            String id = network + (network.equals("us") ? "7000" : "") + Long.toString(40_000_000L + random.nextInt(9_000_000), 36);
+            long time = end - (long) (random.nextDouble() * span);
+            double magnitude = Math.round((random.nextDouble() < 0.7 ? random.nextDouble() * 2 : 2 + random.nextExponential()) * 100) / 100.0;
+            double latitude = Math.round((centres[town][0] + random.nextGaussian() * 0.2) * 10_000) / 10_000.0;
+            double longitude = Math.round((centres[town][1] + random.nextGaussian() * 0.2) * 10_000) / 10_000.0;
+            double depth = Math.round(random.nextExponential() * 15 * 100) / 100.0;
+            String place = random.nextDouble() < 0.15 ? towns[town].substring(towns[town].indexOf(", ") + 2) + " region"
+                    : (1 + random.nextInt(80)) + " km " + directions[random.nextInt(16)] + " of " + towns[town];
+
+            if (i > 0) out.append(',');
+            out.append("{\"type\":\"Feature\",\"properties\":{\"mag\":").append(magnitude)
+                    .append(",\"place\":\"").append(place).append("\",\"time\":").append(time)
+                    .append(",\"updated\":").append(time + random.nextInt(3_600_000)).append(",\"tz\":null")
+                    .append(",\"url\":\"https://earthquake.usgs.gov/earthquakes/eventpage/").append(id).append('"')
+                    .append(",\"detail\":\"https://earthquake.usgs.gov/earthquakes/feed/v1.0/detail/").append(id).append(".geojson\"")
+                    .append(",\"felt\":null,\"cdi\":null,\"mmi\":null,\"alert\":null,\"status\":\"")
+                    .append(random.nextDouble() < 0.6 ? "reviewed" : "automatic")
+                    .append("\",\"tsunami\":0,\"sig\":").append((int) (magnitude * magnitude * 20))
+                    .append(",\"net\":\"").append(network).append("\",\"code\":\"").append(id.substring(2))
+                    .append("\",\"ids\":\",").append(id).append(",\",\"sources\":\",").append(network)
+                    .append(",\",\"types\":\",origin,phase-data,\",\"nst\":").append(5 + random.nextInt(60))
+                    .append(",\"dmin\":").append(Math.round(random.nextDouble() * 1000) / 1000.0)
+                    .append(",\"rms\":").append(Math.round(random.nextDouble() * 100) / 100.0)
+                    .append(",\"gap\":").append(20 + random.nextInt(300))
+                    .append(",\"magType\":\"").append(magnitude < 2.5 ? "ml" : "mb")
+                    .append("\",\"type\":\"earthquake\",\"title\":\"M ").append(magnitude).append(" - ").append(place)
+                    .append("\"},\"geometry\":{\"type\":\"Point\",\"coordinates\":[").append(longitude).append(',')
+                    .append(latitude).append(',').append(depth).append("]},\"id\":\"").append(id).append("\"}");
+        }
+        return out.append("]}").toString();
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventSegmentBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package si.telekom.potresi.archive;
+
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSegmentTest {
+
+    @Test
+    void testRoundTripQuantizesValues() {
+        List<EarthquakeRecordDTO> records = List.of(
+                event("us7000lj01", "2024-01-01T07:00:00.120Z", 46.031234, 14.472345, 9.456, 4.123, "4 km SW of Ljubljana, Slovenia"),
+                event("us7000lj02", "2024-01-01T07:00:00.120Z", -17.9, 179.99999, -1.5, null, "Fiji region"),
+                event("us7000lj02", "2024-01-02T00:00:00Z", 85.0, -179.5, 700.0, -0.7, "Fiji region"),
+                event("ci40612345", "2024-01-03T12:34:56.789Z", 33.98, -116.7776667, 12.34, 1.27, "Žužemberk"));
+
+        EventSegment segment = EventSegment.of(EventSegment.encode(records));
+
+        assertEquals(4, segment.count());
+        assertArrayEquals(records.stream().mapToLong(r -> r.getTime().toEpochMilli()).toArray(), segment.times());
+        assertArrayEquals(new double[]{4.12, Double.NaN, -0.7, 1.27}, segment.magnitudes());
+        assertArrayEquals(new double[]{9.46, -1.5, 700.0, 12.34}, segment.depths());
+        assertArrayEquals(new double[]{46.03123, -17.9, 85.0, 33.98}, segment.latitudes(), 1e-9);
+        assertArrayEquals(new double[]{14.47235, 179.99999, -179.5, -116.77767}, segment.longitudes(), 1e-9);
+        assertArrayEquals(new String[]{"us7000lj01", "us7000lj02", "us7000lj02", "ci40612345"}, segment.ids());
+        assertArrayEquals(new String[]{"4 km SW of Ljubljana, Slovenia", "Fiji region", "Fiji region", "Žužemberk"}, segment.places());
+    }
+
+    @Test
+    void testColumnsDecodeIndependently() {
+        List<EarthquakeRecordDTO> records = List.of(
+                event("a", "2024-01-01T00:00:00Z", 46.0, 14.5, 10.0, 4.5, "Place a"),
+                event("b", "2024-01-01T01:00:00Z", 46.1, 14.6, 11.0, 2.5, "Place b"));
+        byte[] bytes = EventSegment.encode(records);
+
+        // Overwrite the id and place columns; a magnitude scan never reads them
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int idOffset = header.getInt(16 + EventSegment.ID * 8);
+        Arrays.fill(bytes, idOffset, bytes.length, (byte) 0xFF);
+
+        EventSegment segment = EventSegment.of(bytes);
+        assertArrayEquals(new double[]{4.5, 2.5}, segment.magnitudes());
+        assertArrayEquals(new double[]{10.0, 11.0}, segment.depths());
+        assertEquals(2 * Short.BYTES, segment.columnBytes(EventSegment.MAGNITUDE));
+    }
+
+    @Test
+    void testRejectsOtherData() {
+        assertThrows(IllegalArgumentException.class, () -> EventSegment.of(new byte[64]));
+    }
+
+    private static EarthquakeRecordDTO event(String id, String time, double latitude, double longitude, double depth,
+                                             Double magnitude, String place) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO(place, new GeoLocationDTO(latitude, longitude), depth);
+        record.setId(id);
+        record.setTime(Instant.parse(time));
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
@@ -0,0 +1,58 @@
+package si.telekom.potresi.backfill;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillCheckpointTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRemainingSkipsCoalescedDoneRanges() {
+        BackfillCheckpoint checkpoint = new BackfillCheckpoint(T0, day(10));
+        checkpoint.markDone(day(2), day(3));
+        checkpoint.markDone(day(4), day(5));
+        checkpoint.markDone(day(3), day(4));
+        checkpoint.markDone(day(8), day(10));
+
+        assertEquals(List.of(
+                new BackfillCheckpoint.Chunk(T0, day(2)),
+                new BackfillCheckpoint.Chunk(day(5), day(7)),
+                new BackfillCheckpoint.Chunk(day(7), day(8))), checkpoint.remaining(Duration.ofDays(2)));
+        assertEquals(0.5, checkpoint.progress());
+    }
+
+    @Test
+    void testSaveAndLoad() throws Exception {
+        Path file = directory.resolve("checkpoint.txt");
+        BackfillCheckpoint checkpoint = new BackfillCheckpoint(T0, day(10));
+        checkpoint.markDone(day(1), day(2));
+        checkpoint.markDone(day(6), day(9));
+        checkpoint.save(file);
+
+        BackfillCheckpoint loaded = BackfillCheckpoint.load(file).orElseThrow();
+
+        assertEquals(T0, loaded.from());
+        assertEquals(day(10), loaded.to());
+        assertEquals(checkpoint.remaining(Duration.ofDays(1)), loaded.remaining(Duration.ofDays(1)));
+        assertTrue(BackfillCheckpoint.load(directory.resolve("missing.txt")).isEmpty());
+
+        Files.writeString(file, "done 2024-01-01T00:00:00Z 2024-01-02T00:00:00Z\n");
+        assertThrows(java.io.IOException.class, () -> BackfillCheckpoint.load(file));
+    }
+
+    private static Instant day(int days) {
+        return T0.plus(Duration.ofDays(days));
+    }
+}
@@ -0,0 +1,112 @@
+package si.telekom.potresi.backfill;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import si.telekom.potresi.archive.EventArchive;
+import si.telekom.potresi.config.ArchiveConfig;
+import si.telekom.potresi.config.BackfillConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillJobTest {
+
+    private static final Instant FROM = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-07-01T00:00:00Z");
+    private static final Instant MARCH = Instant.parse("2024-03-01T00:00:00Z");
+    private static final Instant APRIL = Instant.parse("2024-04-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final List<Instant> catalogue = new ArrayList<>();
+    private FdsnStandIn service;
+    private BackfillConfig config;
+    private EventArchive archive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Two events a day, some exactly on chunk boundaries, a burst of 120 in one hour and one at the end of the range
+        for (Instant time = FROM; time.isBefore(TO); time = time.plus(Duration.ofHours(12))) {
+            catalogue.add(time);
+        }
+        for (int i = 0; i < 120; i++) {
+            catalogue.add(Instant.parse("2024-03-10T12:00:00Z").plusSeconds(30L * i + 1));
+        }
+        catalogue.add(TO);
+        service = new FdsnStandIn(catalogue);
+
+        ArchiveConfig archiveConfig = new ArchiveConfig();
+        archiveConfig.setDirectory(directory.resolve("archive").toString());
+        archiveConfig.setPartitionCapacity(1024);
+        archive = new EventArchive(archiveConfig);
+        archive.open();
+
+        config = new BackfillConfig();
+        config.setBaseUrl(service.url());
+        config.setMaxResults(40);
+        config.setMinChunk(Duration.ofMinutes(1));
+        config.setParallelism(3);
+        config.setCheckpointFile(directory.resolve("backfill/checkpoint.txt").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        archive.close();
+    }
+
+    @Test
+    void testBackfillSplitsChunksAtResultLimit() throws Exception {
+        BackfillJob job = new BackfillJob(config, archive);
+
+        assertEquals(BackfillJob.State.COMPLETED, job.backfill(FROM, TO));
+
+        // Every event once, none from the next chunk's or range's inclusive end time
+        assertEquals(catalogue.size() - 1, archive.count(FROM, TO));
+        assertEquals((long) catalogue.size() - 1, job.status().get("eventsStored"));
+        assertTrue((long) job.status().get("chunksSplit") > 6);
+        assertEquals(1.0, job.status().get("progress"));
+        assertEquals(List.of("range " + FROM + " " + TO, "done " + FROM + " " + TO),
+                Files.readAllLines(Path.of(config.getCheckpointFile())));
+    }
+
+    @Test
+    void testResumesOnlyMissingChunks() {
+        service.failing = start -> !start.isBefore(MARCH) && start.isBefore(APRIL);
+        assertEquals(BackfillJob.State.FAILED, new BackfillJob(config, archive).backfill(FROM, TO));
+        long stored = archive.count(FROM, TO);
+        assertTrue(stored > 0 && stored < catalogue.size() - 1);
+
+        service.failing = start -> false;
+        service.requestedStarts.clear();
+        BackfillJob resumed = new BackfillJob(config, archive);
+
+        assertEquals(BackfillJob.State.COMPLETED, resumed.backfill(FROM, TO));
+        assertEquals(catalogue.size() - 1, archive.count(FROM, TO));
+        // Only the 30-day chunks starting on 2024-01-31 and 2024-03-31 had failed halves
+        assertFalse(service.requestedStarts.isEmpty());
+        service.requestedStarts.forEach(start -> assertTrue(!start.isBefore(Instant.parse("2024-01-31T00:00:00Z"))
+                && start.isBefore(Instant.parse("2024-04-30T00:00:00Z")), start::toString));
+    }
+
+    @Test
+    void testOverlappingRunStoresEachEventOnce() {
+        assertEquals(BackfillJob.State.COMPLETED, new BackfillJob(config, archive).backfill(FROM, APRIL));
+        long firstRun = archive.count(FROM, TO);
+
+        BackfillJob overlapping = new BackfillJob(config, archive);
+        assertEquals(BackfillJob.State.COMPLETED, overlapping.backfill(MARCH, TO));
+
+        assertEquals(catalogue.size() - 1, archive.count(FROM, TO));
+        assertEquals(catalogue.size() - 1 - firstRun, overlapping.status().get("eventsStored"));
+    }
+}
@@ -0,0 +1,93 @@
+package si.telekom.potresi.backfill;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Local stand-in for an FDSN event service answering {@code format=text} queries from a fixed catalogue, with
+ * the service's semantics: inclusive start and end time, at most {@code limit} events, 204 when nothing matches.
+ */
+class FdsnStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<Instant> catalogue;
+    final List<Instant> requestedStarts = new CopyOnWriteArrayList<>();
+    /** Queries whose start time matches answer 503. */
+    volatile Predicate<Instant> failing = start -> false;
+
+    FdsnStandIn(List<Instant> catalogue) throws IOException {
+        this.catalogue = catalogue.stream().sorted().toList();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fdsnws/event/1/query", exchange -> {
+            Map<String, String> query = parameters(exchange.getRequestURI().getRawQuery());
+            Instant start = time(query.get("starttime"));
+            Instant end = time(query.get("endtime"));
+            int limit = Integer.parseInt(query.get("limit"));
+            requestedStarts.add(start);
+
+            if (failing.test(start)) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+
+            List<Instant> matches = this.catalogue.stream()
+                    .filter(time -> !time.isBefore(start) && !time.isAfter(end))
+                    .limit(limit)
+                    .toList();
+            if (matches.isEmpty()) {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write("#EventID|Time|Latitude|Longitude|Depth/km|Author|Catalog|Contributor|ContributorID|MagType|Magnitude|MagAuthor|EventLocationName\n"
+                        .getBytes(StandardCharsets.UTF_8));
+                for (Instant time : matches) {
+                    String line = "us" + time.toEpochMilli() + "|" + LocalDateTime.ofInstant(time, ZoneOffset.UTC)
+                            + "|46.0|14.5|10.0|us|us|us|" + time.toEpochMilli() + "|ml|3.0|us|Slovenia\n";
+                    body.write(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/fdsnws/event/1/query";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        for (String pair : query.split("&")) {
+            String[] parts = pair.split("=", 2);
+            parameters.put(parts[0], URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static Instant time(String value) {
+        return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+    }
+}
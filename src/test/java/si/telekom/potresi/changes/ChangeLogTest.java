@@ -0,0 +1,120 @@
+package si.telekom.potresi.changes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.ChangeLogConfig;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.ChangeFeedDTO;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.EventChangeDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogTest {
+
+    private static final Instant NOW = Instant.now();
+
+    private ChangeLogConfig config;
+    private ChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        config = new ChangeLogConfig();
+        changeLog = new ChangeLog(config, new IngestionConfig());
+    }
+
+    @Test
+    void testFirstPollReturnsEverythingWithReset() {
+        changeLog.onIngested(new IngestionBatch(1, List.of(event("a", 4.0), event("b", 3.0)), List.of()));
+
+        ChangeFeedDTO feed = changeLog.changesSince(null, 100);
+
+        assertTrue(feed.isReset());
+        assertFalse(feed.isHasMore());
+        assertEquals(List.of("added:a", "added:b"), describe(feed));
+    }
+
+    @Test
+    void testPollReturnsOnlyChangesAfterCursor() {
+        changeLog.onIngested(new IngestionBatch(1, List.of(event("a", 4.0), event("b", 3.0)), List.of()));
+        String cursor = changeLog.changesSince(null, 100).getCursor();
+
+        changeLog.onIngested(new IngestionBatch(2, List.of(event("c", 2.0)), List.of(event("a", 4.2)), List.of("b")));
+        ChangeFeedDTO feed = changeLog.changesSince(cursor, 100);
+
+        assertFalse(feed.isReset());
+        assertEquals(List.of("added:c", "revised:a", "deleted:b"), describe(feed));
+        assertEquals(4.2, feed.getChanges().get(1).getEvent().getMagnitude());
+        assertNull(feed.getChanges().get(2).getEvent());
+
+        ChangeFeedDTO empty = changeLog.changesSince(feed.getCursor(), 100);
+        assertTrue(empty.getChanges().isEmpty());
+        assertEquals(feed.getCursor(), empty.getCursor());
+    }
+
+    @Test
+    void testLaterChangesOfAnEventReplaceEarlierOnes() {
+        changeLog.onIngested(new IngestionBatch(1, List.of(event("a", 4.0), event("b", 3.0)), List.of()));
+        changeLog.onIngested(new IngestionBatch(2, List.of(), List.of(event("a", 4.1))));
+        changeLog.onIngested(new IngestionBatch(3, List.of(), List.of(event("a", 4.2))));
+
+        assertEquals(2, changeLog.size());
+        assertEquals(List.of("added:b", "revised:a"), describe(changeLog.changesSince(null, 100)));
+    }
+
+    @Test
+    void testPagesThroughChangesWithCursor() {
+        changeLog.onIngested(new IngestionBatch(1,
+                List.of(event("a", 1.0), event("b", 2.0), event("c", 3.0)), List.of()));
+
+        ChangeFeedDTO first = changeLog.changesSince(null, 2);
+        ChangeFeedDTO second = changeLog.changesSince(first.getCursor(), 2);
+
+        assertTrue(first.isHasMore());
+        assertEquals(List.of("added:a", "added:b"), describe(first));
+        assertFalse(second.isHasMore());
+        assertFalse(second.isReset());
+        assertEquals(List.of("added:c"), describe(second));
+    }
+
+    @Test
+    void testCursorOlderThanDroppedDeletionResets() {
+        config.setTombstoneRetention(Duration.ZERO);
+        changeLog.onIngested(new IngestionBatch(1, List.of(event("a", 4.0), event("b", 3.0)), List.of()));
+        String cursor = changeLog.changesSince(null, 100).getCursor();
+
+        changeLog.onIngested(new IngestionBatch(2, List.of(), List.of(), List.of("b")));
+        changeLog.onIngested(new IngestionBatch(3, List.of(event("c", 2.0)), List.of()));
+
+        ChangeFeedDTO feed = changeLog.changesSince(cursor, 100);
+        assertTrue(feed.isReset());
+        assertEquals(List.of("added:a", "added:c"), describe(feed));
+    }
+
+    @Test
+    void testCursorsOfOtherProcessesResetAndMalformedOnesAreRejected() {
+        changeLog.onIngested(new IngestionBatch(1, List.of(event("a", 4.0)), List.of()));
+
+        assertTrue(changeLog.changesSince("abc-1", 100).isReset());
+        assertThrows(IllegalArgumentException.class, () -> changeLog.changesSince("abc", 100));
+        assertThrows(IllegalArgumentException.class, () -> changeLog.changesSince(null, 0));
+    }
+
+    private static List<String> describe(ChangeFeedDTO feed) {
+        return feed.getChanges().stream().map(c -> c.getType() + ":" + c.getId()).toList();
+    }
+
+    private static EarthquakeRecordDTO event(String id, double magnitude) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO("Place " + id, new GeoLocationDTO(46.0, 14.5), 10.0);
+        record.setId(id);
+        record.setTime(NOW.minusSeconds(60));
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
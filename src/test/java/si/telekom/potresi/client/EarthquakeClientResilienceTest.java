@@ -8,9 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.deadline.Deadline;
+import si.telekom.potresi.deadline.DeadlineExceededException;
 import si.telekom.potresi.dto.EarthquakeRecordDTO;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -86,4 +90,40 @@ public class EarthquakeClientResilienceTest {
         verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
     }
 
+    @Test
+    void getWorstEarthquakeInPeriod_DeadlineShorterThanRetryWait_DoesNotRetry() throws Exception {
+        AtomicInteger calls = failOnTestThread(new RuntimeException("Simulated failure"));
+
+        List<EarthquakeRecordDTO> result = Deadline.callWith(Deadline.after(Duration.ofMillis(500)),
+                () -> earthquakeClient.getWorstEarthquakeInPeriod(7));
+
+        assertTrue(result.isEmpty());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void getWorstEarthquakeInPeriod_DeadlineExceeded_NotCountedAsUpstreamFailure() {
+        AtomicInteger calls = failOnTestThread(new DeadlineExceededException("Request deadline passed"));
+        CircuitBreaker cb = circuitBreakerRegistry.circuitBreaker("earthquakeApi");
+
+        List<EarthquakeRecordDTO> result = earthquakeClient.getWorstEarthquakeInPeriod(7);
+
+        assertTrue(result.isEmpty());
+        assertEquals(1, calls.get());
+        assertEquals(0, cb.getMetrics().getNumberOfFailedCalls());
+    }
+
+    /**
+     * Fails every upstream call, counting those made by the test itself; the scheduled cache refresh
+     * may call the mocked RestTemplate concurrently.
+     */
+    private AtomicInteger failOnTestThread(RuntimeException failure) {
+        Thread testThread = Thread.currentThread();
+        AtomicInteger calls = new AtomicInteger();
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenAnswer(invocation -> {
+            if (Thread.currentThread() == testThread) calls.incrementAndGet();
+            throw failure;
+        });
+        return calls;
+    }
 }
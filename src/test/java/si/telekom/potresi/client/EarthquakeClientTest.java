@@ -4,8 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.web.client.RestTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import si.telekom.potresi.config.EarthquakeApiConfig;
+import si.telekom.potresi.config.HedgingConfig;
+import si.telekom.potresi.config.TracingConfig;
 import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.tracing.Tracer;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +22,8 @@ class EarthquakeClientTest {
 
     private RestTemplate restTemplate;
     private EarthquakeClient earthquakeClient;
+    private final Tracer tracer = new Tracer(new TracingConfig());
+    private final HedgedRequests hedging = new HedgedRequests(new HedgingConfig(), new SimpleMeterRegistry());
 
     @BeforeEach
     void setUp() {
@@ -32,7 +39,7 @@ class EarthquakeClientTest {
                 "monthly", "all_month.geojson"
         ));
 
-        earthquakeClient = new EarthquakeClient(restTemplate, config);
+        earthquakeClient = new EarthquakeClient(restTemplate, config, tracer, hedging);
     }
 
     // -----------------------------
@@ -135,6 +142,65 @@ class EarthquakeClientTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testGetWorstEarthquakeInPeriod_PlannerUsesSmallestFeedFirst() {
+        EarthquakeClient plannedClient = new EarthquakeClient(restTemplate, plannedConfig(), tracer, hedging);
+        String json = """
+        {
+          "features": [
+            {
+              "properties": { "mag": 6.1, "place": "Big" },
+              "geometry": { "coordinates": [10, 20, 5] }
+            }
+          ]
+        }""";
+
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(json);
+        List<EarthquakeRecordDTO> result = plannedClient.getWorstEarthquakeInPeriod(7);
+
+        assertEquals("Big", result.getFirst().getNearestPlace());
+        verify(restTemplate).getForObject("https://fake.earthquake.api/4.5_week.geojson", String.class);
+        verifyNoMoreInteractions(restTemplate);
+    }
+
+    @Test
+    void testGetWorstEarthquakeInPeriod_PlannerFallsBackWhenFilteredFeedEmpty() {
+        EarthquakeClient plannedClient = new EarthquakeClient(restTemplate, plannedConfig(), tracer, hedging);
+        String json = """
+        {
+          "features": [
+            {
+              "properties": { "mag": 2.1, "place": "Small" },
+              "geometry": { "coordinates": [10, 20, 5] }
+            }
+          ]
+        }""";
+
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn("{ \"features\": [] }");
+        when(restTemplate.getForObject("https://fake.earthquake.api/all_week.geojson", String.class)).thenReturn(json);
+        List<EarthquakeRecordDTO> result = plannedClient.getWorstEarthquakeInPeriod(7);
+
+        assertEquals("Small", result.getFirst().getNearestPlace());
+        InOrder order = inOrder(restTemplate);
+        order.verify(restTemplate).getForObject("https://fake.earthquake.api/4.5_week.geojson", String.class);
+        order.verify(restTemplate).getForObject("https://fake.earthquake.api/2.5_week.geojson", String.class);
+        order.verify(restTemplate).getForObject("https://fake.earthquake.api/all_week.geojson", String.class);
+    }
+
+    private static EarthquakeApiConfig plannedConfig() {
+        EarthquakeApiConfig config = new EarthquakeApiConfig();
+        config.setBaseUrl("https://fake.earthquake.api/");
+        config.setFeed(Map.of(
+                "daily", "all_day.geojson",
+                "weekly", "all_week.geojson",
+                "weekly-m25", "2.5_week.geojson",
+                "weekly-m45", "4.5_week.geojson",
+                "weekly-significant", "significant_week.geojson",
+                "monthly", "all_month.geojson"
+        ));
+        return config;
+    }
+
     // -----------------------------
     // getMostRecentEarthquake
     // -----------------------------
@@ -214,6 +280,43 @@ class EarthquakeClientTest {
         assertNull(result);
     }
 
+    @Test
+    void testGetMostRecentEarthquake_TakesAnswerInPriorityOrder() {
+        String daily = """
+        { "features": [ { "properties": { "time": 2000, "place": "Daily" }, "geometry": { "coordinates": [1, 2, 3] } } ] }""";
+        String weekly = """
+        { "features": [ { "properties": { "time": 1000, "place": "Weekly" }, "geometry": { "coordinates": [1, 2, 3] } } ] }""";
+
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(weekly);
+        when(restTemplate.getForObject("https://fake.earthquake.api/all_hour.geojson", String.class)).thenReturn("{ \"features\": [] }");
+        when(restTemplate.getForObject("https://fake.earthquake.api/all_day.geojson", String.class)).thenReturn(daily);
+
+        EarthquakeRecordDTO result = earthquakeClient.getMostRecentEarthquake();
+
+        assertEquals("Daily", result.getNearestPlace());
+    }
+
+    @Test
+    void testGetMostRecentEarthquake_FailedFeedAnsweredByNextFeed() {
+        String daily = """
+        { "features": [ { "properties": { "time": 2000, "place": "Daily" }, "geometry": { "coordinates": [1, 2, 3] } } ] }""";
+
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(daily);
+        when(restTemplate.getForObject("https://fake.earthquake.api/all_hour.geojson", String.class))
+                .thenThrow(new RuntimeException("Timeout"));
+
+        EarthquakeRecordDTO result = earthquakeClient.getMostRecentEarthquake();
+
+        assertEquals("Daily", result.getNearestPlace());
+    }
+
+    @Test
+    void testGetMostRecentEarthquake_AllFeedsFail_Throws() {
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenThrow(new RuntimeException("Down"));
+
+        assertThrows(RuntimeException.class, () -> earthquakeClient.getMostRecentEarthquake());
+    }
+
     // -----------------------------
     // Fallbacks
     // -----------------------------
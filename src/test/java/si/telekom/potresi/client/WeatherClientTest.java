@@ -1,11 +1,16 @@
 package si.telekom.potresi.client;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.config.HedgingConfig;
+import si.telekom.potresi.config.TracingConfig;
 import si.telekom.potresi.config.WeatherApiConfig;
 import si.telekom.potresi.dto.WeatherInfoDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.tracing.Tracer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +28,8 @@ class WeatherClientTest {
         config.setBaseUrl("https://fake-weather-api.com");
         config.setKey("test-api-key");
 
-        weatherClient = new WeatherClient(restTemplate, config);
+        weatherClient = new WeatherClient(restTemplate, config, new Tracer(new TracingConfig()),
+                new HedgedRequests(new HedgingConfig(), new SimpleMeterRegistry()));
     }
 
     // -----------------------------
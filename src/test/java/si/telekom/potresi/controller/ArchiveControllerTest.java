@@ -0,0 +1,90 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.archive.ArchiveAggregator;
+import si.telekom.potresi.archive.EventArchive;
+import si.telekom.potresi.dto.ArchiveStatisticsDTO;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ArchiveController.class)
+class ArchiveControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventArchive eventArchive;
+
+    @MockBean
+    private ArchiveAggregator archiveAggregator;
+
+    @Test
+    void testGetStrongest_Returns200() throws Exception {
+        var record = new EarthquakeRecordDTO("ArchivedCity", new GeoLocationDTO(1.0, 2.0), 10.0);
+        record.setMagnitude(7.1);
+        when(eventArchive.isEnabled()).thenReturn(true);
+        when(eventArchive.strongest(Instant.parse("2020-01-01T00:00:00Z"), Instant.parse("2021-01-01T00:00:00Z"), 5))
+                .thenReturn(List.of(record));
+
+        mockMvc.perform(get("/potresi/arhiv/najmocnejsi")
+                        .param("from", "2020-01-01T00:00:00Z")
+                        .param("to", "2021-01-01T00:00:00Z")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nearestPlace").value("ArchivedCity"))
+                .andExpect(jsonPath("$[0].magnitude").value(7.1));
+    }
+
+    @Test
+    void testGetStrongest_InvertedRange_Returns400() throws Exception {
+        when(eventArchive.isEnabled()).thenReturn(true);
+
+        mockMvc.perform(get("/potresi/arhiv/najmocnejsi")
+                        .param("from", "2021-01-01T00:00:00Z")
+                        .param("to", "2020-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetStatistics_Returns200() throws Exception {
+        Instant from = Instant.parse("2020-01-01T00:00:00Z");
+        Instant to = Instant.parse("2021-01-01T00:00:00Z");
+        when(eventArchive.isEnabled()).thenReturn(true);
+        when(archiveAggregator.aggregate(from, to, 3))
+                .thenReturn(new ArchiveStatisticsDTO(from, to, 42, 40, 6.2, List.of(), Map.of("6.0", 1L)));
+
+        mockMvc.perform(get("/potresi/arhiv/statistika")
+                        .param("from", "2020-01-01T00:00:00Z")
+                        .param("to", "2021-01-01T00:00:00Z")
+                        .param("top", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(42))
+                .andExpect(jsonPath("$.maxMagnitude").value(6.2))
+                .andExpect(jsonPath("$.magnitudeHistogram['6.0']").value(1));
+    }
+
+    @Test
+    void testGetCount_ArchiveDisabled_Returns503() throws Exception {
+        when(eventArchive.isEnabled()).thenReturn(false);
+
+        mockMvc.perform(get("/potresi/arhiv/stevilo")
+                        .param("from", "2020-01-01T00:00:00Z")
+                        .param("to", "2021-01-01T00:00:00Z"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("The event archive is disabled."));
+    }
+}
@@ -0,0 +1,53 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.changes.ChangeLog;
+import si.telekom.potresi.dto.ChangeFeedDTO;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.EventChangeDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChangeController.class)
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeLog changeLog;
+
+    @Test
+    void testGetChanges_Returns200() throws Exception {
+        var event = new EarthquakeRecordDTO("10 km N of Ljubljana", new GeoLocationDTO(46.1, 14.5), 8.0);
+        event.setMagnitude(3.1);
+        var feed = new ChangeFeedDTO("m1a2b3-42", false, false, List.of(
+                new EventChangeDTO("revised", "ev1", event), new EventChangeDTO("deleted", "ev2", null)));
+        when(changeLog.changesSince("m1a2b3-40", 1000)).thenReturn(feed);
+
+        mockMvc.perform(get("/potresi/spremembe").param("since", "m1a2b3-40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor").value("m1a2b3-42"))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.changes[0].event.magnitude").value(3.1))
+                .andExpect(jsonPath("$.changes[1].type").value("deleted"));
+    }
+
+    @Test
+    void testGetChanges_InvalidCursorReturns400() throws Exception {
+        when(changeLog.changesSince("bogus", 1000)).thenThrow(new IllegalArgumentException("Invalid cursor: bogus"));
+
+        mockMvc.perform(get("/potresi/spremembe").param("since", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor: bogus"));
+    }
+}
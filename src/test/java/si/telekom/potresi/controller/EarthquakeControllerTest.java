@@ -1,5 +1,8 @@
 package si.telekom.potresi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -8,10 +11,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import si.telekom.potresi.dto.EarthquakeRecordDTO;
 import si.telekom.potresi.dto.GeoLocationDTO;
 import si.telekom.potresi.dto.WeatherInfoDTO;
+import si.telekom.potresi.encoding.EventProtobuf;
 import si.telekom.potresi.service.EarthquakeService;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -162,4 +167,56 @@ class EarthquakeControllerTest {
                 .andExpect(status().isServiceUnavailable())
                 .andExpect(jsonPath("$.error").value("Could not fetch the most recent earthquake data."));
     }
+
+    // ---------------------
+    // Binary formats
+    // ---------------------
+
+    // Monthly — CBOR
+    @Test
+    void testGetWorstMonthlyEarthquake_Cbor_SameFieldsAsJson() throws Exception {
+        var record = new EarthquakeRecordDTO("MonthlyCity", new GeoLocationDTO(5.0, 6.0), 7.5);
+        when(earthquakeService.getWorstEarthquakeLastMonth()).thenReturn(List.of(record));
+
+        byte[] body = mockMvc.perform(get("/potresi/rekordi/mesecni").header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode events = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(1, events.size());
+        assertEquals("MonthlyCity", events.get(0).get("nearestPlace").asText());
+        assertEquals(7.5, events.get(0).get("depth").asDouble());
+    }
+
+    // Weekly — protobuf
+    @Test
+    void testGetWorstWeeklyEarthquake_Protobuf() throws Exception {
+        var r1 = new EarthquakeRecordDTO("A", new GeoLocationDTO(1.1, 2.2), 3.1);
+        var r2 = new EarthquakeRecordDTO("B", new GeoLocationDTO(3.3, 4.4), 3.2);
+        when(earthquakeService.getWorstEarthquakeLastWeek()).thenReturn(List.of(r1, r2));
+
+        byte[] body = mockMvc.perform(get("/potresi/rekordi/tedenski").header("Accept", "application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<EarthquakeRecordDTO> events = EventProtobuf.decode(body);
+        assertEquals(List.of("A", "B"), events.stream().map(EarthquakeRecordDTO::getNearestPlace).toList());
+        assertEquals(4.4, events.get(1).getLocation().getLongitude());
+    }
+
+    // Most recent — Smile, JSON stays the default
+    @Test
+    void testGetMostRecentEarthquakeWithWeather_SmileOnRequestOnly() throws Exception {
+        var quake = new EarthquakeRecordDTO("LatestPlace", new GeoLocationDTO(11.1, 22.2), 3.3);
+        when(earthquakeService.getLastEarthquakeWithWeather()).thenReturn(quake);
+
+        mockMvc.perform(get("/potresi/zadnji").header("Accept", "application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"));
+        mockMvc.perform(get("/potresi/zadnji"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"));
+    }
 }
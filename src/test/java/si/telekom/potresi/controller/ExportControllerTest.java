@@ -0,0 +1,89 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import si.telekom.potresi.export.EventExport;
+import si.telekom.potresi.export.ExportFormat;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportController.class)
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventExport eventExport;
+
+    @Test
+    void testExport_StreamsCsvGzippedOnRequest() throws Exception {
+        when(eventExport.isEnabled()).thenReturn(true);
+        when(eventExport.tryAcquire()).thenReturn(true);
+        when(eventExport.write(any(), any(), eq(ExportFormat.CSV), eq(true), any())).thenAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write("id\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/potresi/arhiv/izvoz")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-02-01T00:00:00Z")
+                        .param("format", "CSV")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().string("id\r\n"));
+        verify(eventExport).write(eq(Instant.parse("2024-01-01T00:00:00Z")), eq(Instant.parse("2024-02-01T00:00:00Z")),
+                eq(ExportFormat.CSV), eq(true), any());
+    }
+
+    @Test
+    void testExport_InvalidFormat_Returns400() throws Exception {
+        when(eventExport.isEnabled()).thenReturn(true);
+
+        MvcResult result = mockMvc.perform(get("/potresi/arhiv/izvoz")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-02-01T00:00:00Z")
+                        .param("format", "xml"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid range or format, use ndjson or csv."));
+        verify(eventExport, never()).tryAcquire();
+    }
+
+    @Test
+    void testExport_TooManyExports_Returns429() throws Exception {
+        when(eventExport.isEnabled()).thenReturn(true);
+        when(eventExport.tryAcquire()).thenReturn(false);
+
+        MvcResult result = mockMvc.perform(get("/potresi/arhiv/izvoz")
+                        .param("from", "2024-01-01T00:00:00Z")
+                        .param("to", "2024-02-01T00:00:00Z"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("Too many exports are running, please retry later."))
+                .andExpect(header().string("Retry-After", "10"));
+    }
+}
@@ -0,0 +1,55 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.heatmap.HeatmapTile;
+import si.telekom.potresi.heatmap.HeatmapTiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HeatmapController.class)
+class HeatmapControllerTest {
+
+    private static final HeatmapTile TILE = new HeatmapTile(7,
+            "{\"version\":7,\"size\":32,\"cells\":[[3,4,2,5.1]]}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HeatmapTiles heatmapTiles;
+
+    @Test
+    void testGetTile_Returns200WithEtag() throws Exception {
+        when(heatmapTiles.tile(3, 4, 2)).thenReturn(TILE);
+
+        mockMvc.perform(get("/potresi/heatmap/3/4/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(jsonPath("$.cells[0][2]").value(2));
+    }
+
+    @Test
+    void testGetTile_MatchingEtagReturns304() throws Exception {
+        when(heatmapTiles.tile(3, 4, 2)).thenReturn(TILE);
+
+        mockMvc.perform(get("/potresi/heatmap/3/4/2").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetTile_OutOfRangeReturns400() throws Exception {
+        when(heatmapTiles.tile(1, 5, 0)).thenThrow(new IllegalArgumentException("Tile 1/5/0 is outside the heatmap pyramid."));
+
+        mockMvc.perform(get("/potresi/heatmap/1/5/0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
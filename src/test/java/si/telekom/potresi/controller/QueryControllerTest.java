@@ -0,0 +1,58 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.QueryResultDTO;
+import si.telekom.potresi.query.QueryResultCache;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(QueryController.class)
+class QueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private QueryResultCache queryResultCache;
+
+    @Test
+    void testSearch_Returns200WithPlan() throws Exception {
+        var record = new EarthquakeRecordDTO("10 km N of Ljubljana", new GeoLocationDTO(46.1, 14.5), 8.0);
+        when(queryResultCache.search(argThat(q -> q.minMagnitude() == 4.0 && "ljubljana".equals(q.place()))))
+                .thenReturn(new QueryResultDTO("MAGNITUDE_INDEX", Map.of("FULL_SCAN", 1000, "MAGNITUDE_INDEX", 12),
+                        12, 35, 7, List.of(record)));
+
+        mockMvc.perform(get("/potresi/iskanje")
+                        .param("minMagnitude", "4.0")
+                        .param("place", "Ljubljana"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plan").value("MAGNITUDE_INDEX"))
+                .andExpect(jsonPath("$.rowsScanned").value(12))
+                .andExpect(jsonPath("$.estimatedRows.FULL_SCAN").value(1000))
+                .andExpect(jsonPath("$.events[0].nearestPlace").value("10 km N of Ljubljana"));
+    }
+
+    @Test
+    void testSearch_InvalidFilterReturns400() throws Exception {
+        mockMvc.perform(get("/potresi/iskanje")
+                        .param("latitude", "46.0")
+                        .param("radiusKm", "50"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verifyNoInteractions(queryResultCache);
+    }
+}
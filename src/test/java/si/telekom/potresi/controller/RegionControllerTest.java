@@ -0,0 +1,50 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.RegionStatisticsDTO;
+import si.telekom.potresi.place.RegionStatistics;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RegionController.class)
+class RegionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RegionStatistics regionStatistics;
+
+    @Test
+    void testGetRegions_Returns200() throws Exception {
+        var strongest = new EarthquakeRecordDTO("9 km NE of Bovec, Slovenia", new GeoLocationDTO(46.4, 13.6), 8.0);
+        strongest.setMagnitude(3.9);
+        when(regionStatistics.regions(5)).thenReturn(List.of(new RegionStatisticsDTO("Slovenia", 12, strongest, strongest)));
+
+        mockMvc.perform(get("/potresi/regije").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("Slovenia"))
+                .andExpect(jsonPath("$[0].eventCount").value(12))
+                .andExpect(jsonPath("$[0].strongest.nearestPlace").value("9 km NE of Bovec, Slovenia"))
+                .andExpect(jsonPath("$[0].strongest.placeCode").doesNotExist());
+    }
+
+    @Test
+    void testGetRegions_InvalidLimitReturns400() throws Exception {
+        when(regionStatistics.regions(0)).thenThrow(new IllegalArgumentException("limit must be between 1 and 1000."));
+
+        mockMvc.perform(get("/potresi/regije").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("limit must be between 1 and 1000."));
+    }
+}
@@ -0,0 +1,51 @@
+package si.telekom.potresi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.EarthquakeSequenceDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.sequence.AftershockSequences;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SequenceController.class)
+class SequenceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AftershockSequences aftershockSequences;
+
+    @Test
+    void testGetActiveSequences_Returns200() throws Exception {
+        var mainshock = new EarthquakeRecordDTO("Noto, Japan", new GeoLocationDTO(37.5, 137.2), 10.0);
+        mainshock.setMagnitude(7.5);
+        var sequence = new EarthquakeSequenceDTO(4, mainshock, 120, Instant.parse("2024-01-01T07:10:00Z"),
+                Instant.parse("2024-01-09T12:00:00Z"), Instant.parse("2026-10-01T00:00:00Z"), 80.0);
+        when(aftershockSequences.active(6.0, 2, 50)).thenReturn(List.of(sequence));
+
+        mockMvc.perform(get("/potresi/sekvence").param("minMagnitude", "6.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].mainshock.magnitude").value(7.5))
+                .andExpect(jsonPath("$[0].eventCount").value(120));
+    }
+
+    @Test
+    void testGetActiveSequences_InvalidLimitReturns400() throws Exception {
+        when(aftershockSequences.active(null, 2, 0)).thenThrow(new IllegalArgumentException("limit must be between 1 and 1000."));
+
+        mockMvc.perform(get("/potresi/sekvence").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("limit must be between 1 and 1000."));
+    }
+}
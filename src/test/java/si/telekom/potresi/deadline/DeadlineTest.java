@@ -0,0 +1,90 @@
+package si.telekom.potresi.deadline;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.config.DeadlineConfig;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    @Test
+    void testLimitAndScope() throws Exception {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(1));
+        assertEquals(Duration.ofMillis(200), deadline.limit(Duration.ofMillis(200)));
+        assertTrue(deadline.limit(Duration.ofSeconds(5)).compareTo(Duration.ofSeconds(1)) <= 0);
+
+        assertNull(Deadline.current());
+        assertSame(deadline, Deadline.callWith(deadline, Deadline::current));
+        assertNull(Deadline.current());
+        assertTrue(Deadline.callWith(Deadline.after(Duration.ZERO), Deadline::isExhausted));
+        assertFalse(Deadline.isExhausted());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testRequestFactoryShortensTimeoutsToRemainingBudget() throws Exception {
+        DeadlineRequestFactory factory = new DeadlineRequestFactory(Duration.ofSeconds(3), Duration.ofSeconds(3));
+
+        RequestConfig unbounded = factory.createRequestConfig(null);
+        assertEquals(3000, unbounded.getResponseTimeout().toMilliseconds());
+
+        RequestConfig bounded = Deadline.callWith(Deadline.after(Duration.ofMillis(500)), () -> factory.createRequestConfig(null));
+        assertTrue(bounded.getResponseTimeout().toMilliseconds() <= 500);
+        assertTrue(bounded.getConnectTimeout().toMilliseconds() <= 500);
+        assertTrue(bounded.getConnectionRequestTimeout().toMilliseconds() <= 500);
+
+        RequestConfig exhausted = Deadline.callWith(Deadline.after(Duration.ZERO), () -> factory.createRequestConfig(null));
+        assertEquals(1, exhausted.getResponseTimeout().toMilliseconds());
+    }
+
+    @Test
+    void testInterceptorRefusesCallsAfterDeadline() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new DeadlineInterceptor());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        assertThrows(DeadlineExceededException.class, () -> Deadline.callWith(Deadline.after(Duration.ZERO),
+                () -> restTemplate.getForObject("http://upstream.test/feed", String.class)));
+        server.verify();
+    }
+
+    @Test
+    void testRetryPredicateStopsWhenNextAttemptWouldMissDeadline() throws Exception {
+        DeadlineRetryPredicate predicate = new DeadlineRetryPredicate(Duration.ofSeconds(1));
+        RuntimeException failure = new RuntimeException("upstream failed");
+
+        assertTrue(predicate.test(failure));
+        assertTrue(Deadline.callWith(Deadline.after(Duration.ofSeconds(5)), () -> predicate.test(failure)));
+        assertFalse(Deadline.callWith(Deadline.after(Duration.ofMillis(500)), () -> predicate.test(failure)));
+        assertFalse(predicate.test(new DeadlineExceededException("late")));
+    }
+
+    @Test
+    void testFilterBudgetFromEndpointAndHeader() {
+        DeadlineConfig config = new DeadlineConfig();
+        config.setEndpoints(Map.of("/potresi/zadnji", Duration.ofSeconds(2)));
+        DeadlineFilter filter = new DeadlineFilter(config);
+
+        assertEquals(Duration.ofSeconds(2), filter.budgetFor(new MockHttpServletRequest("GET", "/potresi/zadnji")));
+        assertEquals(Duration.ofSeconds(3), filter.budgetFor(new MockHttpServletRequest("GET", "/potresi/rekordi/tedenski")));
+
+        MockHttpServletRequest withHeader = new MockHttpServletRequest("GET", "/potresi/zadnji");
+        withHeader.addHeader("X-Request-Timeout", "750");
+        assertEquals(Duration.ofMillis(750), filter.budgetFor(withHeader));
+
+        MockHttpServletRequest tooLong = new MockHttpServletRequest("GET", "/potresi/zadnji");
+        tooLong.addHeader("X-Request-Timeout", "600000");
+        assertEquals(Duration.ofSeconds(10), filter.budgetFor(tooLong));
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/potresi/zadnji");
+        invalid.addHeader("X-Request-Timeout", "soon");
+        assertEquals(Duration.ofSeconds(2), filter.budgetFor(invalid));
+    }
+}
@@ -0,0 +1,160 @@
+package si.telekom.potresi.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.NearbyCityDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode time of a monthly result set as JSON, CBOR, Smile and protobuf.
+ * <p>
+ * About 10,000 synthetic events shaped like a month of USGS data, every tenth with nearby cities as ingested events
+ * carry them. JSON, CBOR and Smile use a mapper configured like the application's; sizes, plain and gzipped, are
+ * printed during setup. Run through {@link #main(String[])} on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventEncodingBenchmark {
+
+    @Param({"10000"})
+    private int events;
+
+    private List<EarthquakeRecordDTO> records;
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+    private byte[] smileBytes;
+    private byte[] protobufBytes;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        records = monthlyEvents(events, new Random(7));
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = json.copyWith(new CBORFactory());
+        smile = json.copyWith(new SmileFactory());
+
+        jsonBytes = json.writeValueAsBytes(records);
+        cborBytes = cbor.writeValueAsBytes(records);
+        smileBytes = smile.writeValueAsBytes(records);
+        protobufBytes = EventProtobuf.encode(records);
+
+        System.out.printf(Locale.ROOT, "%nJSON %d bytes (%d gzipped), CBOR %d (%d), Smile %d (%d), protobuf %d (%d)%n",
+                jsonBytes.length, gzip(jsonBytes).length, cborBytes.length, gzip(cborBytes).length,
+                smileBytes.length, gzip(smileBytes).length, protobufBytes.length, gzip(protobufBytes).length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return json.writeValueAsBytes(records);
+    }
+
+    @Benchmark
+    public byte[] cborEncode() throws IOException {
+        return cbor.writeValueAsBytes(records);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() throws IOException {
+        return smile.writeValueAsBytes(records);
+    }
+
+    @Benchmark
+    public byte[] protobufEncode() {
+        return EventProtobuf.encode(records);
+    }
+
+    @Benchmark
+    public EarthquakeRecordDTO[] jsonDecode() throws IOException {
+        return json.readValue(jsonBytes, EarthquakeRecordDTO[].class);
+    }
+
+    @Benchmark
+    public EarthquakeRecordDTO[] cborDecode() throws IOException {
+        return cbor.readValue(cborBytes, EarthquakeRecordDTO[].class);
+    }
+
+    @Benchmark
+    public EarthquakeRecordDTO[] smileDecode() throws IOException {
+        return smile.readValue(smileBytes, EarthquakeRecordDTO[].class);
+    }
+
+    @Benchmark
+    public List<EarthquakeRecordDTO> protobufDecode() throws IOException {
+        return EventProtobuf.decode(protobufBytes);
+    }
+
+    private static List<EarthquakeRecordDTO> monthlyEvents(int events, Random random) {
+        String[] networks = {"ak", "ci", "nc", "us", "nn", "hv", "uw", "pr", "tx", "nm", "ok", "mb"};
+        String[] regions = {"CA", "Alaska", "Nevada", "Hawaii", "Puerto Rico", "Texas", "Japan", "Indonesia", "Chile"};
+        String[] directions = {"N", "NNE", "NE", "ENE", "E", "ESE", "SE", "SSE", "S", "SSW", "SW", "WSW", "W", "WNW", "NW", "NNW"};
+        String[] syllables = {"an", "ber", "ca", "del", "go", "ha", "is", "ka", "lo", "mar", "no", "pa", "ri", "san", "to"};
+
+        String[] towns = new String[1500];
+        for (int i = 0; i < towns.length; i++) {
+            StringBuilder town = new StringBuilder();
+            for (int s = 0, n = 2 + random.nextInt(3); s < n; s++) town.append(syllables[random.nextInt(syllables.length)]);
+            town.setCharAt(0, Character.toUpperCase(town.charAt(0)));
+            towns[i] = town.toString();
+        }
+
+        Instant validAt = Instant.parse("2024-02-01T00:00:00Z");
+        long span = 30L * 24 * 3600 * 1000;
+        List<EarthquakeRecordDTO> records = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            int town = (int) Math.min(towns.length - 1, Math.abs(random.nextGaussian()) * 200);
+            String network = networks[Math.min(networks.length - 1, (int) Math.abs(random.nextGaussian() * 4))];
+            String place = (1 + random.nextInt(80)) + " km " + directions[random.nextInt(16)] + " of " + towns[town]
+                    + ", " + regions[town % regions.length];
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO(place,
+                    new GeoLocationDTO(Math.round((random.nextDouble() * 140 - 60) * 10_000) / 10_000.0,
+                            Math.round((random.nextDouble() * 360 - 180) * 10_000) / 10_000.0),
+                    Math.round(random.nextExponential() * 15 * 100) / 100.0, validAt);
+            record.setId(network + Long.toString(40_000_000L + random.nextInt(9_000_000), 36));
+            record.setTime(Instant.ofEpochMilli(validAt.toEpochMilli() - (long) (random.nextDouble() * span)));
+            record.setMagnitude(Math.round(random.nextDouble() * 500) / 100.0);
+            record.setSources(List.of(network.equals("us") ? "usgs" : network));
+            if (i % 10 == 0) {
+                record.setNearbyCities(List.of(
+                        new NearbyCityDTO(towns[town], "US", 10_000 + random.nextInt(90_000), random.nextInt(300), directions[random.nextInt(16)]),
+                        new NearbyCityDTO(towns[(town + 1) % towns.length], "US", 10_000 + random.nextInt(90_000), random.nextInt(300), directions[random.nextInt(16)])));
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventEncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package si.telekom.potresi.encoding;
+
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.NearbyCityDTO;
+import si.telekom.potresi.dto.PopulationExposureDTO;
+import si.telekom.potresi.dto.WeatherInfoDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventProtobufTest {
+
+    @Test
+    void testEventsRoundTripWithRounding() throws Exception {
+        var full = new EarthquakeRecordDTO("12 km NE of Bovec, Slovenia", new GeoLocationDTO(46.3381234, -13.5525678), 9.87654,
+                new WeatherInfoDTO("light rain", 11.5, 87.0), Instant.parse("2024-05-01T10:15:30.123Z"));
+        full.setId("us7000abcd");
+        full.setTime(Instant.parse("2024-05-01T10:00:00.456Z"));
+        full.setMagnitude(4.456);
+        full.setSources(List.of("usgs", "arso"));
+        full.setNearbyCities(List.of(new NearbyCityDTO("Bovec", "SI", 12000, 11.8, "NE")));
+        full.setExposure(List.of(new PopulationExposureDTO(5, 42.5, 180_000), new PopulationExposureDTO(6, 12.0, 9000)));
+        var bare = new EarthquakeRecordDTO(null, new GeoLocationDTO(-10, 170), 0);
+
+        List<EarthquakeRecordDTO> decoded = EventProtobuf.decode(EventProtobuf.encode(List.of(full, bare)));
+
+        assertEquals(2, decoded.size());
+        EarthquakeRecordDTO event = decoded.get(0);
+        assertEquals("us7000abcd", event.getId());
+        assertEquals(full.getTime(), event.getTime());
+        assertEquals(4.46, event.getMagnitude());
+        assertEquals("12 km NE of Bovec, Slovenia", event.getNearestPlace());
+        assertEquals(46.33812, event.getLocation().getLatitude());
+        assertEquals(-13.55257, event.getLocation().getLongitude());
+        assertEquals(9.877, event.getDepth());
+        assertEquals(full.getValidAt(), event.getValidAt());
+        assertEquals("light rain", event.getWeather().getDescription());
+        assertEquals(87.0, event.getWeather().getHumidity());
+        assertTrue(event.getWeather().isWeatherAvailable());
+        assertEquals(List.of("usgs", "arso"), event.getSources());
+        assertEquals("Bovec", event.getNearbyCities().get(0).getName());
+        assertEquals(12000, event.getNearbyCities().get(0).getPopulation());
+        assertEquals(List.of(5, 6), event.getExposure().stream().map(PopulationExposureDTO::getIntensity).toList());
+        assertEquals(9000, event.getExposure().get(1).getPopulation());
+
+        EarthquakeRecordDTO empty = decoded.get(1);
+        assertNull(empty.getId());
+        assertNull(empty.getMagnitude());
+        assertNull(empty.getNearestPlace());
+        assertNull(empty.getWeather());
+        assertNull(empty.getSources());
+        assertEquals(170.0, empty.getLocation().getLongitude());
+    }
+
+    @Test
+    void testEmptyListAndUnknownFields() throws Exception {
+        assertEquals(0, EventProtobuf.encode(List.of()).length);
+        assertTrue(EventProtobuf.decode(new byte[0]).isEmpty());
+
+        // Field 15 (varint 1) ahead of an event with only an id: readers of an older schema skip it
+        byte[] message = {(byte) 0x78, 1, 0x0A, 4, 0x0A, 2, 'i', 'd'};
+        List<EarthquakeRecordDTO> decoded = EventProtobuf.decode(message);
+        assertEquals(1, decoded.size());
+        assertEquals("id", decoded.get(0).getId());
+    }
+}
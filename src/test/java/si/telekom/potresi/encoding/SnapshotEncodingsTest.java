@@ -0,0 +1,77 @@
+package si.telekom.potresi.encoding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotEncodingsTest {
+
+    @Test
+    void testSnapshotIsEncodedOncePerFormat() {
+        SnapshotEncodings encodings = new SnapshotEncodings(4);
+        AtomicInteger calls = new AtomicInteger();
+        Function<Object, byte[]> encoder = body -> {
+            calls.incrementAndGet();
+            return body.toString().getBytes();
+        };
+        List<String> snapshot = new ArrayList<>(List.of("a"));
+
+        byte[] first = encodings.encode(snapshot, "cbor", encoder);
+        assertSame(first, encodings.encode(snapshot, "cbor", encoder));
+        encodings.encode(snapshot, "smile", encoder);
+        assertEquals(2, calls.get());
+
+        // An equal but distinct list is another snapshot
+        encodings.encode(new ArrayList<>(List.of("a")), "cbor", encoder);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedSnapshotIsEvicted() {
+        SnapshotEncodings encodings = new SnapshotEncodings(2);
+        AtomicInteger calls = new AtomicInteger();
+        Function<Object, byte[]> encoder = body -> new byte[calls.incrementAndGet()];
+        Object first = new Object();
+        Object second = new Object();
+
+        encodings.encode(first, "cbor", encoder);
+        encodings.encode(second, "cbor", encoder);
+        encodings.encode(first, "cbor", encoder);
+        encodings.encode(new Object(), "cbor", encoder);
+        assertEquals(2, encodings.size());
+
+        encodings.encode(first, "cbor", encoder);
+        assertEquals(3, calls.get());
+        encodings.encode(second, "cbor", encoder);
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testConverterEncodesOtherBodiesOncePerResponse() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MediaType cbor = MediaType.parseMediaType("application/cbor");
+        SnapshotHttpMessageConverter converter = new SnapshotHttpMessageConverter(cbor, type -> true,
+                body -> {
+                    calls.incrementAndGet();
+                    return body.toString().getBytes();
+                }, new SnapshotEncodings(4));
+
+        MockHttpOutputMessage error = new MockHttpOutputMessage();
+        converter.write(Map.of("error", "x"), cbor, error);
+        assertEquals(1, calls.get());
+        assertEquals(-1, error.getHeaders().getContentLength());
+
+        MockHttpOutputMessage snapshot = new MockHttpOutputMessage();
+        converter.write(List.of("a"), cbor, snapshot);
+        assertEquals(2, calls.get());
+        assertEquals(3, snapshot.getHeaders().getContentLength());
+    }
+}
@@ -0,0 +1,112 @@
+package si.telekom.potresi.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import si.telekom.potresi.archive.EventArchive;
+import si.telekom.potresi.config.ArchiveConfig;
+import si.telekom.potresi.config.ExportConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventExportTest {
+
+    @TempDir
+    Path directory;
+
+    private EventArchive archive;
+    private EventExport export;
+
+    @BeforeEach
+    void setUp() {
+        ArchiveConfig archiveConfig = new ArchiveConfig();
+        archiveConfig.setDirectory(directory.toString());
+        archiveConfig.setPartitionCapacity(1024);
+        archive = new EventArchive(archiveConfig);
+        archive.open();
+
+        ExportConfig config = new ExportConfig();
+        config.setMaxConcurrent(1);
+        config.setChunkRows(2);
+        export = new EventExport(archive, config, new ObjectMapper());
+
+        archive.store(event("b", "2024-01-20T00:00:00Z", null, "Quoted \"Place\", Region"));
+        archive.store(event("a", "2024-01-10T00:00:00Z", 4.5, "10 km N of Town, Region"));
+        archive.store(event("c", "2024-02-01T00:00:00Z", 3.0, "Ridge"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.close();
+    }
+
+    @Test
+    void testNdjson_OneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(export.tryAcquire());
+
+        long rows = export.write(Instant.MIN, Instant.MAX, ExportFormat.NDJSON, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, rows);
+        assertEquals(3, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("a", first.get("id").asText());
+        assertEquals("2024-01-10T00:00:00Z", first.get("time").asText());
+        assertEquals(4.5, first.get("magnitude").asDouble());
+        assertEquals("10 km N of Town, Region", first.get("place").asText());
+        assertFalse(new ObjectMapper().readTree(lines[1]).has("magnitude"));
+        assertEquals("c", new ObjectMapper().readTree(lines[2]).get("id").asText());
+    }
+
+    @Test
+    void testCsv_GzippedWithQuotedPlaces() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(export.tryAcquire());
+
+        export.write(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z"), ExportFormat.CSV, true, out);
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("id,time,magnitude,place,latitude,longitude,depth\r\n"
+                + "a,2024-01-10T00:00:00Z,4.5,\"10 km N of Town, Region\",46.0,14.5,10.0\r\n"
+                + "b,2024-01-20T00:00:00Z,,\"Quoted \"\"Place\"\", Region\",46.0,14.5,10.0\r\n", csv);
+    }
+
+    @Test
+    void testPermitIsReturnedWhenTheClientGoesAway() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        assertTrue(export.tryAcquire());
+        assertFalse(export.tryAcquire());
+
+        assertThrows(IOException.class, () -> export.write(Instant.MIN, Instant.MAX, ExportFormat.CSV, false, broken));
+        assertTrue(export.tryAcquire());
+    }
+
+    private static EarthquakeRecordDTO event(String id, String time, Double magnitude, String place) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO(place, new GeoLocationDTO(46.0, 14.5), 10.0);
+        record.setId(id);
+        record.setTime(Instant.parse(time));
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
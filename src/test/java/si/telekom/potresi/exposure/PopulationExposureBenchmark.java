@@ -0,0 +1,98 @@
+package si.telekom.potresi.exposure;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import si.telekom.potresi.config.ExposureConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.PopulationExposureDTO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposure estimate of one event (intensities 5, 6 and 7) on a global 30 arc second raster, 43200x21600 cells.
+ * <p>
+ * Pass {@code -Dpotresi.raster=/path/to/population.bil} to use a real raster in the default layout; otherwise a
+ * synthetic one (3.7 GB) is written to the temporary directory once and reused. Epicenters are random, between
+ * 60 degrees south and 70 degrees north. Run through {@link #main(String[])} on the test classpath after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PopulationExposureBenchmark {
+
+    @Param({"5.0", "6.0", "7.0"})
+    private double magnitude;
+
+    private PopulationExposure exposure;
+    private EarthquakeRecordDTO[] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        ExposureConfig config = new ExposureConfig();
+        String raster = System.getProperty("potresi.raster");
+        config.setFile(raster != null ? raster : syntheticRaster(config).toString());
+        exposure = new PopulationExposure(config);
+        exposure.open();
+
+        Random random = new Random(5);
+        events = new EarthquakeRecordDTO[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new EarthquakeRecordDTO("Somewhere", new GeoLocationDTO(random.nextDouble() * 130 - 60,
+                    random.nextDouble() * 360 - 180), 10.0);
+            events[i].setMagnitude(magnitude);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        exposure.close();
+    }
+
+    @Benchmark
+    public List<PopulationExposureDTO> estimate() {
+        return exposure.estimate(events[next++ & 1023]);
+    }
+
+    private static Path syntheticRaster(ExposureConfig config) throws IOException {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "potresi-population-benchmark.bil");
+        long size = (long) config.getColumns() * config.getRows() * Float.BYTES;
+        if (Files.exists(file) && Files.size(file) == size) return file;
+
+        Random random = new Random(1);
+        ByteBuffer row = ByteBuffer.allocate(config.getColumns() * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int r = 0; r < config.getRows(); r++) {
+                row.clear();
+                for (int c = 0; c < config.getColumns(); c++) {
+                    // No-data over "oceans", sparse population elsewhere
+                    row.putFloat((c / 2000 + r / 1000) % 3 == 0 ? -3.4e38f : random.nextFloat() * 50);
+                }
+                row.flip();
+                while (row.hasRemaining()) channel.write(row);
+            }
+        }
+        return file;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PopulationExposureBenchmark.class.getSimpleName()).build()).run();
+    }
+}
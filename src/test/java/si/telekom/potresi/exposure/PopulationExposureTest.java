@@ -0,0 +1,79 @@
+package si.telekom.potresi.exposure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import si.telekom.potresi.config.ExposureConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.PopulationExposureDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopulationExposureTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testStrongerIntensitiesReachFewerPeople() throws Exception {
+        PopulationExposure exposure = exposure(grid());
+        try {
+            List<PopulationExposureDTO> result = exposure.estimate(event(6.0, 10.0));
+
+            assertEquals(List.of(5, 6, 7), result.stream().map(PopulationExposureDTO::getIntensity).toList());
+            assertTrue(result.get(0).getRadiusKm() > result.get(1).getRadiusKm());
+            assertTrue(result.get(1).getRadiusKm() > result.get(2).getRadiusKm());
+            assertTrue(result.get(0).getPopulation() > result.get(1).getPopulation());
+            assertTrue(result.get(2).getPopulation() > 0);
+        } finally {
+            exposure.close();
+        }
+    }
+
+    @Test
+    void testSmallDeepOrUnratedEventsAreNotEstimated() throws Exception {
+        PopulationExposure exposure = exposure(grid());
+        try {
+            assertTrue(exposure.estimate(event(4.0, 10.0)).isEmpty());
+            assertTrue(exposure.estimate(event(null, 10.0)).isEmpty());
+            // Intensity 7 is not reached even right above an M4.6 at 10 km
+            assertEquals(List.of(5, 6), exposure.estimate(event(4.6, 10.0)).stream().map(PopulationExposureDTO::getIntensity).toList());
+            assertEquals(0, exposure.radiusKm(4.6, 10.0, 7));
+            assertEquals(500, exposure.radiusKm(9.0, 10.0, 5));
+        } finally {
+            exposure.close();
+        }
+        assertTrue(exposure(directory.resolve("missing.bil")).estimate(event(7.0, 10.0)).isEmpty());
+    }
+
+    private PopulationExposure exposure(Path file) {
+        ExposureConfig config = new ExposureConfig();
+        config.setFile(file.toString());
+        config.setColumns(600);
+        config.setRows(300);
+        config.setWest(12.0);
+        config.setNorth(47.5);
+        config.setCellDegrees(0.01);
+        PopulationExposure exposure = new PopulationExposure(config);
+        exposure.open();
+        return exposure;
+    }
+
+    private Path grid() throws Exception {
+        ByteBuffer bytes = ByteBuffer.allocate(600 * 300 * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (bytes.hasRemaining()) bytes.putFloat(10f);
+        return Files.write(directory.resolve("population.bil"), bytes.array());
+    }
+
+    private static EarthquakeRecordDTO event(Double magnitude, double depth) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO("Ljubljana, Slovenia", new GeoLocationDTO(46.05, 14.5), depth);
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
@@ -0,0 +1,69 @@
+package si.telekom.potresi.exposure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopulationGridTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDiscSumMatchesCoveredArea() throws IOException {
+        // 0.01 degree cells over Slovenia, one person per cell
+        Path file = write("slovenia.bil", 600, 300, (row, column) -> 1f);
+        try (PopulationGrid grid = PopulationGrid.open(file, 600, 300, 12.0, 47.5, 0.01)) {
+            double radiusKm = 50;
+            double cellKm2 = Math.pow(0.01 * Math.PI / 180 * 6371.0088, 2) * Math.cos(Math.toRadians(46.0));
+            double expected = Math.PI * radiusKm * radiusKm / cellKm2;
+
+            assertEquals(expected, grid.sum(46.0, 14.5, radiusKm), expected * 0.01);
+            assertEquals(0, grid.sum(46.0, 14.5, 0));
+            // Clipped at the raster's edge
+            assertEquals(expected / 2, grid.sum(46.0, 12.0, radiusKm), expected * 0.02);
+        }
+    }
+
+    @Test
+    void testDiscWrapsAroundTheAntimeridianAndSkipsNoData() throws IOException {
+        // Global one degree grid: people in the two equator cells next to the antimeridian and along the northernmost
+        // row, no-data elsewhere
+        Path file = write("global.bil", 360, 180, (row, column) ->
+                row == 89 && (column == 0 || column == 359) ? 1000f : row == 0 ? 1f : -3.4e38f);
+        try (PopulationGrid grid = PopulationGrid.open(file, 360, 180, -180, 90, 1)) {
+            assertEquals(2000, grid.sum(0.5, 179.5, 120));
+            assertEquals(2000, grid.sum(0.5, -179.5, 120));
+            assertEquals(0, grid.sum(0.5, 0.5, 120));
+            // The northernmost row lies completely within a disc around the pole
+            assertEquals(360, grid.sum(90, 0, 100));
+        }
+    }
+
+    @Test
+    void testRasterOfWrongSizeIsRejected() throws IOException {
+        Path file = write("short.bil", 10, 10, (row, column) -> 1f);
+        assertThrows(IOException.class, () -> PopulationGrid.open(file, 20, 10, 0, 10, 1));
+    }
+
+    private Path write(String name, int columns, int rows, Cell cell) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(columns * rows * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                bytes.putFloat(cell.value(row, column));
+            }
+        }
+        return Files.write(directory.resolve(name), bytes.array());
+    }
+
+    private interface Cell {
+        float value(int row, int column);
+    }
+}
@@ -0,0 +1,98 @@
+package si.telekom.potresi.gazetteer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest three cities of an epicenter: k-d tree lookup vs. a haversine scan over all cities.
+ * <p>
+ * The cities are synthetic but clustered like a GeoNames dump (dense around a few hundred centres on land), the
+ * epicenters mostly fall near them. Run through {@link #main(String[])} on the test classpath after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CityTreeBenchmark {
+
+    @Param({"10000", "200000"})
+    private int cities;
+
+    private List<City> list;
+    private CityTree tree;
+    private double[][] epicenters;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void build() {
+        Random random = new Random(3);
+        double[][] centres = new double[400][];
+        for (int i = 0; i < centres.length; i++) {
+            centres[i] = new double[]{random.nextDouble() * 120 - 55, random.nextDouble() * 360 - 180};
+        }
+        list = new ArrayList<>(cities);
+        for (int i = 0; i < cities; i++) {
+            double[] centre = centres[random.nextInt(centres.length)];
+            list.add(new City("c" + i, "XX", Math.max(-90, Math.min(90, centre[0] + random.nextGaussian() * 3)),
+                    centre[1] + random.nextGaussian() * 3, 10_000));
+        }
+        tree = new CityTree(list);
+
+        epicenters = new double[1024][];
+        for (int i = 0; i < epicenters.length; i++) {
+            double[] centre = centres[random.nextInt(centres.length)];
+            epicenters[i] = random.nextDouble() < 0.8
+                    ? new double[]{centre[0] + random.nextGaussian() * 5, centre[1] + random.nextGaussian() * 5}
+                    : new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+        }
+    }
+
+    @Benchmark
+    public int treeNearest() {
+        double[] epicenter = epicenters[next++ & 1023];
+        return tree.nearest(epicenter[0], epicenter[1], 300, new int[3], new double[3]);
+    }
+
+    @Benchmark
+    public int scanNearest() {
+        double[] epicenter = epicenters[next++ & 1023];
+        int[] nearest = {-1, -1, -1};
+        double[] distances = {300, 300, 300};
+        for (int i = 0; i < list.size(); i++) {
+            City city = list.get(i);
+            double distance = haversine(epicenter[0], epicenter[1], city.latitude(), city.longitude());
+            for (int k = 0; k < 3; k++) {
+                if (distance < distances[k]) {
+                    System.arraycopy(distances, k, distances, k + 1, 2 - k);
+                    System.arraycopy(nearest, k, nearest, k + 1, 2 - k);
+                    distances[k] = distance;
+                    nearest[k] = i;
+                    break;
+                }
+            }
+        }
+        return nearest[0];
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * CityTree.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CityTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package si.telekom.potresi.gazetteer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityTreeTest {
+
+    @Test
+    void testNearestMatchesLinearScan() {
+        Random random = new Random(7);
+        List<City> cities = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            cities.add(new City("c" + i, "XX", Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)),
+                    random.nextDouble() * 360 - 180, 10_000));
+        }
+        CityTree tree = new CityTree(cities);
+
+        int[] nodes = new int[5];
+        double[] distances = new double[5];
+        for (int query = 0; query < 200; query++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            int found = tree.nearest(latitude, longitude, 20_000, nodes, distances);
+
+            double[] scan = cities.stream().mapToDouble(c -> haversine(latitude, longitude, c.latitude(), c.longitude())).toArray();
+            List<City> expected = IntStream.range(0, scan.length).boxed()
+                    .sorted(Comparator.comparingDouble(i -> scan[i])).limit(5).map(cities::get).toList();
+            assertEquals(5, found);
+            for (int i = 0; i < found; i++) {
+                assertEquals(expected.get(i), tree.city(nodes[i]));
+                assertEquals(haversine(latitude, longitude, expected.get(i).latitude(), expected.get(i).longitude()),
+                        distances[i], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void testNearestWrapsAroundTheAntimeridianAndRespectsMaxDistance() {
+        CityTree tree = new CityTree(List.of(
+                new City("Suva", "FJ", -18.14, 178.44, 77_000),
+                new City("Apia", "WS", -13.83, -171.77, 40_000),
+                new City("Auckland", "NZ", -36.85, 174.76, 417_000)));
+
+        int[] nodes = new int[3];
+        double[] distances = new double[3];
+        assertEquals(2, tree.nearest(-16.0, -179.5, 1_500, nodes, distances));
+        assertEquals("Suva", tree.city(nodes[0]).name());
+        assertEquals("Apia", tree.city(nodes[1]).name());
+        assertTrue(distances[0] < 350);
+
+        assertEquals(0, new CityTree(List.of()).nearest(46.0, 14.5, 300, nodes, distances));
+        assertEquals(0, tree.nearest(-16.0, -179.5, 1_500, new int[0], new double[0]));
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * CityTree.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,59 @@
+package si.telekom.potresi.gazetteer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import si.telekom.potresi.config.GazetteerConfig;
+import si.telekom.potresi.dto.NearbyCityDTO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testNearestCitiesFromGeoNamesFile() throws Exception {
+        Path file = directory.resolve("cities1000.txt");
+        Files.write(file, List.of(
+                line(3196359, "Ljubljana", 46.05108, 14.50513, "SI", 284355),
+                line(3195506, "Maribor", 46.55472, 15.64667, "SI", 95171),
+                line(3202781, "Celje", 46.23092, 15.26044, "SI", 37520),
+                line(3197378, "Kranj", 46.23887, 14.35561, "SI", 37463),
+                line(3239318, "Grosuplje", 45.95550, 14.65889, "SI", 6807),
+                "not a city line"));
+
+        GazetteerConfig config = new GazetteerConfig();
+        config.setFile(file.toString());
+        config.setNearest(2);
+        Gazetteer gazetteer = new Gazetteer(config);
+        gazetteer.load();
+
+        assertEquals(4, gazetteer.size());
+        List<NearbyCityDTO> nearby = gazetteer.nearest(46.10, 14.65);
+        assertEquals(List.of("Ljubljana", "Kranj"), nearby.stream().map(NearbyCityDTO::getName).toList());
+        assertEquals("ENE", nearby.getFirst().getDirection());
+        assertEquals(12.3, nearby.getFirst().getDistanceKm(), 0.5);
+        assertEquals("SI", nearby.getFirst().getCountry());
+    }
+
+    @Test
+    void testMissingFileFindsNoCities() {
+        GazetteerConfig config = new GazetteerConfig();
+        config.setFile(directory.resolve("missing.txt").toString());
+        Gazetteer gazetteer = new Gazetteer(config);
+        gazetteer.load();
+
+        assertEquals(0, gazetteer.size());
+        assertTrue(gazetteer.nearest(46.0, 14.5).isEmpty());
+    }
+
+    private static String line(int id, String name, double latitude, double longitude, String country, long population) {
+        return String.join("\t", String.valueOf(id), name, name, "", String.valueOf(latitude), String.valueOf(longitude),
+                "P", "PPL", country, "", "", "", "", "", String.valueOf(population), "", "300", "Europe/Ljubljana", "2024-01-01");
+    }
+}
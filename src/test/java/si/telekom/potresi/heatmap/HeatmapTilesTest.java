@@ -0,0 +1,137 @@
+package si.telekom.potresi.heatmap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.HeatmapConfig;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeatmapTilesTest {
+
+    private HeatmapTiles tiles;
+
+    @BeforeEach
+    void setUp() {
+        HeatmapConfig config = new HeatmapConfig();
+        config.setMaxZoom(4);
+        config.setBinBits(3);
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ingestionConfig.setWindowDays(30);
+        tiles = new HeatmapTiles(config, ingestionConfig);
+    }
+
+    @Test
+    void testEveryZoomLevelAddsUpToAllEvents() throws Exception {
+        Random random = new Random(1);
+        List<EarthquakeRecordDTO> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            events.add(event("e" + i, random.nextDouble() * 170 - 85, random.nextDouble() * 360 - 180,
+                    random.nextInt(10) == 0 ? null : random.nextInt(80) / 10.0, 1));
+        }
+        tiles.onIngested(new IngestionBatch(1, events, List.of()));
+
+        double strongest = events.stream().filter(e -> e.getMagnitude() != null).mapToDouble(EarthquakeRecordDTO::getMagnitude).max().orElseThrow();
+        for (int z = 0; z <= 4; z++) {
+            long total = 0;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int x = 0; x < (1 << z); x++) {
+                for (int y = 0; y < (1 << z); y++) {
+                    for (int[] cell : cells(tiles.tile(z, x, y))) {
+                        total += cell[2];
+                    }
+                    max = Math.max(max, maxOf(tiles.tile(z, x, y)));
+                }
+            }
+            assertEquals(500, total, "zoom " + z);
+            assertEquals(strongest, max, 1e-6, "zoom " + z);
+        }
+    }
+
+    @Test
+    void testTilePlacement() throws Exception {
+        // Ljubljana: zoom 1 tile (1, 0); zoom 0 has a single tile
+        tiles.onIngested(new IngestionBatch(1, List.of(event("lj", 46.05, 14.5, 4.2, 1)), List.of()));
+
+        assertEquals(1, cells(tiles.tile(1, 1, 0)).size());
+        assertTrue(cells(tiles.tile(1, 0, 0)).isEmpty());
+        int[] cell = cells(tiles.tile(0, 0, 0)).getFirst();
+        assertEquals(4, cell[0]); // column of 14.5°E among 8 cells
+        assertEquals(2, cell[1]); // row of 46°N in Web Mercator
+        assertEquals(1, tiles.tile(0, 0, 0).version());
+    }
+
+    @Test
+    void testRevisionMovesEventAndRecomputesMaximum() throws Exception {
+        tiles.onIngested(new IngestionBatch(1, List.of(
+                event("a", 46.05, 14.5, 6.0, 1),
+                event("b", 46.06, 14.51, 3.0, 1)), List.of()));
+        assertEquals(6.0, maxOf(tiles.tile(4, 8, 5)), 1e-6);
+
+        // Strongest event is revised to a different place; the cell maximum must drop back to 3.0
+        tiles.onIngested(new IngestionBatch(2, List.of(), List.of(event("a", -33.9, 151.2, 6.1, 1))));
+
+        assertEquals(3.0, maxOf(tiles.tile(4, 8, 5)), 1e-6);
+        assertEquals(1, cells(tiles.tile(4, 8, 5)).getFirst()[2]);
+        assertEquals(2, tiles.tile(4, 8, 5).version());
+        assertEquals(6.1, maxOf(tiles.tile(0, 0, 0)), 1e-6);
+        int total = 0;
+        for (int[] cell : cells(tiles.tile(0, 0, 0))) total += cell[2];
+        assertEquals(2, total);
+    }
+
+    @Test
+    void testEventsLeavingTheWindowAreRemoved() throws Exception {
+        tiles.onIngested(new IngestionBatch(1, List.of(event("old", 10, 10, 5.0, 40), event("new", 10, 10, 2.0, 1)), List.of()));
+
+        assertEquals(1, cells(tiles.tile(0, 0, 0)).getFirst()[2]);
+        assertEquals(2.0, maxOf(tiles.tile(0, 0, 0)), 1e-6);
+    }
+
+    @Test
+    void testUnknownTileIsEmptyAndOutOfRangeRejected() throws Exception {
+        assertEquals(0, tiles.tile(3, 1, 1).version());
+        assertTrue(cells(tiles.tile(3, 1, 1)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> tiles.tile(5, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> tiles.tile(2, 4, 0));
+    }
+
+    private static EarthquakeRecordDTO event(String id, double lat, double lon, Double magnitude, int daysAgo) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO(id, new GeoLocationDTO(lat, lon), 10);
+        record.setId(id);
+        record.setTime(Instant.now().minus(daysAgo, ChronoUnit.DAYS));
+        record.setMagnitude(magnitude);
+        return record;
+    }
+
+    private static List<int[]> cells(HeatmapTile tile) throws Exception {
+        JSONArray cells = new JSONObject(new String(tile.body(), StandardCharsets.UTF_8)).getJSONArray("cells");
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < cells.length(); i++) {
+            JSONArray cell = cells.getJSONArray(i);
+            result.add(new int[]{cell.getInt(0), cell.getInt(1), cell.getInt(2)});
+        }
+        return result;
+    }
+
+    private static double maxOf(HeatmapTile tile) throws Exception {
+        JSONArray cells = new JSONObject(new String(tile.body(), StandardCharsets.UTF_8)).getJSONArray("cells");
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < cells.length(); i++) {
+            if (!cells.getJSONArray(i).isNull(3)) max = Math.max(max, cells.getJSONArray(i).getDouble(3));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,212 @@
+package si.telekom.potresi.hedge;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.HedgingConfig;
+import si.telekom.potresi.deadline.Deadline;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRequestsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgedRequests hedging;
+
+    @BeforeEach
+    void setUp() {
+        HedgingConfig config = new HedgingConfig();
+        config.setMinSamples(5);
+        config.setBudgetRatio(1.0);
+        meterRegistry = new SimpleMeterRegistry();
+        hedging = new HedgedRequests(config, meterRegistry);
+    }
+
+    @Test
+    void testCallsRunOnCallerThreadUntilLatencyIsKnown() {
+        Thread caller = Thread.currentThread();
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(caller, hedging.call("daily", Thread::currentThread));
+        }
+
+        assertTrue(hedging.getHedgeDelayNanos("daily") >= 0);
+        assertNotSame(caller, hedging.call("daily", Thread::currentThread));
+        assertEquals(-1, hedging.getHedgeDelayNanos("weekly"));
+    }
+
+    @Test
+    void testSlowCallIsHedgedAndFirstAnswerWins() throws Exception {
+        warmUp("daily");
+        CountDownLatch stalled = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicReference<Deadline> hedgeDeadline = new AtomicReference<>();
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+
+        String answer = Deadline.callWith(deadline, () -> hedging.call("daily", () -> {
+            if (sent.incrementAndGet() == 1) {
+                await(stalled);
+                return "primary";
+            }
+            hedgeDeadline.set(Deadline.current());
+            return "hedge";
+        }));
+        stalled.countDown();
+
+        assertEquals("hedge", answer);
+        assertSame(deadline, hedgeDeadline.get());
+        assertEquals(1.0, meterRegistry.get("earthquake.hedge.sent").tag("upstream", "daily").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("earthquake.hedge.wins").tag("upstream", "daily").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("earthquake.hedge.win.rate").tag("upstream", "daily").gauge().value());
+    }
+
+    @Test
+    void testLosingCallIsInterrupted() throws Exception {
+        warmUp("daily");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+
+        String answer = hedging.call("daily", () -> {
+            if (sent.incrementAndGet() == 1) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", answer);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(hedging.getHedgeDelayNanos("daily") >= 0);
+    }
+
+    @Test
+    void testInterruptedCallerCancelsRunningCall() throws Exception {
+        hedging = new HedgedRequests(noHedges(), meterRegistry);
+        warmUp("weekly");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Thread caller = Thread.ofVirtual().start(() -> assertThrows(IllegalStateException.class,
+                () -> hedging.call("weekly", () -> {
+                    started.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "late";
+                })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        caller.join();
+    }
+
+    @Test
+    void testFailedHedgeFallsBackToOriginalCall() {
+        warmUp("weather");
+        AtomicInteger sent = new AtomicInteger();
+
+        String answer = hedging.call("weather", () -> {
+            if (sent.incrementAndGet() == 1) {
+                sleep(100);
+                return "primary";
+            }
+            throw new IllegalStateException("hedge failed");
+        });
+
+        assertEquals("primary", answer);
+        assertEquals(2, sent.get());
+        assertEquals(0.0, meterRegistry.get("earthquake.hedge.wins").tag("upstream", "weather").functionCounter().count());
+    }
+
+    @Test
+    void testBothCallsFailingThrowsOriginalFailure() {
+        warmUp("weekly");
+        AtomicInteger sent = new AtomicInteger();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> hedging.call("weekly", () -> {
+            if (sent.incrementAndGet() == 1) {
+                sleep(100);
+                throw new IllegalStateException("primary failed");
+            }
+            throw new IllegalStateException("hedge failed");
+        }));
+
+        assertEquals("primary failed", failure.getMessage());
+    }
+
+    @Test
+    void testBudgetCapsHedgesAtRatioOfCalls() {
+        HedgeBudget budget = new HedgeBudget(0.1);
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+            if (budget.tryAcquire()) hedges++;
+        }
+        assertTrue(hedges >= 90 && hedges <= 100, "hedges: " + hedges);
+
+        HedgeBudget capped = new HedgeBudget(5.0);
+        assertFalse(capped.tryAcquire());
+        capped.deposit();
+        assertTrue(capped.tryAcquire());
+        assertFalse(capped.tryAcquire());
+    }
+
+    @Test
+    void testPercentileOfRecentLatencies() {
+        LatencyWindow window = new LatencyWindow(100, 10);
+        for (int i = 1; i <= 9; i++) window.record(i);
+        assertEquals(-1, window.percentileNanos(0.95));
+
+        for (int i = 10; i <= 100; i++) window.record(i);
+        assertEquals(95, window.percentileNanos(0.95));
+
+        // Older samples fall out of the window
+        for (int i = 0; i < 100; i++) window.record(1000 + i);
+        assertEquals(1094, window.percentileNanos(0.95));
+    }
+
+    private static HedgingConfig noHedges() {
+        HedgingConfig config = new HedgingConfig();
+        config.setMinSamples(5);
+        config.setBudgetRatio(0.0);
+        return config;
+    }
+
+    /**
+     * Fast calls until the upstream's latency percentile is known.
+     */
+    private void warmUp(String upstream) {
+        for (int i = 0; i < 5; i++) {
+            hedging.call(upstream, () -> "ok");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
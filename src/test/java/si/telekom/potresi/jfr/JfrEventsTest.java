@@ -0,0 +1,126 @@
+package si.telekom.potresi.jfr;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.client.EarthquakeClient;
+import si.telekom.potresi.config.EarthquakeApiConfig;
+import si.telekom.potresi.config.HedgingConfig;
+import si.telekom.potresi.config.TracingConfig;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.tracing.Tracer;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class JfrEventsTest {
+
+    private static final String FEED = """
+            { "features": [ { "id": "a", "properties": { "mag": 4.0, "place": "X", "time": 1 }, "geometry": { "coordinates": [1, 2, 3] } } ] }""";
+
+    @TempDir
+    Path directory;
+
+    private Recording recording;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        recording.enable(UpstreamCallEvent.class);
+        recording.enable(FeedParseEvent.class);
+        recording.enable(CacheRefreshEvent.class);
+        recording.enable(FallbackEvent.class);
+        recording.start();
+
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new UpstreamCallInterceptor());
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void testUpstreamCall_RecordsFeedBytesStatusAndAttempt() throws Exception {
+        server.expect(requestTo("https://fake.api/feed/all_hour.geojson"))
+                .andRespond(withSuccess(FEED, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://weather.api/data?lat=1&appid=secret"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        restTemplate.getForObject("https://fake.api/feed/all_hour.geojson", String.class);
+        assertThrows(HttpServerErrorException.class, () -> UpstreamAttempt.callWith(3,
+                () -> restTemplate.getForObject("https://weather.api/data?lat=1&appid=secret", String.class)));
+
+        List<RecordedEvent> calls = events("si.telekom.potresi.UpstreamCall");
+        assertEquals(2, calls.size());
+
+        RecordedEvent feed = calls.getFirst();
+        assertEquals("all_hour.geojson", feed.getString("feed"));
+        assertEquals(FEED.length(), feed.getLong("bytes"));
+        assertEquals(200, feed.getInt("status"));
+        assertEquals(1, feed.getInt("attempt"));
+
+        RecordedEvent weather = calls.get(1);
+        assertEquals("weather.api", weather.getString("feed"));
+        assertEquals(503, weather.getInt("status"));
+        assertEquals(3, weather.getInt("attempt"));
+    }
+
+    @Test
+    void testFeedParseAndFallback() throws Exception {
+        EarthquakeApiConfig config = new EarthquakeApiConfig();
+        config.setBaseUrl("https://fake.api/feed/");
+        config.setFeed(Map.of("weekly", "all_week.geojson"));
+        EarthquakeClient client = new EarthquakeClient(restTemplate, config, new Tracer(new TracingConfig()),
+                new HedgedRequests(new HedgingConfig(), new SimpleMeterRegistry()));
+        server.expect(requestTo("https://fake.api/feed/all_week.geojson"))
+                .andRespond(withSuccess(FEED, MediaType.APPLICATION_JSON));
+
+        client.getWorstEarthquakeInPeriod(7);
+        client.fallbackWorst(7, new IllegalStateException("boom"));
+
+        RecordedEvent parse = events("si.telekom.potresi.FeedParse").getFirst();
+        assertEquals("weekly", parse.getString("feed"));
+        assertEquals(1, parse.getInt("featureCount"));
+
+        RecordedEvent fallback = events("si.telekom.potresi.Fallback").getFirst();
+        assertEquals("EarthquakeClient.getWorstEarthquakeInPeriod", fallback.getString("operation"));
+        assertTrue(fallback.getString("cause").contains("boom"));
+    }
+
+    @Test
+    void testFeedOf_NeverRecordsQuery() {
+        assertEquals("4.5_week.geojson", UpstreamCallInterceptor.feedOf(URI.create("https://x/feed/4.5_week.geojson")));
+        assertEquals("api.openweathermap.org",
+                UpstreamCallInterceptor.feedOf(URI.create("https://api.openweathermap.org/data/2.5/weather?appid=key")));
+    }
+
+    private List<RecordedEvent> events(String name) throws Exception {
+        Path file = directory.resolve("test.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package si.telekom.potresi.jfr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import si.telekom.potresi.config.JfrConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        JfrConfig config = new JfrConfig();
+        config.setDirectory(directory.toString());
+        endpoint = new JfrRecordingEndpoint(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void testStartDumpStop() {
+        assertEquals("NONE", endpoint.status().get("state"));
+
+        assertEquals(200, endpoint.control("start").getStatus());
+        assertEquals("RUNNING", endpoint.status().get("state"));
+        assertEquals(409, endpoint.control("start").getStatus());
+
+        FallbackEvent.emit("test", null);
+        WebEndpointResponse<Map<String, Object>> dump = endpoint.control("dump");
+        assertEquals(200, dump.getStatus());
+        assertTrue(Files.exists(Path.of((String) dump.getBody().get("file"))));
+        assertEquals("RUNNING", endpoint.status().get("state"));
+
+        WebEndpointResponse<Map<String, Object>> stop = endpoint.control("stop");
+        assertEquals(200, stop.getStatus());
+        assertTrue((Long) stop.getBody().get("bytes") > 0);
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+
+    @Test
+    void testInvalidActions() {
+        assertEquals(409, endpoint.control("stop").getStatus());
+        assertEquals(409, endpoint.control("dump").getStatus());
+        assertEquals(400, endpoint.control("restart").getStatus());
+    }
+}
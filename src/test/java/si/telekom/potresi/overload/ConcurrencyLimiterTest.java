@@ -0,0 +1,73 @@
+package si.telekom.potresi.overload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.OverloadConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        OverloadConfig config = new OverloadConfig();
+        config.setInitialLimit(8);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new ConcurrencyLimiter(config, meterRegistry);
+    }
+
+    @Test
+    void testRequestsDegradeStepByStep() {
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 17; i++) permits.add(limiter.acquire());
+
+        // limit 8: up to 6 normal, 7-8 without weather, 9-16 from cache, then rejected
+        assertEquals(DegradationLevel.NORMAL, permits.get(5).level());
+        assertEquals(DegradationLevel.NO_WEATHER, permits.get(6).level());
+        assertEquals(DegradationLevel.NO_WEATHER, permits.get(7).level());
+        assertEquals(DegradationLevel.CACHE_ONLY, permits.get(8).level());
+        assertEquals(DegradationLevel.CACHE_ONLY, permits.get(15).level());
+        assertEquals(DegradationLevel.REJECT, permits.get(16).level());
+        assertEquals(16, limiter.getInflight());
+        assertEquals(DegradationLevel.REJECT, limiter.getLevel());
+        assertEquals(3.0, meterRegistry.get("earthquake.overload.level").gauge().value());
+        assertEquals(1.0, meterRegistry.get("earthquake.overload.requests").tag("level", "reject").counter().count());
+
+        permits.forEach(p -> p.release(false));
+        permits.getFirst().release(false); // releasing twice has no effect
+        assertEquals(0, limiter.getInflight());
+        assertEquals(DegradationLevel.NORMAL, limiter.getLevel());
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        for (int i = 0; i < 200; i++) limiter.onSample(20 * MILLIS, (int) limiter.getLimit(), false);
+        double grown = limiter.getLimit();
+        assertTrue(grown > 8, "limit should grow, was " + grown);
+
+        for (int i = 0; i < 50; i++) limiter.onSample(200 * MILLIS, (int) limiter.getLimit(), false);
+        assertTrue(limiter.getLimit() < grown / 2, "limit should shrink, was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void testLimitDoesNotGrowWhenUnderused() {
+        for (int i = 0; i < 200; i++) limiter.onSample(20 * MILLIS, 1, false);
+        assertEquals(8.0, limiter.getLimit());
+    }
+
+    @Test
+    void testFailuresBackOffToMinimum() {
+        for (int i = 0; i < 100; i++) limiter.onSample(20 * MILLIS, 8, true);
+        assertEquals(4.0, limiter.getLimit());
+    }
+}
@@ -0,0 +1,97 @@
+package si.telekom.potresi.overload;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.service.EarthquakeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"earthquake.overload.initial-limit=4", "earthquake.overload.min-limit=2"})
+@AutoConfigureMockMvc
+class OverloadWebTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcurrencyLimiter limiter;
+
+    @MockBean
+    private EarthquakeService earthquakeService;
+
+    private final List<ConcurrencyLimiter.Permit> held = new ArrayList<>();
+
+    /**
+     * Released permits feed the limiter as if they were requests, so the limit may move between tests.
+     */
+    @AfterEach
+    void releaseHeldPermits() {
+        held.forEach(p -> p.release(false));
+    }
+
+    @Test
+    void testRequestBeyondLimitIsServedFromCache() throws Exception {
+        AtomicReference<DegradationLevel> seen = new AtomicReference<>();
+        when(earthquakeService.getWorstEarthquakeLastWeek()).thenAnswer(invocation -> {
+            seen.set(DegradationLevel.current());
+            return List.of(new EarthquakeRecordDTO("Cached", new GeoLocationDTO(1, 2), 3));
+        });
+
+        mockMvc.perform(get("/potresi/rekordi/tedenski")).andExpect(status().isOk());
+        assertEquals(DegradationLevel.NORMAL, seen.get());
+
+        hold((int) limiter.getLimit());
+        mockMvc.perform(get("/potresi/rekordi/tedenski")).andExpect(status().isOk());
+        assertEquals(DegradationLevel.CACHE_ONLY, seen.get());
+    }
+
+    @Test
+    void testRequestBeyondCacheHeadroomIsRejectedAndReportedInHealth() throws Exception {
+        // Everything up to twice the limit is served (from cache beyond the limit); the next request is not
+        int capacity = (int) (limiter.getLimit() * 2);
+        hold(capacity);
+
+        mockMvc.perform(get("/potresi/zadnji"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").exists());
+
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(jsonPath("$.components.overload.status").value("UP"))
+                .andExpect(jsonPath("$.components.overload.details.level").value("REJECT"))
+                .andExpect(jsonPath("$.components.overload.details.inflight").value(capacity));
+    }
+
+    @Test
+    void testNoDataAnswerIsNotCountedAsFailure() throws Exception {
+        when(earthquakeService.getWorstEarthquakeLastWeek()).thenReturn(List.of());
+        double limit = limiter.getLimit();
+
+        mockMvc.perform(get("/potresi/rekordi/tedenski")).andExpect(status().isServiceUnavailable());
+        assertEquals(limit, limiter.getLimit());
+
+        when(earthquakeService.getWorstEarthquakeLastWeek()).thenThrow(new IllegalStateException("boom"));
+        assertThrows(Exception.class, () -> mockMvc.perform(get("/potresi/rekordi/tedenski")));
+        assertTrue(limiter.getLimit() < limit);
+    }
+
+    private void hold(int permits) {
+        for (int i = 0; i < permits; i++) held.add(limiter.acquire());
+    }
+}
@@ -0,0 +1,43 @@
+package si.telekom.potresi.place;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceNamesTest {
+
+    @Test
+    void testPlacesDecodeToTheOriginalString() {
+        for (String place : new String[]{"10 km NE of Ljubljana, Slovenia", "0 km N of Kobarid, Slovenia",
+                "123 km WSW of Adak, Alaska", "Central Mid-Atlantic Ridge", "Ljubljana, Slovenia",
+                "01 km N of Bovec, Slovenia", "5 km XY of Bovec, Slovenia", "7 km NE of ", ""}) {
+            assertEquals(place, PlaceNames.decode(PlaceNames.encode(place)), place);
+        }
+        assertEquals(PlaceNames.NONE, PlaceNames.encode(null));
+        assertNull(PlaceNames.decode(PlaceNames.NONE));
+    }
+
+    @Test
+    void testLocalitiesAndRegionsAreInterned() {
+        long near = PlaceNames.encode("3 km S of Kranj, Slovenia");
+        long far = PlaceNames.encode("40 km NNW of Kranj, Slovenia");
+        long other = PlaceNames.encode("2 km E of Celje, Slovenia");
+
+        assertNotEquals(near, far);
+        assertEquals((int) near, (int) far);
+        assertEquals(near, PlaceNames.encode(new String("3 km S of Kranj, Slovenia")));
+        assertEquals(PlaceNames.region(near), PlaceNames.region(other));
+        assertEquals("Slovenia", PlaceNames.regionName(PlaceNames.region(other)));
+        assertEquals(-1, PlaceNames.region(PlaceNames.NONE));
+    }
+
+    @Test
+    void testPlaceWithoutCommaIsItsOwnRegion() {
+        long ridge = PlaceNames.encode("Southern East Pacific Rise");
+        long offset = PlaceNames.encode("200 km W of Southern East Pacific Rise");
+
+        assertEquals("Southern East Pacific Rise", PlaceNames.regionName(PlaceNames.region(ridge)));
+        assertEquals(PlaceNames.region(ridge), PlaceNames.region(offset));
+        assertEquals("Alaska", PlaceNames.regionName(PlaceNames.region(PlaceNames.encode("Rat Islands, Aleutian Islands, Alaska"))));
+    }
+}
@@ -0,0 +1,87 @@
+package si.telekom.potresi.place;
+
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.RegionStatisticsDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionStatisticsTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Test
+    void testEventsAreGroupedByRegion() {
+        RegionStatistics statistics = statistics();
+        statistics.onIngested(new IngestionBatch(1, List.of(
+                event("a", "5 km N of Bovec, Slovenia", 2.1, hoursAgo(30)),
+                event("b", "12 km SE of Kranj, Slovenia", 3.4, hoursAgo(20)),
+                event("c", "Kranj, Slovenia", null, hoursAgo(2)),
+                event("d", "8 km W of Zagreb, Croatia", 1.5, hoursAgo(5))), List.of()));
+
+        List<RegionStatisticsDTO> regions = statistics.regions(10);
+        assertEquals(List.of("Slovenia", "Croatia"), regions.stream().map(RegionStatisticsDTO::getRegion).toList());
+        assertEquals(3, regions.getFirst().getEventCount());
+        assertEquals("b", regions.getFirst().getStrongest().getId());
+        assertEquals("c", regions.getFirst().getLatest().getId());
+        assertEquals(1, statistics.regions(1).size());
+    }
+
+    @Test
+    void testRevisedAndDeletedEventsUpdateTheirRegions() {
+        RegionStatistics statistics = statistics();
+        statistics.onIngested(new IngestionBatch(1, List.of(
+                event("a", "5 km N of Bovec, Slovenia", 4.0, hoursAgo(30)),
+                event("b", "12 km SE of Kranj, Slovenia", 3.0, hoursAgo(20)),
+                event("c", "8 km W of Zagreb, Croatia", 1.5, hoursAgo(5))), List.of()));
+
+        statistics.onIngested(new IngestionBatch(2, List.of(),
+                List.of(event("a", "3 km E of Rijeka, Croatia", 4.0, hoursAgo(30))), List.of("c")));
+
+        List<RegionStatisticsDTO> regions = statistics.regions(10);
+        assertEquals(2, regions.size());
+        RegionStatisticsDTO slovenia = regions.stream().filter(r -> r.getRegion().equals("Slovenia")).findFirst().orElseThrow();
+        RegionStatisticsDTO croatia = regions.stream().filter(r -> r.getRegion().equals("Croatia")).findFirst().orElseThrow();
+        assertEquals(1, slovenia.getEventCount());
+        assertEquals("b", slovenia.getStrongest().getId());
+        assertEquals(1, croatia.getEventCount());
+        assertEquals("a", croatia.getLatest().getId());
+    }
+
+    @Test
+    void testEventsOutsideTheWindowAreEvicted() {
+        RegionStatistics statistics = statistics();
+        statistics.onIngested(new IngestionBatch(1, List.of(
+                event("old", "5 km N of Bovec, Slovenia", 4.0, hoursAgo(24 * 40)),
+                event("new", "8 km W of Zagreb, Croatia", 1.5, hoursAgo(5))), List.of()));
+
+        assertEquals(List.of("Croatia"), statistics.regions(10).stream().map(RegionStatisticsDTO::getRegion).toList());
+        assertThrows(IllegalArgumentException.class, () -> statistics.regions(0));
+    }
+
+    private static RegionStatistics statistics() {
+        IngestionConfig config = new IngestionConfig();
+        config.setWindowDays(30);
+        return new RegionStatistics(config);
+    }
+
+    private static Instant hoursAgo(int hours) {
+        return NOW.minus(Duration.ofHours(hours));
+    }
+
+    private static EarthquakeRecordDTO event(String id, String place, Double magnitude, Instant time) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO(place, new GeoLocationDTO(46.0, 14.0), 10.0);
+        record.setId(id);
+        record.setMagnitude(magnitude);
+        record.setTime(time);
+        return record;
+    }
+}
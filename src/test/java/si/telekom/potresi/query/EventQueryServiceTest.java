@@ -0,0 +1,153 @@
+package si.telekom.potresi.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.QueryResultDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventQueryServiceTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+
+    private final List<EarthquakeRecordDTO> events = new ArrayList<>();
+    private EventQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO(i % 10 == 0 ? "10 km N of Ljubljana" : "Pacific Ocean",
+                    new GeoLocationDTO(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180),
+                    random.nextDouble() * 300);
+            record.setId("e" + i);
+            record.setTime(NOW.minus(i, ChronoUnit.MINUTES));
+            record.setMagnitude(i % 97 == 0 ? null : Math.round(random.nextDouble() * 70) / 10.0);
+            events.add(record);
+        }
+
+        IngestionConfig config = new IngestionConfig();
+        config.setWindowDays(30);
+        EventIndex index = new EventIndex(config);
+        index.onIngested(new IngestionBatch(3, events, List.of()));
+        service = new EventQueryService(index);
+    }
+
+    @Test
+    void testSearch_NarrowTimeWindowUsesTimeIndex() {
+        EventQuery query = query(NOW.minus(30, ChronoUnit.MINUTES), NOW, null, null, null, null, null, 100);
+
+        QueryResultDTO result = service.search(query);
+
+        assertEquals("TIME_INDEX", result.getPlan());
+        assertEquals(30, result.getEvents().size());
+        assertEquals(30, result.getRowsScanned());
+        assertEquals(3, result.getEpoch());
+        assertEquals(expected(query), result.getEvents());
+    }
+
+    @Test
+    void testSearch_SmallBoundingBoxUsesSpatialIndex() {
+        EventQuery query = query(null, null, null, new double[]{45, 47, 13, 16}, null, null, null, 100);
+
+        QueryResultDTO result = service.search(query);
+
+        assertEquals("SPATIAL_INDEX", result.getPlan());
+        assertTrue(result.getRowsScanned() < 50);
+        assertEquals(expected(query), result.getEvents());
+    }
+
+    @Test
+    void testSearch_HighMagnitudeUsesMagnitudeIndex() {
+        EventQuery query = query(null, null, 6.9, null, null, null, null, 100);
+
+        QueryResultDTO result = service.search(query);
+
+        assertEquals("MAGNITUDE_INDEX", result.getPlan());
+        assertEquals(result.getEstimatedRows().get("MAGNITUDE_INDEX"), result.getRowsScanned());
+        assertTrue(result.getEvents().stream().allMatch(r -> r.getMagnitude() >= 6.9));
+        assertEquals(expected(query), result.getEvents());
+    }
+
+    @Test
+    void testSearch_UnselectivePredicateScansNewestFirstAndStopsAtLimit() {
+        EventQuery query = query(null, null, null, null, null, null, "ljubljana", 5);
+
+        QueryResultDTO result = service.search(query);
+
+        assertEquals("FULL_SCAN", result.getPlan());
+        assertEquals(5, result.getEvents().size());
+        assertEquals(41, result.getRowsScanned());
+        assertEquals(expected(query), result.getEvents());
+    }
+
+    @Test
+    void testSearch_RadiusAcrossAntimeridian() {
+        EventQuery query = query(null, null, null, null, new double[]{0, 179.5, 1500}, null, null, 1000);
+
+        QueryResultDTO result = service.search(query);
+
+        assertFalse(result.getEvents().isEmpty());
+        assertTrue(result.getEvents().stream().anyMatch(r -> r.getLocation().getLongitude() < 0));
+        assertEquals(expected(query), result.getEvents());
+    }
+
+    @Test
+    void testSearch_RandomQueriesMatchBruteForce() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            Instant from = random.nextBoolean() ? null : NOW.minus(random.nextInt(6000), ChronoUnit.MINUTES);
+            Instant to = from == null || random.nextBoolean() ? null : from.plus(1 + random.nextInt(3000), ChronoUnit.MINUTES);
+            Double minMagnitude = random.nextBoolean() ? null : random.nextInt(70) / 10.0;
+            double[] box = null;
+            if (random.nextBoolean()) {
+                double south = random.nextDouble() * 150 - 90;
+                box = new double[]{south, south + random.nextDouble() * 30,
+                        random.nextDouble() * 360 - 180, random.nextDouble() * 360 - 180};
+            }
+            Double maxDepth = random.nextBoolean() ? null : random.nextDouble() * 300;
+            EventQuery query = query(from, to, minMagnitude, box, null, null, random.nextInt(4) == 0 ? "ljub" : null,
+                    1 + random.nextInt(200));
+            query = new EventQuery(query.from(), query.to(), query.minMagnitude(), null, null, maxDepth,
+                    query.minLatitude(), query.maxLatitude(), query.minLongitude(), query.maxLongitude(),
+                    null, null, null, query.place(), query.limit());
+
+            assertEquals(expected(query), service.search(query).getEvents(), "query " + query);
+        }
+    }
+
+    @Test
+    void testQuery_RejectsPartialSpatialFilter() {
+        assertThrows(IllegalArgumentException.class, () -> new EventQuery(null, null, null, null, null, null,
+                10.0, 20.0, null, null, null, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new EventQuery(null, null, null, null, null, null,
+                10.0, 20.0, 10.0, 20.0, 15.0, 15.0, 100.0, null, 10));
+    }
+
+    private EventQuery query(Instant from, Instant to, Double minMagnitude, double[] box, double[] radius,
+                             Double minDepth, String place, int limit) {
+        return new EventQuery(from, to, minMagnitude, null, minDepth, null,
+                box == null ? null : box[0], box == null ? null : box[1], box == null ? null : box[2], box == null ? null : box[3],
+                radius == null ? null : radius[0], radius == null ? null : radius[1], radius == null ? null : radius[2],
+                place, limit);
+    }
+
+    private List<EarthquakeRecordDTO> expected(EventQuery query) {
+        return events.stream()
+                .filter(query::matches)
+                .sorted(Comparator.comparing(EarthquakeRecordDTO::getTime).reversed())
+                .limit(query.limit())
+                .toList();
+    }
+}
@@ -0,0 +1,127 @@
+package si.telekom.potresi.query;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.config.QueryCacheConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.QueryResultDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryResultCacheTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.HOURS);
+
+    private EventIndex index;
+    private EventQueryService service;
+    private QueryCacheConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private QueryResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ingestionConfig.setWindowDays(30);
+        index = new EventIndex(ingestionConfig);
+        index.onIngested(new IngestionBatch(1, events(0, 100), List.of()));
+
+        service = spy(new EventQueryService(index));
+        config = new QueryCacheConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new QueryResultCache(service, index, config, meterRegistry);
+    }
+
+    @Test
+    void testSearch_EquivalentTimeBoundsHitTheSameEntry() {
+        // Events are hourly on the hour; both windows select exactly the same rows
+        QueryResultDTO first = cache.search(timeQuery(NOW.minus(10, ChronoUnit.HOURS).plusSeconds(1), 5.0));
+        QueryResultDTO second = cache.search(timeQuery(NOW.minus(10, ChronoUnit.HOURS).plusSeconds(30), 5.0));
+
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertEquals(first.getEvents(), second.getEvents());
+        verify(service, times(1)).search(any(), any());
+        assertEquals(0.5, cache.getHitRatio("time+magnitude"));
+        assertEquals(1.0, meterRegistry.get("earthquake.query.cache.requests")
+                .tag("shape", "time+magnitude").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testSearch_NewEpochInvalidates() {
+        EventQuery query = timeQuery(NOW.minus(5, ChronoUnit.HOURS), null);
+        assertEquals(6, cache.search(query).getEvents().size());
+
+        index.onIngested(new IngestionBatch(2, List.of(event(-1)), List.of()));
+        QueryResultDTO result = cache.search(query);
+
+        assertFalse(result.isCached());
+        assertEquals(2, result.getEpoch());
+        verify(service, times(2)).search(any(), any());
+    }
+
+    @Test
+    void testSearch_EvictsLeastRecentlyUsedWhenOverBudget() {
+        EventQuery a = timeQuery(NOW.minus(50, ChronoUnit.HOURS), null);
+        EventQuery b = timeQuery(NOW.minus(40, ChronoUnit.HOURS), null);
+        long entryBytes = QueryResultCache.estimateBytes(QueryResultCache.normalize(a, index.snapshot()),
+                service.search(a));
+        config.setMaxBytes(entryBytes + QueryResultCache.ENTRY_OVERHEAD_BYTES + 50);
+
+        cache.search(a);
+        cache.search(b);
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.getUsedBytes() <= config.getMaxBytes());
+        assertTrue(cache.search(b).isCached());
+        assertFalse(cache.search(a).isCached());
+    }
+
+    @Test
+    void testSearch_DisabledBypassesCache() {
+        config.setEnabled(false);
+        EventQuery query = timeQuery(NOW.minus(5, ChronoUnit.HOURS), null);
+
+        cache.search(query);
+        assertFalse(cache.search(query).isCached());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testShapeOf() {
+        assertEquals("all", QueryResultCache.shapeOf(new EventQuery(null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, 10)));
+        assertEquals("magnitude+radius+place", QueryResultCache.shapeOf(new EventQuery(null, null, 5.0, null, null, null,
+                null, null, null, null, 46.0, 14.5, 100.0, "Slovenia", 10)));
+    }
+
+    private static EventQuery timeQuery(Instant from, Double minMagnitude) {
+        return new EventQuery(from, null, minMagnitude, null, null, null,
+                null, null, null, null, null, null, null, null, 100);
+    }
+
+    private static List<EarthquakeRecordDTO> events(int from, int to) {
+        List<EarthquakeRecordDTO> events = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            events.add(event(i));
+        }
+        return events;
+    }
+
+    private static EarthquakeRecordDTO event(int hoursAgo) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO("Place " + hoursAgo, new GeoLocationDTO(46, 14), 10);
+        record.setId("e" + hoursAgo);
+        record.setTime(NOW.minus(hoursAgo, ChronoUnit.HOURS));
+        record.setMagnitude(hoursAgo % 2 == 0 ? 5.5 : 2.0);
+        return record;
+    }
+}
@@ -0,0 +1,99 @@
+package si.telekom.potresi.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ReplayTest {
+
+    private static final List<String> IGNORED = List.of("appid", "starttime");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordedResponsesAreReplayedWithoutSecrets() throws Exception {
+        RestTemplate recording = new RestTemplate();
+        recording.getInterceptors().add(new RecordingInterceptor(directory, IGNORED));
+        MockRestServiceServer upstream = MockRestServiceServer.bindTo(recording).build();
+        upstream.expect(requestTo("https://api.example.org/weather?lat=46.0&lon=14.5&appid=secret"))
+                .andRespond(withSuccess("{\"temp\":11.5}", MediaType.APPLICATION_JSON));
+        upstream.expect(requestTo("https://api.example.org/missing"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).body("gone"));
+
+        assertEquals("{\"temp\":11.5}", recording.getForObject("https://api.example.org/weather?lat=46.0&lon=14.5&appid=secret", String.class));
+        assertThrows(HttpClientErrorException.NotFound.class, () -> recording.getForObject("https://api.example.org/missing", String.class));
+        upstream.verify();
+
+        List<Path> files;
+        try (var list = Files.list(directory)) {
+            files = list.sorted().toList();
+        }
+        assertEquals(2, files.size());
+        assertFalse(Files.readString(files.get(0), StandardCharsets.UTF_8).contains("secret"));
+
+        RestTemplate replay = new RestTemplate(new ReplayRequestFactory(directory, 100, IGNORED, Duration.ofSeconds(3)));
+        assertEquals("{\"temp\":11.5}", replay.getForObject("https://api.example.org/weather?lat=46.0&lon=14.5&appid=other", String.class));
+        assertThrows(HttpClientErrorException.NotFound.class, () -> replay.getForObject("https://api.example.org/missing", String.class));
+        ResourceAccessException unknown = assertThrows(ResourceAccessException.class,
+                () -> replay.getForObject("https://api.example.org/weather?lat=0&lon=0", String.class));
+        assertTrue(unknown.getMessage().contains("No recorded response"));
+    }
+
+    @Test
+    void testReplayFollowsTheRecordedTimeline() throws Exception {
+        Instant start = Instant.parse("2024-05-01T10:00:00Z");
+        record("000001.http", "GET https://feed.example.org/all_hour.geojson", start, Duration.ZERO, "first");
+        record("000002.http", "GET https://feed.example.org/all_hour.geojson", start.plusSeconds(3600), Duration.ZERO, "second");
+
+        // One millisecond of replay covers more than an hour of the recording
+        ReplayRequestFactory factory = new ReplayRequestFactory(directory, 10_000_000, IGNORED, Duration.ofSeconds(3));
+        RestTemplate replay = new RestTemplate(factory);
+
+        assertEquals("first", replay.getForObject("https://feed.example.org/all_hour.geojson", String.class));
+        Thread.sleep(5);
+        assertEquals("second", replay.getForObject("https://feed.example.org/all_hour.geojson", String.class));
+    }
+
+    @Test
+    void testLatencyBeyondTheReadTimeoutTimesOut() throws Exception {
+        record("000001.http", "GET https://feed.example.org/all_day.geojson", Instant.now(), Duration.ofSeconds(30), "late");
+        RestTemplate replay = new RestTemplate(new ReplayRequestFactory(directory, 1, IGNORED, Duration.ofMillis(50)));
+
+        long started = System.nanoTime();
+        ResourceAccessException timeout = assertThrows(ResourceAccessException.class,
+                () -> replay.getForObject("https://feed.example.org/all_day.geojson", String.class));
+
+        assertInstanceOf(SocketTimeoutException.class, timeout.getCause());
+        assertTrue(System.nanoTime() - started >= Duration.ofMillis(50).toNanos());
+    }
+
+    private void record(String name, String request, Instant recordedAt, Duration latency, String body) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+        RecordedExchange.write(directory.resolve(name), request, recordedAt, latency, 200, "OK", headers,
+                body.getBytes(StandardCharsets.UTF_8));
+        assertEquals(request, RecordedExchange.request(HttpMethod.GET, URI.create(request.substring(4)), IGNORED));
+    }
+}
@@ -0,0 +1,201 @@
+package si.telekom.potresi.sequence;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.config.SequenceConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.query.EventQuery;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grid-indexed sequence clustering vs. naive pairwise window comparison over a month of global events.
+ * <p>
+ * Pass {@code -Dpotresi.feed=/path/to/all_month.geojson} to run on a downloaded USGS feed (times are shifted so the
+ * latest event is now); without it a synthetic month of 10,000 events with the feed's shape is used: dense small
+ * events in a few regions, global background seismicity and a handful of aftershock sequences.
+ * Run through {@link #main(String[])} on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AftershockSequencesBenchmark {
+
+    private List<EarthquakeRecordDTO> month;
+    private List<EarthquakeRecordDTO> latestHour;
+
+    @Setup(Level.Trial)
+    public void load() throws Exception {
+        String feed = System.getProperty("potresi.feed");
+        month = feed == null ? syntheticMonth(10_000, new Random(11)) : readFeed(Path.of(feed));
+        month.sort(Comparator.comparing(EarthquakeRecordDTO::getTime));
+
+        Instant hourAgo = month.getLast().getTime().minus(Duration.ofHours(1));
+        latestHour = month.stream().filter(r -> r.getTime().isAfter(hourAgo)).toList();
+    }
+
+    /**
+     * A month clustered up to the latest hour, rebuilt before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class Clustered {
+
+        private AftershockSequences sequences;
+
+        @Setup(Level.Invocation)
+        public void clusterAllButLatestHour(AftershockSequencesBenchmark benchmark) {
+            sequences = sequences();
+            sequences.onIngested(new IngestionBatch(1,
+                    benchmark.month.subList(0, benchmark.month.size() - benchmark.latestHour.size()), List.of()));
+        }
+    }
+
+    /**
+     * Initial load: clusters the whole month in one batch.
+     */
+    @Benchmark
+    public int clusterMonth() {
+        AftershockSequences sequences = sequences();
+        sequences.onIngested(new IngestionBatch(1, month, List.of()));
+        return sequences.size();
+    }
+
+    /**
+     * Incremental cycle: clusters the latest hour of events into an already clustered month.
+     */
+    @Benchmark
+    public int clusterLatestHour(Clustered clustered) {
+        clustered.sequences.onIngested(new IngestionBatch(2, latestHour, List.of()));
+        return clustered.sequences.size();
+    }
+
+    /**
+     * Baseline: Gardner-Knopoff windowing by comparing every event with every other one, largest first.
+     */
+    @Benchmark
+    public int naivePairwise() {
+        List<EarthquakeRecordDTO> byMagnitude = new ArrayList<>(month);
+        byMagnitude.sort(Comparator.comparing(EarthquakeRecordDTO::getMagnitude).reversed());
+        int[] sequenceOf = new int[byMagnitude.size()];
+        int sequences = 0;
+        for (int i = 0; i < byMagnitude.size(); i++) {
+            if (sequenceOf[i] != 0) continue;
+            EarthquakeRecordDTO mainshock = byMagnitude.get(i);
+            sequenceOf[i] = ++sequences;
+            double radius = SequenceWindows.radiusKm(mainshock.getMagnitude());
+            long duration = SequenceWindows.durationMillis(mainshock.getMagnitude());
+            for (int j = 0; j < byMagnitude.size(); j++) {
+                EarthquakeRecordDTO event = byMagnitude.get(j);
+                if (sequenceOf[j] == 0
+                        && Math.abs(event.getTime().toEpochMilli() - mainshock.getTime().toEpochMilli()) <= duration
+                        && EventQuery.distanceKm(mainshock.getLocation().getLatitude(), mainshock.getLocation().getLongitude(),
+                        event.getLocation().getLatitude(), event.getLocation().getLongitude()) <= radius) {
+                    sequenceOf[j] = sequences;
+                }
+            }
+        }
+        return sequences;
+    }
+
+    private static AftershockSequences sequences() {
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ingestionConfig.setWindowDays(31);
+        return new AftershockSequences(new SequenceConfig(), ingestionConfig);
+    }
+
+    private static List<EarthquakeRecordDTO> readFeed(Path path) throws Exception {
+        JSONArray features = new JSONObject(Files.readString(path)).getJSONArray("features");
+        List<EarthquakeRecordDTO> records = new ArrayList<>();
+        long latest = 0;
+        for (int i = 0; i < features.length(); i++) {
+            latest = Math.max(latest, features.getJSONObject(i).getJSONObject("properties").optLong("time"));
+        }
+        long shift = System.currentTimeMillis() - latest;
+        for (int i = 0; i < features.length(); i++) {
+            JSONObject feature = features.getJSONObject(i);
+            JSONObject properties = feature.getJSONObject("properties");
+            if (properties.isNull("mag")) continue;
+            JSONArray coordinates = feature.getJSONObject("geometry").getJSONArray("coordinates");
+            records.add(AftershockSequencesTest.event(feature.getString("id"), coordinates.getDouble(1),
+                    coordinates.getDouble(0), properties.getDouble("mag"),
+                    Instant.ofEpochMilli(properties.getLong("time") + shift)));
+        }
+        return records;
+    }
+
+    private static List<EarthquakeRecordDTO> syntheticMonth(int size, Random random) {
+        Instant now = Instant.now();
+        long month = Duration.ofDays(30).toMillis();
+        double[][] denseRegions = {{36.5, -119.0, 3}, {61.0, -150.0, 5}, {19.4, -155.3, 0.5}, {18.0, -66.5, 1}};
+        List<EarthquakeRecordDTO> records = new ArrayList<>(size);
+
+        // Aftershock sequences: ~5% of events
+        while (records.size() < size / 20) {
+            double magnitude = 5 + random.nextDouble() * 2.5;
+            double latitude = random.nextDouble() * 120 - 60;
+            double longitude = random.nextDouble() * 360 - 180;
+            long time = now.toEpochMilli() - (long) (random.nextDouble() * month);
+            records.add(AftershockSequencesTest.event("m" + records.size(), latitude, longitude, round(magnitude), Instant.ofEpochMilli(time)));
+            int aftershocks = (int) Math.pow(10, magnitude - 4.5);
+            double spread = SequenceWindows.radiusKm(magnitude) / 3 / 111.0;
+            for (int i = 0; i < aftershocks; i++) {
+                long delay = (long) (Math.pow(random.nextDouble(), 3) * (now.toEpochMilli() - time));
+                records.add(AftershockSequencesTest.event("a" + records.size(), latitude + random.nextGaussian() * spread,
+                        longitude + random.nextGaussian() * spread, round(2.5 + gutenbergRichter(random)),
+                        Instant.ofEpochMilli(time + delay)));
+            }
+        }
+
+        // Small events concentrated in densely instrumented regions, the rest spread over the globe
+        while (records.size() < size) {
+            double latitude;
+            double longitude;
+            double magnitude;
+            if (random.nextDouble() < 0.7) {
+                double[] region = denseRegions[random.nextInt(denseRegions.length)];
+                latitude = region[0] + random.nextGaussian() * region[2];
+                longitude = region[1] + random.nextGaussian() * region[2];
+                magnitude = -0.5 + gutenbergRichter(random);
+            } else {
+                latitude = random.nextDouble() * 140 - 70;
+                longitude = random.nextDouble() * 360 - 180;
+                magnitude = 2.5 + gutenbergRichter(random);
+            }
+            records.add(AftershockSequencesTest.event("b" + records.size(), latitude, longitude, round(magnitude),
+                    Instant.ofEpochMilli(now.toEpochMilli() - (long) (random.nextDouble() * month))));
+        }
+        return records;
+    }
+
+    /**
+     * Magnitude above the minimum following Gutenberg-Richter with b = 1.
+     */
+    private static double gutenbergRichter(Random random) {
+        return -Math.log10(1 - random.nextDouble());
+    }
+
+    private static double round(double magnitude) {
+        return Math.round(magnitude * 10) / 10.0;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AftershockSequencesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
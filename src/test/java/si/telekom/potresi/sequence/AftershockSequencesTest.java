@@ -0,0 +1,160 @@
+package si.telekom.potresi.sequence;
+
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.config.SequenceConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.EarthquakeSequenceDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.service.IngestionBatch;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AftershockSequencesTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Test
+    void testAftershocksJoinTheirMainshock() {
+        AftershockSequences sequences = sequences(1.0);
+        sequences.onIngested(new IngestionBatch(1, List.of(
+                event("main", 46.0, 14.0, 6.0, hoursAgo(48)),
+                event("after1", 46.1, 14.1, 3.5, hoursAgo(47)),
+                event("after2", 45.9, 14.2, 4.0, hoursAgo(24)),
+                event("distant", 44.0, 14.0, 3.0, hoursAgo(24))), List.of()));
+
+        List<EarthquakeSequenceDTO> active = sequences.active(null, 2, 10);
+        assertEquals(1, active.size());
+        assertEquals("main", active.getFirst().getMainshock().getId());
+        assertEquals(3, active.getFirst().getEventCount());
+        assertEquals(hoursAgo(48), active.getFirst().getStart());
+        assertEquals(hoursAgo(24), active.getFirst().getEnd());
+        assertEquals(2, sequences.active(null, 1, 10).size());
+    }
+
+    @Test
+    void testLargerLaterEventTurnsSequenceIntoForeshocks() {
+        AftershockSequences sequences = sequences(1.0);
+        sequences.onIngested(new IngestionBatch(1, List.of(event("fore", 46.0, 14.0, 4.0, hoursAgo(10))), List.of()));
+        sequences.onIngested(new IngestionBatch(2, List.of(event("main", 46.05, 14.05, 6.2, hoursAgo(9))), List.of()));
+
+        List<EarthquakeSequenceDTO> active = sequences.active(null, 1, 10);
+        assertEquals(1, active.size());
+        assertEquals("main", active.getFirst().getMainshock().getId());
+        assertEquals(2, active.getFirst().getEventCount());
+    }
+
+    @Test
+    void testSmallEventsOutsideEachOthersTimeWindowStaySeparate() {
+        AftershockSequences sequences = sequences(1.0);
+        sequences.onIngested(new IngestionBatch(1, List.of(
+                event("a", 46.0, 14.0, 2.0, hoursAgo(24 * 12)),
+                event("b", 46.01, 14.01, 2.0, hoursAgo(24))), List.of()));
+
+        assertTrue(sequences.active(null, 2, 10).isEmpty());
+        // The older event's 3.4 day window has closed
+        assertEquals(List.of("b"), sequences.active(null, 1, 10).stream().map(s -> s.getMainshock().getId()).toList());
+    }
+
+    @Test
+    void testRevisedMainshockReclustersItsSequence() {
+        AftershockSequences sequences = sequences(1.0);
+        sequences.onIngested(new IngestionBatch(1, List.of(
+                event("main", 46.0, 14.0, 6.0, hoursAgo(48)),
+                event("after1", 46.3, 14.3, 3.0, hoursAgo(40)),
+                event("after2", 46.31, 14.31, 3.2, hoursAgo(39))), List.of()));
+
+        sequences.onIngested(new IngestionBatch(2, List.of(), List.of(event("main", -20.0, -70.0, 6.0, hoursAgo(48)))));
+
+        List<EarthquakeSequenceDTO> active = sequences.active(null, 1, 10);
+        assertEquals(2, active.size());
+        assertEquals("main", active.get(0).getMainshock().getId());
+        assertEquals(1, active.get(0).getEventCount());
+        assertEquals("after2", active.get(1).getMainshock().getId());
+        assertEquals(2, active.get(1).getEventCount());
+    }
+
+    @Test
+    void testEvictedMainshockLeavesItsAftershocks() {
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ingestionConfig.setWindowDays(30);
+        SequenceConfig config = new SequenceConfig();
+        AftershockSequences sequences = new AftershockSequences(config, ingestionConfig);
+        sequences.onIngested(new IngestionBatch(1, List.of(
+                event("main", 46.0, 14.0, 7.0, hoursAgo(24 * 29)),
+                event("after", 46.1, 14.1, 4.5, hoursAgo(24 * 20))), List.of()));
+        assertEquals(2, sequences.active(null, 1, 10).getFirst().getEventCount());
+
+        ingestionConfig.setWindowDays(25);
+        sequences.onIngested(new IngestionBatch(2, List.of(), List.of()));
+
+        List<EarthquakeSequenceDTO> active = sequences.active(null, 1, 10);
+        assertEquals(1, active.size());
+        assertEquals("after", active.getFirst().getMainshock().getId());
+        assertEquals(1, sequences.size());
+    }
+
+    @Test
+    void testGridResolutionDoesNotChangeClustering() {
+        Random random = new Random(3);
+        List<EarthquakeRecordDTO> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Dense clusters around a few centres, including near the antimeridian and the poles
+            double[][] centres = {{46, 14}, {-33, 179.9}, {84, 10}, {0, 0}};
+            double[] centre = centres[random.nextInt(centres.length)];
+            double magnitude = Math.round((random.nextDouble() < 0.01 ? 6 + random.nextDouble() * 2 : random.nextDouble() * 5) * 10) / 10.0;
+            double longitude = centre[1] + random.nextGaussian() * 2;
+            if (longitude > 180) longitude -= 360;
+            events.add(event("e" + i, Math.max(-90, Math.min(90, centre[0] + random.nextGaussian())), longitude,
+                    magnitude, NOW.minusSeconds(random.nextInt(25 * 24 * 3600))));
+        }
+
+        Set<String> reference = null;
+        for (double cellDegrees : new double[]{0.25, 1.0, 10.0, 90.0}) {
+            AftershockSequences sequences = sequences(cellDegrees);
+            for (int from = 0; from < events.size(); from += 250) {
+                sequences.onIngested(new IngestionBatch(from, events.subList(from, from + 250), List.of()));
+            }
+            Set<String> clustering = sequences.active(null, 1, 1000).stream()
+                    .map(s -> s.getMainshock().getId() + ":" + s.getEventCount() + ":" + s.getStart() + ":" + s.getEnd())
+                    .collect(Collectors.toSet());
+            if (reference == null) reference = clustering; else assertEquals(reference, clustering, "cell " + cellDegrees);
+        }
+    }
+
+    @Test
+    void testActiveRejectsInvalidArguments() {
+        AftershockSequences sequences = sequences(1.0);
+        assertThrows(IllegalArgumentException.class, () -> sequences.active(null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> sequences.active(null, 2, 0));
+    }
+
+    private static AftershockSequences sequences(double cellDegrees) {
+        SequenceConfig config = new SequenceConfig();
+        config.setCellDegrees(cellDegrees);
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ingestionConfig.setWindowDays(30);
+        return new AftershockSequences(config, ingestionConfig);
+    }
+
+    private static Instant hoursAgo(int hours) {
+        return NOW.minus(Duration.ofHours(hours));
+    }
+
+    static EarthquakeRecordDTO event(String id, double lat, double lon, double magnitude, Instant time) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO(id, new GeoLocationDTO(lat, lon), 10);
+        record.setId(id);
+        record.setTime(time);
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
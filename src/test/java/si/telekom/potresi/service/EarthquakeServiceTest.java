@@ -1,13 +1,24 @@
 package si.telekom.potresi.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import si.telekom.potresi.client.EarthquakeClient;
 import si.telekom.potresi.client.WeatherClient;
+import si.telekom.potresi.config.EnrichmentConfig;
+import si.telekom.potresi.config.TracingConfig;
+import si.telekom.potresi.deadline.Deadline;
 import si.telekom.potresi.dto.EarthquakeRecordDTO;
 import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.PopulationExposureDTO;
 import si.telekom.potresi.dto.WeatherInfoDTO;
+import si.telekom.potresi.exposure.PopulationExposure;
+import si.telekom.potresi.overload.DegradationLevel;
+import si.telekom.potresi.tracing.Tracer;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,13 +28,20 @@ class EarthquakeServiceTest {
 
     private EarthquakeClient earthquakeClient;
     private WeatherClient weatherClient;
+    private PopulationExposure populationExposure;
+    private WeatherEnrichmentPipeline enrichmentPipeline;
     private EarthquakeService earthquakeService;
+    private final Tracer tracer = new Tracer(new TracingConfig());
 
     @BeforeEach
     void setUp() {
         earthquakeClient = mock(EarthquakeClient.class);
         weatherClient = mock(WeatherClient.class);
-        earthquakeService = new EarthquakeService(earthquakeClient, weatherClient);
+        populationExposure = mock(PopulationExposure.class);
+        // Pipeline is not started; tests drain it explicitly
+        enrichmentPipeline = spy(new WeatherEnrichmentPipeline(weatherClient, populationExposure, new EnrichmentConfig(),
+                new SimpleMeterRegistry(), tracer));
+        earthquakeService = new EarthquakeService(earthquakeClient, enrichmentPipeline, tracer);
     }
 
     // -----------------------------
@@ -62,6 +80,43 @@ class EarthquakeServiceTest {
         assertEquals(cached, result);
     }
 
+    @Test
+    void testGetWorstEarthquakeLastMonth_UnchangedLiveData_KeepsCachedSnapshot() {
+        var first = List.of(new EarthquakeRecordDTO("Month", new GeoLocationDTO(1, 2), 3));
+        var same = List.of(new EarthquakeRecordDTO("Month", new GeoLocationDTO(1, 2), 3));
+        var moved = List.of(new EarthquakeRecordDTO("Month", new GeoLocationDTO(1, 2.5), 3));
+        when(earthquakeClient.getWorstEarthquakeInPeriod(30)).thenReturn(first, same, moved);
+
+        var served = earthquakeService.getWorstEarthquakeLastMonth();
+
+        assertSame(served, earthquakeService.getWorstEarthquakeLastMonth());
+        assertSame(moved, earthquakeService.getWorstEarthquakeLastMonth());
+    }
+
+    @Test
+    void testGetWorstEarthquakeLastWeek_DeadlineExhausted_AnswersFromCacheWithoutUpstreamCall() throws Exception {
+        var cached = List.of(new EarthquakeRecordDTO("CachedWeek", new GeoLocationDTO(1, 2), 3));
+        when(earthquakeClient.getWorstEarthquakeInPeriod(7)).thenReturn(cached);
+        earthquakeService.getWorstEarthquakeLastWeek(); // Prime cache
+
+        var result = Deadline.callWith(Deadline.after(Duration.ZERO), earthquakeService::getWorstEarthquakeLastWeek);
+
+        assertEquals(cached, result);
+        verify(earthquakeClient, times(1)).getWorstEarthquakeInPeriod(7);
+    }
+
+    @Test
+    void testGetWorstEarthquakeLastWeek_CacheOnlyUnderOverload_NoUpstreamCall() throws Exception {
+        var cached = List.of(new EarthquakeRecordDTO("CachedWeek", new GeoLocationDTO(1, 2), 3));
+        when(earthquakeClient.getWorstEarthquakeInPeriod(7)).thenReturn(cached);
+        earthquakeService.getWorstEarthquakeLastWeek(); // Prime cache
+
+        var result = DegradationLevel.callWith(DegradationLevel.CACHE_ONLY, earthquakeService::getWorstEarthquakeLastWeek);
+
+        assertEquals(cached, result);
+        verify(earthquakeClient, times(1)).getWorstEarthquakeInPeriod(7);
+    }
+
     @Test
     void testGetWorstEarthquakeLastWeek_MultipleRecordsReturned() {
         var records = List.of(
@@ -145,12 +200,111 @@ class EarthquakeServiceTest {
         when(earthquakeClient.getMostRecentEarthquake()).thenReturn(quake);
         when(weatherClient.getCurrentWeather(45.0, 15.0)).thenReturn(weather);
 
+        earthquakeService.getLastEarthquakeWithWeather(); // Queues the event
+        enrichmentPipeline.drain();
+
         var result = earthquakeService.getLastEarthquakeWithWeather();
 
         assertNotNull(result);
         assertEquals(weather, result.getWeather());
-        verify(earthquakeClient).getMostRecentEarthquake();
-        verify(weatherClient).getCurrentWeather(45.0, 15.0);
+        verify(earthquakeClient, times(2)).getMostRecentEarthquake();
+        verify(weatherClient, times(1)).getCurrentWeather(45.0, 15.0);
+    }
+
+    @Test
+    void testGetLastEarthquakeWithWeather_UnavailableWeatherIsFetchedAgain() {
+        var quake = new EarthquakeRecordDTO("RecentQuake", new GeoLocationDTO(45.0, 15.0), 6.0);
+        when(earthquakeClient.getMostRecentEarthquake()).thenReturn(quake);
+        when(weatherClient.getCurrentWeather(45.0, 15.0))
+                .thenReturn(new WeatherInfoDTO("Weather data unavailable", 0.0, 0.0, false))
+                .thenReturn(new WeatherInfoDTO("Clear skies", 21.5, 40.0));
+
+        earthquakeService.getLastEarthquakeWithWeather();
+        enrichmentPipeline.drain();
+        earthquakeService.getLastEarthquakeWithWeather(); // Fallback weather is not carried over
+        enrichmentPipeline.drain();
+
+        var result = earthquakeService.getLastEarthquakeWithWeather();
+        assertEquals("Clear skies", result.getWeather().getDescription());
+        verify(weatherClient, times(2)).getCurrentWeather(45.0, 15.0);
+    }
+
+    @Test
+    void testEnrichment_FailingExposureDoesNotBlockEvent() {
+        var failing = new EarthquakeRecordDTO("Failing", new GeoLocationDTO(46.0, 14.0), 10.0);
+        var next = new EarthquakeRecordDTO("Next", new GeoLocationDTO(45.0, 15.0), 10.0);
+        when(populationExposure.estimate(any())).thenThrow(new IllegalStateException("raster unreadable"));
+        when(weatherClient.getCurrentWeather(anyDouble(), anyDouble())).thenReturn(new WeatherInfoDTO("Clear", 20.0, 30.0));
+        List<EarthquakeRecordDTO> enriched = new ArrayList<>();
+        enrichmentPipeline.onEnriched(enriched::add);
+
+        assertTrue(enrichmentPipeline.submit(failing));
+        enrichmentPipeline.drain();
+        assertTrue(enrichmentPipeline.submit(next));
+        assertTrue(enrichmentPipeline.submit(failing)); // released, not deduplicated forever
+        enrichmentPipeline.drain();
+
+        assertEquals(List.of("Failing", "Next", "Failing"), enriched.stream().map(EarthquakeRecordDTO::getNearestPlace).toList());
+        assertEquals("Clear", enriched.get(1).getWeather().getDescription());
+    }
+
+    @Test
+    void testEnrichment_IngestedSignificantEventsQueuedNewestFirst() {
+        Instant now = Instant.now();
+        var strong = ingested("Strong", 5.1, now.minus(Duration.ofHours(2)));
+        var weak = ingested("Weak", 3.0, now.minus(Duration.ofHours(1)));
+        var old = ingested("Old", 6.0, now.minus(Duration.ofDays(3)));
+        var revised = ingested("Revised", 4.7, now.minus(Duration.ofMinutes(10)));
+        when(weatherClient.getCurrentWeather(anyDouble(), anyDouble())).thenReturn(new WeatherInfoDTO("Clear", 20.0, 30.0));
+        List<EarthquakeRecordDTO> enriched = new ArrayList<>();
+        enrichmentPipeline.onEnriched(enriched::add);
+
+        enrichmentPipeline.onIngested(new IngestionBatch(1, List.of(strong, weak, old), List.of(revised)));
+
+        assertEquals(2, enrichmentPipeline.getQueueDepth());
+        enrichmentPipeline.drain();
+        assertEquals(List.of("Revised", "Strong"), enriched.stream().map(EarthquakeRecordDTO::getNearestPlace).toList());
+        assertEquals("Clear", enriched.getFirst().getWeather().getDescription());
+    }
+
+    @Test
+    void testGetLastEarthquakeWithWeather_ExposureComputedInBackground() {
+        var quake = new EarthquakeRecordDTO("StrongQuake", new GeoLocationDTO(46.2, 14.6), 10.0);
+        quake.setMagnitude(5.8);
+        var exposure = List.of(new PopulationExposureDTO(5, 120.3, 2_400_000), new PopulationExposureDTO(6, 55.1, 650_000));
+        when(earthquakeClient.getMostRecentEarthquake()).thenReturn(quake);
+        when(weatherClient.getCurrentWeather(46.2, 14.6)).thenReturn(new WeatherInfoDTO("Cloudy", 12.0, 70.0));
+        when(populationExposure.estimate(any())).thenReturn(exposure);
+
+        assertNull(earthquakeService.getLastEarthquakeWithWeather().getExposure());
+        enrichmentPipeline.drain();
+
+        assertEquals(exposure, earthquakeService.getLastEarthquakeWithWeather().getExposure());
+        verify(populationExposure, times(1)).estimate(any());
+    }
+
+    @Test
+    void testGetLastEarthquakeWithWeather_NotYetEnriched_DoesNotCallWeather() {
+        var quake = new EarthquakeRecordDTO("FreshQuake", new GeoLocationDTO(45.5, 14.5), 7.0);
+        when(earthquakeClient.getMostRecentEarthquake()).thenReturn(quake);
+
+        var result = earthquakeService.getLastEarthquakeWithWeather();
+
+        assertNotNull(result);
+        assertNull(result.getWeather());
+        assertEquals(1, enrichmentPipeline.getQueueDepth());
+        verifyNoInteractions(weatherClient);
+    }
+
+    @Test
+    void testGetLastEarthquakeWithWeather_NoWeatherUnderOverload_DoesNotQueueEnrichment() throws Exception {
+        var quake = new EarthquakeRecordDTO("BusyQuake", new GeoLocationDTO(45.5, 14.5), 7.0);
+        when(earthquakeClient.getMostRecentEarthquake()).thenReturn(quake);
+
+        var result = DegradationLevel.callWith(DegradationLevel.NO_WEATHER, earthquakeService::getLastEarthquakeWithWeather);
+
+        assertEquals(quake, result);
+        assertEquals(0, enrichmentPipeline.getQueueDepth());
     }
 
     @Test
@@ -162,14 +316,36 @@ class EarthquakeServiceTest {
         when(weatherClient.getCurrentWeather(46.0, 14.0))
                 .thenThrow(new RuntimeException("Weather API error"));
 
+        earthquakeService.getLastEarthquakeWithWeather();
+        enrichmentPipeline.drain();
+
         var result = earthquakeService.getLastEarthquakeWithWeather();
 
         assertNotNull(result);
         assertNull(result.getWeather()); // weather field not set due to failure
-        verify(earthquakeClient).getMostRecentEarthquake();
         verify(weatherClient).getCurrentWeather(46.0, 14.0);
     }
 
+    @Test
+    void testGetLastEarthquakeWithWeather_NewerEventDiscardsStaleEnrichment() {
+        var first = new EarthquakeRecordDTO("First", new GeoLocationDTO(40.0, 10.0), 5.0);
+        first.setId("first");
+        var second = new EarthquakeRecordDTO("Second", new GeoLocationDTO(41.0, 11.0), 6.0);
+        second.setId("second");
+
+        when(earthquakeClient.getMostRecentEarthquake()).thenReturn(first, second, second);
+        when(weatherClient.getCurrentWeather(anyDouble(), anyDouble())).thenReturn(new WeatherInfoDTO("Windy", 10.0, 50.0));
+
+        earthquakeService.getLastEarthquakeWithWeather();
+        earthquakeService.getLastEarthquakeWithWeather();
+        enrichmentPipeline.drain();
+
+        var result = earthquakeService.getLastEarthquakeWithWeather();
+
+        assertEquals("Second", result.getNearestPlace());
+        assertEquals("Windy", result.getWeather().getDescription());
+    }
+
 
     @Test
     void testGetLastEarthquakeWithWeather_ClientReturnsNull_NoCachedData() {
@@ -216,11 +392,21 @@ class EarthquakeServiceTest {
         when(weatherClient.getCurrentWeather(1, 2)).thenReturn(weather);
 
         earthquakeService.refreshCache();
+        enrichmentPipeline.drain();
 
         verify(earthquakeClient, times(1)).getWorstEarthquakeInPeriod(7);
         verify(earthquakeClient, times(1)).getWorstEarthquakeInPeriod(30);
         verify(earthquakeClient, times(1)).getMostRecentEarthquake();
+        verify(enrichmentPipeline, times(1)).submit(any());
         verify(weatherClient, times(1)).getCurrentWeather(1, 2);
+
+        // The same event is queued again on the next refresh so its weather stays current
+        earthquakeService.refreshCache();
+        enrichmentPipeline.drain();
+
+        verify(enrichmentPipeline, times(2)).submit(any());
+        verify(weatherClient, times(2)).getCurrentWeather(1, 2);
+        assertEquals(weather, earthquakeService.getLastEarthquakeWithWeather().getWeather());
     }
 
     @Test
@@ -233,6 +419,7 @@ class EarthquakeServiceTest {
         when(weatherClient.getCurrentWeather(1, 2)).thenThrow(new RuntimeException("Timeout"));
 
         earthquakeService.refreshCache();
+        enrichmentPipeline.drain();
 
         verify(weatherClient).getCurrentWeather(1, 2);
     }
@@ -249,4 +436,12 @@ class EarthquakeServiceTest {
         verify(earthquakeClient, times(1)).getWorstEarthquakeInPeriod(30);
         verify(earthquakeClient, times(1)).getMostRecentEarthquake();
     }
+
+    private static EarthquakeRecordDTO ingested(String id, double magnitude, Instant time) {
+        var record = new EarthquakeRecordDTO(id, new GeoLocationDTO(46.0, 14.0), 10.0);
+        record.setId(id);
+        record.setMagnitude(magnitude);
+        record.setTime(time);
+        return record;
+    }
 }
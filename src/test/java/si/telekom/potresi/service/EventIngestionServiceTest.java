@@ -0,0 +1,159 @@
+package si.telekom.potresi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.IngestionConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.dto.NearbyCityDTO;
+import si.telekom.potresi.exposure.PopulationExposure;
+import si.telekom.potresi.gazetteer.Gazetteer;
+import si.telekom.potresi.source.EventSources;
+import si.telekom.potresi.source.SourcedEvents;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventIngestionServiceTest {
+
+    private static final Instant EVENT_TIME = Instant.now().minusSeconds(60);
+
+    private EventSources eventSources;
+    private Gazetteer gazetteer;
+    private List<IngestionBatch> published;
+    private EventIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        eventSources = mock(EventSources.class);
+        gazetteer = mock(Gazetteer.class);
+        published = new ArrayList<>();
+        ingestionService = new EventIngestionService(eventSources, new IngestionConfig(), gazetteer,
+                mock(PopulationExposure.class), List.of(published::add));
+    }
+
+    @Test
+    void testIngest_InitialLoadUsesWholeWindow() {
+        when(eventSources.fetch(30)).thenReturn(usgs(event("a", 4.0)));
+
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertEquals(1, batch.epoch());
+        assertEquals(1, batch.added().size());
+        assertEquals(1, published.size());
+        verify(eventSources).fetch(30);
+    }
+
+    @Test
+    void testIngest_DetectsNewAndRevisedEvents() {
+        when(eventSources.fetch(30)).thenReturn(usgs(event("a", 4.0), event("b", 3.0)));
+        ingestionService.ingest();
+
+        when(eventSources.fetch(1)).thenReturn(usgs(event("a", 4.0), event("b", 3.4), event("c", 2.0)));
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertEquals(2, batch.epoch());
+        assertEquals(List.of("c"), batch.added().stream().map(EarthquakeRecordDTO::getId).toList());
+        assertEquals(List.of("b"), batch.revised().stream().map(EarthquakeRecordDTO::getId).toList());
+    }
+
+    @Test
+    void testIngest_NoChanges_DoesNotAdvanceEpoch() {
+        when(eventSources.fetch(anyInt())).thenReturn(usgs(event("a", 4.0)));
+        ingestionService.ingest();
+
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertTrue(batch.isEmpty());
+        assertEquals(1, ingestionService.getEpoch());
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    void testIngest_DetectsEventsDeletedUpstream() {
+        EarthquakeRecordDTO older = event("old", 2.5);
+        older.setTime(EVENT_TIME.minusSeconds(2 * 86400));
+        when(eventSources.fetch(30)).thenReturn(usgs(older, event("a", 4.0), event("b", 3.0)));
+        ingestionService.ingest();
+
+        // The daily feed no longer lists "b"; "old" is simply outside the period it covers
+        when(eventSources.fetch(1)).thenReturn(usgs(event("a", 4.0)));
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertEquals(2, batch.epoch());
+        assertEquals(List.of("b"), batch.deleted());
+        assertEquals(List.of("a", "old"), ingestionService.getWindowEvents().stream()
+                .map(EarthquakeRecordDTO::getId).sorted().toList());
+    }
+
+    @Test
+    void testIngest_EventOfSilentSourceIsNotDeleted() {
+        EarthquakeRecordDTO merged = event("b", 3.0);
+        when(eventSources.fetch(30)).thenReturn(usgs(event("a", 4.0), merged));
+        merged.setSources(List.of("usgs", "emsc"));
+        ingestionService.ingest();
+
+        // EMSC did not answer, so "b" may still be listed there
+        when(eventSources.fetch(1)).thenReturn(usgs(event("a", 4.0)));
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertTrue(batch.isEmpty());
+        assertEquals(2, ingestionService.getWindowEvents().size());
+    }
+
+    @Test
+    void testIngest_FailedIncrementalFetch_DeletesNothing() {
+        when(eventSources.fetch(30)).thenReturn(usgs(event("a", 4.0)));
+        ingestionService.ingest();
+
+        when(eventSources.fetch(1)).thenReturn(usgs());
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertTrue(batch.isEmpty());
+        assertEquals(1, ingestionService.getWindowEvents().size());
+    }
+
+    @Test
+    void testIngest_FailedFetch_RetriesInitialLoad() {
+        when(eventSources.fetch(30)).thenReturn(usgs());
+        ingestionService.ingest();
+        ingestionService.ingest();
+
+        verify(eventSources, times(2)).fetch(30);
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void testIngest_AddsNearbyCitiesOnlyToChangedEvents() {
+        List<NearbyCityDTO> ljubljana = List.of(new NearbyCityDTO("Ljubljana", "SI", 284_355, 12.4, "E"));
+        when(gazetteer.nearest(46.0, 14.5)).thenReturn(ljubljana);
+        when(eventSources.fetch(30)).thenReturn(usgs(event("a", 4.0)));
+        IngestionBatch batch = ingestionService.ingest();
+
+        assertEquals(ljubljana, batch.added().getFirst().getNearbyCities());
+
+        when(eventSources.fetch(1)).thenReturn(usgs(event("a", 4.0)));
+        ingestionService.ingest();
+
+        assertEquals(ljubljana, ingestionService.getWindowEvents().getFirst().getNearbyCities());
+        verify(gazetteer, times(1)).nearest(46.0, 14.5);
+    }
+
+    private static SourcedEvents usgs(EarthquakeRecordDTO... events) {
+        for (EarthquakeRecordDTO event : events) event.setSources(List.of("usgs"));
+        return new SourcedEvents(List.of(events), events.length == 0 ? Set.of() : Set.of("usgs"));
+    }
+
+    private static EarthquakeRecordDTO event(String id, double magnitude) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO("Place " + id, new GeoLocationDTO(46.0, 14.5), 10.0);
+        record.setId(id);
+        record.setTime(EVENT_TIME);
+        record.setMagnitude(magnitude);
+        return record;
+    }
+}
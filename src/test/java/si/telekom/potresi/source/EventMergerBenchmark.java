@@ -0,0 +1,56 @@
+package si.telekom.potresi.source;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Space/time-bucketed merge vs. pairwise comparison of reports from three sources.
+ * <p>
+ * Reports are synthetic: a month of global events at the density of the input size, each reported by USGS (80%),
+ * EMSC (60%) and ARSO (10%) with a few seconds and kilometres of disagreement. The pairwise baseline is quadratic;
+ * run it with {@code -p size=10000} only. Run through {@link #main(String[])} on the test classpath after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMergerBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    private Map<String, List<EarthquakeRecordDTO>> reports;
+    private EventMerger merger;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        reports = EventMergerTest.randomReports(size, new Random(3));
+        merger = new EventMerger(EventMergerTest.PRIORITY, EventMergerTest.MATCH_MILLIS, EventMergerTest.MATCH_KM,
+                EventMergerTest.MATCH_MAGNITUDE);
+    }
+
+    @Benchmark
+    public int bucketedMerge() {
+        return merger.merge(reports).size();
+    }
+
+    @Benchmark
+    public int pairwiseMerge() {
+        return EventMergerTest.pairwiseMerge(reports).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventMergerBenchmark.class.getSimpleName() + ".bucketedMerge").build()).run();
+    }
+}
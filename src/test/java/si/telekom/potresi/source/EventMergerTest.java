@@ -0,0 +1,172 @@
+package si.telekom.potresi.source;
+
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.dto.GeoLocationDTO;
+import si.telekom.potresi.query.EventQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventMergerTest {
+
+    static final List<String> PRIORITY = List.of("arso", "usgs", "emsc");
+    static final long MATCH_MILLIS = 30_000;
+    static final double MATCH_KM = 100;
+    static final double MATCH_MAGNITUDE = 1.0;
+
+    private static final Instant T0 = Instant.parse("2024-01-01T07:00:00Z");
+
+    private final EventMerger merger = new EventMerger(PRIORITY, MATCH_MILLIS, MATCH_KM, MATCH_MAGNITUDE);
+
+    @Test
+    void testMergesReportsOfTheSameEventPreferringTrustedSource() {
+        Map<String, List<EarthquakeRecordDTO>> reports = new LinkedHashMap<>();
+        reports.put("emsc", List.of(event("emsc:1", 46.05, 14.43, 4.0, T0.plusMillis(1900))));
+        reports.put("usgs", List.of(event("us1", 46.03, 14.47, 4.1, T0.plusMillis(120)),
+                event("us2", 37.50, 137.27, 7.5, T0.plusSeconds(600))));
+        reports.put("arso", List.of(event("arso:1", 46.02, 14.46, null, T0.plusMillis(800))));
+
+        List<EarthquakeRecordDTO> merged = merger.merge(reports);
+
+        assertEquals(2, merged.size());
+        EarthquakeRecordDTO slovenia = merged.getFirst();
+        assertEquals("arso:1", slovenia.getId());
+        assertEquals(List.of("arso", "usgs", "emsc"), slovenia.getSources());
+        assertEquals(4.1, slovenia.getMagnitude()); // ARSO had none, the next source's is used
+        assertEquals(46.02, slovenia.getLocation().getLatitude());
+        assertEquals(List.of("usgs"), merged.get(1).getSources());
+    }
+
+    @Test
+    void testKeepsEventsApartBeyondLimits() {
+        Map<String, List<EarthquakeRecordDTO>> reports = new LinkedHashMap<>();
+        reports.put("usgs", List.of(event("us1", 46.0, 14.5, 4.0, T0)));
+        reports.put("emsc", List.of(
+                event("emsc:late", 46.0, 14.5, 4.0, T0.plusSeconds(31)),
+                event("emsc:far", 47.0, 14.5, 4.0, T0),
+                event("emsc:larger", 46.0, 14.5, 5.5, T0)));
+
+        assertEquals(4, merger.merge(reports).size());
+    }
+
+    @Test
+    void testMergesAcrossAntimeridianAndNearPoles() {
+        Map<String, List<EarthquakeRecordDTO>> reports = new LinkedHashMap<>();
+        reports.put("usgs", List.of(
+                event("us-fiji", -17.9, 179.95, 5.0, T0),
+                event("us-arctic", 85.0, 10.0, 4.0, T0)));
+        reports.put("emsc", List.of(
+                event("emsc:fiji", -17.9, -179.9, 5.1, T0.plusSeconds(2)),
+                // 5 degrees of longitude at 85° are about 48 km
+                event("emsc:arctic", 85.0, 15.0, 4.2, T0.plusSeconds(3))));
+
+        List<EarthquakeRecordDTO> merged = merger.merge(reports);
+
+        assertEquals(2, merged.size());
+        merged.forEach(record -> assertEquals(List.of("usgs", "emsc"), record.getSources()));
+    }
+
+    @Test
+    void testMatchesPairwiseMergeOnRandomReports() {
+        Map<String, List<EarthquakeRecordDTO>> reports = randomReports(3000, new Random(7));
+
+        List<EarthquakeRecordDTO> expected = pairwiseMerge(reports);
+        List<EarthquakeRecordDTO> actual = merger.merge(reports);
+
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private static List<String> describe(List<EarthquakeRecordDTO> records) {
+        return records.stream().map(r -> r.getId() + r.getSources()).sorted().toList();
+    }
+
+    /**
+     * Reference merge comparing every report with every merged event.
+     */
+    static List<EarthquakeRecordDTO> pairwiseMerge(Map<String, List<EarthquakeRecordDTO>> reports) {
+        List<String> sources = new ArrayList<>(reports.keySet());
+        sources.sort(Comparator.comparingInt(PRIORITY::indexOf));
+        List<EarthquakeRecordDTO> anchors = new ArrayList<>();
+        List<List<String>> sourcesOf = new ArrayList<>();
+
+        for (String source : sources) {
+            for (EarthquakeRecordDTO report : reports.get(source)) {
+                int best = -1;
+                double bestScore = Double.MAX_VALUE;
+                for (int i = 0; i < anchors.size(); i++) {
+                    EarthquakeRecordDTO anchor = anchors.get(i);
+                    long dt = Math.abs(anchor.getTime().toEpochMilli() - report.getTime().toEpochMilli());
+                    double distance = EventQuery.distanceKm(anchor.getLocation().getLatitude(), anchor.getLocation().getLongitude(),
+                            report.getLocation().getLatitude(), report.getLocation().getLongitude());
+                    if (sourcesOf.get(i).contains(source) || dt > MATCH_MILLIS || distance > MATCH_KM
+                            || Math.abs(anchor.getMagnitude() - report.getMagnitude()) > MATCH_MAGNITUDE) continue;
+                    double score = (double) dt / MATCH_MILLIS + distance / MATCH_KM;
+                    if (score < bestScore) {
+                        best = i;
+                        bestScore = score;
+                    }
+                }
+                if (best >= 0) {
+                    sourcesOf.get(best).add(source);
+                } else {
+                    anchors.add(report);
+                    sourcesOf.add(new ArrayList<>(List.of(source)));
+                }
+            }
+        }
+
+        List<EarthquakeRecordDTO> merged = new ArrayList<>(anchors.size());
+        for (int i = 0; i < anchors.size(); i++) {
+            EarthquakeRecordDTO record = new EarthquakeRecordDTO(anchors.get(i));
+            record.setSources(sourcesOf.get(i));
+            merged.add(record);
+        }
+        return merged;
+    }
+
+    /**
+     * Events reported by USGS (80%), EMSC (60%) and ARSO (10%) with a few seconds and kilometres of disagreement,
+     * until the given number of reports is reached; events are dense enough for near misses.
+     */
+    static Map<String, List<EarthquakeRecordDTO>> randomReports(int size, Random random) {
+        Map<String, List<EarthquakeRecordDTO>> reports = new LinkedHashMap<>();
+        String[] sources = {"usgs", "emsc", "arso"};
+        double[] share = {0.8, 0.6, 0.1};
+        for (String source : sources) reports.put(source, new ArrayList<>());
+
+        long span = 30L * 24 * 3600 * 1000;
+        int total = 0;
+        for (int n = 0; total < size; n++) {
+            double latitude = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+            double longitude = random.nextDouble() * 360 - 180;
+            double magnitude = Math.round((1 + random.nextDouble() * 5) * 10) / 10.0;
+            long time = T0.toEpochMilli() - (long) (random.nextDouble() * span * size / 100_000);
+            for (int s = 0; s < sources.length && total < size; s++) {
+                if (random.nextDouble() >= share[s]) continue;
+                reports.get(sources[s]).add(event(sources[s] + ":" + n,
+                        Math.clamp(latitude + random.nextGaussian() * 0.1, -90, 90),
+                        longitude + random.nextGaussian() * 0.1,
+                        Math.round((magnitude + random.nextGaussian() * 0.2) * 10) / 10.0,
+                        Instant.ofEpochMilli(time + (long) (random.nextGaussian() * 3000))));
+                total++;
+            }
+        }
+        return reports;
+    }
+
+    static EarthquakeRecordDTO event(String id, double latitude, double longitude, Double magnitude, Instant time) {
+        EarthquakeRecordDTO record = new EarthquakeRecordDTO("Place " + id, new GeoLocationDTO(latitude, longitude), 10.0);
+        record.setId(id);
+        record.setMagnitude(magnitude);
+        record.setTime(time);
+        return record;
+    }
+}
@@ -0,0 +1,103 @@
+package si.telekom.potresi.source;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import si.telekom.potresi.client.EarthquakeClient;
+import si.telekom.potresi.config.EarthquakeApiConfig;
+import si.telekom.potresi.config.HedgingConfig;
+import si.telekom.potresi.config.SourcesConfig;
+import si.telekom.potresi.config.TracingConfig;
+import si.telekom.potresi.dto.EarthquakeRecordDTO;
+import si.telekom.potresi.hedge.HedgedRequests;
+import si.telekom.potresi.tracing.Tracer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * All three sources against local stubs of their services (src/test/resources/sources).
+ */
+class EventSourcesTest {
+
+    private MockRestServiceServer server;
+    private EventSources eventSources;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        HedgedRequests hedging = new HedgedRequests(new HedgingConfig(), new SimpleMeterRegistry());
+
+        EarthquakeApiConfig apiConfig = new EarthquakeApiConfig();
+        apiConfig.setBaseUrl("https://usgs.test/feed/");
+        apiConfig.setFeed(Map.of("daily", "all_day.geojson"));
+        EarthquakeClient earthquakeClient = new EarthquakeClient(restTemplate, apiConfig, new Tracer(new TracingConfig()), hedging);
+
+        SourcesConfig config = new SourcesConfig();
+        config.setEmscBaseUrl("https://emsc.test/fdsnws/event/1/query");
+        config.setArsoEnabled(true);
+        config.setArsoBaseUrl("https://arso.test/fdsnws/event/1/query");
+
+        eventSources = new EventSources(List.of(new UsgsEventSource(earthquakeClient),
+                new EmscEventSource(restTemplate, config, hedging),
+                new ArsoEventSource(restTemplate, config, hedging)), config);
+    }
+
+    @Test
+    void testFetchesAllSourcesAndMergesDuplicates() throws Exception {
+        server.expect(requestTo("https://usgs.test/feed/all_day.geojson"))
+                .andRespond(withSuccess(stub("usgs_all_day.geojson"), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(startsWith("https://emsc.test/fdsnws/event/1/query?format=text&starttime=")))
+                .andRespond(withSuccess(stub("emsc_query.txt"), MediaType.TEXT_PLAIN));
+        server.expect(requestTo(startsWith("https://arso.test/fdsnws/event/1/query?format=text&starttime=")))
+                .andRespond(withSuccess(stub("arso_query.txt"), MediaType.TEXT_PLAIN));
+
+        SourcedEvents fetched = eventSources.fetch(1);
+
+        server.verify();
+        assertEquals(Set.of("usgs", "emsc", "arso"), fetched.answered());
+        assertEquals(List.of("arso:2024p0001[arso, usgs, emsc]", "arso:2024p0002[arso]", "emsc:20240101_0000012[emsc]",
+                "nc73960001[usgs]", "us6000m0xl[usgs, emsc]"), fetched.events().stream()
+                .map(r -> r.getId() + r.getSources()).sorted().toList());
+
+        EarthquakeRecordDTO ljubljana = fetched.events().stream()
+                .filter(r -> r.getId().equals("arso:2024p0001")).findFirst().orElseThrow();
+        assertEquals(Instant.parse("2024-01-01T07:00:00.800Z"), ljubljana.getTime());
+        assertEquals(4.2, ljubljana.getMagnitude());
+        assertEquals("Brezovica pri Ljubljani", ljubljana.getNearestPlace());
+    }
+
+    @Test
+    void testSourceWithoutEventsDoesNotAnswer() throws Exception {
+        server.expect(requestTo("https://usgs.test/feed/all_day.geojson"))
+                .andRespond(withSuccess(stub("usgs_all_day.geojson"), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(startsWith("https://emsc.test/")))
+                .andRespond(withSuccess(stub("emsc_query.txt"), MediaType.TEXT_PLAIN));
+        // FDSN services answer 204 when nothing matches
+        server.expect(requestTo(startsWith("https://arso.test/"))).andRespond(withStatus(HttpStatus.NO_CONTENT));
+
+        SourcedEvents fetched = eventSources.fetch(1);
+
+        assertEquals(Set.of("usgs", "emsc"), fetched.answered());
+        assertEquals(4, fetched.events().size());
+    }
+
+    private static String stub(String name) throws Exception {
+        return new ClassPathResource("sources/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
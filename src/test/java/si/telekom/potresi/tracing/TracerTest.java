@@ -0,0 +1,131 @@
+package si.telekom.potresi.tracing;
+
+import org.junit.jupiter.api.Test;
+import si.telekom.potresi.config.TracingConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    @Test
+    void testTrace_RecordsNestedSpans() {
+        Tracer tracer = tracer(1.0, 8);
+
+        try (Span root = tracer.startTrace("GET /potresi/zadnji")) {
+            try (Span service = tracer.startSpan("service")) {
+                try (Span fetch = tracer.startSpan("fetch").tag("feed", "hourly")) {
+                    assertSame(fetch, tracer.currentSpan());
+                }
+                tracer.event("retry.wait", Duration.ofMillis(5), Map.of("attempt", "1"));
+                assertSame(service, tracer.currentSpan());
+            }
+            assertSame(root, tracer.currentSpan());
+        }
+
+        assertFalse(tracer.currentSpan().isSampled());
+        TraceRecord trace = tracer.recent(1).getFirst();
+        assertEquals("GET /potresi/zadnji", trace.name());
+        assertEquals(List.of("GET /potresi/zadnji", "service", "fetch", "retry.wait"),
+                trace.spans().stream().map(SpanRecord::name).toList());
+
+        SpanRecord root = trace.spans().getFirst();
+        SpanRecord service = trace.spans().get(1);
+        SpanRecord fetch = trace.spans().get(2);
+        SpanRecord wait = trace.spans().get(3);
+        assertNull(root.parentId());
+        assertEquals(root.id(), service.parentId());
+        assertEquals(service.id(), fetch.parentId());
+        assertEquals(service.id(), wait.parentId());
+        assertEquals("hourly", fetch.tags().get("feed"));
+        assertEquals(5_000, wait.durationMicros());
+    }
+
+    @Test
+    void testTrace_NotSampledIsNoop() {
+        Tracer tracer = tracer(0.0, 8);
+
+        try (Span root = tracer.startTrace("GET /potresi/zadnji");
+             Span child = tracer.startSpan("service")) {
+            assertSame(Span.NOOP, root);
+            assertSame(Span.NOOP, child);
+        }
+
+        assertEquals(0, tracer.getRecorded());
+        assertTrue(tracer.recent(10).isEmpty());
+    }
+
+    @Test
+    void testTrace_SpansFromOtherThreads() throws Exception {
+        Tracer tracer = tracer(1.0, 8);
+
+        try (Span root = tracer.startTrace("parallel");
+             ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2; i++) {
+                int feed = i;
+                executor.submit(() -> {
+                    try (Span span = tracer.startSpan(root, "feed").tag("feed", feed)) {
+                        tracer.startSpan("parse").close();
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        TraceRecord trace = tracer.recent(1).getFirst();
+        assertEquals(5, trace.spans().size());
+        assertEquals(2, trace.spans().stream().filter(s -> s.name().equals("parse")).count());
+    }
+
+    @Test
+    void testTrace_OpenSpansAreCutOffAtRootEnd() {
+        Tracer tracer = tracer(1.0, 8);
+
+        Span root = tracer.startTrace("request");
+        Span dangling = tracer.startSpan(root, "cancelled-fetch");
+        root.close();
+        dangling.close();
+
+        TraceRecord trace = tracer.recent(1).getFirst();
+        assertEquals("true", trace.spans().stream()
+                .filter(s -> s.name().equals("cancelled-fetch")).findFirst().orElseThrow().tags().get("unfinished"));
+    }
+
+    @Test
+    void testRingBuffer_KeepsNewestAndReportsSlowest() throws Exception {
+        Tracer tracer = tracer(1.0, 4);
+
+        for (int i = 0; i < 10; i++) {
+            try (Span root = tracer.startTrace("request-" + i)) {
+                if (i == 7) Thread.sleep(20);
+            }
+        }
+
+        assertEquals(10, tracer.getRecorded());
+        assertEquals(4, tracer.getCapacity());
+        assertEquals(List.of("request-9", "request-8", "request-7", "request-6"),
+                tracer.recent(10).stream().map(TraceRecord::name).toList());
+        assertEquals("request-7", tracer.slowest(1).getFirst().name());
+    }
+
+    @Test
+    void testRingBuffer_CapacityRoundedToPowerOfTwo() {
+        assertEquals(1, new TraceBuffer(1).capacity());
+        assertEquals(8, new TraceBuffer(5).capacity());
+        assertEquals(256, new TraceBuffer(256).capacity());
+    }
+
+    private static Tracer tracer(double sampleRate, int bufferSize) {
+        TracingConfig config = new TracingConfig();
+        config.setSampleRate(sampleRate);
+        config.setBufferSize(bufferSize);
+        return new Tracer(config);
+    }
+}
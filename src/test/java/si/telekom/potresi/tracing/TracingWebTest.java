@@ -0,0 +1,98 @@
+package si.telekom.potresi.tracing;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "earthquake.tracing.sample-rate=1")
+@AutoConfigureMockMvc
+class TracingWebTest {
+
+    private static final String FEED = """
+            {
+              "features": [
+                {
+                  "id": "us1",
+                  "properties": { "mag": 5.2, "place": "Traced", "time": 1700000000000 },
+                  "geometry": { "coordinates": [14.5, 46.0, 10] }
+                }
+              ]
+            }""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void resetCircuitBreaker() {
+        circuitBreakerRegistry.circuitBreaker("earthquakeApi").reset();
+    }
+
+    @Test
+    void testRequest_TracedFromControllerToClient() throws Exception {
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(FEED);
+
+        mockMvc.perform(get("/potresi/zadnji")).andExpect(status().isOk());
+
+        TraceRecord trace = tracer.recent(1).getFirst();
+        List<String> spans = trace.spans().stream().map(SpanRecord::name).toList();
+        assertEquals("GET /potresi/zadnji", trace.name());
+        assertTrue(spans.containsAll(List.of(
+                "EarthquakeController.getMostRecentEarthquakeWithWeather",
+                "EarthquakeService.getLastEarthquakeWithWeather",
+                "EarthquakeClient.getMostRecentEarthquake",
+                "earthquake.feed", "earthquake.fetch", "earthquake.parse",
+                "serialize")), spans.toString());
+        assertEquals("200", trace.spans().getFirst().tags().get("status"));
+    }
+
+    @Test
+    void testRequest_RetryWaitIsRecorded() throws Exception {
+        when(restTemplate.getForObject(anyString(), eq(String.class)))
+                .thenThrow(new RuntimeException("Simulated failure"))
+                .thenReturn(FEED);
+
+        mockMvc.perform(get("/potresi/rekordi/tedenski")).andExpect(status().isOk());
+
+        TraceRecord trace = tracer.recent(1).getFirst();
+        assertEquals(2, trace.spans().stream().filter(s -> s.name().equals("EarthquakeClient.getWorstEarthquakeInPeriod")).count());
+        SpanRecord wait = trace.spans().stream().filter(s -> s.name().equals("retry.wait")).findFirst().orElseThrow();
+        assertEquals("earthquakeApi", wait.tags().get("retry"));
+    }
+
+    @Test
+    void testTracesEndpoint() throws Exception {
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(FEED);
+        mockMvc.perform(get("/potresi/zadnji")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/metrics/traces").param("recent", "1").param("slowest", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sampleRate").value(1.0))
+                .andExpect(jsonPath("$.recent.length()").value(1))
+                .andExpect(jsonPath("$.recent[0].name").value("GET /potresi/zadnji"))
+                .andExpect(jsonPath("$.slowest.length()").value(1));
+    }
+}